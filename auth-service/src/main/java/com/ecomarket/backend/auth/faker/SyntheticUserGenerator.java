@@ -0,0 +1,187 @@
+package com.ecomarket.backend.auth.faker;
+
+import com.ecomarket.backend.auth.model.Role;
+import com.ecomarket.backend.auth.repository.RoleRepository;
+import lombok.extern.slf4j.Slf4j;
+import net.datafaker.Faker;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Generador de usuarios sintéticos a escala, cada uno con {@code addresses-per-user} direcciones.
+ * <p>
+ * Es determinista por bloque (semilla, tabla, número de bloque) y escribe con batches JDBC en
+ * paralelo. Sobre una base vacía los usuarios quedan con ids 1..users y las direcciones del
+ * usuario u con ids (u-1)*k+1..u*k, que es lo que asumen cart-order y catalog al generar
+ * órdenes y reseñas con la misma configuración. Todos comparten una contraseña, hasheada una sola vez.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "synthetic.data.enabled", havingValue = "true")
+public class SyntheticUserGenerator implements CommandLineRunner {
+
+    private static final String INSERT_USER = "INSERT INTO users " +
+            "(id, first_name, last_name, email, password_hash, role_id, status, created_at, last_login) " +
+            "VALUES (?, ?, ?, ?, ?, ?, 'ACTIVE', ?, ?)";
+    private static final String INSERT_ADDRESS = "INSERT INTO addresses (id, street, number, commune, postal_code, user_id) " +
+            "VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final RoleRepository roleRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final long seed;
+    private final int threads;
+    private final int chunkSize;
+    private final int users;
+    private final int addressesPerUser;
+    private final String password;
+
+    public SyntheticUserGenerator(JdbcTemplate jdbcTemplate,
+                                  TransactionTemplate transactionTemplate,
+                                  RoleRepository roleRepository,
+                                  PasswordEncoder passwordEncoder,
+                                  @Value("${synthetic.data.seed:42}") long seed,
+                                  @Value("${synthetic.data.threads:4}") int threads,
+                                  @Value("${synthetic.data.chunk-size:5000}") int chunkSize,
+                                  @Value("${synthetic.data.users:200000}") int users,
+                                  @Value("${synthetic.data.addresses-per-user:2}") int addressesPerUser,
+                                  @Value("${synthetic.data.password:Synthetic123!}") String password) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.roleRepository = roleRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.seed = seed;
+        this.threads = threads;
+        this.chunkSize = chunkSize;
+        this.users = users;
+        this.addressesPerUser = addressesPerUser;
+        this.password = password;
+    }
+
+    @Override
+    public void run(String... args) {
+        Integer existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users WHERE email = ?",
+                Integer.class, email(0));
+        if (existing != null && existing > 0) {
+            log.info("Usuarios sintéticos con semilla {} ya generados, se omite", seed);
+            return;
+        }
+        generate();
+    }
+
+    public void generate() {
+        long start = System.nanoTime();
+        log.info("Generando {} usuarios sintéticos con {} direcciones cada uno (semilla {}, {} hilos)",
+                users, addressesPerUser, seed, threads);
+
+        Role role = roleRepository.findByRoleName("CLIENT")
+                .orElseGet(() -> roleRepository.save(Role.builder().roleName("CLIENT").description("Cliente").build()));
+        String passwordHash = passwordEncoder.encode(password);
+        LocalDateTime now = LocalDateTime.now();
+
+        long userBase = nextId("users");
+        writeChunks("users", users, (from, to, random) -> {
+            Faker faker = faker(random);
+            List<Object[]> rows = new ArrayList<>();
+            for (long i = from; i < to; i++) {
+                Timestamp created = Timestamp.valueOf(now.minusMinutes(random.nextInt(3 * 365 * 24 * 60)));
+                rows.add(new Object[]{userBase + i, faker.name().firstName(), faker.name().lastName(), email(i),
+                        passwordHash, role.getId(), created, created});
+            }
+            jdbcTemplate.batchUpdate(INSERT_USER, rows);
+        });
+        restartIdentity("users", userBase + users);
+
+        long addressBase = nextId("addresses");
+        writeChunks("addresses", users, (from, to, random) -> {
+            Faker faker = faker(random);
+            List<Object[]> rows = new ArrayList<>();
+            for (long i = from; i < to; i++) {
+                for (int j = 0; j < addressesPerUser; j++) {
+                    rows.add(new Object[]{addressBase + i * addressesPerUser + j, faker.address().streetName(),
+                            faker.address().buildingNumber(), faker.address().city(), faker.address().zipCode(),
+                            userBase + i});
+                }
+            }
+            jdbcTemplate.batchUpdate(INSERT_ADDRESS, rows);
+        });
+        restartIdentity("addresses", addressBase + (long) users * addressesPerUser);
+
+        log.info("Usuarios sintéticos generados en {} ms", (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private String email(long index) {
+        return "user" + (index + 1) + ".s" + seed + "@synthetic.ecomarket.cl";
+    }
+
+    private static Faker faker(SplittableRandom random) {
+        return new Faker(new Random(random.nextLong()));
+    }
+
+    private long nextId(String table) {
+        Long max = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+        return max == null ? 1 : max + 1;
+    }
+
+    // Columnas IDENTITY (Hibernate 6) admiten RESTART; las creadas como serial usan su secuencia
+    private void restartIdentity(String table, long next) {
+        try {
+            jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH " + next);
+        } catch (DataAccessException ex) {
+            jdbcTemplate.queryForObject("SELECT setval(pg_get_serial_sequence(?, 'id'), ?)", Long.class, table, next - 1);
+        }
+    }
+
+    /**
+     * Reparte [0, total) en bloques de {@code chunkSize} y escribe cada uno en su propia transacción,
+     * con hasta {@code threads} bloques en paralelo.
+     */
+    private void writeChunks(String table, long total, ChunkWriter writer) {
+        long start = System.nanoTime();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> pending = new ArrayList<>();
+            for (long from = 0, chunk = 0; from < total; from += chunkSize, chunk++) {
+                long chunkFrom = from;
+                long chunkTo = Math.min(from + chunkSize, total);
+                SplittableRandom random = new SplittableRandom(seed ^ (table.hashCode() * 0x9E3779B97F4A7C15L) ^ (chunk * 0xC2B2AE3D27D4EB4FL));
+                pending.add(executor.submit(() -> transactionTemplate.executeWithoutResult(
+                        status -> writer.write(chunkFrom, chunkTo, random))));
+            }
+            for (Future<?> future : pending) {
+                future.get();
+            }
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("Synthetic data generation failed for " + table, ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Synthetic data generation interrupted for " + table, ex);
+        } finally {
+            executor.shutdownNow();
+        }
+        log.info("Tabla {}: {} filas en {} ms", table, total, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @FunctionalInterface
+    private interface ChunkWriter {
+        void write(long from, long to, SplittableRandom random);
+    }
+}
@@ -0,0 +1,89 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generador de carga de lazo cerrado para el benchmark de checkout: {@code concurrencia} clientes
+ * envían el mismo POST una y otra vez durante {@code segundos} y al final se imprime el throughput,
+ * los percentiles de latencia y el conteo por código de estado.
+ *
+ * Uso: java benchmarks/CheckoutLoad.java url payload.json concurrencia segundos
+ */
+public class CheckoutLoad {
+
+    public static void main(String[] args) throws Exception {
+        URI uri = URI.create(args[0]);
+        String payload = Files.readString(Path.of(args[1]));
+        int concurrency = Integer.parseInt(args[2]);
+        Duration duration = Duration.ofSeconds(Long.parseLong(args[3]));
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(payload))
+                .build();
+
+        Map<String, AtomicLong> statuses = new ConcurrentHashMap<>();
+        List<List<Long>> latencies = new ArrayList<>();
+        long deadline = System.nanoTime() + duration.toNanos();
+        long start = System.nanoTime();
+
+        try (var clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                List<Long> own = new ArrayList<>();
+                latencies.add(own);
+                clients.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        long sent = System.nanoTime();
+                        String status;
+                        try {
+                            status = String.valueOf(client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode());
+                        } catch (Exception e) {
+                            status = e.getClass().getSimpleName();
+                        }
+                        own.add(System.nanoTime() - sent);
+                        statuses.computeIfAbsent(status, s -> new AtomicLong()).incrementAndGet();
+                    }
+                    return null;
+                });
+            }
+        }
+
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+        List<Long> all = new ArrayList<>();
+        latencies.forEach(all::addAll);
+        Collections.sort(all);
+
+        System.out.printf("requests=%d elapsed=%.1fs throughput=%.1f req/s%n", all.size(), elapsedSeconds, all.size() / elapsedSeconds);
+        for (double percentile : new double[] {0.50, 0.95, 0.99}) {
+            System.out.printf("p%d=%.1f ms%n", Math.round(percentile * 100), percentileMillis(all, percentile));
+        }
+        System.out.printf("max=%.1f ms%n", all.isEmpty() ? 0 : all.get(all.size() - 1) / 1e6);
+        new TreeMap<>(statuses).forEach((status, count) -> System.out.println("status " + status + "=" + count));
+    }
+
+    private static double percentileMillis(List<Long> sorted, double percentile) {
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.size()) - 1;
+        return sorted.get(Math.max(index, 0)) / 1e6;
+    }
+}
@@ -0,0 +1,77 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Catalog y payment simulados para el benchmark de checkout: responden lo mínimo que usa
+ * cart-order-service tras una latencia fija ({@code STUB_LATENCY_MS}, 20 ms por defecto), como
+ * una llamada remota. Atienden cada petición en un hilo virtual para no ser ellos el cuello de botella.
+ *
+ * Uso: java benchmarks/CheckoutStubs.java [puerto] (8090 por defecto)
+ */
+public class CheckoutStubs {
+
+    private static final AtomicLong TRANSACTION_IDS = new AtomicLong();
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8090;
+        long latencyMillis = Long.parseLong(System.getenv().getOrDefault("STUB_LATENCY_MS", "20"));
+
+        HttpServer server = HttpServer.create(new InetSocketAddress(port), 4096);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/api/v1/products/", exchange -> respond(exchange, latencyMillis, product(lastSegment(exchange))));
+        server.createContext("/api/v1/inventory/", exchange -> respond(exchange, latencyMillis, inventory(exchange)));
+        server.createContext("/api/v1/transactions", exchange -> respond(exchange, latencyMillis, transaction()));
+        server.start();
+        System.out.println("Stubs de catalog y payment en http://localhost:" + port + "/api/v1 (latencia " + latencyMillis + " ms)");
+    }
+
+    private static String product(long productId) {
+        return """
+                {"id":%d,"name":"Producto %d","description":"Benchmark","price":1990.00,"sku":"BENCH-%d","status":"ACTIVE"}"""
+                .formatted(productId, productId, productId);
+    }
+
+    private static String inventory(HttpExchange exchange) {
+        // GET /inventory/{id} y POST /inventory/{id}/operation devuelven el mismo cuerpo
+        String[] segments = exchange.getRequestURI().getPath().split("/");
+        long productId = Long.parseLong(segments[4]);
+        return """
+                {"id":%d,"productId":%d,"availableQuantity":1000000,"lastUpdate":"%s"}"""
+                .formatted(productId, productId, LocalDateTime.now());
+    }
+
+    private static String transaction() {
+        return """
+                {"transactionId":%d,"transactionStatus":"APPROVED","currency":"CLP","transactionDate":"%s"}"""
+                .formatted(TRANSACTION_IDS.incrementAndGet(), LocalDateTime.now());
+    }
+
+    private static long lastSegment(HttpExchange exchange) {
+        String path = exchange.getRequestURI().getPath();
+        return Long.parseLong(path.substring(path.lastIndexOf('/') + 1));
+    }
+
+    private static void respond(HttpExchange exchange, long latencyMillis, String body) throws IOException {
+        try (exchange; InputStream in = exchange.getRequestBody()) {
+            in.readAllBytes();
+            Thread.sleep(latencyMillis);
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,105 @@
+#!/usr/bin/env bash
+# Compara checkouts concurrentes (POST /api/v1/orders) de cart-order-service con hilos de
+# plataforma y con hilos virtuales, usando el mismo heap en ambas corridas.
+#
+# Por defecto no necesita servicios externos: catalog y payment se simulan con
+# CheckoutStubs.java (latencia STUB_LATENCY_MS por llamada) y la base es H2 en memoria con el
+# usuario de order-request.json (checkout-seed.sql). Con STUBS=false y DB_URL/DB_USER/DB_PASSWORD
+# se mide contra los servicios y la base reales.
+#
+# Requisitos: Java 21+ y curl.
+#
+# Uso: ./benchmarks/checkout-benchmark.sh
+# Variables: HEAP (512m), CONCURRENCY (200), DURATION (60, segundos), PIPELINE (blocking|reactive),
+#            POOL_SIZE (10), STUB_LATENCY_MS (20)
+set -euo pipefail
+
+ROOT_DIR="$(cd "$(dirname "$0")/.." && pwd)"
+HEAP="${HEAP:-512m}"
+CONCURRENCY="${CONCURRENCY:-200}"
+DURATION="${DURATION:-60}"
+PIPELINE="${PIPELINE:-blocking}"
+POOL_SIZE="${POOL_SIZE:-10}"
+PORT="${PORT:-8081}"
+STUBS="${STUBS:-true}"
+STUB_PORT="${STUB_PORT:-8090}"
+export STUB_LATENCY_MS="${STUB_LATENCY_MS:-20}"
+PAYLOAD="${PAYLOAD:-$ROOT_DIR/benchmarks/order-request.json}"
+RESULTS_DIR="$ROOT_DIR/benchmarks/results"
+
+JAR="$(ls "$ROOT_DIR"/cart-order-service/target/cart-order-service-*.jar 2>/dev/null | head -n 1 || true)"
+if [[ -z "$JAR" ]]; then
+  (cd "$ROOT_DIR" && ./mvnw -q -pl cart-order-service -am package -DskipTests)
+  JAR="$(ls "$ROOT_DIR"/cart-order-service/target/cart-order-service-*.jar | head -n 1)"
+fi
+mkdir -p "$RESULTS_DIR"
+
+APP_ARGS=(--server.port="$PORT" --spring.datasource.hikari.maximum-pool-size="$POOL_SIZE")
+LAUNCH=(-jar "$JAR")
+if [[ "$STUBS" == "true" ]]; then
+  H2_JAR="$(ls "${HOME}"/.m2/repository/com/h2database/h2/*/h2-*.jar 2>/dev/null | tail -n 1 || true)"
+  if [[ -z "$H2_JAR" ]]; then
+    (cd "$ROOT_DIR" && ./mvnw -q dependency:get -Dartifact=com.h2database:h2:2.3.232)
+    H2_JAR="$(ls "${HOME}"/.m2/repository/com/h2database/h2/*/h2-*.jar | tail -n 1)"
+  fi
+  # H2 solo esta en el classpath de test: se agrega al jar con el PropertiesLauncher de Spring Boot
+  LAUNCH=(-Dloader.path="$H2_JAR" -cp "$JAR" org.springframework.boot.loader.launch.PropertiesLauncher)
+  APP_ARGS+=(
+    --spring.datasource.url="jdbc:h2:mem:checkout;MODE=PostgreSQL;DB_CLOSE_DELAY=-1"
+    --spring.datasource.username=sa --spring.datasource.password=
+    --spring.jpa.hibernate.ddl-auto=create --spring.jpa.show-sql=false
+    --spring.sql.init.mode=always --spring.sql.init.schema-locations="file:$ROOT_DIR/benchmarks/checkout-seed.sql"
+    --product.service.base-url="http://localhost:$STUB_PORT/api/v1"
+    --payment.service.base-url="http://localhost:$STUB_PORT/api/v1"
+    --product.service.change-feed.enabled=false
+  )
+  java "$ROOT_DIR/benchmarks/CheckoutStubs.java" "$STUB_PORT" > "$RESULTS_DIR/stubs.log" 2>&1 &
+  STUBS_PID=$!
+  trap 'kill $STUBS_PID 2>/dev/null || true' EXIT
+elif [[ -n "${DB_URL:-}" ]]; then
+  APP_ARGS+=(--spring.datasource.url="$DB_URL" --spring.datasource.username="${DB_USER:-}" --spring.datasource.password="${DB_PASSWORD:-}")
+fi
+# El bulkhead por defecto (20 llamadas, sin espera) rechazaria la mayor parte de la carga con 503
+APP_ARGS+=(--resilience.bulkhead.max-concurrent-calls="$((CONCURRENCY * 2))")
+
+load() {
+  java "$ROOT_DIR/benchmarks/CheckoutLoad.java" "http://localhost:$PORT/api/v1/orders" "$PAYLOAD" "$1" "$2"
+}
+
+run_mode() {
+  local mode="$1" virtual="$2"
+  local out="$RESULTS_DIR/checkout-$mode-$PIPELINE.txt"
+
+  java -Xms"$HEAP" -Xmx"$HEAP" "${LAUNCH[@]}" "${APP_ARGS[@]}" \
+    --spring.threads.virtual.enabled="$virtual" \
+    --order.pipeline.mode="$PIPELINE" > "$RESULTS_DIR/app-$mode.log" 2>&1 &
+  local pid=$!
+  trap 'kill $pid 2>/dev/null || true' RETURN
+
+  until curl -s -o /dev/null "http://localhost:$PORT/api/v1/orders"; do sleep 1; done
+
+  # Calentamiento del JIT y del pool de conexiones
+  load 20 10 > /dev/null
+
+  (
+    while kill -0 "$pid" 2>/dev/null; do
+      jcmd "$pid" Thread.print 2>/dev/null | grep -c '^"' || true
+      sleep 1
+    done
+  ) > "$RESULTS_DIR/threads-$mode.txt" &
+  local sampler=$!
+
+  {
+    echo "mode=$mode pipeline=$PIPELINE heap=$HEAP concurrency=$CONCURRENCY duration=${DURATION}s pool=$POOL_SIZE"
+    load "$CONCURRENCY" "$DURATION"
+  } > "$out"
+
+  kill "$sampler" 2>/dev/null || true
+  echo "peak_platform_threads=$(sort -n "$RESULTS_DIR/threads-$mode.txt" | tail -n 1)" >> "$out"
+  kill "$pid"
+  wait "$pid" 2>/dev/null || true
+  echo "Resultados de $mode en $out"
+}
+
+run_mode platform false
+run_mode virtual true
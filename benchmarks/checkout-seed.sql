@@ -0,0 +1,15 @@
+-- Usuario y direccion de order-request.json para correr el benchmark sobre H2 (las tablas
+-- pertenecen a auth-service y cart-order-service solo las lee por JDBC)
+CREATE TABLE IF NOT EXISTS users (
+    id BIGINT PRIMARY KEY,
+    first_name VARCHAR(100),
+    last_name VARCHAR(100),
+    email VARCHAR(255),
+    status VARCHAR(20)
+);
+CREATE TABLE IF NOT EXISTS addresses (
+    id BIGINT PRIMARY KEY,
+    user_id BIGINT NOT NULL
+);
+MERGE INTO users KEY (id) VALUES (1, 'Bench', 'User', 'bench@ecomarket.cl', 'ACTIVE');
+MERGE INTO addresses KEY (id) VALUES (1, 1);
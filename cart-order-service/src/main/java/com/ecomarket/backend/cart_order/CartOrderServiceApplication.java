@@ -2,8 +2,10 @@ package com.ecomarket.backend.cart_order;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class CartOrderServiceApplication {
 
 	public static void main(String[] args) {
@@ -10,4 +10,9 @@ import lombok.NoArgsConstructor;
 public class InventoryOperationRequestDTO {
     private String operationType; // Ej: "RESERVE", "RELEASE"
     private int quantity;
+    private String idempotencyKey; // Opcional: catalog no repite una operación ya aplicada con la misma clave
+
+    public InventoryOperationRequestDTO(String operationType, int quantity) {
+        this(operationType, quantity, null);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,13 @@
+package com.ecomarket.backend.cart_order.DTO.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockLeaseRequestDTO {
+    private int quantity;
+    private String holder; // Identificador de este nodo
+}
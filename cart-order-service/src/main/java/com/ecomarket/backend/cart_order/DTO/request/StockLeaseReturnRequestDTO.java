@@ -0,0 +1,12 @@
+package com.ecomarket.backend.cart_order.DTO.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockLeaseReturnRequestDTO {
+    private int unusedQuantity;
+}
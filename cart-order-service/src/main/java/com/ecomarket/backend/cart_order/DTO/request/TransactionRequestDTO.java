@@ -17,4 +17,5 @@ public class TransactionRequestDTO {
     private BigDecimal amount;
     private String currency;
     private String paymentMethod;
+    private String idempotencyKey; // Opcional: payment devuelve el cobro ya hecho con la misma clave
 }
@@ -0,0 +1,24 @@
+package com.ecomarket.backend.cart_order.DTO.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogChangeDTO {
+    private Long id;
+    private String type;
+    private Long productId;
+    private Long productVersion;
+    private BigDecimal price;
+    private String status;
+    private Integer availableQuantity;
+    private LocalDateTime createdAt;
+}
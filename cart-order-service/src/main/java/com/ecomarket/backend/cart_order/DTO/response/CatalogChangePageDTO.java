@@ -0,0 +1,18 @@
+package com.ecomarket.backend.cart_order.DTO.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogChangePageDTO {
+    private List<CatalogChangeDTO> changes;
+    private long lastId;
+    private boolean hasMore;
+}
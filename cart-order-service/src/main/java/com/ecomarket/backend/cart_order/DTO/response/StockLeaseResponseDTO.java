@@ -0,0 +1,21 @@
+package com.ecomarket.backend.cart_order.DTO.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockLeaseResponseDTO {
+    private Long leaseId;
+    private Long productId;
+    private int grantedQuantity;
+    private String status;
+    private LocalDateTime grantedAt;
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,28 @@
+package com.ecomarket.backend.cart_order.assembler;
+
+import com.ecomarket.backend.cart_order.DTO.response.OrderIntakeResponseDTO;
+import com.ecomarket.backend.cart_order.controller.OrderController;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.server.RepresentationModelAssembler;
+import org.springframework.stereotype.Component;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+@Component
+public class OrderIntakeAssembler implements RepresentationModelAssembler<OrderIntakeResponseDTO, EntityModel<OrderIntakeResponseDTO>> {
+
+    @Override
+    public EntityModel<OrderIntakeResponseDTO> toModel(OrderIntakeResponseDTO intake) {
+        EntityModel<OrderIntakeResponseDTO> intakeModel = EntityModel.of(intake,
+                linkTo(methodOn(OrderController.class).getIntakeStatus(intake.getIntakeId())).withSelfRel(),
+                linkTo(methodOn(OrderController.class).streamIntakeStatus(intake.getIntakeId())).withRel("events")
+        );
+
+        if (intake.getOrderId() != null) {
+            intakeModel.add(linkTo(methodOn(OrderController.class).getOrderById(intake.getOrderId())).withRel("order"));
+        }
+
+        return intakeModel;
+    }
+}
@@ -0,0 +1,107 @@
+package com.ecomarket.backend.cart_order.client;
+
+import com.ecomarket.backend.cart_order.DTO.response.CatalogChangeDTO;
+import com.ecomarket.backend.cart_order.DTO.response.CatalogChangePageDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.LongConsumer;
+
+/**
+ * Sigue el registro de cambios de catalog por sondeo ({@code GET /catalog/changes?after=}) y avisa
+ * de cada producto modificado.
+ * <p>
+ * Mientras el sondeo esté al día (último éxito hace menos de {@code max-staleness}), las respuestas
+ * validadas desde que empezó ese periodo pueden servirse sin preguntar a catalog: cualquier cambio
+ * posterior llegará por aquí y las invalidará. Si el feed se corta, todo vuelve a revalidarse con ETag.
+ */
+@Slf4j
+@Component
+public class CatalogChangeFeed {
+
+    private final RestTemplate restTemplate;
+    private final String changesUrl;
+    private final boolean enabled;
+    private final int batchSize;
+    private final Duration maxStaleness;
+    private final List<LongConsumer> productListeners = new CopyOnWriteArrayList<>();
+
+    private volatile Long cursor;
+    private volatile long lastSuccessNanos;
+    private volatile long healthySinceNanos = Long.MAX_VALUE;
+
+    public CatalogChangeFeed(RestTemplate restTemplate,
+                             @Value("${product.service.base-url}") String productServiceBaseUrl,
+                             @Value("${product.service.change-feed.path:/catalog/changes}") String changesPath,
+                             @Value("${product.service.change-feed.enabled:true}") boolean enabled,
+                             @Value("${product.service.change-feed.batch-size:500}") int batchSize,
+                             @Value("${product.service.change-feed.max-staleness:10s}") Duration maxStaleness) {
+        this.restTemplate = restTemplate;
+        this.changesUrl = productServiceBaseUrl + changesPath;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.maxStaleness = maxStaleness;
+    }
+
+    void onProductChange(LongConsumer listener) {
+        productListeners.add(listener);
+    }
+
+    @Scheduled(fixedDelayString = "${product.service.change-feed.poll-interval-ms:1000}")
+    public void poll() {
+        if (!enabled) {
+            return;
+        }
+        long started = System.nanoTime();
+        boolean wasTrusted = trustedSinceNanos() != Long.MAX_VALUE;
+        try {
+            CatalogChangePageDTO page;
+            do {
+                // Sin cursor catalog devuelve sólo la posición actual: se sigue desde ahora
+                String url = cursor == null ? changesUrl : changesUrl + "?after=" + cursor + "&limit=" + batchSize;
+                page = restTemplate.getForObject(url, CatalogChangePageDTO.class);
+                if (page == null) {
+                    return;
+                }
+                for (CatalogChangeDTO change : page.getChanges()) {
+                    if (!"INVENTORY_UPDATED".equals(change.getType())) {
+                        productListeners.forEach(listener -> listener.accept(change.getProductId()));
+                    }
+                }
+                cursor = page.getLastId();
+            } while (page.isHasMore());
+
+            if (!wasTrusted) {
+                healthySinceNanos = started;
+            }
+            lastSuccessNanos = System.nanoTime();
+        } catch (RestClientException ex) {
+            if (wasTrusted) {
+                log.warn("No se pudo leer el feed de cambios de catalog, se vuelve a revalidar: {}", ex.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Instante (System.nanoTime) desde el que una respuesta validada puede servirse sin revalidar;
+     * {@code Long.MAX_VALUE} si el feed está desactivado o atrasado.
+     */
+    long trustedSinceNanos() {
+        if (!enabled || healthySinceNanos == Long.MAX_VALUE
+                || System.nanoTime() - lastSuccessNanos > maxStaleness.toNanos()) {
+            return Long.MAX_VALUE;
+        }
+        return healthySinceNanos;
+    }
+
+    public Long cursor() {
+        return cursor;
+    }
+}
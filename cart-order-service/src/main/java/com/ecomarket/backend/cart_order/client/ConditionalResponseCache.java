@@ -0,0 +1,90 @@
+package com.ecomarket.backend.cart_order.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Guarda la última respuesta de cada URL junto con su ETag y la revalida con
+ * {@code If-None-Match}. Si catalog contesta 304 se reutiliza el cuerpo ya parseado:
+ * no viaja el JSON ni se vuelve a deserializar.
+ * <p>
+ * Con {@code trustedSince} se puede además servir sin preguntar: una entrada validada en o después
+ * de ese instante (System.nanoTime) se da por vigente hasta que alguien la invalide con
+ * {@link #invalidate}. El proveedor devuelve {@code Long.MAX_VALUE} cuando no hay garantía de
+ * enterarse de los cambios, y entonces todo se revalida como antes.
+ */
+class ConditionalResponseCache<T> {
+
+    private static final long UNTRUSTED = Long.MIN_VALUE;
+
+    // evictedAt recuerda la última invalidación: una petición que empezó antes no puede dejar la entrada como fiable
+    private record Entry<T>(String etag, T body, long validatedAt, long evictedAt) {
+    }
+
+    private final Class<T> type;
+    private final Cache<String, Entry<T>> entries;
+    private final LongSupplier trustedSince;
+
+    ConditionalResponseCache(Class<T> type, long maxEntries) {
+        this(type, maxEntries, () -> Long.MAX_VALUE);
+    }
+
+    ConditionalResponseCache(Class<T> type, long maxEntries, LongSupplier trustedSince) {
+        this.type = type;
+        this.entries = Caffeine.newBuilder().maximumSize(maxEntries).build();
+        this.trustedSince = trustedSince;
+    }
+
+    T get(RestTemplate restTemplate, String url) {
+        Entry<T> cached = entries.getIfPresent(url);
+        if (cached != null && cached.body() != null && cached.validatedAt() >= trustedSince.getAsLong()) {
+            return cached.body();
+        }
+
+        long started = System.nanoTime();
+        HttpHeaders headers = new HttpHeaders();
+        if (cached != null && cached.etag() != null) {
+            headers.setIfNoneMatch(cached.etag());
+        }
+
+        ResponseEntity<T> response = restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(headers), type);
+        if (response.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED) && cached != null && cached.body() != null) {
+            store(url, cached.etag(), cached.body(), started);
+            return cached.body();
+        }
+
+        String etag = response.getHeaders().getETag();
+        if (etag != null && response.getBody() != null) {
+            store(url, etag, response.getBody(), started);
+        } else {
+            entries.invalidate(url);
+        }
+        return response.getBody();
+    }
+
+    /**
+     * Obliga a revalidar la URL en la próxima lectura, incluida cualquier respuesta que esté en vuelo.
+     */
+    void invalidate(String url) {
+        long now = System.nanoTime();
+        entries.asMap().compute(url, (key, current) -> current == null
+                ? new Entry<>(null, null, UNTRUSTED, now)
+                : new Entry<>(current.etag(), current.body(), UNTRUSTED, now));
+    }
+
+    private void store(String url, String etag, T body, long started) {
+        entries.asMap().compute(url, (key, current) -> {
+            long evictedAt = current == null ? UNTRUSTED : current.evictedAt();
+            long validatedAt = evictedAt != UNTRUSTED && evictedAt - started >= 0 ? UNTRUSTED : started;
+            return new Entry<>(etag, body, validatedAt, evictedAt);
+        });
+    }
+}
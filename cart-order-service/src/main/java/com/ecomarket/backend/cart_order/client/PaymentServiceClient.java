@@ -2,6 +2,10 @@ package com.ecomarket.backend.cart_order.client;
 
 import com.ecomarket.backend.cart_order.DTO.request.TransactionRequestDTO;
 import com.ecomarket.backend.cart_order.DTO.response.TransactionResponseDTO;
+import com.ecomarket.backend.cart_order.config.ResilienceConfig;
+import com.ecomarket.backend.cart_order.exception.ServiceUnavailableException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.HttpClientErrorException;
@@ -11,23 +15,29 @@ import org.springframework.web.client.RestTemplate;
 public class PaymentServiceClient {
 
     private final RestTemplate restTemplate;
+    private final RemoteCallGuard guard;
 
     @Value("${payment.service.base-url}")
     private String paymentServiceBaseUrl;
     @Value("${payment.service.transactions-path}")
     private String paymentServiceTransactionsPath;
 
-    public PaymentServiceClient(RestTemplate restTemplate) {
+    public PaymentServiceClient(RestTemplate restTemplate,
+                                CircuitBreakerRegistry circuitBreakerRegistry,
+                                BulkheadRegistry bulkheadRegistry) {
         this.restTemplate = restTemplate;
+        this.guard = new RemoteCallGuard(ResilienceConfig.PAYMENT, circuitBreakerRegistry, bulkheadRegistry);
     }
 
     public TransactionResponseDTO createPaymentTransaction(TransactionRequestDTO request) {
         String url = paymentServiceBaseUrl + paymentServiceTransactionsPath;
         try {
-            return restTemplate.postForObject(url, request, TransactionResponseDTO.class);
+            return guard.call(() -> restTemplate.postForObject(url, request, TransactionResponseDTO.class));
         } catch (HttpClientErrorException ex) {
             System.err.println("Error calling Payment Service to create transaction: " + ex.getResponseBodyAsString());
             throw new IllegalArgumentException("Failed to create payment transaction: " + ex.getResponseBodyAsString(), ex);
+        } catch (ServiceUnavailableException ex) {
+            throw ex;
         } catch (Exception ex) {
             System.err.println("Unexpected error communicating with Payment Service: " + ex.getMessage());
             throw new RuntimeException("Failed to create payment transaction.", ex);
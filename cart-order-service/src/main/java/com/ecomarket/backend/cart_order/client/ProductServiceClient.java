@@ -1,8 +1,15 @@
 package com.ecomarket.backend.cart_order.client;
 
 import com.ecomarket.backend.cart_order.DTO.request.InventoryOperationRequestDTO;
+import com.ecomarket.backend.cart_order.DTO.request.StockLeaseRequestDTO;
+import com.ecomarket.backend.cart_order.DTO.request.StockLeaseReturnRequestDTO;
 import com.ecomarket.backend.cart_order.DTO.response.InventoryResponseDTO;
 import com.ecomarket.backend.cart_order.DTO.response.ProductResponseDTO;
+import com.ecomarket.backend.cart_order.DTO.response.StockLeaseResponseDTO;
+import com.ecomarket.backend.cart_order.config.ResilienceConfig;
+import com.ecomarket.backend.cart_order.exception.ServiceUnavailableException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.HttpClientErrorException;
@@ -12,6 +19,7 @@ import org.springframework.web.client.RestTemplate;
 public class ProductServiceClient {
 
     private final RestTemplate restTemplate;
+    private final RemoteCallGuard guard;
 
     @Value("${product.service.base-url}")
     private String productServiceBaseUrl;
@@ -23,17 +31,36 @@ public class ProductServiceClient {
     private String inventoryPath;
 
 
-    public ProductServiceClient(RestTemplate restTemplate) {
+    private final ConditionalResponseCache<ProductResponseDTO> productCache;
+    private final ConditionalResponseCache<InventoryResponseDTO> inventoryCache;
+
+    public ProductServiceClient(RestTemplate restTemplate,
+                                CircuitBreakerRegistry circuitBreakerRegistry,
+                                BulkheadRegistry bulkheadRegistry,
+                                CatalogChangeFeed catalogChangeFeed,
+                                @Value("${product.service.conditional-cache.max-entries:5000}") long conditionalCacheMaxEntries) {
         this.restTemplate = restTemplate;
+        this.guard = new RemoteCallGuard(ResilienceConfig.CATALOG, circuitBreakerRegistry, bulkheadRegistry);
+        // Los productos se sirven sin revalidar mientras el feed de cambios esté al día; el stock siempre se revalida
+        this.productCache = new ConditionalResponseCache<>(ProductResponseDTO.class, conditionalCacheMaxEntries,
+                catalogChangeFeed::trustedSinceNanos);
+        this.inventoryCache = new ConditionalResponseCache<>(InventoryResponseDTO.class, conditionalCacheMaxEntries);
+        catalogChangeFeed.onProductChange(this::evictProduct);
+    }
+
+    private void evictProduct(long productId) {
+        productCache.invalidate(productServiceBaseUrl + productsPath + "/" + productId);
     }
 
     public ProductResponseDTO getProductById(Long productId) {
         String url = productServiceBaseUrl + productsPath + "/" + productId;
         try {
-            return restTemplate.getForObject(url, ProductResponseDTO.class);
+            return guard.call(() -> productCache.get(restTemplate, url));
         } catch (HttpClientErrorException.NotFound ex) {
             System.err.println("Product not found: " + productId);
             return null;
+        } catch (ServiceUnavailableException ex) {
+            throw ex;
         } catch (Exception ex) {
             System.err.println("Error calling Product Service for product ID " + productId + ": " + ex.getMessage());
             throw new RuntimeException("Failed to retrieve product details.", ex);
@@ -43,10 +70,12 @@ public class ProductServiceClient {
     public InventoryResponseDTO getProductInventory(Long productId) {
         String url = productServiceBaseUrl + inventoryPath + "/" + productId;
         try {
-            return restTemplate.getForObject(url, InventoryResponseDTO.class);
+            return guard.call(() -> inventoryCache.get(restTemplate, url));
         } catch (HttpClientErrorException.NotFound ex) {
             System.err.println("Inventory not found for product ID: " + productId);
             return null;
+        } catch (ServiceUnavailableException ex) {
+            throw ex;
         } catch (Exception ex) {
             System.err.println("Error getting inventory for product ID " + productId + ": " + ex.getMessage());
             throw new RuntimeException("Failed to retrieve inventory details.", ex);
@@ -54,18 +83,52 @@ public class ProductServiceClient {
     }
 
     public InventoryResponseDTO performInventoryOperation(Long productId, String operationType, int quantity) {
+        return performInventoryOperation(productId, operationType, quantity, null);
+    }
+
+    public InventoryResponseDTO performInventoryOperation(Long productId, String operationType, int quantity, String idempotencyKey) {
         String url = productServiceBaseUrl + inventoryPath + "/" + productId + "/operation";
-        InventoryOperationRequestDTO request = new InventoryOperationRequestDTO(operationType, quantity);
+        InventoryOperationRequestDTO request = new InventoryOperationRequestDTO(operationType, quantity, idempotencyKey);
         try {
-            return restTemplate.postForObject(url, request, InventoryResponseDTO.class);
+            return guard.call(() -> restTemplate.postForObject(url, request, InventoryResponseDTO.class));
         } catch (HttpClientErrorException ex) {
             System.err.println("Inventory operation failed for product " + productId + ", type " + operationType + ", quantity " + quantity + ": " + ex.getResponseBodyAsString());
             throw new IllegalArgumentException("Inventory operation failed: " + ex.getResponseBodyAsString(), ex);
+        } catch (ServiceUnavailableException ex) {
+            throw ex;
         } catch (Exception ex) {
             System.err.println("Error performing inventory operation for product ID " + productId + ": " + ex.getMessage());
             throw new RuntimeException("Failed to perform inventory operation.", ex);
         }
     }
-}
 
+    public StockLeaseResponseDTO acquireStockLease(Long productId, int quantity, String holder) {
+        String url = productServiceBaseUrl + inventoryPath + "/" + productId + "/leases";
+        StockLeaseRequestDTO request = new StockLeaseRequestDTO(quantity, holder);
+        try {
+            return guard.call(() -> restTemplate.postForObject(url, request, StockLeaseResponseDTO.class));
+        } catch (HttpClientErrorException ex) {
+            throw new IllegalArgumentException("Stock lease request failed: " + ex.getResponseBodyAsString(), ex);
+        } catch (ServiceUnavailableException ex) {
+            throw ex;
+        } catch (Exception ex) {
+            System.err.println("Error acquiring stock lease for product ID " + productId + ": " + ex.getMessage());
+            throw new RuntimeException("Failed to acquire stock lease.", ex);
+        }
+    }
 
+    public void returnStockLease(Long leaseId, int unusedQuantity) {
+        String url = productServiceBaseUrl + inventoryPath + "/leases/" + leaseId + "/return";
+        StockLeaseReturnRequestDTO request = new StockLeaseReturnRequestDTO(unusedQuantity);
+        try {
+            guard.call(() -> restTemplate.postForObject(url, request, StockLeaseResponseDTO.class));
+        } catch (HttpClientErrorException ex) {
+            throw new IllegalArgumentException("Stock lease return failed: " + ex.getResponseBodyAsString(), ex);
+        } catch (ServiceUnavailableException ex) {
+            throw ex;
+        } catch (Exception ex) {
+            System.err.println("Error returning stock lease " + leaseId + ": " + ex.getMessage());
+            throw new RuntimeException("Failed to return stock lease.", ex);
+        }
+    }
+}
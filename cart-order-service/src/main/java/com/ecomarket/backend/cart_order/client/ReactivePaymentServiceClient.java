@@ -0,0 +1,42 @@
+package com.ecomarket.backend.cart_order.client;
+
+import com.ecomarket.backend.cart_order.DTO.request.TransactionRequestDTO;
+import com.ecomarket.backend.cart_order.DTO.response.TransactionResponseDTO;
+import com.ecomarket.backend.cart_order.config.ResilienceConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+@Service
+public class ReactivePaymentServiceClient {
+
+    private final WebClient webClient;
+    private final RemoteCallGuard guard;
+
+    @Value("${payment.service.base-url}")
+    private String paymentServiceBaseUrl;
+    @Value("${payment.service.transactions-path}")
+    private String paymentServiceTransactionsPath;
+
+    public ReactivePaymentServiceClient(WebClient webClient,
+                                        CircuitBreakerRegistry circuitBreakerRegistry,
+                                        BulkheadRegistry bulkheadRegistry) {
+        this.webClient = webClient;
+        this.guard = new RemoteCallGuard(ResilienceConfig.PAYMENT, circuitBreakerRegistry, bulkheadRegistry);
+    }
+
+    public Mono<TransactionResponseDTO> createPaymentTransaction(TransactionRequestDTO request) {
+        String url = paymentServiceBaseUrl + paymentServiceTransactionsPath;
+        return guard.call(webClient.post().uri(url)
+                        .bodyValue(request)
+                        .retrieve()
+                        .bodyToMono(TransactionResponseDTO.class))
+                .onErrorMap(ex -> ex instanceof WebClientResponseException response && response.getStatusCode().is4xxClientError(),
+                        ex -> new IllegalArgumentException("Failed to create payment transaction: "
+                                + ((WebClientResponseException) ex).getResponseBodyAsString(), ex));
+    }
+}
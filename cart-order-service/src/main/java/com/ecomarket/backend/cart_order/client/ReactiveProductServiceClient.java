@@ -0,0 +1,74 @@
+package com.ecomarket.backend.cart_order.client;
+
+import com.ecomarket.backend.cart_order.DTO.request.InventoryOperationRequestDTO;
+import com.ecomarket.backend.cart_order.DTO.response.InventoryResponseDTO;
+import com.ecomarket.backend.cart_order.DTO.response.ProductResponseDTO;
+import com.ecomarket.backend.cart_order.config.ResilienceConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+/**
+ * Versión no bloqueante de {@link ProductServiceClient}. Comparte con ella el circuit breaker
+ * y el bulkhead de catalog, por lo que ambos pipelines respetan los mismos límites.
+ */
+@Service
+public class ReactiveProductServiceClient {
+
+    private final WebClient webClient;
+    private final RemoteCallGuard guard;
+
+    @Value("${product.service.base-url}")
+    private String productServiceBaseUrl;
+
+    @Value("${product.service.products-path}")
+    private String productsPath;
+
+    @Value("${product.service.inventory-path}")
+    private String inventoryPath;
+
+    public ReactiveProductServiceClient(WebClient webClient,
+                                        CircuitBreakerRegistry circuitBreakerRegistry,
+                                        BulkheadRegistry bulkheadRegistry) {
+        this.webClient = webClient;
+        this.guard = new RemoteCallGuard(ResilienceConfig.CATALOG, circuitBreakerRegistry, bulkheadRegistry);
+    }
+
+    /**
+     * Emite vacío si el producto no existe.
+     */
+    public Mono<ProductResponseDTO> getProductById(Long productId) {
+        String url = productServiceBaseUrl + productsPath + "/" + productId;
+        return guard.call(webClient.get().uri(url)
+                        .retrieve()
+                        .bodyToMono(ProductResponseDTO.class))
+                .onErrorResume(WebClientResponseException.NotFound.class, ex -> Mono.empty());
+    }
+
+    /**
+     * Emite vacío si el producto no tiene inventario.
+     */
+    public Mono<InventoryResponseDTO> getProductInventory(Long productId) {
+        String url = productServiceBaseUrl + inventoryPath + "/" + productId;
+        return guard.call(webClient.get().uri(url)
+                        .retrieve()
+                        .bodyToMono(InventoryResponseDTO.class))
+                .onErrorResume(WebClientResponseException.NotFound.class, ex -> Mono.empty());
+    }
+
+    public Mono<InventoryResponseDTO> performInventoryOperation(Long productId, String operationType, int quantity) {
+        String url = productServiceBaseUrl + inventoryPath + "/" + productId + "/operation";
+        InventoryOperationRequestDTO request = new InventoryOperationRequestDTO(operationType, quantity);
+        return guard.call(webClient.post().uri(url)
+                        .bodyValue(request)
+                        .retrieve()
+                        .bodyToMono(InventoryResponseDTO.class))
+                .onErrorMap(ex -> ex instanceof WebClientResponseException response && response.getStatusCode().is4xxClientError(),
+                        ex -> new IllegalArgumentException("Inventory operation failed: "
+                                + ((WebClientResponseException) ex).getResponseBodyAsString(), ex));
+    }
+}
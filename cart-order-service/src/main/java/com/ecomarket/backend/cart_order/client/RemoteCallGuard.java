@@ -0,0 +1,61 @@
+package com.ecomarket.backend.cart_order.client;
+
+import com.ecomarket.backend.cart_order.exception.ServiceUnavailableException;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import reactor.core.publisher.Mono;
+
+import java.util.function.Supplier;
+
+/**
+ * Envuelve las llamadas a un servicio remoto con su bulkhead y su circuit breaker.
+ * Cuando el circuito está abierto o el bulkhead lleno la llamada falla de inmediato
+ * con {@link ServiceUnavailableException} en lugar de bloquear el hilo de la petición.
+ */
+class RemoteCallGuard {
+
+    private final String dependency;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+
+    RemoteCallGuard(String dependency, CircuitBreakerRegistry circuitBreakerRegistry, BulkheadRegistry bulkheadRegistry) {
+        this.dependency = dependency;
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker(dependency);
+        this.bulkhead = bulkheadRegistry.bulkhead(dependency);
+    }
+
+    <T> T call(Supplier<T> remoteCall) {
+        Supplier<T> guarded = Bulkhead.decorateSupplier(bulkhead,
+                CircuitBreaker.decorateSupplier(circuitBreaker, remoteCall));
+        try {
+            return guarded.get();
+        } catch (CallNotPermittedException ex) {
+            throw new ServiceUnavailableException(
+                    "The " + dependency + " service is temporarily unavailable.", retryAfterSeconds(), ex);
+        } catch (BulkheadFullException ex) {
+            throw new ServiceUnavailableException(
+                    "Too many concurrent calls to the " + dependency + " service.", 1, ex);
+        }
+    }
+
+    <T> Mono<T> call(Mono<T> remoteCall) {
+        return remoteCall
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                .transformDeferred(BulkheadOperator.of(bulkhead))
+                .onErrorMap(CallNotPermittedException.class, ex -> new ServiceUnavailableException(
+                        "The " + dependency + " service is temporarily unavailable.", retryAfterSeconds(), ex))
+                .onErrorMap(BulkheadFullException.class, ex -> new ServiceUnavailableException(
+                        "Too many concurrent calls to the " + dependency + " service.", 1, ex));
+    }
+
+    private long retryAfterSeconds() {
+        long waitMillis = circuitBreaker.getCircuitBreakerConfig().getWaitIntervalFunctionInOpenState().apply(1);
+        return Math.max(1, waitMillis / 1000);
+    }
+}
@@ -0,0 +1,64 @@
+package com.ecomarket.backend.cart_order.config;
+
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.time.Duration;
+
+/**
+ * Circuit breakers y bulkheads para las dependencias remotas (catalog y payment).
+ * Cada cliente obtiene su propia instancia por nombre, de modo que la degradación
+ * de un servicio no consume la capacidad reservada para el otro.
+ */
+@Configuration
+public class ResilienceConfig {
+
+    public static final String CATALOG = "catalog";
+    public static final String PAYMENT = "payment";
+
+    @Bean
+    public CircuitBreakerRegistry circuitBreakerRegistry(
+            @Value("${resilience.circuit-breaker.failure-rate-threshold:50}") float failureRateThreshold,
+            @Value("${resilience.circuit-breaker.slow-call-duration-threshold:3s}") Duration slowCallDurationThreshold,
+            @Value("${resilience.circuit-breaker.sliding-window-size:20}") int slidingWindowSize,
+            @Value("${resilience.circuit-breaker.minimum-number-of-calls:10}") int minimumNumberOfCalls,
+            @Value("${resilience.circuit-breaker.wait-duration-in-open-state:10s}") Duration waitDurationInOpenState,
+            @Value("${resilience.circuit-breaker.permitted-calls-in-half-open-state:3}") int permittedCallsInHalfOpenState) {
+        CircuitBreakerConfig config = CircuitBreakerConfig.custom()
+                .slidingWindowType(CircuitBreakerConfig.SlidingWindowType.COUNT_BASED)
+                .slidingWindowSize(slidingWindowSize)
+                .minimumNumberOfCalls(minimumNumberOfCalls)
+                .failureRateThreshold(failureRateThreshold)
+                .slowCallRateThreshold(failureRateThreshold)
+                .slowCallDurationThreshold(slowCallDurationThreshold)
+                .waitDurationInOpenState(waitDurationInOpenState)
+                .permittedNumberOfCallsInHalfOpenState(permittedCallsInHalfOpenState)
+                // Un 4xx (producto inexistente, stock insuficiente) es una respuesta válida del servicio
+                .ignoreException(ResilienceConfig::isClientError)
+                .build();
+        return CircuitBreakerRegistry.of(config);
+    }
+
+    @Bean
+    public BulkheadRegistry bulkheadRegistry(
+            @Value("${resilience.bulkhead.max-concurrent-calls:20}") int maxConcurrentCalls,
+            @Value("${resilience.bulkhead.max-wait-duration:0ms}") Duration maxWaitDuration) {
+        BulkheadConfig config = BulkheadConfig.custom()
+                .maxConcurrentCalls(maxConcurrentCalls)
+                .maxWaitDuration(maxWaitDuration)
+                .build();
+        return BulkheadRegistry.of(config);
+    }
+
+    private static boolean isClientError(Throwable ex) {
+        return ex instanceof HttpClientErrorException
+                || (ex instanceof WebClientResponseException response && response.getStatusCode().is4xxClientError());
+    }
+}
@@ -1,9 +1,14 @@
 package com.ecomarket.backend.cart_order.controller;
 
 import com.ecomarket.backend.cart_order.DTO.request.OrderRequestDTO;
+import com.ecomarket.backend.cart_order.DTO.response.OrderIntakeResponseDTO;
 import com.ecomarket.backend.cart_order.DTO.response.OrderResponseDTO;
 import com.ecomarket.backend.cart_order.DTO.request.OrderStatusUpdateRequestDTO;
 import com.ecomarket.backend.cart_order.assembler.OrderAssembler;
+import com.ecomarket.backend.cart_order.assembler.OrderIntakeAssembler;
+import com.ecomarket.backend.cart_order.service.OrderIntakeNotifier;
+import com.ecomarket.backend.cart_order.service.OrderIntakeService;
+import com.ecomarket.backend.cart_order.service.OrderPipeline;
 import com.ecomarket.backend.cart_order.service.OrderService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -12,6 +17,10 @@ import org.springframework.hateoas.EntityModel;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import reactor.core.publisher.Mono;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -26,7 +35,11 @@ import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 public class OrderController {
 
     private final OrderService orderService;
+    private final OrderPipeline orderPipeline;
     private final OrderAssembler orderAssembler;
+    private final OrderIntakeService orderIntakeService;
+    private final OrderIntakeNotifier orderIntakeNotifier;
+    private final OrderIntakeAssembler orderIntakeAssembler;
 
 
     @GetMapping("/{id}")
@@ -39,9 +52,28 @@ public class OrderController {
     }
 
     @PostMapping
-    public ResponseEntity<EntityModel<OrderResponseDTO>> createOrder(@Valid @RequestBody OrderRequestDTO orderRequest) {
-        OrderResponseDTO newOrder = orderService.createOrder(orderRequest);
-        return new ResponseEntity<>(orderAssembler.toModel(newOrder), HttpStatus.CREATED);
+    public Mono<ResponseEntity<? extends EntityModel<?>>> createOrder(@Valid @RequestBody OrderRequestDTO orderRequest) {
+        // Modo asíncrono: el pedido queda encolado y se responde 202 con la URL de seguimiento
+        if (orderIntakeService.isAsyncMode()) {
+            EntityModel<OrderIntakeResponseDTO> intakeModel = orderIntakeAssembler.toModel(orderIntakeService.enqueue(orderRequest));
+            return Mono.just(ResponseEntity.accepted()
+                    .location(linkTo(methodOn(OrderController.class).getIntakeStatus(intakeModel.getContent().getIntakeId())).toUri())
+                    .body(intakeModel));
+        }
+
+        RequestAttributes requestAttributes = RequestContextHolder.currentRequestAttributes();
+        return orderPipeline.createOrder(orderRequest)
+                .map(newOrder -> new ResponseEntity<>(toModel(newOrder, requestAttributes), HttpStatus.CREATED));
+    }
+
+    @GetMapping("/intake/{intakeId}")
+    public ResponseEntity<EntityModel<OrderIntakeResponseDTO>> getIntakeStatus(@PathVariable Long intakeId) {
+        return ResponseEntity.ok(orderIntakeAssembler.toModel(orderIntakeService.getIntake(intakeId)));
+    }
+
+    @GetMapping(value = "/intake/{intakeId}/events", produces = "text/event-stream")
+    public SseEmitter streamIntakeStatus(@PathVariable Long intakeId) {
+        return orderIntakeNotifier.subscribe(intakeId);
     }
 
     @GetMapping
@@ -86,4 +118,15 @@ public class OrderController {
         return ResponseEntity.ok(orderAssembler.toModel(updatedOrder));
     }
 
+    // El pipeline reactivo completa fuera del hilo de la petición; los enlaces HATEOAS
+    // necesitan la petición original para construir URLs absolutas.
+    private EntityModel<OrderResponseDTO> toModel(OrderResponseDTO order, RequestAttributes requestAttributes) {
+        RequestAttributes previous = RequestContextHolder.getRequestAttributes();
+        RequestContextHolder.setRequestAttributes(requestAttributes);
+        try {
+            return orderAssembler.toModel(order);
+        } finally {
+            RequestContextHolder.setRequestAttributes(previous);
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,203 @@
+package com.ecomarket.backend.cart_order.faker;
+
+import com.ecomarket.backend.common.faker.ZipfSampler;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Generador de órdenes sintéticas a escala, con sus ítems.
+ * <p>
+ * Clientes y productos siguen una popularidad Zipf, con la misma permutación que usan catalog y
+ * payment para la misma semilla: los productos calientes son los mismos en todos los servicios.
+ * Sobre bases vacías los ids referenciados existen: usuarios 1..users, direcciones
+ * (u-1)*k+1..u*k, productos 1..products y transacción de pago con el mismo id que la orden.
+ * <p>
+ * El usuario de cada orden sale de un generador propio de la orden (semilla, número de orden), que
+ * payment reproduce para que la transacción quede con el mismo usuario.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "synthetic.data.enabled", havingValue = "true")
+public class SyntheticOrderGenerator implements CommandLineRunner {
+
+    private static final String INSERT_ORDER = "INSERT INTO orders " +
+            "(id, user_id, shipping_address_id, payment_transaction_id, created_at, order_status, total_amount, subtotal, shipping_cost) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_ITEM = "INSERT INTO order_items " +
+            "(order_id, product_id, product_name, product_price, quantity, subtotal) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final BigDecimal SHIPPING_COST = BigDecimal.valueOf(3990);
+    private static final BigDecimal FREE_SHIPPING_FROM = BigDecimal.valueOf(50000);
+    private static final int MAX_ITEMS = 8;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final long seed;
+    private final int threads;
+    private final int chunkSize;
+    private final double exponent;
+    private final long orders;
+    private final int users;
+    private final int addressesPerUser;
+    private final int products;
+
+    public SyntheticOrderGenerator(JdbcTemplate jdbcTemplate,
+                                   TransactionTemplate transactionTemplate,
+                                   @Value("${synthetic.data.seed:42}") long seed,
+                                   @Value("${synthetic.data.threads:4}") int threads,
+                                   @Value("${synthetic.data.chunk-size:5000}") int chunkSize,
+                                   @Value("${synthetic.data.zipf-exponent:1.1}") double exponent,
+                                   @Value("${synthetic.data.orders:2000000}") long orders,
+                                   @Value("${synthetic.data.users:200000}") int users,
+                                   @Value("${synthetic.data.addresses-per-user:2}") int addressesPerUser,
+                                   @Value("${synthetic.data.products:1000000}") int products) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.seed = seed;
+        this.threads = threads;
+        this.chunkSize = chunkSize;
+        this.exponent = exponent;
+        this.orders = orders;
+        this.users = users;
+        this.addressesPerUser = addressesPerUser;
+        this.products = products;
+    }
+
+    @Override
+    public void run(String... args) {
+        Integer existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM orders", Integer.class);
+        if (existing != null && existing > 0) {
+            log.info("La tabla orders ya tiene datos, se omite la generación sintética");
+            return;
+        }
+        generate();
+    }
+
+    public void generate() {
+        long start = System.nanoTime();
+        log.info("Generando {} órdenes sintéticas (semilla {}, {} hilos)", orders, seed, threads);
+
+        ZipfSampler customers = new ZipfSampler(users, exponent, seed);
+        ZipfSampler catalog = new ZipfSampler(products, exponent, seed);
+        LocalDateTime now = LocalDateTime.now();
+        writeChunks("orders", orders, (from, to, random) -> {
+            List<Object[]> orderRows = new ArrayList<>();
+            List<Object[]> itemRows = new ArrayList<>();
+            for (long i = from; i < to; i++) {
+                long orderId = i + 1;
+                long userId = 1L + customers.sample(orderRandom(seed, i));
+                long addressId = (userId - 1) * addressesPerUser + 1 + random.nextInt(addressesPerUser);
+
+                BigDecimal subtotal = BigDecimal.ZERO;
+                int items = 1;
+                while (items < MAX_ITEMS && random.nextBoolean()) {
+                    items++;
+                }
+                for (int j = 0; j < items; j++) {
+                    long productId = 1L + catalog.sample(random);
+                    BigDecimal price = price(productId);
+                    int quantity = random.nextInt(10) < 8 ? 1 : 2 + random.nextInt(4);
+                    BigDecimal lineTotal = price.multiply(BigDecimal.valueOf(quantity));
+                    subtotal = subtotal.add(lineTotal);
+                    itemRows.add(new Object[]{orderId, productId, "Producto sintético " + productId, price, quantity, lineTotal});
+                }
+                BigDecimal shipping = subtotal.compareTo(FREE_SHIPPING_FROM) >= 0 ? BigDecimal.ZERO : SHIPPING_COST;
+                orderRows.add(new Object[]{orderId, userId, addressId, orderId,
+                        Timestamp.valueOf(now.minusMinutes(random.nextInt(2 * 365 * 24 * 60))),
+                        status(random), subtotal.add(shipping), subtotal, shipping});
+            }
+            jdbcTemplate.batchUpdate(INSERT_ORDER, orderRows);
+            jdbcTemplate.batchUpdate(INSERT_ITEM, itemRows);
+        });
+        restartIdentity("orders", orders + 1);
+
+        log.info("Órdenes sintéticas generadas en {} ms", (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Generador propio de la orden {@code index}; payment usa la misma derivación.
+     */
+    static SplittableRandom orderRandom(long seed, long index) {
+        return new SplittableRandom(seed ^ (index * 0xD1B54A32D192ED03L));
+    }
+
+    // Precio estable por producto, para que el mismo producto cueste lo mismo en todas las órdenes
+    private BigDecimal price(long productId) {
+        return BigDecimal.valueOf(990 + new SplittableRandom(seed ^ (productId * 0x9E3779B97F4A7C15L)).nextInt(250_000));
+    }
+
+    private static String status(SplittableRandom random) {
+        int roll = random.nextInt(100);
+        if (roll < 60) {
+            return "DELIVERED";
+        } else if (roll < 70) {
+            return "SHIPPED";
+        } else if (roll < 80) {
+            return "CONFIRMED";
+        } else if (roll < 90) {
+            return "PENDING_PAYMENT";
+        }
+        return "CANCELLED";
+    }
+
+    // Columnas IDENTITY (Hibernate 6) admiten RESTART; las creadas como serial usan su secuencia
+    private void restartIdentity(String table, long next) {
+        try {
+            jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH " + next);
+        } catch (DataAccessException ex) {
+            jdbcTemplate.queryForObject("SELECT setval(pg_get_serial_sequence(?, 'id'), ?)", Long.class, table, next - 1);
+        }
+    }
+
+    /**
+     * Reparte [0, total) en bloques de {@code chunkSize} y escribe cada uno en su propia transacción,
+     * con hasta {@code threads} bloques en paralelo.
+     */
+    private void writeChunks(String table, long total, ChunkWriter writer) {
+        long start = System.nanoTime();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> pending = new ArrayList<>();
+            for (long from = 0, chunk = 0; from < total; from += chunkSize, chunk++) {
+                long chunkFrom = from;
+                long chunkTo = Math.min(from + chunkSize, total);
+                SplittableRandom random = new SplittableRandom(seed ^ (table.hashCode() * 0x9E3779B97F4A7C15L) ^ (chunk * 0xC2B2AE3D27D4EB4FL));
+                pending.add(executor.submit(() -> transactionTemplate.executeWithoutResult(
+                        status -> writer.write(chunkFrom, chunkTo, random))));
+            }
+            for (Future<?> future : pending) {
+                future.get();
+            }
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("Synthetic data generation failed for " + table, ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Synthetic data generation interrupted for " + table, ex);
+        } finally {
+            executor.shutdownNow();
+        }
+        log.info("Tabla {}: {} filas en {} ms", table, total, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @FunctionalInterface
+    private interface ChunkWriter {
+        void write(long from, long to, SplittableRandom random);
+    }
+}
@@ -0,0 +1,59 @@
+package com.ecomarket.backend.cart_order.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Pedido recibido en modo asíncrono, pendiente de pasar por {@code OrderService.createOrder}.
+ * La tabla actúa como cola durable y acotada entre el controlador y los workers.
+ */
+@Entity
+@Table(name = "order_intake", indexes = @Index(name = "idx_order_intake_status", columnList = "status, id"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderIntake {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private IntakeStatus status;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload; // OrderRequestDTO serializado
+
+    @Column(unique = true, length = 36)
+    private String idempotencyKey; // Prefijo de las claves de RESERVE y del cobro; sobrevive a los reintentos
+
+    private Long orderId; // Pedido creado al completar
+
+    @Column(columnDefinition = "TEXT")
+    private String errorMessage;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime claimedAt;
+
+    private Integer attempts; // Intentos fallidos por errores transitorios; null en entradas antiguas
+
+    private LocalDateTime nextAttemptAt; // Tras un error transitorio no se reclama antes de este instante
+
+    private LocalDateTime updatedAt;
+
+    public enum IntakeStatus {
+        QUEUED,
+        PROCESSING,
+        COMPLETED,
+        FAILED
+    }
+}
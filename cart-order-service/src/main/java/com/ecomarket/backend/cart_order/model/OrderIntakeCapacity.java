@@ -0,0 +1,27 @@
+package com.ecomarket.backend.cart_order.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Contador de entradas pendientes (QUEUED o PROCESSING) de la cola de ingreso, en una única fila.
+ * Encolar lo incrementa con un UPDATE condicionado a la capacidad, y completar o fallar lo decrementa,
+ * siempre en la misma transacción que el cambio de estado: dos nodos nunca superan juntos el límite.
+ */
+@Entity
+@Table(name = "order_intake_capacity")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderIntakeCapacity {
+
+    public static final long SINGLETON_ID = 1L;
+
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private Long pending;
+}
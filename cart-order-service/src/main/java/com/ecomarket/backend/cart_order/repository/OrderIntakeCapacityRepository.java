@@ -0,0 +1,21 @@
+package com.ecomarket.backend.cart_order.repository;
+
+import com.ecomarket.backend.cart_order.model.OrderIntakeCapacity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface OrderIntakeCapacityRepository extends JpaRepository<OrderIntakeCapacity, Long> {
+
+    // El UPDATE bloquea la fila: los incrementos concurrentes se serializan y ninguno pasa del límite
+    @Modifying
+    @Query("UPDATE OrderIntakeCapacity c SET c.pending = c.pending + 1 WHERE c.id = :id AND c.pending < :capacity")
+    int tryAcquire(@Param("id") Long id, @Param("capacity") long capacity);
+
+    @Modifying
+    @Query("UPDATE OrderIntakeCapacity c SET c.pending = c.pending - 1 WHERE c.id = :id AND c.pending > 0")
+    int release(@Param("id") Long id);
+}
@@ -0,0 +1,39 @@
+package com.ecomarket.backend.cart_order.repository;
+
+import com.ecomarket.backend.cart_order.model.OrderIntake;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OrderIntakeRepository extends JpaRepository<OrderIntake, Long> {
+
+    long countByStatusIn(Collection<OrderIntake.IntakeStatus> statuses);
+
+    // SELECT ... FOR UPDATE SKIP LOCKED: varios nodos pueden reclamar trabajo sin pisarse
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT i FROM OrderIntake i WHERE i.status = :status " +
+            "AND (i.nextAttemptAt IS NULL OR i.nextAttemptAt <= :now) ORDER BY i.id")
+    List<OrderIntake> findClaimable(@Param("status") OrderIntake.IntakeStatus status,
+                                    @Param("now") LocalDateTime now,
+                                    Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE OrderIntake i SET i.status = :queued, i.claimedAt = null " +
+            "WHERE i.status = :processing AND i.claimedAt < :claimedBefore")
+    int requeueStale(@Param("queued") OrderIntake.IntakeStatus queued,
+                     @Param("processing") OrderIntake.IntakeStatus processing,
+                     @Param("claimedBefore") LocalDateTime claimedBefore);
+}
@@ -0,0 +1,25 @@
+package com.ecomarket.backend.cart_order.service;
+
+import com.ecomarket.backend.cart_order.DTO.request.OrderRequestDTO;
+import com.ecomarket.backend.cart_order.DTO.response.OrderResponseDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+/**
+ * Ejecuta {@link OrderService#createOrder} en el hilo de la petición, igual que antes de
+ * existir el pipeline reactivo.
+ */
+@Service
+@ConditionalOnProperty(name = "order.pipeline.mode", havingValue = "blocking", matchIfMissing = true)
+@RequiredArgsConstructor
+public class BlockingOrderPipeline implements OrderPipeline {
+
+    private final OrderService orderService;
+
+    @Override
+    public Mono<OrderResponseDTO> createOrder(OrderRequestDTO orderRequest) {
+        return Mono.fromCallable(() -> orderService.createOrder(orderRequest));
+    }
+}
@@ -0,0 +1,91 @@
+package com.ecomarket.backend.cart_order.service;
+
+import com.ecomarket.backend.cart_order.DTO.response.OrderIntakeResponseDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Suscripciones SSE al estado de un pedido encolado. Los workers locales publican al terminar;
+ * además se consulta la tabla periódicamente porque el pedido puede procesarse en otro nodo.
+ */
+@Component
+public class OrderIntakeNotifier {
+
+    private final OrderIntakeService intakeService;
+    private final long sseTimeoutMillis;
+    private final Map<Long, List<SseEmitter>> emitters = new ConcurrentHashMap<>();
+
+    public OrderIntakeNotifier(OrderIntakeService intakeService,
+                               @Value("${order.intake.sse-timeout-ms:60000}") long sseTimeoutMillis) {
+        this.intakeService = intakeService;
+        this.sseTimeoutMillis = sseTimeoutMillis;
+    }
+
+    public SseEmitter subscribe(Long intakeId) {
+        OrderIntakeResponseDTO current = intakeService.getIntake(intakeId);
+        SseEmitter emitter = new SseEmitter(sseTimeoutMillis);
+
+        if (!OrderIntakeService.isTerminal(current)) {
+            emitters.computeIfAbsent(intakeId, id -> new CopyOnWriteArrayList<>()).add(emitter);
+            emitter.onCompletion(() -> unsubscribe(intakeId, emitter));
+            emitter.onTimeout(() -> unsubscribe(intakeId, emitter));
+            emitter.onError(ex -> unsubscribe(intakeId, emitter));
+        }
+
+        send(emitter, current);
+        if (OrderIntakeService.isTerminal(current)) {
+            emitter.complete();
+        }
+        return emitter;
+    }
+
+    public void publish(OrderIntakeResponseDTO intake) {
+        boolean terminal = OrderIntakeService.isTerminal(intake);
+        List<SseEmitter> subscribers = terminal ? emitters.remove(intake.getIntakeId()) : emitters.get(intake.getIntakeId());
+        if (subscribers == null) {
+            return;
+        }
+        for (SseEmitter emitter : subscribers) {
+            send(emitter, intake);
+            if (terminal) {
+                emitter.complete();
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${order.intake.sse-refresh-interval-ms:2000}")
+    public void refreshSubscriptions() {
+        if (emitters.isEmpty()) {
+            return;
+        }
+        intakeService.getIntakes(List.copyOf(emitters.keySet())).stream()
+                .filter(OrderIntakeService::isTerminal)
+                .forEach(this::publish);
+    }
+
+    private void send(SseEmitter emitter, OrderIntakeResponseDTO intake) {
+        try {
+            emitter.send(SseEmitter.event()
+                    .id(intake.getIntakeId() + "-" + intake.getStatus())
+                    .name("status")
+                    .data(intake));
+        } catch (IOException | IllegalStateException e) {
+            emitter.completeWithError(e);
+        }
+    }
+
+    private void unsubscribe(Long intakeId, SseEmitter emitter) {
+        emitters.computeIfPresent(intakeId, (id, list) -> {
+            list.remove(emitter);
+            return list.isEmpty() ? null : list;
+        });
+    }
+}
@@ -0,0 +1,300 @@
+package com.ecomarket.backend.cart_order.service;
+
+import com.ecomarket.backend.cart_order.DTO.request.OrderRequestDTO;
+import com.ecomarket.backend.cart_order.DTO.response.OrderIntakeResponseDTO;
+import com.ecomarket.backend.cart_order.DTO.response.OrderResponseDTO;
+import com.ecomarket.backend.cart_order.exception.IntakeQueueFullException;
+import com.ecomarket.backend.cart_order.exception.ResourceNotFoundException;
+import com.ecomarket.backend.cart_order.model.OrderIntake;
+import com.ecomarket.backend.cart_order.model.OrderIntakeCapacity;
+import com.ecomarket.backend.cart_order.repository.OrderIntakeCapacityRepository;
+import com.ecomarket.backend.cart_order.repository.OrderIntakeRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Cola durable de pedidos para el modo de ingreso asíncrono ({@code order.intake.mode=async}).
+ * El controlador encola y responde 202; {@link OrderIntakeWorker} reclama las entradas y
+ * ejecuta {@link OrderService#createOrder} en la misma transacción que marca la entrada como completada.
+ * La capacidad se controla con el contador de {@link OrderIntakeCapacity}, no contando filas: el
+ * conteo seguido de la inserción dejaba pasar de más a dos peticiones concurrentes.
+ * <p>
+ * Un fallo al procesar no descarta el pedido si es transitorio (catalog o payment caídos, circuito
+ * abierto, bulkhead lleno, timeouts): la entrada vuelve a la cola con espera exponencial y la misma
+ * clave de idempotencia, hasta {@code max-attempts} intentos. Sólo los errores de validación y los
+ * 4xx de otro servicio la dejan en FAILED de inmediato.
+ */
+@Service
+public class OrderIntakeService {
+
+    private static final Set<OrderIntake.IntakeStatus> PENDING_STATUSES =
+            EnumSet.of(OrderIntake.IntakeStatus.QUEUED, OrderIntake.IntakeStatus.PROCESSING);
+
+    private final OrderIntakeRepository intakeRepository;
+    private final OrderIntakeCapacityRepository capacityRepository;
+    private final OrderService orderService;
+    private final ObjectMapper objectMapper;
+    private final boolean asyncMode;
+    private final int capacity;
+    private final Duration retryAfter;
+    private final Duration processingTimeout;
+    private final int maxAttempts;
+    private final Duration retryBackoff;
+    private final Duration maxRetryBackoff;
+    private final TransactionTemplate separateTransaction;
+
+    public OrderIntakeService(OrderIntakeRepository intakeRepository,
+                              OrderIntakeCapacityRepository capacityRepository,
+                              OrderService orderService,
+                              ObjectMapper objectMapper,
+                              @Value("${order.intake.mode:sync}") String mode,
+                              @Value("${order.intake.capacity:1000}") int capacity,
+                              @Value("${order.intake.retry-after:5s}") Duration retryAfter,
+                              @Value("${order.intake.processing-timeout:5m}") Duration processingTimeout,
+                              @Value("${order.intake.max-attempts:5}") int maxAttempts,
+                              @Value("${order.intake.retry-backoff:2s}") Duration retryBackoff,
+                              @Value("${order.intake.max-retry-backoff:1m}") Duration maxRetryBackoff,
+                              PlatformTransactionManager transactionManager) {
+        this.intakeRepository = intakeRepository;
+        this.capacityRepository = capacityRepository;
+        this.orderService = orderService;
+        this.objectMapper = objectMapper;
+        this.asyncMode = "async".equalsIgnoreCase(mode);
+        this.capacity = capacity;
+        this.retryAfter = retryAfter;
+        this.processingTimeout = processingTimeout;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoff = retryBackoff;
+        this.maxRetryBackoff = maxRetryBackoff;
+        this.separateTransaction = new TransactionTemplate(transactionManager);
+        this.separateTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public boolean isAsyncMode() {
+        return asyncMode;
+    }
+
+    // --- Ingreso ---
+
+    @Transactional
+    public OrderIntakeResponseDTO enqueue(OrderRequestDTO orderRequest) {
+        orderService.validateOrderRequest(orderRequest);
+
+        if (!acquireSlot()) {
+            throw new IntakeQueueFullException("Order intake queue is full (" + capacity + " pending orders). Try again later.",
+                    Math.max(1, retryAfter.toSeconds()));
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        OrderIntake intake = OrderIntake.builder()
+                .status(OrderIntake.IntakeStatus.QUEUED)
+                .payload(writePayload(orderRequest))
+                .idempotencyKey(UUID.randomUUID().toString())
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+        return convertToResponseDTO(intakeRepository.save(intake));
+    }
+
+    @Transactional(readOnly = true)
+    public OrderIntakeResponseDTO getIntake(Long intakeId) {
+        return intakeRepository.findById(intakeId)
+                .map(this::convertToResponseDTO)
+                .orElseThrow(() -> new ResourceNotFoundException("Order intake not found with ID: " + intakeId));
+    }
+
+    @Transactional(readOnly = true)
+    public List<OrderIntakeResponseDTO> getIntakes(Collection<Long> intakeIds) {
+        return intakeRepository.findAllById(intakeIds).stream()
+                .map(this::convertToResponseDTO)
+                .toList();
+    }
+
+    // --- Procesamiento (workers) ---
+
+    @Transactional
+    public List<Long> claimNext(int maxItems) {
+        if (maxItems <= 0) {
+            return List.of();
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<OrderIntake> claimed = intakeRepository.findClaimable(
+                OrderIntake.IntakeStatus.QUEUED, now, PageRequest.of(0, maxItems));
+        for (OrderIntake intake : claimed) {
+            intake.setStatus(OrderIntake.IntakeStatus.PROCESSING);
+            intake.setClaimedAt(now);
+            intake.setUpdatedAt(now);
+        }
+        return claimed.stream().map(OrderIntake::getId).toList();
+    }
+
+    @Transactional
+    public OrderIntakeResponseDTO process(Long intakeId) {
+        OrderIntake intake = intakeRepository.findById(intakeId)
+                .orElseThrow(() -> new ResourceNotFoundException("Order intake not found with ID: " + intakeId));
+
+        // Las entradas anteriores a la columna no tienen clave propia; el id también es estable
+        String idempotencyKey = intake.getIdempotencyKey() != null ? intake.getIdempotencyKey() : "order-intake-" + intakeId;
+        OrderResponseDTO order = orderService.createOrder(readPayload(intake.getPayload()), idempotencyKey);
+
+        releaseSlot(intake);
+        intake.setStatus(OrderIntake.IntakeStatus.COMPLETED);
+        intake.setOrderId(order.getId());
+        intake.setUpdatedAt(LocalDateTime.now());
+        return convertToResponseDTO(intake);
+    }
+
+    @Transactional
+    public OrderIntakeResponseDTO markFailed(Long intakeId, String errorMessage) {
+        OrderIntake intake = intakeRepository.findById(intakeId)
+                .orElseThrow(() -> new ResourceNotFoundException("Order intake not found with ID: " + intakeId));
+        releaseSlot(intake);
+        intake.setStatus(OrderIntake.IntakeStatus.FAILED);
+        intake.setErrorMessage(errorMessage);
+        intake.setUpdatedAt(LocalDateTime.now());
+        return convertToResponseDTO(intake);
+    }
+
+    /**
+     * Registra el fallo de un intento: los errores permanentes dejan la entrada en FAILED; los
+     * transitorios la devuelven a la cola con espera exponencial hasta agotar los intentos.
+     */
+    @Transactional
+    public OrderIntakeResponseDTO recordFailure(Long intakeId, Exception failure) {
+        if (!isTransient(failure)) {
+            return markFailed(intakeId, failure.getMessage());
+        }
+        OrderIntake intake = intakeRepository.findById(intakeId)
+                .orElseThrow(() -> new ResourceNotFoundException("Order intake not found with ID: " + intakeId));
+        int attempts = (intake.getAttempts() == null ? 0 : intake.getAttempts()) + 1;
+        intake.setAttempts(attempts);
+        if (attempts >= maxAttempts) {
+            return markFailed(intakeId, "Gave up after " + attempts + " attempts: " + failure.getMessage());
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        intake.setStatus(OrderIntake.IntakeStatus.QUEUED);
+        intake.setClaimedAt(null);
+        intake.setNextAttemptAt(now.plus(backoff(attempts)));
+        intake.setErrorMessage(failure.getMessage());
+        intake.setUpdatedAt(now);
+        return convertToResponseDTO(intake);
+    }
+
+    /**
+     * Permanente si en la cadena de causas hay un error de validación o un 4xx de otro servicio; el
+     * resto (503, circuito abierto, bulkhead lleno, timeouts, 5xx) se reintenta.
+     */
+    static boolean isTransient(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof IllegalArgumentException
+                    || cause instanceof HttpClientErrorException
+                    || cause instanceof ResourceNotFoundException
+                    || cause instanceof JsonProcessingException) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Duration backoff(int attempts) {
+        Duration backoff = retryBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return backoff.compareTo(maxRetryBackoff) > 0 ? maxRetryBackoff : backoff;
+    }
+
+    /**
+     * Devuelve a la cola las entradas reclamadas por un nodo que murió antes de terminarlas.
+     * El pedido y el estado COMPLETED se confirman en la misma transacción, y lo que el intento anterior
+     * alcanzó a hacer fuera (reservas en catalog, cobro en payment) no se repite gracias a la clave de
+     * idempotencia de la entrada.
+     */
+    @Transactional
+    public int requeueStaleClaims() {
+        return intakeRepository.requeueStale(OrderIntake.IntakeStatus.QUEUED, OrderIntake.IntakeStatus.PROCESSING,
+                LocalDateTime.now().minus(processingTimeout));
+    }
+
+    // --- Capacidad ---
+
+    private boolean acquireSlot() {
+        if (capacityRepository.tryAcquire(OrderIntakeCapacity.SINGLETON_ID, capacity) == 1) {
+            return true;
+        }
+        return createCapacityCounterIfMissing()
+                && capacityRepository.tryAcquire(OrderIntakeCapacity.SINGLETON_ID, capacity) == 1;
+    }
+
+    private void releaseSlot(OrderIntake intake) {
+        if (PENDING_STATUSES.contains(intake.getStatus())) {
+            capacityRepository.release(OrderIntakeCapacity.SINGLETON_ID);
+        }
+    }
+
+    /**
+     * Crea el contador la primera vez, partiendo de las entradas pendientes que ya hubiera. Devuelve
+     * {@code false} si ya existía (entonces la cola está llena de verdad).
+     */
+    private boolean createCapacityCounterIfMissing() {
+        if (capacityRepository.existsById(OrderIntakeCapacity.SINGLETON_ID)) {
+            return false;
+        }
+        try {
+            separateTransaction.executeWithoutResult(status -> capacityRepository.save(new OrderIntakeCapacity(
+                    OrderIntakeCapacity.SINGLETON_ID, intakeRepository.countByStatusIn(PENDING_STATUSES))));
+        } catch (DataAccessException e) {
+            // Otro nodo lo creó a la vez
+        }
+        return true;
+    }
+
+    // --- Conversión ---
+
+    public static boolean isTerminal(OrderIntakeResponseDTO intake) {
+        return OrderIntake.IntakeStatus.COMPLETED.name().equals(intake.getStatus())
+                || OrderIntake.IntakeStatus.FAILED.name().equals(intake.getStatus());
+    }
+
+    private String writePayload(OrderRequestDTO orderRequest) {
+        try {
+            return objectMapper.writeValueAsString(orderRequest);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Order request could not be serialized.", e);
+        }
+    }
+
+    private OrderRequestDTO readPayload(String payload) {
+        try {
+            return objectMapper.readValue(payload, OrderRequestDTO.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored order request could not be read.", e);
+        }
+    }
+
+    private OrderIntakeResponseDTO convertToResponseDTO(OrderIntake intake) {
+        return OrderIntakeResponseDTO.builder()
+                .intakeId(intake.getId())
+                .status(intake.getStatus().name())
+                .orderId(intake.getOrderId())
+                .errorMessage(intake.getErrorMessage())
+                .createdAt(intake.getCreatedAt())
+                .updatedAt(intake.getUpdatedAt())
+                .build();
+    }
+}
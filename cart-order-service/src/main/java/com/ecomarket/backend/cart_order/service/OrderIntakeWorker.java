@@ -0,0 +1,76 @@
+package com.ecomarket.backend.cart_order.service;
+
+import com.ecomarket.backend.cart_order.DTO.response.OrderIntakeResponseDTO;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Pool de workers del modo asíncrono. Sólo reclama tantas entradas como hilos libres tiene,
+ * así la cola pendiente permanece en la tabla (visible para el control de capacidad y para otros nodos).
+ */
+@Component
+// Misma comparación que OrderIntakeService.isAsyncMode(): "ASYNC" también activa los workers
+@ConditionalOnExpression("'${order.intake.mode:sync}'.equalsIgnoreCase('async')")
+public class OrderIntakeWorker {
+
+    private final OrderIntakeService intakeService;
+    private final OrderIntakeNotifier intakeNotifier;
+    private final ThreadPoolTaskExecutor executor;
+    private final int workers;
+
+    public OrderIntakeWorker(OrderIntakeService intakeService,
+                             OrderIntakeNotifier intakeNotifier,
+                             @Value("${order.intake.workers:8}") int workers) {
+        this.intakeService = intakeService;
+        this.intakeNotifier = intakeNotifier;
+        this.workers = workers;
+        this.executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(workers);
+        executor.setThreadNamePrefix("order-intake-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+    }
+
+    @Scheduled(fixedDelayString = "${order.intake.poll-interval-ms:500}")
+    public void poll() {
+        int freeSlots = workers - executor.getActiveCount() - executor.getQueueSize();
+        List<Long> claimed = intakeService.claimNext(freeSlots);
+        for (Long intakeId : claimed) {
+            executor.execute(() -> process(intakeId));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${order.intake.stale-check-interval-ms:60000}")
+    public void requeueStaleClaims() {
+        int requeued = intakeService.requeueStaleClaims();
+        if (requeued > 0) {
+            System.err.println("Requeued " + requeued + " order intake entries left in PROCESSING by another node.");
+        }
+    }
+
+    private void process(Long intakeId) {
+        OrderIntakeResponseDTO result;
+        try {
+            result = intakeService.process(intakeId);
+        } catch (Exception e) {
+            System.err.println("Async order intake " + intakeId + " failed: " + e.getMessage());
+            // Los errores transitorios vuelven a la cola con espera; sólo los permanentes la dejan en FAILED
+            result = intakeService.recordFailure(intakeId, e);
+        }
+        intakeNotifier.publish(result);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
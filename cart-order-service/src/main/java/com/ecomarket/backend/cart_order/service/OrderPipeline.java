@@ -0,0 +1,14 @@
+package com.ecomarket.backend.cart_order.service;
+
+import com.ecomarket.backend.cart_order.DTO.request.OrderRequestDTO;
+import com.ecomarket.backend.cart_order.DTO.response.OrderResponseDTO;
+import reactor.core.publisher.Mono;
+
+/**
+ * Flujo de creación de pedidos. La implementación activa se elige con
+ * {@code order.pipeline.mode} ({@code blocking} por defecto o {@code reactive}).
+ */
+public interface OrderPipeline {
+
+    Mono<OrderResponseDTO> createOrder(OrderRequestDTO orderRequest);
+}
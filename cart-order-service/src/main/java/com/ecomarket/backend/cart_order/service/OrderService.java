@@ -6,14 +6,15 @@ import com.ecomarket.backend.cart_order.DTO.request.TransactionRequestDTO;
 import com.ecomarket.backend.cart_order.DTO.response.*;
 import com.ecomarket.backend.cart_order.client.PaymentServiceClient;
 import com.ecomarket.backend.cart_order.client.ProductServiceClient;
+import com.ecomarket.backend.cart_order.exception.ServiceUnavailableException;
 import com.ecomarket.backend.cart_order.model.Order;
 import com.ecomarket.backend.cart_order.model.OrderItem;
 import com.ecomarket.backend.cart_order.repository.OrderItemRepository;
 import com.ecomarket.backend.cart_order.repository.OrderRepository;
-import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.client.HttpClientErrorException;
 
 import java.math.BigDecimal;
@@ -35,6 +36,7 @@ public class OrderService {
     private final ProductServiceClient productServiceClient;
     private final UserService userService;
     private final PaymentServiceClient paymentServiceClient;
+    private final StockLeaseManager stockLeaseManager;
 
     private static final BigDecimal FIXED_SHIPPING_COST = new BigDecimal("3990.00");
     private static final String DEFAULT_CURRENCY = "CLP";
@@ -42,6 +44,17 @@ public class OrderService {
 
     @Transactional
     public OrderResponseDTO createOrder(OrderRequestDTO orderRequest) {
+        return createOrder(orderRequest, null);
+    }
+
+    /**
+     * Igual que {@link #createOrder(OrderRequestDTO)}, pero cada RESERVE y el cobro llevan una clave
+     * derivada de {@code idempotencyKey}. Si el pedido se vuelve a procesar con la misma clave (un
+     * nodo murió a mitad), catalog y payment no repiten lo que ya aplicaron. Con clave, las reservas
+     * van siempre a catalog: una reserva local sobre el lease no se puede deduplicar.
+     */
+    @Transactional
+    public OrderResponseDTO createOrder(OrderRequestDTO orderRequest, String idempotencyKey) {
         validateOrderRequest(orderRequest);
 
         UserResponseDTO user = getUserForOrder(orderRequest.getUserId());
@@ -49,12 +62,12 @@ public class OrderService {
 
         Order order = createInitialOrder(user);
 
-        List<OrderItem> orderItems = processOrderItems(orderRequest.getItems());
+        List<OrderItem> orderItems = processOrderItems(orderRequest.getItems(), idempotencyKey);
         OrderTotals totals = calculateOrderTotals(orderItems);
 
         Order savedOrder = saveOrderWithItemsAndTotals(order, orderItems, totals);
 
-        TransactionResponseDTO paymentResponse = createPaymentTransaction(savedOrder);
+        TransactionResponseDTO paymentResponse = createPaymentTransaction(savedOrder, stepKey(idempotencyKey, "payment"));
         updateOrderWithPaymentTransaction(savedOrder, paymentResponse);
 
         return convertToOrderResponseDTO(savedOrder);
@@ -62,7 +75,7 @@ public class OrderService {
 
     // --- Métodos de validación ---
 
-    private void validateOrderRequest(OrderRequestDTO orderRequest) {
+    void validateOrderRequest(OrderRequestDTO orderRequest) {
         if (orderRequest.getUserId() == null) {
             throw new IllegalArgumentException("User ID is required to create an order.");
         }
@@ -72,7 +85,7 @@ public class OrderService {
         }
     }
 
-    private UserResponseDTO getUserForOrder(Long userId) {
+    UserResponseDTO getUserForOrder(Long userId) {
         try {
             return userService.getUserById(userId);
         } catch (DataAccessException e) {
@@ -81,7 +94,7 @@ public class OrderService {
         }
     }
 
-    private void validateUserForOrder(UserResponseDTO user) {
+    void validateUserForOrder(UserResponseDTO user) {
         if (user == null) {
             throw new IllegalArgumentException("User not found with ID: " + user.getId());
         }
@@ -93,7 +106,7 @@ public class OrderService {
 
     // --- Métodos de creación de Order ---
 
-    private Order createInitialOrder(UserResponseDTO user) {
+    Order createInitialOrder(UserResponseDTO user) {
         return Order.builder()
                 .userId(user.getId())
                 .shippingAddressId(user.getDefaultAddressId())
@@ -108,14 +121,15 @@ public class OrderService {
 
     // --- Métodos de procesamiento de items ---
 
-    private List<OrderItem> processOrderItems(List<OrderItemRequestDTO> itemRequests) {
+    private List<OrderItem> processOrderItems(List<OrderItemRequestDTO> itemRequests, String idempotencyKey) {
         List<OrderItem> orderItems = new ArrayList<>();
 
-        for (OrderItemRequestDTO itemRequest : itemRequests) {
+        for (int i = 0; i < itemRequests.size(); i++) {
+            OrderItemRequestDTO itemRequest = itemRequests.get(i);
             ProductResponseDTO product = getProductForOrder(itemRequest.getProductId());
             validateProductForOrder(product, itemRequest);
 
-            validateAndReserveStock(product, itemRequest);
+            validateAndReserveStock(product, itemRequest, stepKey(idempotencyKey, "reserve:" + i));
 
             OrderItem orderItem = createOrderItem(product, itemRequest);
             orderItems.add(orderItem);
@@ -129,13 +143,15 @@ public class OrderService {
             return productServiceClient.getProductById(productId);
         } catch (HttpClientErrorException.NotFound ex) {
             throw new IllegalArgumentException("Product not found with ID: " + productId);
+        } catch (ServiceUnavailableException ex) {
+            throw ex;
         } catch (Exception ex) {
             System.err.println("Error retrieving product ID " + productId + ": " + ex.getMessage());
             throw new RuntimeException("Failed to retrieve product details for ID: " + productId, ex);
         }
     }
 
-    private void validateProductForOrder(ProductResponseDTO product, OrderItemRequestDTO itemRequest) {
+    void validateProductForOrder(ProductResponseDTO product, OrderItemRequestDTO itemRequest) {
         if (product == null) {
             throw new IllegalArgumentException("Product details could not be retrieved for ID: " + itemRequest.getProductId());
         }
@@ -151,10 +167,18 @@ public class OrderService {
 
     // --- Métodos de manejo de inventario ---
 
-    private void validateAndReserveStock(ProductResponseDTO product, OrderItemRequestDTO itemRequest) {
+    private void validateAndReserveStock(ProductResponseDTO product, OrderItemRequestDTO itemRequest, String reserveKey) {
+        // SKU con lease: la reserva es local y no consulta inventario en catalog
+        if (reserveKey == null && stockLeaseManager.tryReserve(product.getId(), itemRequest.getQuantity())) {
+            return;
+        }
         InventoryResponseDTO inventory = getProductInventory(product.getId());
         validateStockAvailability(inventory, product, itemRequest);
-        reserveProductStock(product, itemRequest);
+        reserveProductStock(product, itemRequest, reserveKey);
+    }
+
+    private static String stepKey(String idempotencyKey, String step) {
+        return idempotencyKey == null ? null : idempotencyKey + ":" + step;
     }
 
     private InventoryResponseDTO getProductInventory(Long productId) {
@@ -165,21 +189,24 @@ public class OrderService {
         return inventory;
     }
 
-    private void validateStockAvailability(InventoryResponseDTO inventory, ProductResponseDTO product, OrderItemRequestDTO itemRequest) {
+    void validateStockAvailability(InventoryResponseDTO inventory, ProductResponseDTO product, OrderItemRequestDTO itemRequest) {
         if (inventory.getAvailableQuantity() < itemRequest.getQuantity()) {
             throw new IllegalArgumentException("Insufficient stock for product '" + product.getName() + "'. Available: " + inventory.getAvailableQuantity() + ", Requested: " + itemRequest.getQuantity());
         }
     }
 
-    private void reserveProductStock(ProductResponseDTO product, OrderItemRequestDTO itemRequest) {
+    private void reserveProductStock(ProductResponseDTO product, OrderItemRequestDTO itemRequest, String reserveKey) {
         try {
             productServiceClient.performInventoryOperation(
                     itemRequest.getProductId(),
                     "RESERVE",
-                    itemRequest.getQuantity()
+                    itemRequest.getQuantity(),
+                    reserveKey
             );
         } catch (IllegalArgumentException e) {
             throw new IllegalArgumentException("Failed to reserve stock for product '" + product.getName() + "': " + e.getMessage(), e);
+        } catch (ServiceUnavailableException e) {
+            throw e;
         } catch (Exception e) {
             System.err.println("Unexpected error reserving stock for product " + product.getId() + ": " + e.getMessage());
             throw new RuntimeException("Failed to reserve stock for product: " + product.getName(), e);
@@ -188,7 +215,7 @@ public class OrderService {
 
     // --- Métodos de creación de OrderItem ---
 
-    private OrderItem createOrderItem(ProductResponseDTO product, OrderItemRequestDTO itemRequest) {
+    OrderItem createOrderItem(ProductResponseDTO product, OrderItemRequestDTO itemRequest) {
         BigDecimal itemSubtotal = product.getPrice().multiply(BigDecimal.valueOf(itemRequest.getQuantity()));
 
         return OrderItem.builder()
@@ -202,7 +229,7 @@ public class OrderService {
 
     // --- Métodos de cálculo de totales ---
 
-    private OrderTotals calculateOrderTotals(List<OrderItem> orderItems) {
+    OrderTotals calculateOrderTotals(List<OrderItem> orderItems) {
         BigDecimal totalSubtotal = orderItems.stream()
                 .map(OrderItem::getSubtotal)
                 .reduce(BigDecimal.ZERO, BigDecimal::add);
@@ -214,7 +241,7 @@ public class OrderService {
 
     // --- Métodos de persistencia ---
 
-    private Order saveOrderWithItemsAndTotals(Order order, List<OrderItem> orderItems, OrderTotals totals) {
+    Order saveOrderWithItemsAndTotals(Order order, List<OrderItem> orderItems, OrderTotals totals) {
         updateOrderTotals(order, totals);
         Order savedOrder = orderRepository.save(order);
 
@@ -238,21 +265,24 @@ public class OrderService {
 
     // --- Métodos de manejo de pagos ---
 
-    private TransactionResponseDTO createPaymentTransaction(Order savedOrder) {
+    private TransactionResponseDTO createPaymentTransaction(Order savedOrder, String paymentKey) {
         TransactionRequestDTO paymentRequest = buildPaymentRequest(savedOrder);
+        paymentRequest.setIdempotencyKey(paymentKey);
 
         try {
             return paymentServiceClient.createPaymentTransaction(paymentRequest);
         } catch (IllegalArgumentException e) {
             System.err.println("Payment transaction failed for order " + savedOrder.getId() + ": " + e.getMessage());
             throw new RuntimeException("Payment transaction failed: " + e.getMessage(), e);
+        } catch (ServiceUnavailableException e) {
+            throw e;
         } catch (Exception e) {
             System.err.println("Error calling Payment Service for order " + savedOrder.getId() + ": " + e.getMessage());
             throw new RuntimeException("Failed to process payment transaction.", e);
         }
     }
 
-    private TransactionRequestDTO buildPaymentRequest(Order savedOrder) {
+    TransactionRequestDTO buildPaymentRequest(Order savedOrder) {
         return TransactionRequestDTO.builder()
                 .orderId(savedOrder.getId())
                 .userId(savedOrder.getUserId())
@@ -262,21 +292,21 @@ public class OrderService {
                 .build();
     }
 
-    private void updateOrderWithPaymentTransaction(Order savedOrder, TransactionResponseDTO paymentResponse) {
+    void updateOrderWithPaymentTransaction(Order savedOrder, TransactionResponseDTO paymentResponse) {
         savedOrder.setPaymentTransactionId(paymentResponse.getTransactionId());
         orderRepository.save(savedOrder);
     }
 
     // --- Métodos de consulta ---
 
-    @Transactional
+    @Transactional(readOnly = true)
     public List<OrderResponseDTO> getAllOrders() {
         return orderRepository.findAll().stream()
                 .map(this::convertToOrderResponseDTO)
                 .collect(Collectors.toList());
     }
 
-    @Transactional
+    @Transactional(readOnly = true)
     public List<OrderResponseDTO> getOrdersByDate(LocalDate date) {
         LocalDateTime startOfDay = date.atStartOfDay();
         LocalDateTime endOfDay = date.atTime(LocalTime.MAX);
@@ -342,7 +372,7 @@ public class OrderService {
 
     // --- Métodos de conversión ---
 
-    private OrderResponseDTO convertToOrderResponseDTO(Order order) {
+    OrderResponseDTO convertToOrderResponseDTO(Order order) {
         List<OrderItemResponseDTO> itemDTOs = convertOrderItemsToDTO(order.getItems());
 
         return OrderResponseDTO.builder()
@@ -378,14 +408,14 @@ public class OrderService {
 
     // --- Clases internas para organizar datos ---
 
-    @Transactional
+    @Transactional(readOnly = true)
     public OrderResponseDTO getOrderById(Long orderId) {
         return orderRepository.findById(orderId)
                 .map(this::convertToOrderResponseDTO)
                 .orElse(null);
     }
 
-    private static class OrderTotals {
+    static class OrderTotals {
         private final BigDecimal subtotal;
         private final BigDecimal totalAmount;
 
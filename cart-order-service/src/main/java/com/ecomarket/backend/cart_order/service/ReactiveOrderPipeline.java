@@ -0,0 +1,271 @@
+package com.ecomarket.backend.cart_order.service;
+
+import com.ecomarket.backend.cart_order.DTO.request.OrderItemRequestDTO;
+import com.ecomarket.backend.cart_order.DTO.request.OrderRequestDTO;
+import com.ecomarket.backend.cart_order.DTO.response.InventoryResponseDTO;
+import com.ecomarket.backend.cart_order.DTO.response.OrderResponseDTO;
+import com.ecomarket.backend.cart_order.DTO.response.ProductResponseDTO;
+import com.ecomarket.backend.cart_order.DTO.response.UserResponseDTO;
+import com.ecomarket.backend.cart_order.client.ReactivePaymentServiceClient;
+import com.ecomarket.backend.cart_order.client.ReactiveProductServiceClient;
+import com.ecomarket.backend.cart_order.exception.ServiceUnavailableException;
+import com.ecomarket.backend.cart_order.model.Order;
+import com.ecomarket.backend.cart_order.model.OrderItem;
+import com.ecomarket.backend.cart_order.repository.OrderRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * Creación de pedidos no bloqueante sobre WebClient. Las llamadas a catalog de cada ítem
+ * (producto e inventario en paralelo, luego la reserva) se lanzan con concurrencia acotada,
+ * y sólo el acceso a base de datos se delega a {@link Schedulers#boundedElastic()}.
+ * Las validaciones y el armado del pedido reutilizan los de {@link OrderService}.
+ */
+@Service
+@ConditionalOnProperty(name = "order.pipeline.mode", havingValue = "reactive")
+public class ReactiveOrderPipeline implements OrderPipeline {
+
+    private final OrderService orderService;
+    private final OrderRepository orderRepository;
+    private final ReactiveProductServiceClient productServiceClient;
+    private final ReactivePaymentServiceClient paymentServiceClient;
+    private final TransactionTemplate transactionTemplate;
+    private final StockLeaseManager stockLeaseManager;
+    private final int maxConcurrency;
+    private final Duration timeout;
+
+    public ReactiveOrderPipeline(OrderService orderService,
+                                 OrderRepository orderRepository,
+                                 ReactiveProductServiceClient productServiceClient,
+                                 ReactivePaymentServiceClient paymentServiceClient,
+                                 TransactionTemplate transactionTemplate,
+                                 StockLeaseManager stockLeaseManager,
+                                 @Value("${order.pipeline.reactive.max-concurrency:8}") int maxConcurrency,
+                                 @Value("${order.pipeline.reactive.timeout:15s}") Duration timeout) {
+        this.orderService = orderService;
+        this.orderRepository = orderRepository;
+        this.productServiceClient = productServiceClient;
+        this.paymentServiceClient = paymentServiceClient;
+        this.transactionTemplate = transactionTemplate;
+        this.stockLeaseManager = stockLeaseManager;
+        this.maxConcurrency = maxConcurrency;
+        this.timeout = timeout;
+    }
+
+    /**
+     * El timeout cubre el pedido entero. Ante error, timeout o cancelación del suscriptor se
+     * compensa lo que el intento llegó a hacer (ver {@link Attempt}).
+     */
+    @Override
+    public Mono<OrderResponseDTO> createOrder(OrderRequestDTO orderRequest) {
+        return Mono.defer(() -> {
+            Attempt attempt = new Attempt();
+            return loadUser(orderRequest)
+                    .flatMap(user -> processOrderItems(orderRequest.getItems(), attempt)
+                            .flatMap(orderItems -> persistOrder(user, orderItems, attempt)))
+                    .flatMap(savedOrder -> payAndConfirm(savedOrder, attempt))
+                    .timeout(timeout)
+                    .onErrorResume(ex -> attempt.compensate().then(Mono.error(ex)))
+                    .doOnCancel(() -> attempt.compensate().subscribe());
+        });
+    }
+
+    private Mono<UserResponseDTO> loadUser(OrderRequestDTO orderRequest) {
+        return blocking(() -> {
+            orderService.validateOrderRequest(orderRequest);
+            UserResponseDTO user = orderService.getUserForOrder(orderRequest.getUserId());
+            orderService.validateUserForOrder(user);
+            return user;
+        });
+    }
+
+    // --- Items: producto + inventario en paralelo, luego la reserva ---
+
+    private Mono<List<OrderItem>> processOrderItems(List<OrderItemRequestDTO> itemRequests, Attempt attempt) {
+        return Flux.fromIterable(itemRequests)
+                .flatMapSequential(itemRequest -> processOrderItem(itemRequest, attempt), maxConcurrency)
+                .collectList();
+    }
+
+    private Mono<OrderItem> processOrderItem(OrderItemRequestDTO itemRequest, Attempt attempt) {
+        Long productId = itemRequest.getProductId();
+        Mono<ProductResponseDTO> product = productServiceClient.getProductById(productId)
+                .switchIfEmpty(Mono.error(() -> new IllegalArgumentException(
+                        "Product details could not be retrieved for ID: " + productId)));
+
+        if (stockLeaseManager.isLeased(productId)) {
+            return product.flatMap(productDetails -> {
+                orderService.validateProductForOrder(productDetails, itemRequest);
+                return reserveLeased(productDetails, itemRequest, attempt);
+            });
+        }
+
+        return Mono.zip(product, getInventory(productId)).flatMap(productAndInventory -> {
+            ProductResponseDTO productDetails = productAndInventory.getT1();
+            orderService.validateProductForOrder(productDetails, itemRequest);
+            orderService.validateStockAvailability(productAndInventory.getT2(), productDetails, itemRequest);
+            return reserveRemote(productDetails, itemRequest, attempt);
+        });
+    }
+
+    // El CAS local no bloquea; sólo la renovación del lease pasa a boundedElastic
+    private Mono<OrderItem> reserveLeased(ProductResponseDTO productDetails, OrderItemRequestDTO itemRequest, Attempt attempt) {
+        Long productId = productDetails.getId();
+        OrderItem item = orderService.createOrderItem(productDetails, itemRequest);
+        Mono<Boolean> reserved;
+        if (stockLeaseManager.tryReserveLocal(productId, itemRequest.getQuantity())) {
+            attempt.reserved(item);
+            reserved = Mono.just(true);
+        } else {
+            reserved = attempt.detach(blocking(() -> {
+                boolean ok = stockLeaseManager.tryReserve(productId, itemRequest.getQuantity());
+                if (ok) {
+                    attempt.reserved(item);
+                }
+                return ok;
+            }));
+        }
+
+        return reserved.flatMap(ok -> ok
+                ? Mono.just(item)
+                : getInventory(productId).flatMap(inventory -> {
+                    orderService.validateStockAvailability(inventory, productDetails, itemRequest);
+                    return reserveRemote(productDetails, itemRequest, attempt);
+                }));
+    }
+
+    private Mono<InventoryResponseDTO> getInventory(Long productId) {
+        return productServiceClient.getProductInventory(productId)
+                .switchIfEmpty(Mono.error(() -> new IllegalArgumentException(
+                        "Inventory information not found for product ID: " + productId)));
+    }
+
+    private Mono<OrderItem> reserveRemote(ProductResponseDTO productDetails, OrderItemRequestDTO itemRequest, Attempt attempt) {
+        OrderItem item = orderService.createOrderItem(productDetails, itemRequest);
+        return attempt.detach(productServiceClient.performInventoryOperation(productDetails.getId(), "RESERVE", itemRequest.getQuantity())
+                        .doOnNext(inventory -> attempt.reserved(item)))
+                .onErrorMap(IllegalArgumentException.class, e -> new IllegalArgumentException(
+                        "Failed to reserve stock for product '" + productDetails.getName() + "': " + e.getMessage(), e))
+                .thenReturn(item);
+    }
+
+    // --- Persistencia y pago ---
+
+    private Mono<Order> persistOrder(UserResponseDTO user, List<OrderItem> orderItems, Attempt attempt) {
+        return attempt.detach(blocking(() -> {
+            Order saved = transactionTemplate.execute(status -> {
+                Order order = orderService.createInitialOrder(user);
+                return orderService.saveOrderWithItemsAndTotals(order, orderItems, orderService.calculateOrderTotals(orderItems));
+            });
+            attempt.saved(saved);
+            return saved;
+        }));
+    }
+
+    private Mono<OrderResponseDTO> payAndConfirm(Order savedOrder, Attempt attempt) {
+        return paymentServiceClient.createPaymentTransaction(orderService.buildPaymentRequest(savedOrder))
+                .switchIfEmpty(Mono.error(() -> new IllegalStateException(
+                        "Payment service returned no transaction for order " + savedOrder.getId())))
+                .doOnNext(payment -> attempt.paid())
+                .flatMap(payment -> blocking(() -> transactionTemplate.execute(status -> {
+                    orderService.updateOrderWithPaymentTransaction(savedOrder, payment);
+                    return orderService.convertToOrderResponseDTO(savedOrder);
+                })))
+                // El pipeline bloqueante revierte el pedido entero si el pago falla; aquí compensa Attempt
+                .onErrorMap(ex -> !(ex instanceof ServiceUnavailableException),
+                        ex -> new RuntimeException("Payment transaction failed: " + ex.getMessage(), ex));
+    }
+
+    private Mono<Void> release(OrderItem item) {
+        return productServiceClient.performInventoryOperation(item.getProductId(), "RELEASE", item.getQuantity())
+                .doOnError(ex -> System.err.println("Failed to release stock for product " + item.getProductId()
+                        + " after aborted order: " + ex.getMessage()))
+                .onErrorResume(ex -> Mono.empty())
+                .then();
+    }
+
+    private Mono<Void> discardOrder(Order savedOrder) {
+        return blocking(() -> transactionTemplate.execute(status -> {
+            orderRepository.deleteById(savedOrder.getId());
+            return savedOrder.getId();
+        })).then();
+    }
+
+    /**
+     * Lo que lleva hecho un pedido: unidades reservadas y pedido guardado.
+     * <p>
+     * Las reservas y el guardado se lanzan desacoplados del pipeline ({@link #detach}), así un
+     * timeout o una cancelación no los corta a medias sin saber si llegaron a aplicarse. La
+     * compensación libera lo registrado hasta ese momento y lo que termina después se deshace
+     * al llegar. Una vez que payment devolvió la transacción no se compensa nada: el cobro ya
+     * existe y el pedido (con su stock) se conserva para conciliarlo.
+     */
+    private final class Attempt {
+
+        private final List<OrderItem> reserved = new ArrayList<>(); // Protegido por this
+        private Order order; // Protegido por this
+        private boolean compensated; // Protegido por this
+        private boolean paid; // Protegido por this
+
+        <T> Mono<T> detach(Mono<T> call) {
+            return Mono.defer(() -> Mono.fromFuture(call.toFuture(), true));
+        }
+
+        void reserved(OrderItem item) {
+            synchronized (this) {
+                if (!compensated) {
+                    reserved.add(item);
+                    return;
+                }
+            }
+            release(item).subscribe();
+        }
+
+        void saved(Order savedOrder) {
+            synchronized (this) {
+                if (!compensated) {
+                    order = savedOrder;
+                    return;
+                }
+            }
+            discardOrder(savedOrder).subscribe();
+        }
+
+        synchronized void paid() {
+            paid = true;
+        }
+
+        Mono<Void> compensate() {
+            List<OrderItem> toRelease;
+            Order toDiscard;
+            synchronized (this) {
+                if (compensated) {
+                    return Mono.empty();
+                }
+                compensated = true;
+                if (paid) {
+                    return Mono.empty();
+                }
+                toRelease = List.copyOf(reserved);
+                toDiscard = order;
+            }
+            return Flux.fromIterable(toRelease)
+                    .flatMap(ReactiveOrderPipeline.this::release)
+                    .then(toDiscard == null ? Mono.empty() : discardOrder(toDiscard));
+        }
+    }
+
+    private static <T> Mono<T> blocking(Callable<T> call) {
+        return Mono.fromCallable(call).subscribeOn(Schedulers.boundedElastic());
+    }
+}
@@ -0,0 +1,220 @@
+package com.ecomarket.backend.cart_order.service;
+
+import com.ecomarket.backend.cart_order.DTO.response.StockLeaseResponseDTO;
+import com.ecomarket.backend.cart_order.client.ProductServiceClient;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Reservas locales para los SKU configurados en {@code stock.lease.product-ids}.
+ * El nodo obtiene de catalog un bloque de unidades (lease) y lo reparte con un CAS sobre
+ * un contador en memoria, sin llamadas HTTP por pedido. Cuando el bloque se agota se pide otro;
+ * las unidades no usadas se devuelven antes de que el lease expire y al apagar el nodo.
+ * Si catalog no concede stock, {@link #tryReserve} devuelve false y el pedido sigue por la
+ * reserva remota habitual, que produce el error de stock insuficiente.
+ */
+@Service
+public class StockLeaseManager {
+
+    private static final int MAX_REFILL_ATTEMPTS = 3;
+
+    private final ProductServiceClient productServiceClient;
+    private final Map<Long, LeaseSlot> slots;
+    private final int blockSize;
+    private final Duration returnBefore;
+    private final String holder;
+
+    public StockLeaseManager(ProductServiceClient productServiceClient,
+                             @Value("${stock.lease.product-ids:}") String productIds,
+                             @Value("${stock.lease.block-size:100}") int blockSize,
+                             @Value("${stock.lease.return-before-expiry:30s}") Duration returnBefore,
+                             @Value("${stock.lease.holder:}") String holder) {
+        this.productServiceClient = productServiceClient;
+        this.slots = Arrays.stream(productIds.split(","))
+                .map(String::trim)
+                .filter(id -> !id.isEmpty())
+                .map(Long::valueOf)
+                .distinct()
+                .collect(Collectors.toUnmodifiableMap(Function.identity(), LeaseSlot::new));
+        this.blockSize = blockSize;
+        this.returnBefore = returnBefore;
+        this.holder = holder.isBlank() ? "cart-order-service@" + ManagementFactory.getRuntimeMXBean().getName() : holder;
+    }
+
+    public boolean isLeased(Long productId) {
+        return slots.containsKey(productId);
+    }
+
+    /**
+     * Sólo el camino rápido: descuenta del lease vigente si alcanza, nunca llama a catalog.
+     */
+    public boolean tryReserveLocal(Long productId, int quantity) {
+        LeaseSlot slot = slots.get(productId);
+        if (slot == null) {
+            return false;
+        }
+        LocalLease lease = slot.current;
+        return lease != null && lease.tryTake(quantity, System.nanoTime());
+    }
+
+    /**
+     * Descuenta del lease vigente y, si no alcanza, lo renueva con catalog (bloqueante).
+     */
+    public boolean tryReserve(Long productId, int quantity) {
+        LeaseSlot slot = slots.get(productId);
+        if (slot == null) {
+            return false;
+        }
+        for (int attempt = 0; attempt <= MAX_REFILL_ATTEMPTS; attempt++) {
+            LocalLease lease = slot.current;
+            if (lease != null && lease.tryTake(quantity, System.nanoTime())) {
+                return true;
+            }
+            if (attempt == MAX_REFILL_ATTEMPTS || !refill(slot, lease, quantity)) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Reemplaza el lease agotado. Otro hilo puede haberlo renovado mientras se esperaba el lock,
+     * en cuyo caso se reintenta sobre el nuevo sin pedir otro bloque.
+     */
+    private boolean refill(LeaseSlot slot, LocalLease exhausted, int quantity) {
+        slot.refillLock.lock();
+        try {
+            if (slot.current != exhausted) {
+                return true;
+            }
+            slot.current = null;
+            if (exhausted != null) {
+                returnUnused(exhausted);
+            }
+            LocalLease fresh = acquire(slot.productId, Math.max(blockSize, quantity));
+            if (fresh == null || fresh.granted < quantity) {
+                if (fresh != null) {
+                    slot.current = fresh;
+                }
+                return false;
+            }
+            slot.current = fresh;
+            return true;
+        } finally {
+            slot.refillLock.unlock();
+        }
+    }
+
+    private LocalLease acquire(Long productId, int quantity) {
+        try {
+            StockLeaseResponseDTO response = productServiceClient.acquireStockLease(productId, quantity, holder);
+            Duration ttl = response.getGrantedAt() != null && response.getExpiresAt() != null
+                    ? Duration.between(response.getGrantedAt(), response.getExpiresAt())
+                    : Duration.ZERO;
+            // Se calcula con el reloj local para no depender del desfase con catalog
+            long usableNanos = Math.max(0, ttl.minus(returnBefore).toNanos());
+            return new LocalLease(response.getLeaseId(), response.getGrantedQuantity(), System.nanoTime() + usableNanos);
+        } catch (Exception e) {
+            System.err.println("Could not acquire stock lease for product " + productId + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private void returnUnused(LocalLease lease) {
+        // getAndSet corta cualquier tryTake concurrente: a partir de aquí el lease queda en cero
+        int unused = lease.remaining.getAndSet(0);
+        try {
+            productServiceClient.returnStockLease(lease.leaseId, unused);
+        } catch (Exception e) {
+            // Catalog dará el lease por consumido al expirar: se pierden unidades, nunca se sobrevende
+            System.err.println("Could not return stock lease " + lease.leaseId + " (" + unused + " unused units): " + e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${stock.lease.expiry-check-interval-ms:5000}")
+    public void returnExpiringLeases() {
+        long now = System.nanoTime();
+        for (LeaseSlot slot : slots.values()) {
+            LocalLease lease = slot.current;
+            if (lease != null && !lease.isUsable(now)) {
+                release(slot, lease);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void returnAllLeases() {
+        for (LeaseSlot slot : slots.values()) {
+            LocalLease lease = slot.current;
+            if (lease != null) {
+                release(slot, lease);
+            }
+        }
+    }
+
+    private void release(LeaseSlot slot, LocalLease lease) {
+        slot.refillLock.lock();
+        try {
+            if (slot.current == lease) {
+                slot.current = null;
+                returnUnused(lease);
+            }
+        } finally {
+            slot.refillLock.unlock();
+        }
+    }
+
+    // ReentrantLock y no synchronized: la renovación hace I/O y no debe fijar hilos virtuales
+    private static final class LeaseSlot {
+        private final Long productId;
+        private final ReentrantLock refillLock = new ReentrantLock();
+        private volatile LocalLease current;
+
+        private LeaseSlot(Long productId) {
+            this.productId = productId;
+        }
+    }
+
+    private static final class LocalLease {
+        private final Long leaseId;
+        private final int granted;
+        private final long returnAtNanos;
+        private final AtomicInteger remaining;
+
+        private LocalLease(Long leaseId, int granted, long returnAtNanos) {
+            this.leaseId = leaseId;
+            this.granted = granted;
+            this.returnAtNanos = returnAtNanos;
+            this.remaining = new AtomicInteger(granted);
+        }
+
+        private boolean isUsable(long nowNanos) {
+            return nowNanos - returnAtNanos < 0;
+        }
+
+        private boolean tryTake(int quantity, long nowNanos) {
+            if (!isUsable(nowNanos)) {
+                return false;
+            }
+            int current;
+            do {
+                current = remaining.get();
+                if (current < quantity) {
+                    return false;
+                }
+            } while (!remaining.compareAndSet(current, current - quantity));
+            return true;
+        }
+    }
+}
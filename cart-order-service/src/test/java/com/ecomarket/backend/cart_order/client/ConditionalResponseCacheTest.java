@@ -0,0 +1,102 @@
+package com.ecomarket.backend.cart_order.client;
+
+import com.ecomarket.backend.cart_order.DTO.response.ProductResponseDTO;
+import com.ecomarket.backend.cart_order.config.RestTemplateConfig;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Stub de catalog que responde 304 cuando el If-None-Match coincide con la versión vigente.
+ */
+class ConditionalResponseCacheTest {
+
+    private HttpServer server;
+    private volatile String currentEtag = "\"p1-v0\"";
+    private volatile String currentName = "Original";
+    private final AtomicInteger fullResponses = new AtomicInteger();
+    private final AtomicInteger notModifiedResponses = new AtomicInteger();
+
+    @BeforeEach
+    void startStubServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/api/v1/products/1", exchange -> {
+            String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+            exchange.getResponseHeaders().add("ETag", currentEtag);
+            if (currentEtag.equals(ifNoneMatch)) {
+                notModifiedResponses.incrementAndGet();
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+                return;
+            }
+            fullResponses.incrementAndGet();
+            byte[] body = ("{\"id\":1,\"name\":\"" + currentName + "\",\"price\":1000}").getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void stopStubServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void unchangedProductIsRevalidatedWithoutBody() {
+        RestTemplate restTemplate = new RestTemplateConfig().restTemplate(Duration.ofSeconds(1), Duration.ofSeconds(1));
+        ConditionalResponseCache<ProductResponseDTO> cache = new ConditionalResponseCache<>(ProductResponseDTO.class, 10);
+        String url = "http://localhost:" + server.getAddress().getPort() + "/api/v1/products/1";
+
+        ProductResponseDTO first = cache.get(restTemplate, url);
+        ProductResponseDTO second = cache.get(restTemplate, url);
+
+        assertThat(second).isSameAs(first);
+        assertThat(fullResponses.get()).isEqualTo(1);
+        assertThat(notModifiedResponses.get()).isEqualTo(1);
+
+        currentEtag = "\"p1-v1\"";
+        currentName = "Renamed";
+        ProductResponseDTO third = cache.get(restTemplate, url);
+
+        assertThat(third.getName()).isEqualTo("Renamed");
+        assertThat(fullResponses.get()).isEqualTo(2);
+    }
+
+    @Test
+    void trustedEntryIsServedWithoutRequestUntilInvalidated() {
+        RestTemplate restTemplate = new RestTemplateConfig().restTemplate(Duration.ofSeconds(1), Duration.ofSeconds(1));
+        long trustedSince = System.nanoTime();
+        ConditionalResponseCache<ProductResponseDTO> cache =
+                new ConditionalResponseCache<>(ProductResponseDTO.class, 10, () -> trustedSince);
+        String url = "http://localhost:" + server.getAddress().getPort() + "/api/v1/products/1";
+
+        ProductResponseDTO first = cache.get(restTemplate, url);
+        assertThat(cache.get(restTemplate, url)).isSameAs(first);
+        assertThat(fullResponses.get()).isEqualTo(1);
+        assertThat(notModifiedResponses.get()).isZero();
+
+        currentEtag = "\"p1-v1\"";
+        currentName = "Renamed";
+        cache.invalidate(url);
+
+        assertThat(cache.get(restTemplate, url).getName()).isEqualTo("Renamed");
+        assertThat(cache.get(restTemplate, url).getName()).isEqualTo("Renamed");
+        assertThat(fullResponses.get()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,196 @@
+package com.ecomarket.backend.cart_order.client;
+
+import com.ecomarket.backend.cart_order.DTO.request.TransactionRequestDTO;
+import com.ecomarket.backend.cart_order.DTO.response.TransactionResponseDTO;
+import com.ecomarket.backend.cart_order.config.ResilienceConfig;
+import com.ecomarket.backend.cart_order.config.RestTemplateConfig;
+import com.ecomarket.backend.cart_order.exception.ServiceUnavailableException;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Levanta un stub HTTP local donde catalog responde lento y payment responde rápido,
+ * para comprobar que la degradación de catalog no arrastra al resto de llamadas.
+ */
+class RemoteDependencyIsolationTest {
+
+    private static final long SLOW_CATALOG_MILLIS = 1500;
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private final AtomicInteger catalogHits = new AtomicInteger();
+    private volatile CountDownLatch catalogRequestsInFlight = new CountDownLatch(0);
+
+    @BeforeEach
+    void startStubServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/api/v1/products", exchange -> {
+            catalogHits.incrementAndGet();
+            catalogRequestsInFlight.countDown();
+            sleep(SLOW_CATALOG_MILLIS);
+            respond(exchange, "{\"id\":1,\"name\":\"Slow product\",\"price\":1000}");
+        });
+        server.createContext("/api/v1/transactions", exchange ->
+                respond(exchange, "{\"transactionId\":99,\"orderId\":1,\"transactionStatus\":\"PENDING\"}"));
+        serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        server.start();
+    }
+
+    @AfterEach
+    void stopStubServer() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    void fullCatalogBulkheadFailsFastWhilePaymentStaysAvailable() throws Exception {
+        RestTemplate restTemplate = restTemplate(Duration.ofSeconds(3));
+        CircuitBreakerRegistry circuitBreakers = circuitBreakers(20, 10);
+        BulkheadRegistry bulkheads = bulkheads(2);
+        ProductServiceClient productClient = productClient(restTemplate, circuitBreakers, bulkheads);
+        PaymentServiceClient paymentClient = paymentClient(restTemplate, circuitBreakers, bulkheads);
+
+        catalogRequestsInFlight = new CountDownLatch(2);
+        CompletableFuture<?> first = CompletableFuture.runAsync(() -> productClient.getProductById(1L));
+        CompletableFuture<?> second = CompletableFuture.runAsync(() -> productClient.getProductById(1L));
+        assertThat(catalogRequestsInFlight.await(2, TimeUnit.SECONDS)).isTrue();
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> productClient.getProductById(1L))
+                .isInstanceOf(ServiceUnavailableException.class);
+        assertThat(elapsedMillis(start)).isLessThan(200);
+
+        start = System.nanoTime();
+        TransactionResponseDTO transaction = paymentClient.createPaymentTransaction(paymentRequest());
+        assertThat(elapsedMillis(start)).isLessThan(500);
+        assertThat(transaction.getTransactionId()).isEqualTo(99L);
+
+        CompletableFuture.allOf(first, second).get(5, TimeUnit.SECONDS);
+        assertThat(catalogHits.get()).isEqualTo(2);
+    }
+
+    @Test
+    void openCatalogCircuitRejectsCallsWithoutReachingTheService() {
+        RestTemplate restTemplate = restTemplate(Duration.ofMillis(200));
+        CircuitBreakerRegistry circuitBreakers = circuitBreakers(4, 4);
+        BulkheadRegistry bulkheads = bulkheads(10);
+        ProductServiceClient productClient = productClient(restTemplate, circuitBreakers, bulkheads);
+        PaymentServiceClient paymentClient = paymentClient(restTemplate, circuitBreakers, bulkheads);
+
+        for (int i = 0; i < 4; i++) {
+            assertThatThrownBy(() -> productClient.getProductById(1L))
+                    .isInstanceOf(RuntimeException.class)
+                    .isNotInstanceOf(ServiceUnavailableException.class);
+        }
+        assertThat(circuitBreakers.circuitBreaker(ResilienceConfig.CATALOG).getState())
+                .isEqualTo(CircuitBreaker.State.OPEN);
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> productClient.getProductInventory(1L))
+                .isInstanceOf(ServiceUnavailableException.class)
+                .satisfies(ex -> assertThat(((ServiceUnavailableException) ex).getRetryAfterSeconds()).isPositive());
+        assertThat(elapsedMillis(start)).isLessThan(50);
+        assertThat(catalogHits.get()).isEqualTo(4);
+
+        assertThat(circuitBreakers.circuitBreaker(ResilienceConfig.PAYMENT).getState())
+                .isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(paymentClient.createPaymentTransaction(paymentRequest()).getTransactionId()).isEqualTo(99L);
+    }
+
+    private ProductServiceClient productClient(RestTemplate restTemplate, CircuitBreakerRegistry circuitBreakers,
+                                               BulkheadRegistry bulkheads) {
+        ProductServiceClient client = new ProductServiceClient(restTemplate, circuitBreakers, bulkheads,
+                new CatalogChangeFeed(restTemplate, baseUrl(), "/catalog/changes", false, 500, Duration.ofSeconds(10)), 100);
+        ReflectionTestUtils.setField(client, "productServiceBaseUrl", baseUrl());
+        ReflectionTestUtils.setField(client, "productsPath", "/products");
+        ReflectionTestUtils.setField(client, "inventoryPath", "/products/inventory");
+        return client;
+    }
+
+    private PaymentServiceClient paymentClient(RestTemplate restTemplate, CircuitBreakerRegistry circuitBreakers,
+                                               BulkheadRegistry bulkheads) {
+        PaymentServiceClient client = new PaymentServiceClient(restTemplate, circuitBreakers, bulkheads);
+        ReflectionTestUtils.setField(client, "paymentServiceBaseUrl", baseUrl());
+        ReflectionTestUtils.setField(client, "paymentServiceTransactionsPath", "/transactions");
+        return client;
+    }
+
+    private RestTemplate restTemplate(Duration readTimeout) {
+        return new RestTemplateConfig().restTemplate(Duration.ofSeconds(1), readTimeout);
+    }
+
+    private CircuitBreakerRegistry circuitBreakers(int slidingWindowSize, int minimumNumberOfCalls) {
+        return new ResilienceConfig().circuitBreakerRegistry(50, Duration.ofSeconds(10), slidingWindowSize,
+                minimumNumberOfCalls, Duration.ofSeconds(30), 1);
+    }
+
+    private BulkheadRegistry bulkheads(int maxConcurrentCalls) {
+        return new ResilienceConfig().bulkheadRegistry(maxConcurrentCalls, Duration.ZERO);
+    }
+
+    private TransactionRequestDTO paymentRequest() {
+        return TransactionRequestDTO.builder()
+                .orderId(1L)
+                .userId(1L)
+                .amount(new BigDecimal("1000"))
+                .currency("CLP")
+                .paymentMethod("Credit Card")
+                .build();
+    }
+
+    private String baseUrl() {
+        return "http://localhost:" + server.getAddress().getPort() + "/api/v1";
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    private static void respond(HttpExchange exchange, String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        try {
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } catch (IOException ignored) {
+            // El cliente ya cortó la conexión por timeout
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
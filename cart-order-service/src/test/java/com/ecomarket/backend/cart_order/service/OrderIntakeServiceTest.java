@@ -0,0 +1,234 @@
+package com.ecomarket.backend.cart_order.service;
+
+import com.ecomarket.backend.cart_order.DTO.request.OrderItemRequestDTO;
+import com.ecomarket.backend.cart_order.DTO.request.OrderRequestDTO;
+import com.ecomarket.backend.cart_order.DTO.response.OrderIntakeResponseDTO;
+import com.ecomarket.backend.cart_order.DTO.response.OrderResponseDTO;
+import com.ecomarket.backend.cart_order.exception.GlobalExceptionHandler;
+import com.ecomarket.backend.cart_order.exception.IntakeQueueFullException;
+import com.ecomarket.backend.cart_order.exception.ServiceUnavailableException;
+import com.ecomarket.backend.cart_order.model.OrderIntake;
+import com.ecomarket.backend.cart_order.model.OrderIntakeCapacity;
+import com.ecomarket.backend.cart_order.repository.OrderIntakeCapacityRepository;
+import com.ecomarket.backend.cart_order.repository.OrderIntakeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Cola de ingreso asíncrono sobre H2: encolar, reclamar, reencolar entradas huérfanas sin repetir
+ * el pedido fuera (misma clave de idempotencia), reintentos de fallos transitorios y la capacidad
+ * bajo concurrencia.
+ */
+@DataJpaTest
+class OrderIntakeServiceTest {
+
+    @Autowired
+    private OrderIntakeRepository intakeRepository;
+
+    @Autowired
+    private OrderIntakeCapacityRepository capacityRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final OrderService orderService = mock(OrderService.class);
+
+    @BeforeEach
+    void stubOrders() {
+        when(orderService.createOrder(any(OrderRequestDTO.class), anyString()))
+                .thenReturn(OrderResponseDTO.builder().id(500L).build());
+    }
+
+    @Test
+    void enqueuedIntakeIsClaimedAndCompleted() {
+        OrderIntakeService service = service(10);
+
+        OrderIntakeResponseDTO queued = service.enqueue(request());
+        assertThat(queued.getStatus()).isEqualTo("QUEUED");
+
+        assertThat(service.claimNext(5)).containsExactly(queued.getIntakeId());
+        assertThat(service.getIntake(queued.getIntakeId()).getStatus()).isEqualTo("PROCESSING");
+
+        OrderIntakeResponseDTO completed = service.process(queued.getIntakeId());
+        assertThat(completed.getStatus()).isEqualTo("COMPLETED");
+        assertThat(completed.getOrderId()).isEqualTo(500L);
+    }
+
+    @Test
+    void requeuedIntakeReplaysWithTheSameIdempotencyKey() {
+        OrderIntakeService service = service(10);
+        Long intakeId = service.enqueue(request()).getIntakeId();
+        String key = intakeRepository.findById(intakeId).orElseThrow().getIdempotencyKey();
+        assertThat(key).isNotBlank();
+
+        // Primer intento: el nodo muere a mitad (la transacción se revierte) y la entrada queda en PROCESSING
+        service.claimNext(1);
+        when(orderService.createOrder(any(OrderRequestDTO.class), anyString()))
+                .thenThrow(new IllegalStateException("node died"))
+                .thenReturn(OrderResponseDTO.builder().id(501L).build());
+        assertThrows(IllegalStateException.class, () -> service.process(intakeId));
+
+        OrderIntake stale = intakeRepository.findById(intakeId).orElseThrow();
+        stale.setClaimedAt(LocalDateTime.now().minusHours(1));
+        intakeRepository.saveAndFlush(stale);
+        assertThat(service.requeueStaleClaims()).isEqualTo(1);
+
+        assertThat(service.claimNext(1)).containsExactly(intakeId);
+        assertThat(service.process(intakeId).getOrderId()).isEqualTo(501L);
+        verify(orderService, times(2)).createOrder(any(OrderRequestDTO.class), eq(key));
+    }
+
+    @Test
+    void fullQueueIsRejectedUntilAnEntryFinishes() {
+        OrderIntakeService service = service(2);
+        Long first = service.enqueue(request()).getIntakeId();
+        service.enqueue(request());
+
+        IntakeQueueFullException full = assertThrows(IntakeQueueFullException.class, () -> service.enqueue(request()));
+        ResponseEntity<Map<String, Object>> response = new GlobalExceptionHandler().handleIntakeQueueFull(full);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("5");
+
+        service.markFailed(first, "rejected by payment");
+        assertThat(service.enqueue(request()).getStatus()).isEqualTo("QUEUED");
+    }
+
+    @Test
+    void transientFailureRequeuesWithBackoffUntilAttemptsRunOut() {
+        OrderIntakeService service = service(10);
+        Long intakeId = service.enqueue(request()).getIntakeId();
+        Exception catalogDown = new RuntimeException("Failed to reserve stock for product: Cafe",
+                new ServiceUnavailableException("The catalog service is temporarily unavailable.", 5, null));
+
+        service.claimNext(1);
+        OrderIntakeResponseDTO retried = service.recordFailure(intakeId, catalogDown);
+        assertThat(retried.getStatus()).isEqualTo("QUEUED");
+        // En espera: todavía no se reclama
+        assertThat(service.claimNext(1)).isEmpty();
+
+        elapseBackoff(intakeId);
+        assertThat(service.claimNext(1)).containsExactly(intakeId);
+        assertThat(service.recordFailure(intakeId, new ResourceAccessException("Read timed out")).getStatus())
+                .isEqualTo("QUEUED");
+
+        elapseBackoff(intakeId);
+        service.claimNext(1);
+        OrderIntakeResponseDTO failed = service.recordFailure(intakeId, catalogDown);
+        assertThat(failed.getStatus()).isEqualTo("FAILED");
+        assertThat(failed.getErrorMessage()).startsWith("Gave up after 3 attempts");
+        // La entrada terminada libera su plaza
+        assertThat(capacityRepository.findById(OrderIntakeCapacity.SINGLETON_ID).orElseThrow().getPending()).isZero();
+    }
+
+    @Test
+    void validationAndClientErrorsFailImmediately() {
+        OrderIntakeService service = service(10);
+        Long invalid = service.enqueue(request()).getIntakeId();
+        Long declined = service.enqueue(request()).getIntakeId();
+        service.claimNext(2);
+
+        assertThat(service.recordFailure(invalid,
+                new IllegalArgumentException("Insufficient stock for product 'Cafe'")).getStatus()).isEqualTo("FAILED");
+        Exception paymentDeclined = new RuntimeException("Payment transaction failed",
+                HttpClientErrorException.create(HttpStatus.UNPROCESSABLE_ENTITY, "Unprocessable", null, null, null));
+        assertThat(service.recordFailure(declined, paymentDeclined).getStatus()).isEqualTo("FAILED");
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void concurrentEnqueuesNeverExceedCapacity() throws Exception {
+        OrderIntakeService service = service(5);
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        try {
+            int threads = 16;
+            ExecutorService pool = Executors.newFixedThreadPool(threads);
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    try {
+                        tx.executeWithoutResult(status -> service.enqueue(request()));
+                        return true;
+                    } catch (IntakeQueueFullException e) {
+                        return false;
+                    }
+                }));
+            }
+            start.countDown();
+            int accepted = 0;
+            for (Future<Boolean> result : results) {
+                accepted += result.get() ? 1 : 0;
+            }
+            pool.shutdown();
+
+            assertThat(accepted).isEqualTo(5);
+            assertThat(intakeRepository.count()).isEqualTo(5);
+        } finally {
+            intakeRepository.deleteAll();
+            capacityRepository.deleteAll();
+        }
+    }
+
+    @Test
+    void workerStartsForAsyncModeInAnyCase() {
+        new ApplicationContextRunner()
+                .withBean(OrderIntakeService.class, () -> mock(OrderIntakeService.class))
+                .withBean(OrderIntakeNotifier.class, () -> mock(OrderIntakeNotifier.class))
+                .withUserConfiguration(OrderIntakeWorker.class)
+                .withPropertyValues("order.intake.mode=ASYNC")
+                .run(context -> assertThat(context).hasSingleBean(OrderIntakeWorker.class));
+    }
+
+    private OrderIntakeService service(int capacity) {
+        return new OrderIntakeService(intakeRepository, capacityRepository, orderService, Jackson2ObjectMapperBuilder.json().build(),
+                "async", capacity, Duration.ofSeconds(5), Duration.ofMinutes(5), 3, Duration.ofSeconds(2), Duration.ofMinutes(1),
+                transactionManager);
+    }
+
+    private void elapseBackoff(Long intakeId) {
+        OrderIntake intake = intakeRepository.findById(intakeId).orElseThrow();
+        intake.setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+        intakeRepository.saveAndFlush(intake);
+    }
+
+    private static OrderRequestDTO request() {
+        return OrderRequestDTO.builder()
+                .userId(1L)
+                .items(List.of(OrderItemRequestDTO.builder().productId(7L).quantity(1).build()))
+                .build();
+    }
+}
@@ -0,0 +1,100 @@
+package com.ecomarket.backend.cart_order.service;
+
+import com.ecomarket.backend.cart_order.DTO.request.OrderItemRequestDTO;
+import com.ecomarket.backend.cart_order.DTO.request.OrderRequestDTO;
+import com.ecomarket.backend.cart_order.DTO.response.InventoryResponseDTO;
+import com.ecomarket.backend.cart_order.DTO.response.ProductResponseDTO;
+import com.ecomarket.backend.cart_order.DTO.response.UserResponseDTO;
+import com.ecomarket.backend.cart_order.client.ReactivePaymentServiceClient;
+import com.ecomarket.backend.cart_order.client.ReactiveProductServiceClient;
+import com.ecomarket.backend.cart_order.model.Order;
+import com.ecomarket.backend.cart_order.model.OrderItem;
+import com.ecomarket.backend.cart_order.repository.OrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Un pedido que vence el timeout (payment que nunca responde, o una reserva que llega tarde)
+ * debe liberar el stock reservado y descartar el pedido guardado.
+ */
+class ReactiveOrderPipelineTest {
+
+    private static final long PRODUCT_ID = 11L;
+    private static final long ORDER_ID = 99L;
+
+    private final OrderService orderService = mock(OrderService.class);
+    private final OrderRepository orderRepository = mock(OrderRepository.class);
+    private final ReactiveProductServiceClient productClient = mock(ReactiveProductServiceClient.class);
+    private final ReactivePaymentServiceClient paymentClient = mock(ReactivePaymentServiceClient.class);
+    private final StockLeaseManager stockLeaseManager = mock(StockLeaseManager.class);
+
+    private ReactiveOrderPipeline pipeline;
+
+    @BeforeEach
+    void setUp() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+        pipeline = new ReactiveOrderPipeline(orderService, orderRepository, productClient, paymentClient,
+                transactionTemplate, stockLeaseManager, 4, Duration.ofMillis(200));
+
+        ProductResponseDTO product = ProductResponseDTO.builder().id(PRODUCT_ID).name("Cafe").price(BigDecimal.TEN).build();
+        InventoryResponseDTO inventory = new InventoryResponseDTO(1L, PRODUCT_ID, 10, null);
+        when(orderService.getUserForOrder(anyLong())).thenReturn(UserResponseDTO.builder().id(1L).build());
+        when(orderService.createOrderItem(any(), any()))
+                .thenReturn(OrderItem.builder().productId(PRODUCT_ID).quantity(2).build());
+        when(orderService.createInitialOrder(any())).thenReturn(new Order());
+        when(orderService.saveOrderWithItemsAndTotals(any(), any(), any()))
+                .thenReturn(Order.builder().id(ORDER_ID).build());
+        when(productClient.getProductById(PRODUCT_ID)).thenReturn(Mono.just(product));
+        when(productClient.getProductInventory(PRODUCT_ID)).thenReturn(Mono.just(inventory));
+        when(productClient.performInventoryOperation(PRODUCT_ID, "RELEASE", 2)).thenReturn(Mono.just(inventory));
+    }
+
+    @Test
+    void paymentThatNeverRespondsReleasesStockAndDiscardsOrder() {
+        when(productClient.performInventoryOperation(PRODUCT_ID, "RESERVE", 2))
+                .thenReturn(Mono.just(new InventoryResponseDTO(1L, PRODUCT_ID, 8, null)));
+        when(paymentClient.createPaymentTransaction(any())).thenReturn(Mono.never());
+
+        RuntimeException error = assertThrows(RuntimeException.class, () -> pipeline.createOrder(request()).block());
+
+        assertThat(error).hasCauseInstanceOf(TimeoutException.class);
+        verify(productClient, timeout(1000)).performInventoryOperation(PRODUCT_ID, "RELEASE", 2);
+        verify(orderRepository, timeout(1000)).deleteById(ORDER_ID);
+    }
+
+    @Test
+    void reservationLandingAfterTimeoutIsReleased() {
+        when(productClient.performInventoryOperation(PRODUCT_ID, "RESERVE", 2))
+                .thenReturn(Mono.delay(Duration.ofMillis(500)).thenReturn(new InventoryResponseDTO(1L, PRODUCT_ID, 8, null)));
+
+        assertThrows(RuntimeException.class, () -> pipeline.createOrder(request()).block());
+
+        verify(productClient, timeout(2000)).performInventoryOperation(PRODUCT_ID, "RELEASE", 2);
+        verify(orderService, never()).saveOrderWithItemsAndTotals(any(), any(), any());
+    }
+
+    private static OrderRequestDTO request() {
+        return OrderRequestDTO.builder()
+                .userId(1L)
+                .items(List.of(OrderItemRequestDTO.builder().productId(PRODUCT_ID).quantity(2).build()))
+                .build();
+    }
+}
@@ -0,0 +1,138 @@
+package com.ecomarket.backend.cart_order.service;
+
+import com.ecomarket.backend.cart_order.DTO.response.StockLeaseResponseDTO;
+import com.ecomarket.backend.cart_order.client.ProductServiceClient;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Simula el libro de leases de catalog en memoria para comprobar que las reservas locales
+ * concurrentes nunca superan el stock y que lo no usado vuelve a catalog.
+ */
+class StockLeaseManagerTest {
+
+    private static final long PRODUCT_ID = 7L;
+
+    private final AtomicInteger catalogAvailable = new AtomicInteger();
+    private final AtomicLong leaseIds = new AtomicLong();
+    private final Map<Long, Integer> activeLeases = new ConcurrentHashMap<>();
+    private final AtomicInteger returnedUnits = new AtomicInteger();
+
+    @Test
+    void concurrentReservationsNeverExceedCatalogStock() throws Exception {
+        catalogAvailable.set(1000);
+        StockLeaseManager manager = new StockLeaseManager(fakeCatalog(), String.valueOf(PRODUCT_ID), 64, Duration.ofSeconds(30), "test-node");
+
+        int threads = 16;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            results.add(pool.submit(() -> {
+                start.await();
+                int reserved = 0;
+                for (int j = 0; j < 200; j++) {
+                    if (manager.tryReserve(PRODUCT_ID, 1)) {
+                        reserved++;
+                    }
+                }
+                return reserved;
+            }));
+        }
+        start.countDown();
+        int totalReserved = 0;
+        for (Future<Integer> result : results) {
+            totalReserved += result.get(10, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        assertThat(totalReserved).isEqualTo(1000);
+        assertThat(catalogAvailable.get()).isZero();
+    }
+
+    @Test
+    void unusedUnitsAreReturnedOnShutdown() {
+        catalogAvailable.set(500);
+        StockLeaseManager manager = new StockLeaseManager(fakeCatalog(), String.valueOf(PRODUCT_ID), 100, Duration.ofSeconds(30), "test-node");
+
+        assertThat(manager.tryReserve(PRODUCT_ID, 3)).isTrue();
+        assertThat(manager.tryReserveLocal(PRODUCT_ID, 2)).isTrue();
+        assertThat(catalogAvailable.get()).isEqualTo(400);
+
+        manager.returnAllLeases();
+
+        assertThat(returnedUnits.get()).isEqualTo(95);
+        assertThat(catalogAvailable.get()).isEqualTo(495);
+        assertThat(activeLeases).isEmpty();
+    }
+
+    @Test
+    void productsWithoutLeaseAreNotReservedLocally() {
+        catalogAvailable.set(500);
+        StockLeaseManager manager = new StockLeaseManager(fakeCatalog(), String.valueOf(PRODUCT_ID), 100, Duration.ofSeconds(30), "test-node");
+
+        assertThat(manager.isLeased(99L)).isFalse();
+        assertThat(manager.tryReserve(99L, 1)).isFalse();
+        assertThat(catalogAvailable.get()).isEqualTo(500);
+    }
+
+    // Mismas reglas que StockLeaseService: concesión parcial, error si no queda stock
+    private ProductServiceClient fakeCatalog() {
+        ProductServiceClient client = mock(ProductServiceClient.class);
+        when(client.acquireStockLease(eq(PRODUCT_ID), anyInt(), anyString())).thenAnswer(invocation -> {
+            int requested = invocation.getArgument(1);
+            int granted;
+            int available;
+            do {
+                available = catalogAvailable.get();
+                granted = Math.min(requested, available);
+                if (granted <= 0) {
+                    throw new IllegalArgumentException("No stock available to lease");
+                }
+            } while (!catalogAvailable.compareAndSet(available, available - granted));
+
+            long leaseId = leaseIds.incrementAndGet();
+            activeLeases.put(leaseId, granted);
+            LocalDateTime now = LocalDateTime.now();
+            return StockLeaseResponseDTO.builder()
+                    .leaseId(leaseId)
+                    .productId(PRODUCT_ID)
+                    .grantedQuantity(granted)
+                    .status("ACTIVE")
+                    .grantedAt(now)
+                    .expiresAt(now.plusMinutes(5))
+                    .build();
+        });
+        doAnswer(invocation -> {
+            long leaseId = invocation.getArgument(0);
+            int unused = invocation.getArgument(1);
+            assertThat(unused).isLessThanOrEqualTo(activeLeases.remove(leaseId));
+            returnedUnits.addAndGet(unused);
+            catalogAvailable.addAndGet(unused);
+            return null;
+        }).when(client).returnStockLease(anyLong(), anyInt());
+        return client;
+    }
+}
@@ -0,0 +1,11 @@
+package com.ecomarket.backend.catalog_product.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class AllocationLineResponse {
+    private Long productId;
+    private Integer quantity;
+}
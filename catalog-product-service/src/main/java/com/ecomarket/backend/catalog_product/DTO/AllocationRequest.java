@@ -0,0 +1,30 @@
+package com.ecomarket.backend.catalog_product.DTO;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class AllocationRequest {
+
+    @NotBlank(message = "Destination commune must not be blank")
+    private String commune;
+
+    // Opcionales: sin coordenadas se usan las registradas para la comuna
+    private Double latitude;
+    private Double longitude;
+
+    @NotEmpty(message = "At least one line is required")
+    @Size(max = 500, message = "At most 500 lines per allocation")
+    private List<@Valid AllocationLineRequest> lines;
+
+    // false: sólo calcula el reparto; true: además descuenta las unidades de cada bodega
+    private boolean commit;
+
+    // Con commit, si falta stock se asigna lo que haya en vez de rechazar el pedido
+    private boolean allowPartial;
+}
@@ -0,0 +1,15 @@
+package com.ecomarket.backend.catalog_product.DTO;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class AllocationResponse {
+    private boolean committed;
+    private int shipmentCount;
+    private List<AllocationShipmentResponse> shipments;
+    private List<AllocationLineResponse> unallocated;
+}
@@ -0,0 +1,15 @@
+package com.ecomarket.backend.catalog_product.DTO;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class AllocationShipmentResponse {
+    private String warehouseCode;
+    private String warehouseCommune;
+    private double distanceKm;
+    private List<AllocationLineResponse> lines;
+}
@@ -0,0 +1,12 @@
+package com.ecomarket.backend.catalog_product.DTO;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class AlsoBoughtResponse {
+    private Long productId;
+    private Integer coPurchases; // Pedidos que llevan ambos productos
+    private Double confidence; // coPurchases / pedidos con el producto consultado
+}
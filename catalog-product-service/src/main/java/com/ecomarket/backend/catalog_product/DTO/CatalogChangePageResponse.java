@@ -0,0 +1,15 @@
+package com.ecomarket.backend.catalog_product.DTO;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class CatalogChangePageResponse {
+    private List<CatalogChangeResponse> changes;
+    private long lastId; // Valor de "after" para la siguiente página
+    private boolean hasMore;
+    private boolean resyncRequired; // El registro ya no llega hasta "after": recargar el estado y seguir desde lastId
+}
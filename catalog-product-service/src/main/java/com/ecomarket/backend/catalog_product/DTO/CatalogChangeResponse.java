@@ -0,0 +1,22 @@
+package com.ecomarket.backend.catalog_product.DTO;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CatalogChangeResponse {
+    private Long id;
+    private String type;
+    private Long productId;
+    private Long productVersion;
+    private BigDecimal price;
+    private String status;
+    private Integer availableQuantity;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,15 @@
+package com.ecomarket.backend.catalog_product.DTO;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class FlashSaleResponse {
+    private Long productId;
+    private Integer remainingTokens;
+    private Integer inFlightUnits;
+    private Integer queuedRequests;
+    private Long admittedRequests;
+    private Long rejectedRequests;
+}
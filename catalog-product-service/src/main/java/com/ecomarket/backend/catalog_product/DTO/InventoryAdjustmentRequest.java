@@ -0,0 +1,24 @@
+package com.ecomarket.backend.catalog_product.DTO;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryAdjustmentRequest {
+
+    @NotBlank(message = "SKU must not be blank")
+    private String sku;
+
+    @NotNull(message = "Adjustment type is required")
+    @Pattern(regexp = "(?i)SET|DELTA", message = "Adjustment type must be SET or DELTA")
+    private String type; // SET: stock físico contado en bodega; DELTA: variación sobre el disponible
+
+    @NotNull(message = "Quantity is required")
+    private Integer quantity;
+}
@@ -0,0 +1,21 @@
+package com.ecomarket.backend.catalog_product.DTO;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class InventoryAdjustmentResult {
+
+    public enum Status {
+        APPLIED, NOT_FOUND, REJECTED
+    }
+
+    private String sku;
+    private String type;
+    private Status status;
+    private Integer availableQuantity; // Disponible tras aplicar el bloque
+    private String message;
+}
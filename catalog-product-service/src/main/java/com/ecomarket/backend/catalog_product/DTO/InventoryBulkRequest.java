@@ -0,0 +1,16 @@
+package com.ecomarket.backend.catalog_product.DTO;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class InventoryBulkRequest {
+
+    @NotEmpty(message = "Operations must not be empty")
+    @Size(max = 200000, message = "At most 200000 operations per request")
+    private List<@Valid InventoryAdjustmentRequest> operations;
+}
@@ -0,0 +1,16 @@
+package com.ecomarket.backend.catalog_product.DTO;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class InventoryBulkResponse {
+    private int applied;
+    private int notFound;
+    private int rejected;
+    private List<InventoryAdjustmentResult> results; // En el mismo orden que las operaciones
+    private long elapsedMillis;
+}
@@ -14,4 +14,6 @@ public class InventoryOperationRequest {
     private String operationType; // e.g. "RESERVE", "RELEASE", "DECREMENT", "INCREMENT"
 
     private String location;
+
+    private String idempotencyKey; // Opcional: repetir la operación con la misma clave no la vuelve a aplicar
 }
\ No newline at end of file
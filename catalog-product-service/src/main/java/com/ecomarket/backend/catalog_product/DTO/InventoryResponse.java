@@ -10,6 +10,7 @@ import java.time.LocalDateTime;
 public class InventoryResponse {
     private Long productId;
     private Integer availableQuantity;
+    private Integer leasedQuantity;
     private String location;
     private LocalDateTime lastUpdate;
 }
\ No newline at end of file
@@ -0,0 +1,16 @@
+package com.ecomarket.backend.catalog_product.DTO;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class ProductAvailabilityRequest {
+
+    // Ids separados por coma: ?ids=1,2,3
+    @NotEmpty(message = "At least one product id is required")
+    @Size(max = 500, message = "At most 500 product ids per request")
+    private List<Long> ids;
+}
@@ -0,0 +1,16 @@
+package com.ecomarket.backend.catalog_product.DTO;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+public class ProductAvailabilityResponse {
+    private Long productId;
+    private Long version;
+    private BigDecimal price;
+    private String status;
+    private boolean inStock;
+}
@@ -0,0 +1,18 @@
+package com.ecomarket.backend.catalog_product.DTO;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class ProductCacheStatsResponse {
+    private long size;
+    private long maximumSize;
+    private long hitCount;
+    private long missCount;
+    private double hitRate;
+    private long evictionCount;
+    private long invalidationsPublished;
+    private long invalidationsApplied;
+    private Long lastInvalidationId;
+}
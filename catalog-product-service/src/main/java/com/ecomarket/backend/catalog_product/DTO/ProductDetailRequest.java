@@ -0,0 +1,19 @@
+package com.ecomarket.backend.catalog_product.DTO;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Pattern;
+import lombok.Data;
+
+@Data
+public class ProductDetailRequest {
+
+    // Secciones a incluir además del producto, separadas por coma; sin include van todas
+    @Pattern(regexp = "(?i)(availability|reviews)(,(availability|reviews))*",
+            message = "Include must be a comma-separated list of availability, reviews")
+    private String include;
+
+    @Min(value = 1, message = "Reviews size must be at least 1")
+    @Max(value = 50, message = "Reviews size must be at most 50")
+    private int reviewsSize = 5;
+}
@@ -0,0 +1,23 @@
+package com.ecomarket.backend.catalog_product.DTO;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Ficha completa para la página de producto. La valoración media y el reparto por estrellas
+ * viajan dentro de {@code product.rating}. Las secciones no pedidas no se serializan; las que
+ * no pudieron leerse a tiempo aparecen en {@code unavailable}.
+ */
+@Data
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ProductDetailResponse {
+    private ProductResponse product;
+    private StockSummaryResponse availability;
+    private List<ReviewResponse> reviews;
+    private Long nextReviewsBeforeId;
+    private List<String> unavailable;
+}
@@ -0,0 +1,12 @@
+package com.ecomarket.backend.catalog_product.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class ProductImportError {
+    private long line;
+    private String sku;
+    private String message;
+}
@@ -0,0 +1,17 @@
+package com.ecomarket.backend.catalog_product.DTO;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class ProductImportResponse {
+    private long processed;
+    private long imported;
+    private long failed;
+    private List<ProductImportError> errors; // Acotada a catalog.import.max-reported-errors
+    private boolean errorsTruncated;
+    private long elapsedMillis;
+}
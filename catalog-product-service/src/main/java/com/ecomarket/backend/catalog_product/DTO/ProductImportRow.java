@@ -0,0 +1,40 @@
+package com.ecomarket.backend.catalog_product.DTO;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+/**
+ * Fila de una importación masiva (CSV o NDJSON). Categoría y marca pueden indicarse por id o por nombre.
+ */
+@Data
+public class ProductImportRow {
+    @NotBlank(message = "Product name must not be blank")
+    private String name;
+
+    @NotBlank(message = "Description must not be blank")
+    private String description;
+
+    @NotNull(message = "Price is required")
+    @DecimalMin(value = "0.0", inclusive = false, message = "Price must be greater than zero")
+    private BigDecimal price;
+
+    @NotBlank(message = "SKU must not be blank")
+    private String sku;
+
+    private Long categoryId;
+    private String category;
+
+    private Long brandId;
+    private String brand;
+
+    private BigDecimal weight;
+    private String dimensions;
+
+    @PositiveOrZero(message = "Stock must not be negative")
+    private Integer stock; // Stock inicial; 0 si no se indica
+}
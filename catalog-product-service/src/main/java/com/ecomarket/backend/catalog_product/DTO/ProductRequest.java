@@ -3,6 +3,7 @@ package com.ecomarket.backend.catalog_product.DTO;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.Data;
 
 import java.math.BigDecimal;
@@ -30,4 +31,7 @@ public class ProductRequest {
 
     private BigDecimal weight;
     private String dimensions;
+
+    @PositiveOrZero(message = "Low stock threshold must not be negative")
+    private Integer lowStockThreshold;
 }
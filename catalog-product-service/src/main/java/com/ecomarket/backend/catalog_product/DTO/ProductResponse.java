@@ -17,9 +17,12 @@ public class ProductResponse {
     private BigDecimal weight;
     private String dimensions;
     private String status;
+    private Integer lowStockThreshold;
+    private Long version;
 
     private CategoryResponse category;
     private BrandResponse brand;
     private List<ProductImageResponse> images;
+    private RatingSummaryResponse rating;
 }
 
@@ -0,0 +1,43 @@
+package com.ecomarket.backend.catalog_product.DTO;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+public class ProductSearchRequest {
+
+    private String q;
+
+    private String sku;
+
+    private Long categoryId;
+
+    private Long brandId;
+
+    @PositiveOrZero(message = "Minimum price must not be negative")
+    private BigDecimal minPrice;
+
+    @PositiveOrZero(message = "Maximum price must not be negative")
+    private BigDecimal maxPrice;
+
+    @Pattern(regexp = "(?i)ACTIVE|INACTIVE|SOLD_OUT", message = "Status must be ACTIVE, INACTIVE or SOLD_OUT")
+    private String status; // Sin estado se excluyen los productos eliminados (INACTIVE)
+
+    @Min(value = 0, message = "Page must not be negative")
+    private int page = 0;
+
+    @Min(value = 1, message = "Size must be at least 1")
+    @Max(value = 100, message = "Size must be at most 100")
+    private int size = 20;
+
+    @Pattern(regexp = "(?i)id|name|price", message = "Sort must be id, name or price")
+    private String sort = "id";
+
+    @Pattern(regexp = "(?i)asc|desc", message = "Direction must be asc or desc")
+    private String direction = "asc";
+}
@@ -0,0 +1,19 @@
+package com.ecomarket.backend.catalog_product.DTO;
+
+import lombok.Builder;
+import lombok.Data;
+import org.springframework.hateoas.EntityModel;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+public class ProductSearchResponse {
+    private List<EntityModel<ProductResponse>> products;
+    private int page;
+    private int size;
+    private long totalElements;
+    private int totalPages;
+    private Map<String, List<FacetCountResponse>> facets; // category, brand, status
+}
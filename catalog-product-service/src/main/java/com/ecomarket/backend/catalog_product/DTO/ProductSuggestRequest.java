@@ -0,0 +1,17 @@
+package com.ecomarket.backend.catalog_product.DTO;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+@Data
+public class ProductSuggestRequest {
+
+    @NotNull(message = "Query is required")
+    private String q;
+
+    @Min(value = 1, message = "Limit must be at least 1")
+    @Max(value = 50, message = "Limit must be at most 50")
+    private int limit = 10; // Cada nodo guarda catalog.suggest.top-k productos: pedir más no devuelve más
+}
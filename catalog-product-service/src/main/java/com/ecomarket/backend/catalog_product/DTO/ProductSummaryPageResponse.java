@@ -0,0 +1,16 @@
+package com.ecomarket.backend.catalog_product.DTO;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class ProductSummaryPageResponse {
+    private List<ProductSummaryResponse> products;
+    private int page;
+    private int size;
+    private long totalElements;
+    private int totalPages;
+}
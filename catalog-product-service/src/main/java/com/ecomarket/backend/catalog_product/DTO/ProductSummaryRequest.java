@@ -0,0 +1,37 @@
+package com.ecomarket.backend.catalog_product.DTO;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Pattern;
+import lombok.Data;
+
+@Data
+public class ProductSummaryRequest {
+
+    private Long categoryId;
+
+    private Long brandId;
+
+    @Pattern(regexp = "(?i)ACTIVE|INACTIVE|SOLD_OUT", message = "Status must be ACTIVE, INACTIVE or SOLD_OUT")
+    private String status; // Sin estado se excluyen los productos eliminados (INACTIVE)
+
+    private Boolean inStock; // true: sólo vendibles (ACTIVE); false: sólo no vendibles. Se combina con status
+
+    // Campos a devolver separados por coma; el id siempre se incluye
+    @Pattern(regexp = "(?i)(id|name|price|sku|status|imageUrl|inStock)(,(id|name|price|sku|status|imageUrl|inStock))*",
+            message = "Fields must be a comma-separated list of id, name, price, sku, status, imageUrl, inStock")
+    private String fields;
+
+    @Min(value = 0, message = "Page must not be negative")
+    private int page = 0;
+
+    @Min(value = 1, message = "Size must be at least 1")
+    @Max(value = 500, message = "Size must be at most 500")
+    private int size = 50;
+
+    @Pattern(regexp = "(?i)id|name|price", message = "Sort must be id, name or price")
+    private String sort = "id";
+
+    @Pattern(regexp = "(?i)asc|desc", message = "Direction must be asc or desc")
+    private String direction = "asc";
+}
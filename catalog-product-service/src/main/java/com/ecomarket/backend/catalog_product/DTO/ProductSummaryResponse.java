@@ -0,0 +1,35 @@
+package com.ecomarket.backend.catalog_product.DTO;
+
+import com.ecomarket.backend.catalog_product.model.Product;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Fila de listado: se llena directamente desde JPQL sin cargar la entidad (ni su descripción).
+ * Los campos no pedidos con {@code fields=} quedan a null y no se serializan.
+ */
+@Data
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ProductSummaryResponse {
+    private Long id;
+    private String name;
+    private BigDecimal price;
+    private String sku;
+    private String status;
+    private String imageUrl; // Primera imagen del producto
+    private Boolean inStock; // Desde AvailabilityBitmap
+
+    public ProductSummaryResponse(Long id, String name, BigDecimal price, String sku,
+                                  Product.ProductStatus status, String imageUrl) {
+        this.id = id;
+        this.name = name;
+        this.price = price;
+        this.sku = sku;
+        this.status = status == null ? null : status.name();
+        this.imageUrl = imageUrl;
+    }
+}
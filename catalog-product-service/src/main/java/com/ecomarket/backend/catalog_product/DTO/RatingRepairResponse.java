@@ -0,0 +1,12 @@
+package com.ecomarket.backend.catalog_product.DTO;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class RatingRepairResponse {
+    private int created;
+    private int recomputed;
+    private long elapsedMillis;
+}
@@ -0,0 +1,15 @@
+package com.ecomarket.backend.catalog_product.DTO;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+@Data
+@Builder
+public class RatingSummaryResponse {
+    private long count;
+    private BigDecimal average; // null si no hay reseñas
+    private Map<Integer, Long> stars; // estrellas (1-5) -> número de reseñas
+}
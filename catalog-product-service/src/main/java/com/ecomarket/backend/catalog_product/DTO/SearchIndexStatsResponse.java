@@ -0,0 +1,16 @@
+package com.ecomarket.backend.catalog_product.DTO;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+public class SearchIndexStatsResponse {
+    private boolean ready;
+    private int documents;
+    private int terms;
+    private LocalDateTime lastRebuild;
+    private long lastRebuildMillis;
+}
@@ -0,0 +1,17 @@
+package com.ecomarket.backend.catalog_product.DTO;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+public class StockAlertResponse {
+    private Long productId;
+    private String sku;
+    private String type; // LOW_STOCK o SOLD_OUT
+    private Integer availableQuantity;
+    private Integer threshold;
+    private LocalDateTime raisedAt;
+}
@@ -0,0 +1,17 @@
+package com.ecomarket.backend.catalog_product.DTO;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.Data;
+
+@Data
+public class StockLeaseRequest {
+
+    @NotNull(message = "Quantity is required")
+    @Positive(message = "Quantity must be greater than zero")
+    private Integer quantity;
+
+    @NotBlank(message = "Holder must not be blank")
+    private String holder;
+}
@@ -0,0 +1,19 @@
+package com.ecomarket.backend.catalog_product.DTO;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+public class StockLeaseResponse {
+    private Long leaseId;
+    private Long productId;
+    private String holder;
+    private Integer grantedQuantity;
+    private Integer returnedQuantity;
+    private String status;
+    private LocalDateTime grantedAt;
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,13 @@
+package com.ecomarket.backend.catalog_product.DTO;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.Data;
+
+@Data
+public class StockLeaseReturnRequest {
+
+    @NotNull(message = "Unused quantity is required")
+    @PositiveOrZero(message = "Unused quantity must not be negative")
+    private Integer unusedQuantity;
+}
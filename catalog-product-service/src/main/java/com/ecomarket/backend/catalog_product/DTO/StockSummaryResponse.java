@@ -0,0 +1,11 @@
+package com.ecomarket.backend.catalog_product.DTO;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class StockSummaryResponse {
+    private boolean inStock;
+    private Integer availableQuantity;
+}
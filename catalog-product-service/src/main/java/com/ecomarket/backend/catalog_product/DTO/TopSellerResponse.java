@@ -0,0 +1,11 @@
+package com.ecomarket.backend.catalog_product.DTO;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class TopSellerResponse {
+    private Long productId;
+    private Long units; // Estimación por exceso de unidades en la ventana
+}
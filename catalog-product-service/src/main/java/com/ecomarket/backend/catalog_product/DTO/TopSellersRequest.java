@@ -0,0 +1,19 @@
+package com.ecomarket.backend.catalog_product.DTO;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Pattern;
+import lombok.Data;
+
+@Data
+public class TopSellersRequest {
+
+    private Long categoryId; // Sin categoría, todo el catálogo
+
+    @Pattern(regexp = "(?i)hour|day", message = "Window must be hour or day")
+    private String window = "hour";
+
+    @Min(value = 1, message = "Limit must be at least 1")
+    @Max(value = 100, message = "Limit must be at most 100")
+    private int limit = 10;
+}
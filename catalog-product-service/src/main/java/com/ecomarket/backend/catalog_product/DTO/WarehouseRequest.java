@@ -0,0 +1,32 @@
+package com.ecomarket.backend.catalog_product.DTO;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+@Data
+public class WarehouseRequest {
+
+    @NotBlank(message = "Warehouse code must not be blank")
+    @Size(max = 32, message = "Warehouse code must be at most 32 characters")
+    private String code;
+
+    @NotBlank(message = "Warehouse name must not be blank")
+    private String name;
+
+    @NotBlank(message = "Commune must not be blank")
+    private String commune;
+
+    @NotNull(message = "Latitude is required")
+    @DecimalMin(value = "-90", message = "Latitude must be between -90 and 90")
+    @DecimalMax(value = "90", message = "Latitude must be between -90 and 90")
+    private Double latitude;
+
+    @NotNull(message = "Longitude is required")
+    @DecimalMin(value = "-180", message = "Longitude must be between -180 and 180")
+    @DecimalMax(value = "180", message = "Longitude must be between -180 and 180")
+    private Double longitude;
+}
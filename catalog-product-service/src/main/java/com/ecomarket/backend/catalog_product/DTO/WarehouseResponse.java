@@ -0,0 +1,16 @@
+package com.ecomarket.backend.catalog_product.DTO;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class WarehouseResponse {
+    private Long id;
+    private String code;
+    private String name;
+    private String commune;
+    private Double latitude;
+    private Double longitude;
+    private boolean active;
+}
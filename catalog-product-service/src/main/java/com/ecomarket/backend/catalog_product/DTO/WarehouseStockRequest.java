@@ -0,0 +1,19 @@
+package com.ecomarket.backend.catalog_product.DTO;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WarehouseStockRequest {
+
+    @NotNull(message = "Product id is required")
+    private Long productId;
+
+    // Positivo: recepción en bodega; negativo: merma o ajuste. También mueve el stock vendible
+    @NotNull(message = "Quantity is required")
+    private Integer quantity;
+}
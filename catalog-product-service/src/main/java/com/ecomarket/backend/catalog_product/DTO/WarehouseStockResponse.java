@@ -0,0 +1,15 @@
+package com.ecomarket.backend.catalog_product.DTO;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+public class WarehouseStockResponse {
+    private String warehouseCode;
+    private Long productId;
+    private Integer quantity;
+    private LocalDateTime lastUpdate;
+}
@@ -0,0 +1,118 @@
+package com.ecomarket.backend.catalog_product.allocation;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Decide desde qué bodegas se despacha un pedido completo.
+ * <p>
+ * Objetivo: el menor número de envíos y, a igualdad, la menor distancia a la comuna de destino.
+ * Es un recubrimiento de conjuntos, así que se resuelve con el voraz clásico: en cada ronda se
+ * elige la bodega que completa más líneas pendientes, luego la que aporta más unidades y por
+ * último la más cercana, y se toma de ella todo lo que pueda dar. Si una bodega tiene el pedido
+ * entero gana en la primera ronda y sale un solo envío. Cada ronda recorre sólo las bodegas con
+ * stock de las líneas pendientes, de modo que el coste no depende del total de bodegas.
+ */
+@Component
+public class AllocationEngine {
+
+    public record Line(long productId, int quantity) {
+    }
+
+    /**
+     * Envío desde una bodega (índice de {@link StockIndex.Warehouses}).
+     */
+    public record Shipment(int warehouse, List<Line> lines) {
+    }
+
+    public record Plan(List<Shipment> shipments, List<Line> unallocated) {
+    }
+
+    public Plan plan(StockIndex.View view, double[] distances, List<Line> lines) {
+        int lineCount = lines.size();
+        int[][] stockWarehouses = new int[lineCount][];
+        int[][] left = new int[lineCount][];
+        int[] remaining = new int[lineCount];
+        for (int i = 0; i < lineCount; i++) {
+            StockIndex.ProductStock stock = view.stock(lines.get(i).productId());
+            remaining[i] = lines.get(i).quantity();
+            if (stock != null) {
+                stockWarehouses[i] = stock.warehouses();
+                left[i] = stock.quantities().clone();
+            }
+        }
+
+        int warehouseCount = view.warehouses().size();
+        int[] linesDone = new int[warehouseCount];
+        long[] units = new long[warehouseCount];
+        int[] touched = new int[warehouseCount];
+        List<Shipment> shipments = new ArrayList<>();
+
+        while (true) {
+            int touchedCount = 0;
+            for (int i = 0; i < lineCount; i++) {
+                if (remaining[i] == 0 || stockWarehouses[i] == null) {
+                    continue;
+                }
+                for (int k = 0; k < stockWarehouses[i].length; k++) {
+                    int available = left[i][k];
+                    if (available == 0) {
+                        continue;
+                    }
+                    int w = stockWarehouses[i][k];
+                    if (units[w] == 0) {
+                        touched[touchedCount++] = w;
+                    }
+                    units[w] += Math.min(available, remaining[i]);
+                    if (available >= remaining[i]) {
+                        linesDone[w]++;
+                    }
+                }
+            }
+            if (touchedCount == 0) {
+                break;
+            }
+
+            int best = touched[0];
+            for (int t = 1; t < touchedCount; t++) {
+                int w = touched[t];
+                if (linesDone[w] != linesDone[best] ? linesDone[w] > linesDone[best]
+                        : units[w] != units[best] ? units[w] > units[best]
+                        : distances[w] < distances[best]) {
+                    best = w;
+                }
+            }
+            for (int t = 0; t < touchedCount; t++) {
+                linesDone[touched[t]] = 0;
+                units[touched[t]] = 0;
+            }
+
+            List<Line> shipped = new ArrayList<>();
+            for (int i = 0; i < lineCount; i++) {
+                if (remaining[i] == 0 || stockWarehouses[i] == null) {
+                    continue;
+                }
+                for (int k = 0; k < stockWarehouses[i].length; k++) {
+                    if (stockWarehouses[i][k] == best && left[i][k] > 0) {
+                        int take = Math.min(left[i][k], remaining[i]);
+                        left[i][k] -= take;
+                        remaining[i] -= take;
+                        shipped.add(new Line(lines.get(i).productId(), take));
+                        break;
+                    }
+                }
+            }
+            shipments.add(new Shipment(best, shipped));
+        }
+
+        List<Line> unallocated = new ArrayList<>();
+        for (int i = 0; i < lineCount; i++) {
+            if (remaining[i] > 0) {
+                unallocated.add(new Line(lines.get(i).productId(), remaining[i]));
+            }
+        }
+        return new Plan(shipments, unallocated);
+    }
+}
@@ -0,0 +1,203 @@
+package com.ecomarket.backend.catalog_product.allocation;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Existencias por bodega en memoria para el motor de asignación.
+ * <p>
+ * Las bodegas activas se numeran 0..n-1 y cada producto guarda sólo las bodegas donde tiene
+ * unidades, en dos arreglos paralelos: con pocas bodegas por producto el índice ocupa lo mismo
+ * que las filas con stock, no productos × bodegas. Cada entrada es inmutable y se reemplaza
+ * entera, así que las lecturas no se bloquean.
+ * <p>
+ * El índice puede quedarse atrás (cambios de otro nodo): la asignación se confirma en base de
+ * datos con actualizaciones condicionadas, y si alguna falla se refrescan esos productos y se
+ * reintenta. Además se recarga entero cada {@code refresh-interval-ms}.
+ */
+@Slf4j
+@Component
+public class StockIndex {
+
+    /**
+     * Bodegas activas; la posición en los arreglos es el índice de bodega que usan las existencias.
+     */
+    public record Warehouses(long[] ids, String[] codes, String[] communes, double[] latitudes, double[] longitudes) {
+        public int size() {
+            return ids.length;
+        }
+    }
+
+    /**
+     * Bodegas (por índice) con unidades de un producto y cuántas hay en cada una.
+     */
+    public record ProductStock(int[] warehouses, int[] quantities) {
+    }
+
+    /**
+     * Estado coherente del índice: las posiciones de bodega de las existencias corresponden a
+     * {@code warehouses}. Una asignación trabaja siempre sobre una misma vista.
+     */
+    public record View(Warehouses warehouses, Map<Long, Integer> positions, Map<Long, ProductStock> byProduct,
+                       Map<String, double[]> distanceCache) {
+
+        public ProductStock stock(long productId) {
+            return byProduct.get(productId);
+        }
+
+        /**
+         * Distancia en km desde la comuna de destino a cada bodega, calculada una vez por comuna
+         * mientras no cambien las bodegas.
+         */
+        public double[] distancesFrom(String commune, double latitude, double longitude) {
+            return distanceCache.computeIfAbsent(commune.toLowerCase(), key -> distancesFrom(latitude, longitude));
+        }
+
+        public double[] distancesFrom(double latitude, double longitude) {
+            double[] distances = new double[warehouses.size()];
+            for (int i = 0; i < distances.length; i++) {
+                distances[i] = haversineKm(latitude, longitude, warehouses.latitudes()[i], warehouses.longitudes()[i]);
+            }
+            return distances;
+        }
+    }
+
+    private static final double EARTH_RADIUS_KM = 6371.0;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int refreshChunkSize;
+    private volatile View state = new View(new Warehouses(new long[0], new String[0], new String[0], new double[0], new double[0]),
+            Map.of(), new ConcurrentHashMap<>(), new ConcurrentHashMap<>());
+
+    public StockIndex(JdbcTemplate jdbcTemplate,
+                      @Value("${catalog.allocation.refresh-chunk-size:1000}") int refreshChunkSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.refreshChunkSize = refreshChunkSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${catalog.allocation.refresh-interval-ms:60000}",
+            fixedDelayString = "${catalog.allocation.refresh-interval-ms:60000}")
+    public void reload() {
+        long start = System.nanoTime();
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                "SELECT id, code, commune, latitude, longitude FROM warehouses WHERE active = TRUE ORDER BY id");
+        int count = rows.size();
+        Warehouses warehouses = new Warehouses(new long[count], new String[count], new String[count],
+                new double[count], new double[count]);
+        Map<Long, Integer> positions = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            Map<String, Object> row = rows.get(i);
+            warehouses.ids()[i] = ((Number) row.get("id")).longValue();
+            warehouses.codes()[i] = (String) row.get("code");
+            warehouses.communes()[i] = (String) row.get("commune");
+            warehouses.latitudes()[i] = ((Number) row.get("latitude")).doubleValue();
+            warehouses.longitudes()[i] = ((Number) row.get("longitude")).doubleValue();
+            positions.put(warehouses.ids()[i], i);
+        }
+
+        Map<Long, ProductStock> stock = new ConcurrentHashMap<>();
+        Builder builder = new Builder(positions, stock);
+        jdbcTemplate.query("SELECT product_id, warehouse_id, quantity FROM warehouse_stock WHERE quantity > 0 ORDER BY product_id",
+                (RowCallbackHandler) rs -> builder.add(rs.getLong("product_id"), rs.getLong("warehouse_id"), rs.getInt("quantity")));
+        builder.finish();
+
+        state = new View(warehouses, Collections.unmodifiableMap(positions), stock, new ConcurrentHashMap<>());
+        log.debug("Índice de existencias por bodega recargado: {} bodegas, {} productos en {} ms",
+                count, stock.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Vuelve a leer de base de datos las existencias de estos productos.
+     */
+    public void refresh(Collection<Long> productIds) {
+        List<Long> ids = new ArrayList<>(productIds);
+        View current = state;
+        for (int from = 0; from < ids.size(); from += refreshChunkSize) {
+            List<Long> chunk = ids.subList(from, Math.min(from + refreshChunkSize, ids.size()));
+            Map<Long, ProductStock> loaded = new HashMap<>();
+            Builder builder = new Builder(current.positions(), loaded);
+            String placeholders = String.join(",", Collections.nCopies(chunk.size(), "?"));
+            jdbcTemplate.query("SELECT product_id, warehouse_id, quantity FROM warehouse_stock " +
+                            "WHERE quantity > 0 AND product_id IN (" + placeholders + ") ORDER BY product_id",
+                    (RowCallbackHandler) rs -> builder.add(rs.getLong("product_id"), rs.getLong("warehouse_id"), rs.getInt("quantity")),
+                    chunk.toArray());
+            builder.finish();
+            for (Long productId : chunk) {
+                ProductStock fresh = loaded.get(productId);
+                if (fresh == null) {
+                    current.byProduct().remove(productId);
+                } else {
+                    current.byProduct().put(productId, fresh);
+                }
+            }
+        }
+    }
+
+    public View view() {
+        return state;
+    }
+
+    static double haversineKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.sqrt(a));
+    }
+
+    // Agrupa filas ordenadas por producto en entradas compactas; ignora bodegas inactivas
+    private static final class Builder {
+        private final Map<Long, Integer> positions;
+        private final Map<Long, ProductStock> target;
+        private long productId = Long.MIN_VALUE;
+        private int[] warehouses = new int[8];
+        private int[] quantities = new int[8];
+        private int size;
+
+        private Builder(Map<Long, Integer> positions, Map<Long, ProductStock> target) {
+            this.positions = positions;
+            this.target = target;
+        }
+
+        void add(long productId, long warehouseId, int quantity) {
+            if (productId != this.productId) {
+                finish();
+                this.productId = productId;
+            }
+            Integer position = positions.get(warehouseId);
+            if (position == null) {
+                return;
+            }
+            if (size == warehouses.length) {
+                warehouses = Arrays.copyOf(warehouses, size * 2);
+                quantities = Arrays.copyOf(quantities, size * 2);
+            }
+            warehouses[size] = position;
+            quantities[size] = quantity;
+            size++;
+        }
+
+        void finish() {
+            if (size > 0) {
+                target.put(productId, new ProductStock(Arrays.copyOf(warehouses, size), Arrays.copyOf(quantities, size)));
+            }
+            size = 0;
+        }
+    }
+}
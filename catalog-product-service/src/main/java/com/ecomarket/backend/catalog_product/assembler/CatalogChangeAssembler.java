@@ -0,0 +1,22 @@
+package com.ecomarket.backend.catalog_product.assembler;
+
+import com.ecomarket.backend.catalog_product.DTO.CatalogChangeResponse;
+import com.ecomarket.backend.catalog_product.model.CatalogChange;
+import org.springframework.stereotype.Component;
+
+@Component
+public class CatalogChangeAssembler {
+
+    public CatalogChangeResponse toResponse(CatalogChange change) {
+        return CatalogChangeResponse.builder()
+                .id(change.getId())
+                .type(change.getType().name())
+                .productId(change.getProductId())
+                .productVersion(change.getProductVersion())
+                .price(change.getPrice())
+                .status(change.getStatus() == null ? null : change.getStatus().name())
+                .availableQuantity(change.getAvailableQuantity())
+                .createdAt(change.getCreatedAt())
+                .build();
+    }
+}
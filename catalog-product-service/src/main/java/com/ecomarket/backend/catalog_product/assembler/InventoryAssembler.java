@@ -8,6 +8,9 @@ import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.server.RepresentationModelAssembler;
 import org.springframework.stereotype.Component;
 
+import java.time.ZoneOffset;
+import java.util.Objects;
+
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 
@@ -16,17 +19,31 @@ public class InventoryAssembler implements RepresentationModelAssembler<Inventor
 
     @Override
     public EntityModel<InventoryResponse> toModel(Inventory inventory) {
-        InventoryResponse response = InventoryResponse.builder()
+        return toModel(toResponse(inventory));
+    }
+
+    public InventoryResponse toResponse(Inventory inventory) {
+        return InventoryResponse.builder()
                 .productId(inventory.getProduct().getId())
                 .availableQuantity(inventory.getAvailableQuantity())
+                .leasedQuantity(inventory.getLeasedQuantity() == null ? 0 : inventory.getLeasedQuantity())
                 .location(inventory.getLocation())
                 .lastUpdate(inventory.getLastUpdate())
                 .build();
+    }
+
+    // Inventory no tiene columna de versión: el ETag se deriva de todo lo que muestra la respuesta
+    public String etag(InventoryResponse response) {
+        return "\"i" + response.getProductId() + "-" + response.getAvailableQuantity() + "-" + response.getLeasedQuantity()
+                + "-" + (response.getLastUpdate() == null ? 0 : response.getLastUpdate().toInstant(ZoneOffset.UTC).toEpochMilli())
+                + "-" + Integer.toHexString(Objects.hashCode(response.getLocation())) + "\"";
+    }
 
+    public EntityModel<InventoryResponse> toModel(InventoryResponse response) {
         return EntityModel.of(response,
-                linkTo(methodOn(InventoryController.class).getInventory(inventory.getProduct().getId())).withSelfRel(),
-                linkTo(methodOn(InventoryController.class).handleOperation(inventory.getProduct().getId(), null)).withRel("operation"),
-                linkTo(methodOn(ProductController.class).getProduct(inventory.getProduct().getId())).withRel("product")
+                linkTo(methodOn(InventoryController.class).getInventory(response.getProductId())).withSelfRel(),
+                linkTo(methodOn(InventoryController.class).handleOperation(response.getProductId(), null)).withRel("operation"),
+                linkTo(methodOn(ProductController.class).getProduct(response.getProductId())).withRel("product")
         );
     }
 }
\ No newline at end of file
@@ -4,14 +4,23 @@ import com.ecomarket.backend.catalog_product.DTO.BrandResponse;
 import com.ecomarket.backend.catalog_product.DTO.CategoryResponse;
 import com.ecomarket.backend.catalog_product.DTO.ProductImageResponse;
 import com.ecomarket.backend.catalog_product.DTO.ProductResponse;
+import com.ecomarket.backend.catalog_product.DTO.RatingSummaryResponse;
 import com.ecomarket.backend.catalog_product.controller.InventoryController;
 import com.ecomarket.backend.catalog_product.controller.ProductController;
 import com.ecomarket.backend.catalog_product.controller.ReviewController;
 import com.ecomarket.backend.catalog_product.model.Product;
+import com.ecomarket.backend.catalog_product.model.ProductRatingSummary;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.server.RepresentationModelAssembler;
 import org.springframework.stereotype.Component;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 
@@ -20,7 +29,12 @@ public class ProductAssembler implements RepresentationModelAssembler<Product, E
 
     @Override
     public EntityModel<ProductResponse> toModel(Product product) {
-        ProductResponse response = ProductResponse.builder()
+        return toModel(toResponse(product));
+    }
+
+    // Ficha sin enlaces; es lo que guarda la caché de productos
+    public ProductResponse toResponse(Product product) {
+        return ProductResponse.builder()
                 .id(product.getId())
                 .name(product.getName())
                 .description(product.getDescription())
@@ -29,6 +43,8 @@ public class ProductAssembler implements RepresentationModelAssembler<Product, E
                 .weight(product.getWeight())
                 .dimensions(product.getDimensions())
                 .status(product.getStatus().name())
+                .lowStockThreshold(product.getLowStockThreshold())
+                .version(product.getVersion() == null ? 0 : product.getVersion())
                 .category(CategoryResponse.builder()
                         .id(product.getCategory().getId())
                         .name(product.getCategory().getName())
@@ -42,14 +58,63 @@ public class ProductAssembler implements RepresentationModelAssembler<Product, E
                                 .id(img.getId())
                                 .url(img.getUrl()).build())
                         .toList())
+                .rating(toRatingResponse(product.getRatingSummary()))
                 .build();
+    }
+
+    public RatingSummaryResponse toRatingResponse(ProductRatingSummary summary) {
+        if (summary == null) {
+            summary = ProductRatingSummary.empty(null);
+        }
+        Map<Integer, Long> stars = new LinkedHashMap<>();
+        stars.put(1, summary.getStars1());
+        stars.put(2, summary.getStars2());
+        stars.put(3, summary.getStars3());
+        stars.put(4, summary.getStars4());
+        stars.put(5, summary.getStars5());
+        return RatingSummaryResponse.builder()
+                .count(summary.getRatingCount())
+                .average(summary.getRatingCount() == 0 ? null
+                        : BigDecimal.valueOf(summary.getRatingSum())
+                        .divide(BigDecimal.valueOf(summary.getRatingCount()), 2, RoundingMode.HALF_UP))
+                .stars(stars)
+                .build();
+    }
+
+    // ETag fuerte: la ficha cambia cuando sube la versión del producto, llega una reseña o cambian
+    // la categoría o la marca que muestra (no tienen versión y renombrarlas no toca el producto)
+    public String etag(ProductResponse response) {
+        return "\"p" + response.getId() + "-v" + response.getVersion() + "-r" + response.getRating().getCount()
+                + "-" + Integer.toHexString(referencesHash(response)) + "\"";
+    }
+
+    // Un listado cambia si cambia alguno de sus productos, su orden o su tamaño
+    public String etag(List<ProductResponse> responses) {
+        long hash = 17;
+        for (ProductResponse response : responses) {
+            hash = 31 * hash + response.getId();
+            hash = 31 * hash + response.getVersion();
+            hash = 31 * hash + response.getRating().getCount();
+            hash = 31 * hash + referencesHash(response);
+        }
+        return "\"l" + responses.size() + "-" + Long.toHexString(hash) + "\"";
+    }
+
+    private static int referencesHash(ProductResponse response) {
+        CategoryResponse category = response.getCategory();
+        BrandResponse brand = response.getBrand();
+        return Objects.hash(category.getId(), category.getName(), category.getDescription(),
+                brand.getId(), brand.getName(), brand.getDescription());
+    }
 
-        return EntityModel.of(response,linkTo(methodOn(ProductController.class).getProduct(product.getId())).withSelfRel(),
-                linkTo(methodOn(ProductController.class).updateProduct(product.getId(), null)).withRel("update"),
-                linkTo(methodOn(ProductController.class).deleteProduct(product.getId())).withRel("delete"),
-                linkTo(methodOn(ProductController.class).addImage(product.getId(), null)).withRel("addImage"),
-                linkTo(methodOn(InventoryController.class).getInventory(product.getId())).withRel("inventory"),
-                linkTo(methodOn(ReviewController.class).getReviews(product.getId())).withRel("reviews")
+    public EntityModel<ProductResponse> toModel(ProductResponse response) {
+        return EntityModel.of(response,linkTo(methodOn(ProductController.class).getProduct(response.getId())).withSelfRel(),
+                linkTo(methodOn(ProductController.class).updateProduct(response.getId(), null)).withRel("update"),
+                linkTo(methodOn(ProductController.class).deleteProduct(response.getId())).withRel("delete"),
+                linkTo(methodOn(ProductController.class).addImage(response.getId(), null)).withRel("addImage"),
+                linkTo(methodOn(InventoryController.class).getInventory(response.getId())).withRel("inventory"),
+                linkTo(methodOn(ReviewController.class).getReviews(response.getId(), null, 20)).withRel("reviews"),
+                linkTo(methodOn(ReviewController.class).getRatingSummary(response.getId())).withRel("rating")
         );
     }
 }
@@ -16,7 +16,15 @@ public class ReviewAssembler implements RepresentationModelAssembler<Review, Ent
 
     @Override
     public EntityModel<ReviewResponse> toModel(Review review) {
-        ReviewResponse response = ReviewResponse.builder()
+        return EntityModel.of(toResponse(review),
+                linkTo(methodOn(ReviewController.class).getReviews(review.getProduct().getId(), null, 20)).withRel("productReviews"),
+                linkTo(methodOn(ProductController.class).getProduct(review.getProduct().getId())).withRel("product")
+        );
+    }
+
+    // Reseña sin enlaces; no necesita la petición en curso y puede armarse fuera del hilo de la petición
+    public ReviewResponse toResponse(Review review) {
+        return ReviewResponse.builder()
                 .id(review.getId())
                 .productId(review.getProduct().getId())
                 .userId(review.getUserId())
@@ -24,10 +32,5 @@ public class ReviewAssembler implements RepresentationModelAssembler<Review, Ent
                 .comment(review.getComment())
                 .reviewDate(review.getReviewDate())
                 .build();
-
-        return EntityModel.of(response,
-                linkTo(methodOn(ReviewController.class).getReviews(review.getProduct().getId())).withRel("productReviews"),
-                linkTo(methodOn(ProductController.class).getProduct(review.getProduct().getId())).withRel("product")
-        );
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,36 @@
+package com.ecomarket.backend.catalog_product.assembler;
+
+import com.ecomarket.backend.catalog_product.DTO.StockLeaseResponse;
+import com.ecomarket.backend.catalog_product.controller.InventoryController;
+import com.ecomarket.backend.catalog_product.model.StockLease;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.server.RepresentationModelAssembler;
+import org.springframework.stereotype.Component;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+@Component
+public class StockLeaseAssembler implements RepresentationModelAssembler<StockLease, EntityModel<StockLeaseResponse>> {
+
+    @Override
+    public EntityModel<StockLeaseResponse> toModel(StockLease lease) {
+        StockLeaseResponse response = StockLeaseResponse.builder()
+                .leaseId(lease.getId())
+                .productId(lease.getProduct().getId())
+                .holder(lease.getHolder())
+                .grantedQuantity(lease.getGrantedQuantity())
+                .returnedQuantity(lease.getReturnedQuantity())
+                .status(lease.getStatus().name())
+                .grantedAt(lease.getGrantedAt())
+                .expiresAt(lease.getExpiresAt())
+                .build();
+
+        EntityModel<StockLeaseResponse> model = EntityModel.of(response,
+                linkTo(methodOn(InventoryController.class).getInventory(lease.getProduct().getId())).withRel("inventory"));
+        if (lease.getStatus() == StockLease.LeaseStatus.ACTIVE) {
+            model.add(linkTo(methodOn(InventoryController.class).returnLease(lease.getId(), null)).withRel("return"));
+        }
+        return model;
+    }
+}
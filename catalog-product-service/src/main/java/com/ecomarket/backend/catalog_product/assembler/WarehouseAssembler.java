@@ -0,0 +1,32 @@
+package com.ecomarket.backend.catalog_product.assembler;
+
+import com.ecomarket.backend.catalog_product.DTO.WarehouseResponse;
+import com.ecomarket.backend.catalog_product.DTO.WarehouseStockResponse;
+import com.ecomarket.backend.catalog_product.model.Warehouse;
+import com.ecomarket.backend.catalog_product.model.WarehouseStock;
+import org.springframework.stereotype.Component;
+
+@Component
+public class WarehouseAssembler {
+
+    public WarehouseResponse toResponse(Warehouse warehouse) {
+        return WarehouseResponse.builder()
+                .id(warehouse.getId())
+                .code(warehouse.getCode())
+                .name(warehouse.getName())
+                .commune(warehouse.getCommune())
+                .latitude(warehouse.getLatitude())
+                .longitude(warehouse.getLongitude())
+                .active(warehouse.isActive())
+                .build();
+    }
+
+    public WarehouseStockResponse toResponse(WarehouseStock stock) {
+        return WarehouseStockResponse.builder()
+                .warehouseCode(stock.getWarehouse().getCode())
+                .productId(stock.getProduct().getId())
+                .quantity(stock.getQuantity())
+                .lastUpdate(stock.getLastUpdate())
+                .build();
+    }
+}
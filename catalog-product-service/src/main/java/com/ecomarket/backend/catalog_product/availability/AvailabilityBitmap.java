@@ -0,0 +1,109 @@
+package com.ecomarket.backend.catalog_product.availability;
+
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * IDs de los productos vendibles (ACTIVE con stock) en un {@link RoaringBitmap}, para que los
+ * listados marquen o descarten lo agotado sin unir con {@code inventories}.
+ * <p>
+ * Lo mantiene {@link StockStatusEvaluator} al confirmar cada cambio de stock y se reconstruye
+ * periódicamente desde base de datos; los cambios que llegan durante una reconstrucción se vuelven
+ * a aplicar sobre el resultado, que pudo leerse antes que ellos. Hasta la primera construcción
+ * {@link #isReady()} es falso.
+ */
+@Slf4j
+@Component
+public class AvailabilityBitmap {
+
+    static final String SELECT_SELLABLE = "SELECT p.id FROM products p JOIN inventories i ON i.product_id = p.id " +
+            "WHERE p.status = 'ACTIVE' AND i.available_quantity > 0";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private RoaringBitmap sellable = new RoaringBitmap(); // Protegido por lock
+    private volatile boolean ready;
+    private volatile boolean rebuilding;
+    private final Map<Long, Boolean> changedDuringRebuild = new ConcurrentHashMap<>();
+
+    public AvailabilityBitmap(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        changedDuringRebuild.clear();
+        rebuilding = true;
+        RoaringBitmap fresh = new RoaringBitmap();
+        int count;
+        try {
+            jdbcTemplate.query(SELECT_SELLABLE, (RowCallbackHandler) rs -> fresh.add(Math.toIntExact(rs.getLong(1))));
+            fresh.runOptimize();
+            lock.writeLock().lock();
+            try {
+                rebuilding = false;
+                changedDuringRebuild.forEach((productId, available) -> apply(fresh, productId, available));
+                sellable = fresh;
+                count = fresh.getCardinality();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            rebuilding = false;
+            changedDuringRebuild.clear();
+        }
+        ready = true;
+        log.debug("Bitmap de disponibilidad reconstruido: {} productos vendibles en {} ms",
+                count, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public void set(long productId, boolean available) {
+        lock.writeLock().lock();
+        try {
+            if (rebuilding) {
+                changedDuringRebuild.put(productId, available);
+            }
+            apply(sellable, productId, available);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isSellable(long productId) {
+        lock.readLock().lock();
+        try {
+            return sellable.contains(Math.toIntExact(productId));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    private static void apply(RoaringBitmap bitmap, long productId, boolean available) {
+        if (available) {
+            bitmap.add(Math.toIntExact(productId));
+        } else {
+            bitmap.remove(Math.toIntExact(productId));
+        }
+    }
+
+    public int cardinality() {
+        lock.readLock().lock();
+        try {
+            return sellable.getCardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
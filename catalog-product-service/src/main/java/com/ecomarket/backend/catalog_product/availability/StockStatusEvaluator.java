@@ -0,0 +1,206 @@
+package com.ecomarket.backend.catalog_product.availability;
+
+import com.ecomarket.backend.catalog_product.DTO.StockAlertResponse;
+import com.ecomarket.backend.catalog_product.cache.ProductInvalidationFeed;
+import com.ecomarket.backend.catalog_product.model.CatalogChange;
+import com.ecomarket.backend.catalog_product.model.Inventory;
+import com.ecomarket.backend.catalog_product.model.Product;
+import com.ecomarket.backend.catalog_product.repository.InventoryRepository;
+import com.ecomarket.backend.catalog_product.repository.ProductRepository;
+import com.ecomarket.backend.catalog_product.search.ProductSearchIndex;
+import com.ecomarket.backend.catalog_product.search.ProductSuggestIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Mantiene el estado de venta de los productos a partir de su stock.
+ * <ul>
+ *   <li>ACTIVE pasa a SOLD_OUT al quedarse sin unidades y vuelve a ACTIVE al reponer; INACTIVE
+ *   (eliminado) no se toca. El cambio viaja por el registro de cambios y los índices de búsqueda
+ *   y autocompletado como cualquier otra edición del producto.</li>
+ *   <li>Avisa una vez al bajar del umbral del producto ({@code lowStockThreshold}, o el de por
+ *   defecto) y otra al agotarse; vuelve a avisar tras superar el umbral.</li>
+ *   <li>Al confirmar, actualiza {@link AvailabilityBitmap}.</li>
+ * </ul>
+ * Cada operación de stock llama a {@link #evaluate(Inventory)} dentro de su transacción; el ajuste
+ * masivo lo hace con los productos de cada bloque. Lo que escribe por SQL sin pasar por aquí
+ * (importación) lo recoge {@link #reconcile()}, que corrige los estados que no cuadran con el stock
+ * y reconstruye el bitmap, al arrancar y periódicamente.
+ */
+@Slf4j
+@Component
+public class StockStatusEvaluator {
+
+    private static final String SELECT_MISMATCHED = "SELECT p.id FROM products p JOIN inventories i ON i.product_id = p.id " +
+            "WHERE (p.status = 'ACTIVE' AND i.available_quantity <= 0) " +
+            "OR (p.status = 'SOLD_OUT' AND i.available_quantity > 0) ORDER BY p.id LIMIT ?";
+
+    private enum Level {
+        LOW_STOCK, SOLD_OUT
+    }
+
+    private final ProductRepository productRepo;
+    private final InventoryRepository inventoryRepo;
+    private final ProductInvalidationFeed invalidationFeed;
+    private final ProductSearchIndex searchIndex;
+    private final ProductSuggestIndex suggestIndex;
+    private final AvailabilityBitmap availabilityBitmap;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int defaultThreshold;
+    private final int maxAlerts;
+    private final int reconcileBatchSize;
+
+    // Nivel de aviso ya emitido por producto; se pierde al reiniciar y el siguiente cambio vuelve a avisar
+    private final Map<Long, Level> levels = new ConcurrentHashMap<>();
+    private final Deque<StockAlertResponse> alerts = new ArrayDeque<>(); // Protegido por synchronized (alerts)
+
+    public StockStatusEvaluator(ProductRepository productRepo,
+                                InventoryRepository inventoryRepo,
+                                ProductInvalidationFeed invalidationFeed,
+                                ProductSearchIndex searchIndex,
+                                ProductSuggestIndex suggestIndex,
+                                AvailabilityBitmap availabilityBitmap,
+                                JdbcTemplate jdbcTemplate,
+                                TransactionTemplate transactionTemplate,
+                                @Value("${catalog.stock-status.default-low-stock-threshold:5}") int defaultThreshold,
+                                @Value("${catalog.stock-status.max-alerts:500}") int maxAlerts,
+                                @Value("${catalog.stock-status.reconcile-batch-size:500}") int reconcileBatchSize) {
+        this.productRepo = productRepo;
+        this.inventoryRepo = inventoryRepo;
+        this.invalidationFeed = invalidationFeed;
+        this.searchIndex = searchIndex;
+        this.suggestIndex = suggestIndex;
+        this.availabilityBitmap = availabilityBitmap;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.defaultThreshold = defaultThreshold;
+        this.maxAlerts = maxAlerts;
+        this.reconcileBatchSize = reconcileBatchSize;
+    }
+
+    /**
+     * Revisa el estado del producto tras un cambio de su inventario; debe llamarse dentro de la
+     * transacción del cambio.
+     */
+    public void evaluate(Inventory inventory) {
+        Product product = inventory.getProduct();
+        int available = inventory.getAvailableQuantity() == null ? 0 : inventory.getAvailableQuantity();
+        Product.ProductStatus current = product.getStatus();
+        Product.ProductStatus target = current;
+        if (current == Product.ProductStatus.ACTIVE && available <= 0) {
+            target = Product.ProductStatus.SOLD_OUT;
+        } else if (current == Product.ProductStatus.SOLD_OUT && available > 0) {
+            target = Product.ProductStatus.ACTIVE;
+        }
+
+        if (target != current) {
+            product.setStatus(target);
+            product.setLastUpdate(LocalDateTime.now());
+            // El flush sube la versión antes de registrar el cambio
+            Product saved = productRepo.saveAndFlush(product);
+            invalidationFeed.publish(saved, CatalogChange.Type.PRODUCT_UPDATED);
+            searchIndex.index(saved);
+            // El autocompletado sólo lista ACTIVE: entra al reponer y sale al agotarse
+            suggestIndex.index(saved);
+            log.info("Producto {} pasa de {} a {} con {} unidades", product.getId(), current, target, available);
+        }
+
+        Long productId = product.getId();
+        String sku = product.getSku();
+        boolean sellable = target == Product.ProductStatus.ACTIVE && available > 0;
+        boolean listed = target != Product.ProductStatus.INACTIVE;
+        int threshold = product.getLowStockThreshold() != null ? product.getLowStockThreshold() : defaultThreshold;
+        afterCommit(() -> {
+            availabilityBitmap.set(productId, sellable);
+            if (listed) {
+                checkLevel(productId, sku, available, threshold);
+            } else {
+                levels.remove(productId);
+            }
+        });
+    }
+
+    /**
+     * Corrige por lotes los productos cuyo estado no cuadra con su stock y reconstruye el bitmap.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${catalog.stock-status.reconcile-interval-ms:300000}",
+            fixedDelayString = "${catalog.stock-status.reconcile-interval-ms:300000}")
+    public synchronized void reconcile() {
+        int fixed = 0;
+        List<Long> ids;
+        do {
+            ids = jdbcTemplate.queryForList(SELECT_MISMATCHED, Long.class, reconcileBatchSize);
+            if (ids.isEmpty()) {
+                break;
+            }
+            List<Long> batch = ids;
+            transactionTemplate.executeWithoutResult(status ->
+                    inventoryRepo.findByProduct_IdIn(batch).forEach(this::evaluate));
+            fixed += ids.size();
+        } while (ids.size() == reconcileBatchSize);
+        availabilityBitmap.rebuild();
+        if (fixed > 0) {
+            log.info("Estados de venta corregidos para {} productos", fixed);
+        }
+    }
+
+    public List<StockAlertResponse> recentAlerts() {
+        synchronized (alerts) {
+            return List.copyOf(alerts);
+        }
+    }
+
+    private void checkLevel(Long productId, String sku, int available, int threshold) {
+        Level level = available <= 0 ? Level.SOLD_OUT : available <= threshold ? Level.LOW_STOCK : null;
+        Level previous = level == null ? levels.remove(productId) : levels.put(productId, level);
+        if (level == null || level == previous) {
+            return;
+        }
+        log.warn("Aviso de stock {} para el producto {} ({}): {} unidades, umbral {}",
+                level, productId, sku, available, threshold);
+        StockAlertResponse alert = StockAlertResponse.builder()
+                .productId(productId)
+                .sku(sku)
+                .type(level.name())
+                .availableQuantity(available)
+                .threshold(threshold)
+                .raisedAt(LocalDateTime.now())
+                .build();
+        synchronized (alerts) {
+            alerts.addFirst(alert);
+            if (alerts.size() > maxAlerts) {
+                alerts.removeLast();
+            }
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
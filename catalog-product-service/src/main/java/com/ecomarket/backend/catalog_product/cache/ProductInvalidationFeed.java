@@ -0,0 +1,93 @@
+package com.ecomarket.backend.catalog_product.cache;
+
+import com.ecomarket.backend.catalog_product.changefeed.CatalogChangeLog;
+import com.ecomarket.backend.catalog_product.model.CatalogChange;
+import com.ecomarket.backend.catalog_product.model.Product;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Mantiene coherentes las cachés de fichas entre varios nodos de catálogo.
+ * <p>
+ * El nodo que modifica un producto invalida su caché al momento y registra el cambio en
+ * {@link CatalogChangeLog}; el resto lo recoge en el siguiente sondeo del registro. Un nodo que
+ * se quede atrás más que la retención del registro sólo depende ya del expire-after-write de la caché.
+ */
+@Component
+public class ProductInvalidationFeed {
+
+    private final CatalogChangeLog changeLog;
+    private final ProductResponseCache responseCache;
+    private final int batchSize;
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder applied = new LongAdder();
+    private volatile Long lastSeenId;
+
+    public ProductInvalidationFeed(CatalogChangeLog changeLog,
+                                   ProductResponseCache responseCache,
+                                   @Value("${catalog.cache.invalidation.batch-size:500}") int batchSize) {
+        this.changeLog = changeLog;
+        this.responseCache = responseCache;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Invalida la ficha local y registra el cambio; debe llamarse dentro de la transacción del cambio.
+     */
+    public void publish(Product product, CatalogChange.Type type) {
+        Long productId = product.getId();
+        long version = product.getVersion() == null ? 0 : product.getVersion();
+        responseCache.invalidate(productId, version);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Dentro de una transacción se invalida otra vez al confirmar: una lectura concurrente
+            // pudo cachear el estado anterior mientras el cambio aún no era visible
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    responseCache.invalidate(productId, version);
+                }
+            });
+        }
+        changeLog.recordProduct(type, product);
+        published.increment();
+    }
+
+    @Scheduled(fixedDelayString = "${catalog.cache.invalidation.poll-interval-ms:1000}")
+    public void poll() {
+        if (lastSeenId == null) {
+            // Al arrancar la caché está vacía: basta con empezar desde la última entrada
+            lastSeenId = changeLog.head();
+            return;
+        }
+        List<CatalogChange> batch;
+        do {
+            batch = changeLog.readAfter(lastSeenId, batchSize);
+            for (CatalogChange change : batch) {
+                if (change.getType().affectsProduct()) {
+                    responseCache.invalidate(change.getProductId(), change.getProductVersion());
+                    applied.increment();
+                }
+                lastSeenId = change.getId();
+            }
+        } while (batch.size() == batchSize);
+    }
+
+    public long publishedCount() {
+        return published.sum();
+    }
+
+    public long appliedCount() {
+        return applied.sum();
+    }
+
+    public Long lastSeenId() {
+        return lastSeenId;
+    }
+}
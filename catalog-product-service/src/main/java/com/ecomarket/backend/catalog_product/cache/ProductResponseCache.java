@@ -0,0 +1,75 @@
+package com.ecomarket.backend.catalog_product.cache;
+
+import com.ecomarket.backend.catalog_product.DTO.ProductResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Caché acotada de fichas de producto ya ensambladas (producto, categoría, marca e imágenes).
+ * <p>
+ * Cada entrada guarda la versión del producto con la que se construyó. Al invalidar se deja
+ * una lápida con la versión nueva, de modo que una lectura lenta que cargó la versión
+ * anterior no pueda volver a dejarla en caché después del cambio.
+ */
+@Component
+public class ProductResponseCache {
+
+    private record Entry(long version, ProductResponse response) {
+    }
+
+    private final Cache<Long, Entry> cache;
+    private final long maximumSize;
+
+    public ProductResponseCache(@Value("${catalog.cache.products.max-size:10000}") long maximumSize,
+                                @Value("${catalog.cache.products.expire-after-write:10m}") Duration expireAfterWrite) {
+        this.maximumSize = maximumSize;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+    }
+
+    public Optional<ProductResponse> get(Long productId) {
+        Entry entry = cache.getIfPresent(productId);
+        return entry == null ? Optional.empty() : Optional.ofNullable(entry.response());
+    }
+
+    /**
+     * Guarda la ficha salvo que ya haya una entrada (o lápida) de una versión posterior.
+     */
+    public void put(Long productId, long version, ProductResponse response) {
+        cache.asMap().merge(productId, new Entry(version, response),
+                (current, candidate) -> candidate.version() >= current.version() ? candidate : current);
+    }
+
+    /**
+     * Descarta cualquier ficha anterior a {@code version}.
+     */
+    public void invalidate(Long productId, long version) {
+        cache.asMap().merge(productId, new Entry(version, null),
+                (current, tombstone) -> current.version() <= tombstone.version() ? tombstone : current);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    public long maximumSize() {
+        return maximumSize;
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+}
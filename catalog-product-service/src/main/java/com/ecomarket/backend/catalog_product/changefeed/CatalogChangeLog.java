@@ -0,0 +1,181 @@
+package com.ecomarket.backend.catalog_product.changefeed;
+
+import com.ecomarket.backend.catalog_product.model.CatalogChange;
+import com.ecomarket.backend.catalog_product.model.Inventory;
+import com.ecomarket.backend.catalog_product.model.Product;
+import com.ecomarket.backend.catalog_product.repository.CatalogChangeRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Registro de cambios del catálogo (tabla {@code catalog_changes}), sólo de inserción.
+ * <p>
+ * Las escrituras exigen una transacción en curso: el cambio y su entrada se confirman o se
+ * descartan juntos. La lectura por id tiene un matiz: los ids se asignan al insertar pero las
+ * transacciones confirman en otro orden, así que un id bajo puede hacerse visible después de
+ * uno alto. {@link #readAfter} se protege de dos formas:
+ * <ul>
+ *   <li>sólo entrega entradas con más de {@code visibility-delay} de antigüedad y se corta en la
+ *   primera más reciente;</li>
+ *   <li>si falta un id (hueco), no lo salta hasta que la entrada siguiente tenga más de
+ *   {@code gap-timeout}: el id que falta puede ser de una transacción larga que aún no confirma.
+ *   Pasado ese plazo se da por revertido.</li>
+ * </ul>
+ * Una transacción que tarde más que {@code gap-timeout} en confirmar después de escribir su entrada
+ * (o un desfase de reloj entre nodos mayor que ese plazo, porque {@code createdAt} lo pone cada
+ * nodo) todavía puede quedar detrás de un lector. Para esos casos, y para los lectores que se
+ * quedan atrás más que la retención, {@link #resyncRequired} indica que el lector debe recargar el
+ * estado completo y seguir desde {@link #head()}.
+ */
+@Slf4j
+@Component
+public class CatalogChangeLog {
+
+    private static final String RECORD_INVENTORY_BY_SKU = "INSERT INTO catalog_changes " +
+            "(type, product_id, available_quantity, created_at) " +
+            "SELECT 'INVENTORY_UPDATED', p.id, i.available_quantity, ? FROM products p " +
+            "JOIN inventories i ON i.product_id = p.id WHERE p.sku IN (%s)";
+
+    private static final String RECORD_PRODUCT_BY_SKU = "INSERT INTO catalog_changes " +
+            "(type, product_id, product_version, price, status, created_at) " +
+            "SELECT ?, p.id, p.version, p.price, p.status, ? FROM products p WHERE p.sku IN (%s)";
+
+    private final CatalogChangeRepository changeRepo;
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration visibilityDelay;
+    private final Duration gapTimeout;
+    private final Duration retention;
+
+    public CatalogChangeLog(CatalogChangeRepository changeRepo,
+                            JdbcTemplate jdbcTemplate,
+                            @Value("${catalog.changes.visibility-delay:2s}") Duration visibilityDelay,
+                            @Value("${catalog.changes.gap-timeout:1m}") Duration gapTimeout,
+                            @Value("${catalog.changes.retention:7d}") Duration retention) {
+        this.changeRepo = changeRepo;
+        this.jdbcTemplate = jdbcTemplate;
+        this.visibilityDelay = visibilityDelay;
+        this.gapTimeout = gapTimeout;
+        this.retention = retention;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public CatalogChange recordProduct(CatalogChange.Type type, Product product) {
+        return changeRepo.save(CatalogChange.builder()
+                .type(type)
+                .productId(product.getId())
+                .productVersion(product.getVersion() == null ? 0 : product.getVersion())
+                .price(product.getPrice())
+                .status(product.getStatus())
+                .createdAt(LocalDateTime.now())
+                .build());
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public CatalogChange recordInventory(Inventory inventory) {
+        return changeRepo.save(CatalogChange.builder()
+                .type(CatalogChange.Type.INVENTORY_UPDATED)
+                .productId(inventory.getProduct().getId())
+                .availableQuantity(inventory.getAvailableQuantity())
+                .createdAt(LocalDateTime.now())
+                .build());
+    }
+
+    /**
+     * Registra un cambio de tipo {@code type} por cada SKU con una sola sentencia, leyendo id,
+     * versión, precio y estado de la fila ya escrita; para las altas masivas hechas por JDBC.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public int recordProductsBySku(CatalogChange.Type type, Collection<String> skus) {
+        if (skus.isEmpty()) {
+            return 0;
+        }
+        String placeholders = String.join(",", Collections.nCopies(skus.size(), "?"));
+        List<Object> args = new ArrayList<>(skus.size() + 2);
+        args.add(type.name());
+        args.add(Timestamp.valueOf(LocalDateTime.now()));
+        args.addAll(skus);
+        return jdbcTemplate.update(RECORD_PRODUCT_BY_SKU.formatted(placeholders), args.toArray());
+    }
+
+    /**
+     * Registra el estado actual del inventario de cada SKU con una sola sentencia, para los
+     * ajustes masivos hechos por JDBC.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public int recordInventoryBySku(Collection<String> skus) {
+        if (skus.isEmpty()) {
+            return 0;
+        }
+        String placeholders = String.join(",", Collections.nCopies(skus.size(), "?"));
+        List<Object> args = new ArrayList<>(skus.size() + 1);
+        args.add(Timestamp.valueOf(LocalDateTime.now()));
+        args.addAll(skus);
+        return jdbcTemplate.update(RECORD_INVENTORY_BY_SKU.formatted(placeholders), args.toArray());
+    }
+
+    /**
+     * Entradas confirmadas posteriores a {@code afterId}, en orden, hasta {@code limit}.
+     */
+    @Transactional(readOnly = true)
+    public List<CatalogChange> readAfter(long afterId, int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime settled = now.minus(visibilityDelay);
+        LocalDateTime gapSettled = now.minus(gapTimeout);
+        List<CatalogChange> page = changeRepo.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.of(0, limit));
+        long expectedId = afterId + 1;
+        for (int i = 0; i < page.size(); i++) {
+            CatalogChange change = page.get(i);
+            LocalDateTime cutoff = change.getId() == expectedId ? settled : gapSettled;
+            if (!change.getCreatedAt().isBefore(cutoff)) {
+                return page.subList(0, i);
+            }
+            expectedId = change.getId() + 1;
+        }
+        return page;
+    }
+
+    /**
+     * Indica si entre {@code afterId} y la entrada más antigua que se conserva pudo purgarse algo:
+     * el lector ya no puede ponerse al día leyendo el registro y debe recargar el estado completo.
+     * Un id revertido justo antes de la entrada más antigua da un falso positivo, que sólo cuesta
+     * una recarga.
+     */
+    @Transactional(readOnly = true)
+    public boolean resyncRequired(long afterId) {
+        return changeRepo.findTopByOrderByIdAsc()
+                .map(oldest -> oldest.getId() > afterId + 1)
+                .orElse(false);
+    }
+
+    /**
+     * Id de la última entrada; un lector que empieza aquí sólo recibe cambios posteriores.
+     */
+    @Transactional(readOnly = true)
+    public long head() {
+        return changeRepo.findTopByCreatedAtBeforeOrderByIdDesc(LocalDateTime.now().minus(visibilityDelay))
+                .map(CatalogChange::getId)
+                .orElse(0L);
+    }
+
+    @Scheduled(fixedDelayString = "${catalog.changes.purge-interval-ms:600000}")
+    public void purge() {
+        int deleted = changeRepo.deleteCreatedBefore(LocalDateTime.now().minus(retention));
+        if (deleted > 0) {
+            log.debug("Purgadas {} entradas del registro de cambios del catálogo", deleted);
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.ecomarket.backend.catalog_product.changefeed;
+
+import com.ecomarket.backend.catalog_product.assembler.CatalogChangeAssembler;
+import com.ecomarket.backend.catalog_product.exception.BusinessLogicException;
+import com.ecomarket.backend.catalog_product.model.CatalogChange;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Difunde el registro de cambios por Server-Sent Events.
+ * <p>
+ * Cada suscriptor lleva su propio cursor (el id del último evento leído para él, que también viaja
+ * como id del evento). Un único hilo programado lee el registro y deja los eventos en la cola
+ * acotada de cada suscriptor: los suscriptores al día comparten la misma lectura y los atrasados
+ * avanzan hasta {@code max-pages-per-tick} páginas por ciclo, mientras su cola tenga sitio. Los
+ * envíos los hace un pool aparte, de modo que un cliente lento no retrasa a los demás; si un envío
+ * lleva más de {@code stall-timeout} bloqueado, se le desconecta y tendrá que reconectar.
+ * <p>
+ * Al reconectar, el cliente manda {@code Last-Event-ID} y retoma sin huecos mientras la entrada
+ * siga dentro de la retención del registro. Si ya no lo está, recibe un evento
+ * {@code resync-required} con la posición actual: debe recargar el estado completo, y el stream
+ * sigue desde ahí.
+ */
+@Slf4j
+@Component
+public class CatalogChangeStream {
+
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean closed;
+        private volatile long cursor; // Sólo lo modifica el hilo de lectura
+        private volatile long lastQueuedNanos = System.nanoTime();
+        private volatile long sendStartedNanos; // 0 si no hay un envío en curso
+
+        private Subscriber(SseEmitter emitter, long cursor, int queueCapacity) {
+            this.emitter = emitter;
+            this.cursor = cursor;
+            this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        }
+    }
+
+    private final CatalogChangeLog changeLog;
+    private final CatalogChangeAssembler changeAssembler;
+    private final int batchSize;
+    private final int maxPagesPerTick;
+    private final int maxSubscribers;
+    private final int queueCapacity;
+    private final Duration timeout;
+    private final Duration heartbeat;
+    private final Duration stallTimeout;
+    private final ExecutorService senders;
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+    public CatalogChangeStream(CatalogChangeLog changeLog,
+                               CatalogChangeAssembler changeAssembler,
+                               @Value("${catalog.changes.stream.batch-size:500}") int batchSize,
+                               @Value("${catalog.changes.stream.max-pages-per-tick:10}") int maxPagesPerTick,
+                               @Value("${catalog.changes.stream.max-subscribers:200}") int maxSubscribers,
+                               @Value("${catalog.changes.stream.queue-capacity:2000}") int queueCapacity,
+                               @Value("${catalog.changes.stream.timeout:30m}") Duration timeout,
+                               @Value("${catalog.changes.stream.heartbeat:15s}") Duration heartbeat,
+                               @Value("${catalog.changes.stream.stall-timeout:30s}") Duration stallTimeout,
+                               @Value("${catalog.changes.stream.sender-threads:8}") int senderThreads) {
+        if (queueCapacity <= batchSize) {
+            throw new IllegalArgumentException("catalog.changes.stream.queue-capacity must be greater than batch-size");
+        }
+        this.changeLog = changeLog;
+        this.changeAssembler = changeAssembler;
+        this.batchSize = batchSize;
+        this.maxPagesPerTick = maxPagesPerTick;
+        this.maxSubscribers = maxSubscribers;
+        this.queueCapacity = queueCapacity;
+        this.timeout = timeout;
+        this.heartbeat = heartbeat;
+        this.stallTimeout = stallTimeout;
+        this.senders = Executors.newFixedThreadPool(senderThreads, new CustomizableThreadFactory("catalog-stream-"));
+    }
+
+    /**
+     * Abre un stream desde {@code afterId}; sin él, sólo se envían los cambios posteriores a la suscripción.
+     */
+    public SseEmitter subscribe(Long afterId) {
+        return subscribe(afterId, new SseEmitter(timeout.toMillis()));
+    }
+
+    SseEmitter subscribe(Long afterId, SseEmitter emitter) {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new BusinessLogicException("Too many catalog change stream subscribers");
+        }
+        long cursor = afterId != null ? afterId : changeLog.head();
+        boolean resync = afterId != null && changeLog.resyncRequired(afterId);
+        if (resync) {
+            cursor = changeLog.head();
+        }
+        Subscriber subscriber = new Subscriber(emitter, cursor, queueCapacity);
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(ex -> remove(subscriber));
+        if (resync) {
+            subscriber.queue.add(SseEmitter.event()
+                    .id(String.valueOf(cursor))
+                    .name("resync-required")
+                    .data(Map.of("lastId", cursor)));
+            scheduleDrain(subscriber);
+        }
+        subscribers.add(subscriber);
+        return emitter;
+    }
+
+    @Scheduled(fixedDelayString = "${catalog.changes.stream.poll-interval-ms:500}")
+    public void push() {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        long now = System.nanoTime();
+        // Primera página por cursor, compartida entre los suscriptores que están en el mismo punto
+        Map<Long, List<CatalogChange>> firstPages = new HashMap<>();
+        for (Subscriber subscriber : subscribers) {
+            long sendStarted = subscriber.sendStartedNanos;
+            if (sendStarted != 0 && now - sendStarted > stallTimeout.toNanos()) {
+                drop(subscriber);
+                continue;
+            }
+            // Sin sitio para una página entera se espera al siguiente ciclo; la cola no crece sin límite
+            for (int pages = 0; pages < maxPagesPerTick && subscriber.queue.remainingCapacity() >= batchSize; pages++) {
+                List<CatalogChange> page = pages == 0
+                        ? firstPages.computeIfAbsent(subscriber.cursor, cursor -> changeLog.readAfter(cursor, batchSize))
+                        : changeLog.readAfter(subscriber.cursor, batchSize);
+                for (CatalogChange change : page) {
+                    subscriber.queue.add(SseEmitter.event()
+                            .id(String.valueOf(change.getId()))
+                            .name("catalog-change")
+                            .data(changeAssembler.toResponse(change)));
+                    subscriber.cursor = change.getId();
+                    subscriber.lastQueuedNanos = now;
+                }
+                if (page.size() < batchSize) {
+                    break;
+                }
+            }
+            if (now - subscriber.lastQueuedNanos > heartbeat.toNanos() && subscriber.queue.offer(
+                    SseEmitter.event().comment("keep-alive"))) {
+                subscriber.lastQueuedNanos = now;
+            }
+            scheduleDrain(subscriber);
+        }
+    }
+
+    private void scheduleDrain(Subscriber subscriber) {
+        if (!subscriber.closed && !subscriber.queue.isEmpty() && subscriber.draining.compareAndSet(false, true)) {
+            senders.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            SseEmitter.SseEventBuilder event;
+            while (!subscriber.closed && (event = subscriber.queue.poll()) != null) {
+                subscriber.sendStartedNanos = System.nanoTime();
+                subscriber.emitter.send(event);
+                subscriber.sendStartedNanos = 0;
+            }
+        } catch (IOException | IllegalStateException ex) {
+            // Cliente desconectado o emitter ya cerrado
+            remove(subscriber);
+            log.debug("Suscriptor del stream de cambios desconectado: {}", ex.getMessage());
+        } finally {
+            subscriber.draining.set(false);
+        }
+        // Lo encolado mientras terminaba este envío no espera al siguiente ciclo
+        scheduleDrain(subscriber);
+    }
+
+    private void drop(Subscriber subscriber) {
+        remove(subscriber);
+        log.warn("Suscriptor del stream de cambios desconectado por lento: envío bloqueado más de {}, {} eventos en cola",
+                stallTimeout, subscriber.queue.size());
+        subscriber.queue.clear();
+        // complete() espera a que termine un envío bloqueado: se hace fuera del hilo de lectura
+        senders.execute(subscriber.emitter::complete);
+    }
+
+    private void remove(Subscriber subscriber) {
+        subscriber.closed = true;
+        subscribers.remove(subscriber);
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @PreDestroy
+    public void close() {
+        for (Subscriber subscriber : subscribers) {
+            remove(subscriber);
+            subscriber.emitter.complete();
+        }
+        senders.shutdown();
+    }
+}
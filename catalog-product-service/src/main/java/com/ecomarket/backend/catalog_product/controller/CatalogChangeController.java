@@ -0,0 +1,69 @@
+package com.ecomarket.backend.catalog_product.controller;
+
+import com.ecomarket.backend.catalog_product.DTO.CatalogChangePageResponse;
+import com.ecomarket.backend.catalog_product.DTO.CatalogChangeResponse;
+import com.ecomarket.backend.catalog_product.assembler.CatalogChangeAssembler;
+import com.ecomarket.backend.catalog_product.changefeed.CatalogChangeLog;
+import com.ecomarket.backend.catalog_product.changefeed.CatalogChangeStream;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/catalog/changes")
+@RequiredArgsConstructor
+public class CatalogChangeController {
+
+    private static final int MAX_LIMIT = 5000;
+
+    private final CatalogChangeLog changeLog;
+    private final CatalogChangeStream changeStream;
+    private final CatalogChangeAssembler changeAssembler;
+
+    /**
+     * Sondeo por lotes: cambios posteriores a {@code after}. Sin {@code after} devuelve una página
+     * vacía con la posición actual, para empezar a seguir el registro desde ahora. Con
+     * {@code resyncRequired} el registro ya no cubre desde {@code after}: el cliente recarga el
+     * estado completo y sigue desde la posición actual.
+     */
+    @GetMapping
+    public CatalogChangePageResponse getChanges(@RequestParam(required = false) Long after,
+                                                @RequestParam(defaultValue = "500") int limit) {
+        if (after == null) {
+            return CatalogChangePageResponse.builder()
+                    .changes(List.of())
+                    .lastId(changeLog.head())
+                    .hasMore(false)
+                    .build();
+        }
+        if (changeLog.resyncRequired(after)) {
+            return CatalogChangePageResponse.builder()
+                    .changes(List.of())
+                    .lastId(changeLog.head())
+                    .hasMore(false)
+                    .resyncRequired(true)
+                    .build();
+        }
+        int pageSize = Math.max(1, Math.min(limit, MAX_LIMIT));
+        List<CatalogChangeResponse> changes = changeLog.readAfter(after, pageSize).stream()
+                .map(changeAssembler::toResponse)
+                .toList();
+        return CatalogChangePageResponse.builder()
+                .changes(changes)
+                .lastId(changes.isEmpty() ? after : changes.get(changes.size() - 1).getId())
+                .hasMore(changes.size() == pageSize)
+                .build();
+    }
+
+    /**
+     * Stream SSE; al reconectar, {@code Last-Event-ID} tiene prioridad sobre {@code after}.
+     */
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(@RequestParam(required = false) Long after,
+                                    @RequestHeader(name = "Last-Event-ID", required = false) Long lastEventId) {
+        return changeStream.subscribe(lastEventId != null ? lastEventId : after);
+    }
+}
@@ -1,15 +1,33 @@
 package com.ecomarket.backend.catalog_product.controller;
 
+import com.ecomarket.backend.catalog_product.DTO.FlashSaleResponse;
+import com.ecomarket.backend.catalog_product.DTO.InventoryBulkRequest;
+import com.ecomarket.backend.catalog_product.DTO.InventoryBulkResponse;
 import com.ecomarket.backend.catalog_product.DTO.InventoryOperationRequest;
 import com.ecomarket.backend.catalog_product.DTO.InventoryResponse;
+import com.ecomarket.backend.catalog_product.DTO.StockLeaseRequest;
+import com.ecomarket.backend.catalog_product.DTO.StockAlertResponse;
+import com.ecomarket.backend.catalog_product.DTO.StockLeaseResponse;
+import com.ecomarket.backend.catalog_product.DTO.StockLeaseReturnRequest;
 import com.ecomarket.backend.catalog_product.assembler.InventoryAssembler;
+import com.ecomarket.backend.catalog_product.assembler.StockLeaseAssembler;
+import com.ecomarket.backend.catalog_product.availability.StockStatusEvaluator;
+import com.ecomarket.backend.catalog_product.exception.ResourceNotFoundException;
+import com.ecomarket.backend.catalog_product.flashsale.FlashSaleGate;
 import com.ecomarket.backend.catalog_product.model.Inventory;
+import com.ecomarket.backend.catalog_product.model.StockLease;
+import com.ecomarket.backend.catalog_product.service.InventoryBulkService;
 import com.ecomarket.backend.catalog_product.service.InventoryService;
+import com.ecomarket.backend.catalog_product.service.StockLeaseService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/v1/inventory")
 @RequiredArgsConstructor
@@ -17,17 +35,70 @@ public class InventoryController {
 
     private final InventoryService inventoryService;
     private final InventoryAssembler inventoryAssembler;
+    private final StockLeaseService stockLeaseService;
+    private final StockLeaseAssembler stockLeaseAssembler;
+    private final InventoryBulkService inventoryBulkService;
+    private final FlashSaleGate flashSaleGate;
+    private final StockStatusEvaluator stockStatusEvaluator;
 
     @GetMapping("/{productId}")
-    public EntityModel<InventoryResponse> getInventory(@PathVariable Long productId) {
-        Inventory inventory = inventoryService.getInventory(productId);
-        return inventoryAssembler.toModel(inventory);
+    public ResponseEntity<EntityModel<InventoryResponse>> getInventory(@PathVariable Long productId) {
+        InventoryResponse response = inventoryAssembler.toResponse(inventoryService.getInventory(productId));
+        // Con If-None-Match coincidente Spring responde 304 sin serializar el cuerpo
+        return ResponseEntity.ok()
+                .eTag(inventoryAssembler.etag(response))
+                .body(inventoryAssembler.toModel(response));
     }
 
     @PostMapping("/{productId}/operation")
     public EntityModel<InventoryResponse> handleOperation(@PathVariable Long productId,
                                                           @Valid @RequestBody InventoryOperationRequest request) {
-        Inventory updated = inventoryService.handleOperation(productId, request);
+        // En venta flash los RESERVE sin stock se rechazan antes de abrir transacción
+        Inventory updated = flashSaleGate.execute(productId, request,
+                () -> inventoryService.handleOperation(productId, request));
         return inventoryAssembler.toModel(updated);
     }
+
+    @PutMapping("/{productId}/flash-sale")
+    public FlashSaleResponse startFlashSale(@PathVariable Long productId) {
+        return flashSaleGate.start(productId);
+    }
+
+    @GetMapping("/{productId}/flash-sale")
+    public FlashSaleResponse getFlashSale(@PathVariable Long productId) {
+        return flashSaleGate.status(productId)
+                .orElseThrow(() -> new ResourceNotFoundException("Flash sale not active"));
+    }
+
+    @DeleteMapping("/{productId}/flash-sale")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void stopFlashSale(@PathVariable Long productId) {
+        flashSaleGate.stop(productId);
+    }
+
+    // Avisos recientes de stock bajo y agotado, del más nuevo al más antiguo
+    @GetMapping("/alerts")
+    public List<StockAlertResponse> getStockAlerts() {
+        return stockStatusEvaluator.recentAlerts();
+    }
+
+    @PostMapping("/bulk")
+    public InventoryBulkResponse bulkAdjust(@Valid @RequestBody InventoryBulkRequest request) {
+        return inventoryBulkService.adjust(request);
+    }
+
+    @PostMapping("/{productId}/leases")
+    @ResponseStatus(HttpStatus.CREATED)
+    public EntityModel<StockLeaseResponse> grantLease(@PathVariable Long productId,
+                                                      @Valid @RequestBody StockLeaseRequest request) {
+        StockLease lease = stockLeaseService.grant(productId, request.getQuantity(), request.getHolder());
+        return stockLeaseAssembler.toModel(lease);
+    }
+
+    @PostMapping("/leases/{leaseId}/return")
+    public EntityModel<StockLeaseResponse> returnLease(@PathVariable Long leaseId,
+                                                       @Valid @RequestBody StockLeaseReturnRequest request) {
+        StockLease lease = stockLeaseService.returnLease(leaseId, request.getUnusedQuantity());
+        return stockLeaseAssembler.toModel(lease);
+    }
 }
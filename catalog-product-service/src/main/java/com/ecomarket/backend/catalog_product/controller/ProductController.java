@@ -1,19 +1,48 @@
 package com.ecomarket.backend.catalog_product.controller;
 
+import com.ecomarket.backend.catalog_product.DTO.AlsoBoughtResponse;
+import com.ecomarket.backend.catalog_product.DTO.ProductAvailabilityRequest;
+import com.ecomarket.backend.catalog_product.DTO.ProductAvailabilityResponse;
+import com.ecomarket.backend.catalog_product.DTO.ProductCacheStatsResponse;
+import com.ecomarket.backend.catalog_product.DTO.ProductDetailRequest;
+import com.ecomarket.backend.catalog_product.DTO.ProductDetailResponse;
 import com.ecomarket.backend.catalog_product.DTO.ProductImageRequest;
+import com.ecomarket.backend.catalog_product.DTO.ProductImportResponse;
 import com.ecomarket.backend.catalog_product.DTO.ProductRequest;
 import com.ecomarket.backend.catalog_product.DTO.ProductResponse;
+import com.ecomarket.backend.catalog_product.DTO.ProductSearchRequest;
+import com.ecomarket.backend.catalog_product.DTO.ProductSearchResponse;
+import com.ecomarket.backend.catalog_product.DTO.ProductSuggestRequest;
+import com.ecomarket.backend.catalog_product.DTO.ProductSuggestionResponse;
+import com.ecomarket.backend.catalog_product.DTO.ProductSummaryPageResponse;
+import com.ecomarket.backend.catalog_product.DTO.ProductSummaryRequest;
+import com.ecomarket.backend.catalog_product.DTO.SearchIndexStatsResponse;
+import com.ecomarket.backend.catalog_product.DTO.TopSellerResponse;
+import com.ecomarket.backend.catalog_product.DTO.TopSellersRequest;
 import com.ecomarket.backend.catalog_product.assembler.ProductAssembler;
 import com.ecomarket.backend.catalog_product.model.Product;
+import com.ecomarket.backend.catalog_product.recommendation.CoPurchaseIndex;
+import com.ecomarket.backend.catalog_product.sales.SalesTrends;
+import com.ecomarket.backend.catalog_product.search.ProductSearchResult;
+import com.ecomarket.backend.catalog_product.service.ProductAvailabilityService;
+import com.ecomarket.backend.catalog_product.service.ProductDetailService;
+import com.ecomarket.backend.catalog_product.service.ProductImportService;
 import com.ecomarket.backend.catalog_product.service.ProductService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/v1/products")
@@ -22,6 +51,11 @@ public class ProductController {
 
     private final ProductService productService;
     private final ProductAssembler productAssembler;
+    private final ProductImportService productImportService;
+    private final ProductAvailabilityService availabilityService;
+    private final ProductDetailService detailService;
+    private final CoPurchaseIndex coPurchaseIndex;
+    private final SalesTrends salesTrends;
 
     @PostMapping
     public EntityModel<ProductResponse> createProduct(@Valid @RequestBody ProductRequest request) {
@@ -30,9 +64,35 @@ public class ProductController {
     }
 
     @GetMapping("/{id}")
-    public EntityModel<ProductResponse> getProduct(@PathVariable Long id) {
-        Product product = productService.getProduct(id);
-        return productAssembler.toModel(product);
+    public ResponseEntity<EntityModel<ProductResponse>> getProduct(@PathVariable Long id) {
+        ProductResponse response = productService.getProductResponse(id);
+        // Con If-None-Match coincidente Spring responde 304 sin serializar el cuerpo
+        return ResponseEntity.ok()
+                .eTag(productAssembler.etag(response))
+                .body(productAssembler.toModel(response));
+    }
+
+    /**
+     * Producto, stock y primera página de reseñas en una sola llamada ({@code include=availability,reviews}).
+     */
+    @GetMapping("/{id}/detail")
+    public ProductDetailResponse getProductDetail(@PathVariable Long id,
+                                                  @Valid @ModelAttribute ProductDetailRequest request) {
+        Set<ProductDetailService.Section> sections = request.getInclude() == null
+                ? EnumSet.allOf(ProductDetailService.Section.class)
+                : Arrays.stream(request.getInclude().split(","))
+                .map(section -> ProductDetailService.Section.valueOf(section.trim().toUpperCase()))
+                .collect(Collectors.toCollection(() -> EnumSet.noneOf(ProductDetailService.Section.class)));
+        return detailService.getDetail(id, sections, request.getReviewsSize());
+    }
+
+    /**
+     * "Comprados juntos": se sirve desde memoria, sin consultar la base de datos.
+     */
+    @GetMapping("/{id}/also-bought")
+    public List<AlsoBoughtResponse> getAlsoBought(@PathVariable Long id,
+                                                  @RequestParam(defaultValue = "10") int limit) {
+        return coPurchaseIndex.alsoBought(id, limit);
     }
 
     @PutMapping("/{id}")
@@ -59,16 +119,89 @@ public class ProductController {
 
 
     @GetMapping
-    public CollectionModel<EntityModel<ProductResponse>> searchProducts(
+    public ResponseEntity<CollectionModel<EntityModel<ProductResponse>>> searchProducts(
             @RequestParam(required = false) String name,
             @RequestParam(required = false) String sku,
             @RequestParam(required = false) Long categoryId,
             @RequestParam(required = false) Long brandId
     ) {
-        List<EntityModel<ProductResponse>> products = productService.searchProducts(name, sku, categoryId, brandId)
+        List<ProductResponse> products = productService.searchProducts(name, sku, categoryId, brandId)
                 .stream()
-                .map(productAssembler::toModel)
+                .map(productAssembler::toResponse)
                 .toList();
-        return CollectionModel.of(products);
+        return ResponseEntity.ok()
+                .eTag(productAssembler.etag(products))
+                .body(CollectionModel.of(products.stream().map(productAssembler::toModel).toList()));
+    }
+
+    @GetMapping("/search")
+    public ProductSearchResponse facetedSearch(@Valid @ModelAttribute ProductSearchRequest request) {
+        ProductSearchResult result = productService.facetedSearch(request);
+        return ProductSearchResponse.builder()
+                .products(result.getProducts().stream().map(productAssembler::toModel).toList())
+                .page(request.getPage())
+                .size(request.getSize())
+                .totalElements(result.getTotal())
+                .totalPages((int) ((result.getTotal() + request.getSize() - 1) / request.getSize()))
+                .facets(result.getFacets())
+                .build();
+    }
+
+    @GetMapping("/summaries")
+    public ProductSummaryPageResponse listSummaries(@Valid @ModelAttribute ProductSummaryRequest request) {
+        return productService.listSummaries(request);
+    }
+
+    /**
+     * Precio, estado y stock de varios productos; se sirve desde la foto local del catálogo cuando está al día.
+     */
+    @GetMapping("/availability")
+    public List<ProductAvailabilityResponse> getAvailability(@Valid @ModelAttribute ProductAvailabilityRequest request) {
+        return availabilityService.getAvailability(request.getIds());
+    }
+
+    /**
+     * Más vendidos por unidades en pedidos de la última hora o del último día.
+     */
+    @GetMapping("/top-sellers")
+    public List<TopSellerResponse> getTopSellers(@Valid @ModelAttribute TopSellersRequest request) {
+        return salesTrends.top(SalesTrends.Signal.ORDERS, SalesTrends.Window.valueOf(request.getWindow().toUpperCase()),
+                request.getCategoryId(), request.getLimit());
+    }
+
+    /**
+     * Tendencias por unidades reservadas en la última hora o el último día; llegan antes que los pedidos.
+     */
+    @GetMapping("/trending")
+    public List<TopSellerResponse> getTrending(@Valid @ModelAttribute TopSellersRequest request) {
+        return salesTrends.top(SalesTrends.Signal.RESERVATIONS, SalesTrends.Window.valueOf(request.getWindow().toUpperCase()),
+                request.getCategoryId(), request.getLimit());
+    }
+
+    @GetMapping("/suggest")
+    public List<ProductSuggestionResponse> suggestProducts(@Valid @ModelAttribute ProductSuggestRequest request) {
+        return productService.suggestProducts(request.getQ(), request.getLimit());
+    }
+
+    /**
+     * Importación masiva en streaming: text/csv con cabecera o application/x-ndjson, una fila por línea.
+     */
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE})
+    public ProductImportResponse importProducts(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                InputStream body) {
+        ProductImportService.Format format = MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.APPLICATION_NDJSON)
+                ? ProductImportService.Format.NDJSON
+                : ProductImportService.Format.CSV;
+        return productImportService.importProducts(body, format);
+    }
+
+    @GetMapping("/cache/stats")
+    public ResponseEntity<ProductCacheStatsResponse> getCacheStats() {
+        return ResponseEntity.ok(productService.getCacheStats());
+    }
+
+    @PostMapping("/search/index/rebuild")
+    public ResponseEntity<SearchIndexStatsResponse> rebuildSearchIndex() {
+        return ResponseEntity.ok(productService.rebuildSearchIndex());
     }
-}
\ No newline at end of file
+}
@@ -1,18 +1,26 @@
 package com.ecomarket.backend.catalog_product.controller;
 
+import com.ecomarket.backend.catalog_product.DTO.RatingRepairResponse;
+import com.ecomarket.backend.catalog_product.DTO.RatingSummaryResponse;
 import com.ecomarket.backend.catalog_product.DTO.ReviewRequest;
 import com.ecomarket.backend.catalog_product.DTO.ReviewResponse;
+import com.ecomarket.backend.catalog_product.assembler.ProductAssembler;
 import com.ecomarket.backend.catalog_product.assembler.ReviewAssembler;
 import com.ecomarket.backend.catalog_product.model.Review;
+import com.ecomarket.backend.catalog_product.service.ReviewPage;
 import com.ecomarket.backend.catalog_product.service.ReviewService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
 
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
 @RestController
 @RequestMapping("/api/v1/reviews")
 @RequiredArgsConstructor
@@ -20,6 +28,7 @@ public class ReviewController {
 
     private final ReviewService reviewService;
     private final ReviewAssembler reviewAssembler;
+    private final ProductAssembler productAssembler;
 
     @PostMapping
     public EntityModel<ReviewResponse> createReview(@Valid @RequestBody ReviewRequest request) {
@@ -28,10 +37,28 @@ public class ReviewController {
     }
 
     @GetMapping("/product/{productId}")
-    public CollectionModel<EntityModel<ReviewResponse>> getReviews(@PathVariable Long productId) {
-        List<EntityModel<ReviewResponse>> reviews = reviewService.getReviews(productId).stream()
+    public CollectionModel<EntityModel<ReviewResponse>> getReviews(@PathVariable Long productId,
+                                                                   @RequestParam(required = false) Long beforeId,
+                                                                   @RequestParam(defaultValue = "20") int size) {
+        ReviewPage page = reviewService.getReviews(productId, beforeId, size);
+        List<EntityModel<ReviewResponse>> reviews = page.getReviews().stream()
                 .map(reviewAssembler::toModel)
                 .toList();
-        return CollectionModel.of(reviews);
+        CollectionModel<EntityModel<ReviewResponse>> model = CollectionModel.of(reviews,
+                linkTo(methodOn(ReviewController.class).getReviews(productId, beforeId, page.getSize())).withSelfRel());
+        if (page.getNextBeforeId() != null) {
+            model.add(linkTo(methodOn(ReviewController.class).getReviews(productId, page.getNextBeforeId(), page.getSize())).withRel("next"));
+        }
+        return model;
+    }
+
+    @GetMapping("/product/{productId}/rating")
+    public RatingSummaryResponse getRatingSummary(@PathVariable Long productId) {
+        return productAssembler.toRatingResponse(reviewService.getRatingSummary(productId));
+    }
+
+    @PostMapping("/ratings/repair")
+    public ResponseEntity<RatingRepairResponse> repairRatingSummaries() {
+        return ResponseEntity.ok(reviewService.repairRatingSummaries());
     }
-}
\ No newline at end of file
+}
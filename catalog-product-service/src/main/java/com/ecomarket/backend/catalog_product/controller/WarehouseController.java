@@ -0,0 +1,65 @@
+package com.ecomarket.backend.catalog_product.controller;
+
+import com.ecomarket.backend.catalog_product.DTO.AllocationRequest;
+import com.ecomarket.backend.catalog_product.DTO.AllocationResponse;
+import com.ecomarket.backend.catalog_product.DTO.CommuneRequest;
+import com.ecomarket.backend.catalog_product.DTO.WarehouseRequest;
+import com.ecomarket.backend.catalog_product.DTO.WarehouseResponse;
+import com.ecomarket.backend.catalog_product.DTO.WarehouseStockRequest;
+import com.ecomarket.backend.catalog_product.DTO.WarehouseStockResponse;
+import com.ecomarket.backend.catalog_product.assembler.WarehouseAssembler;
+import com.ecomarket.backend.catalog_product.service.WarehouseService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/warehouses")
+@RequiredArgsConstructor
+public class WarehouseController {
+
+    private final WarehouseService warehouseService;
+    private final WarehouseAssembler warehouseAssembler;
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public WarehouseResponse createWarehouse(@Valid @RequestBody WarehouseRequest request) {
+        return warehouseAssembler.toResponse(warehouseService.createWarehouse(request));
+    }
+
+    @GetMapping
+    public List<WarehouseResponse> getWarehouses() {
+        return warehouseService.getActiveWarehouses().stream()
+                .map(warehouseAssembler::toResponse)
+                .toList();
+    }
+
+    @PutMapping("/communes/{name}")
+    public void saveCommune(@PathVariable String name, @Valid @RequestBody CommuneRequest request) {
+        warehouseService.saveCommune(name, request);
+    }
+
+    @PostMapping("/{code}/stock")
+    public WarehouseStockResponse adjustStock(@PathVariable String code,
+                                              @Valid @RequestBody WarehouseStockRequest request) {
+        return warehouseAssembler.toResponse(warehouseService.adjustStock(code, request));
+    }
+
+    @GetMapping("/stock/{productId}")
+    public List<WarehouseStockResponse> getProductStock(@PathVariable Long productId) {
+        return warehouseService.getProductStock(productId).stream()
+                .map(warehouseAssembler::toResponse)
+                .toList();
+    }
+
+    /**
+     * Reparte un pedido entre bodegas; con {@code commit=true} descuenta además las unidades.
+     */
+    @PostMapping("/allocations")
+    public AllocationResponse allocate(@Valid @RequestBody AllocationRequest request) {
+        return warehouseService.allocate(request);
+    }
+}
@@ -0,0 +1,18 @@
+package com.ecomarket.backend.catalog_product.exception;
+
+/**
+ * Una lectura necesaria para responder falló ({@code 503}) o no llegó a tiempo ({@code 504}).
+ */
+public class ServiceUnavailableException extends RuntimeException {
+
+    private final boolean timedOut;
+
+    public ServiceUnavailableException(String message, boolean timedOut, Throwable cause) {
+        super(message, cause);
+        this.timedOut = timedOut;
+    }
+
+    public boolean isTimedOut() {
+        return timedOut;
+    }
+}
@@ -0,0 +1,261 @@
+package com.ecomarket.backend.catalog_product.faker;
+
+import com.ecomarket.backend.common.faker.ZipfSampler;
+import lombok.extern.slf4j.Slf4j;
+import net.datafaker.Faker;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Generador de catálogo sintético a escala: categorías, marcas, productos con inventario, reseñas
+ * y sus agregados de valoración.
+ * <p>
+ * Es determinista: cada bloque usa un generador derivado de (semilla, tabla, número de bloque), así
+ * que el resultado no depende del orden en que terminan los hilos. La popularidad es Zipf: unas
+ * pocas categorías, marcas y productos concentran la mayoría de filas, como en producción.
+ * <p>
+ * Los ids se asignan explicitamente a partir del máximo actual y al final se reinicia la identidad
+ * de cada tabla, así inventario y reseñas referencian productos sin releerlos. Los usuarios de las
+ * reseñas se asumen con ids 1..users, los mismos que genera auth-service con la misma configuración.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "synthetic.data.enabled", havingValue = "true")
+public class SyntheticCatalogGenerator implements CommandLineRunner {
+
+    private static final String INSERT_CATEGORY = "INSERT INTO categories (id, name, description) VALUES (?, ?, ?)";
+    private static final String INSERT_BRAND = "INSERT INTO brands (id, name, description) VALUES (?, ?, ?)";
+    private static final String INSERT_PRODUCT = "INSERT INTO products " +
+            "(id, name, description, price, sku, category_id, brand_id, weight, dimensions, status, creation_date, last_update, version) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)";
+    private static final String INSERT_INVENTORY = "INSERT INTO inventories " +
+            "(product_id, available_quantity, leased_quantity, location, last_update) VALUES (?, ?, 0, NULL, ?)";
+    private static final String INSERT_REVIEW = "INSERT INTO reviews (product_id, user_id, rating, comment, review_date) " +
+            "VALUES (?, ?, ?, ?, ?)";
+    private static final String INSERT_RATING_SUMMARIES = "INSERT INTO product_rating_summaries " +
+            "(product_id, rating_count, rating_sum, stars1, stars2, stars3, stars4, stars5, last_update) " +
+            "SELECT r.product_id, COUNT(*), SUM(r.rating), " +
+            "SUM(CASE WHEN r.rating = 1 THEN 1 ELSE 0 END), SUM(CASE WHEN r.rating = 2 THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN r.rating = 3 THEN 1 ELSE 0 END), SUM(CASE WHEN r.rating = 4 THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN r.rating = 5 THEN 1 ELSE 0 END), ? " +
+            "FROM reviews r WHERE r.product_id BETWEEN ? AND ? GROUP BY r.product_id";
+
+    // Reparto de estrellas sesgado hacia valoraciones altas (acumulado de 1 a 5)
+    private static final double[] RATING_CDF = {0.08, 0.15, 0.30, 0.60, 1.0};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final long seed;
+    private final int threads;
+    private final int chunkSize;
+    private final double exponent;
+    private final int categories;
+    private final int brands;
+    private final int products;
+    private final long reviews;
+    private final int users;
+
+    public SyntheticCatalogGenerator(JdbcTemplate jdbcTemplate,
+                                     TransactionTemplate transactionTemplate,
+                                     @Value("${synthetic.data.seed:42}") long seed,
+                                     @Value("${synthetic.data.threads:4}") int threads,
+                                     @Value("${synthetic.data.chunk-size:5000}") int chunkSize,
+                                     @Value("${synthetic.data.zipf-exponent:1.1}") double exponent,
+                                     @Value("${synthetic.data.categories:50}") int categories,
+                                     @Value("${synthetic.data.brands:500}") int brands,
+                                     @Value("${synthetic.data.products:1000000}") int products,
+                                     @Value("${synthetic.data.reviews:3000000}") long reviews,
+                                     @Value("${synthetic.data.users:200000}") int users) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.seed = seed;
+        this.threads = threads;
+        this.chunkSize = chunkSize;
+        this.exponent = exponent;
+        this.categories = categories;
+        this.brands = brands;
+        this.products = products;
+        this.reviews = reviews;
+        this.users = users;
+    }
+
+    @Override
+    public void run(String... args) {
+        Integer existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM products WHERE sku = ?",
+                Integer.class, sku(0));
+        if (existing != null && existing > 0) {
+            log.info("Catálogo sintético con semilla {} ya generado, se omite", seed);
+            return;
+        }
+        generate();
+    }
+
+    public void generate() {
+        long start = System.nanoTime();
+        log.info("Generando catálogo sintético: {} productos, {} reseñas (semilla {}, {} hilos)",
+                products, reviews, seed, threads);
+
+        long categoryBase = nextId("categories");
+        writeChunks("categories", categories, (from, to, random) -> {
+            Faker faker = faker(random);
+            List<Object[]> rows = new ArrayList<>();
+            for (long i = from; i < to; i++) {
+                rows.add(new Object[]{categoryBase + i, faker.commerce().department() + " " + (i + 1), faker.lorem().sentence()});
+            }
+            jdbcTemplate.batchUpdate(INSERT_CATEGORY, rows);
+        });
+        restartIdentity("categories", categoryBase + categories);
+
+        long brandBase = nextId("brands");
+        writeChunks("brands", brands, (from, to, random) -> {
+            Faker faker = faker(random);
+            List<Object[]> rows = new ArrayList<>();
+            for (long i = from; i < to; i++) {
+                rows.add(new Object[]{brandBase + i, faker.company().name() + " " + (i + 1), faker.company().catchPhrase()});
+            }
+            jdbcTemplate.batchUpdate(INSERT_BRAND, rows);
+        });
+        restartIdentity("brands", brandBase + brands);
+
+        ZipfSampler categoryPopularity = new ZipfSampler(categories, exponent, seed);
+        ZipfSampler brandPopularity = new ZipfSampler(brands, exponent, seed);
+        LocalDateTime now = LocalDateTime.now();
+        long productBase = nextId("products");
+        writeChunks("products", products, (from, to, random) -> {
+            Faker faker = faker(random);
+            List<Object[]> productRows = new ArrayList<>();
+            List<Object[]> inventoryRows = new ArrayList<>();
+            for (long i = from; i < to; i++) {
+                Timestamp created = Timestamp.valueOf(now.minusMinutes(random.nextInt(2 * 365 * 24 * 60)));
+                productRows.add(new Object[]{
+                        productBase + i,
+                        faker.commerce().productName(),
+                        faker.lorem().sentence(12),
+                        price(i + 1),
+                        sku(i),
+                        categoryBase + categoryPopularity.sample(random),
+                        brandBase + brandPopularity.sample(random),
+                        BigDecimal.valueOf(50 + random.nextInt(20_000), 3),
+                        (10 + random.nextInt(90)) + "x" + (10 + random.nextInt(90)) + "x" + (5 + random.nextInt(45)),
+                        random.nextInt(100) < 95 ? "ACTIVE" : "INACTIVE",
+                        created,
+                        created});
+                int stock = random.nextInt(100) < 5 ? 0 : random.nextInt(500);
+                inventoryRows.add(new Object[]{productBase + i, stock, created});
+            }
+            jdbcTemplate.batchUpdate(INSERT_PRODUCT, productRows);
+            jdbcTemplate.batchUpdate(INSERT_INVENTORY, inventoryRows);
+        });
+        restartIdentity("products", productBase + products);
+
+        ZipfSampler productPopularity = new ZipfSampler(products, exponent, seed);
+        ZipfSampler userActivity = new ZipfSampler(users, exponent, seed);
+        writeChunks("reviews", reviews, (from, to, random) -> {
+            Faker faker = faker(random);
+            List<Object[]> rows = new ArrayList<>();
+            for (long i = from; i < to; i++) {
+                rows.add(new Object[]{
+                        productBase + productPopularity.sample(random),
+                        1L + userActivity.sample(random),
+                        rating(random),
+                        faker.lorem().sentence(),
+                        Timestamp.valueOf(now.minusMinutes(random.nextInt(365 * 24 * 60)))});
+            }
+            jdbcTemplate.batchUpdate(INSERT_REVIEW, rows);
+        });
+
+        Timestamp summarized = Timestamp.valueOf(now);
+        writeChunks("product_rating_summaries", products, (from, to, random) ->
+                jdbcTemplate.update(INSERT_RATING_SUMMARIES, summarized, productBase + from, productBase + to - 1));
+
+        log.info("Catálogo sintético generado en {} ms", (System.nanoTime() - start) / 1_000_000);
+    }
+
+    // Mismo precio que usa cart-order para el producto con ese id sobre una base vacía
+    private BigDecimal price(long productId) {
+        return BigDecimal.valueOf(990 + new SplittableRandom(seed ^ (productId * 0x9E3779B97F4A7C15L)).nextInt(250_000));
+    }
+
+    private String sku(long index) {
+        return "SYN-" + seed + "-" + (index + 1);
+    }
+
+    private static int rating(SplittableRandom random) {
+        double u = random.nextDouble();
+        int stars = 0;
+        while (u > RATING_CDF[stars]) {
+            stars++;
+        }
+        return stars + 1;
+    }
+
+    private static Faker faker(SplittableRandom random) {
+        return new Faker(new Random(random.nextLong()));
+    }
+
+    private long nextId(String table) {
+        Long max = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+        return max == null ? 1 : max + 1;
+    }
+
+    // Columnas IDENTITY (Hibernate 6) admiten RESTART; las creadas como serial usan su secuencia
+    private void restartIdentity(String table, long next) {
+        try {
+            jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH " + next);
+        } catch (DataAccessException ex) {
+            jdbcTemplate.queryForObject("SELECT setval(pg_get_serial_sequence(?, 'id'), ?)", Long.class, table, next - 1);
+        }
+    }
+
+    /**
+     * Reparte [0, total) en bloques de {@code chunkSize} y escribe cada uno en su propia transacción,
+     * con hasta {@code threads} bloques en paralelo.
+     */
+    private void writeChunks(String table, long total, ChunkWriter writer) {
+        long start = System.nanoTime();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> pending = new ArrayList<>();
+            for (long from = 0, chunk = 0; from < total; from += chunkSize, chunk++) {
+                long chunkFrom = from;
+                long chunkTo = Math.min(from + chunkSize, total);
+                SplittableRandom random = new SplittableRandom(seed ^ (table.hashCode() * 0x9E3779B97F4A7C15L) ^ (chunk * 0xC2B2AE3D27D4EB4FL));
+                pending.add(executor.submit(() -> transactionTemplate.executeWithoutResult(
+                        status -> writer.write(chunkFrom, chunkTo, random))));
+            }
+            for (Future<?> future : pending) {
+                future.get();
+            }
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("Synthetic data generation failed for " + table, ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Synthetic data generation interrupted for " + table, ex);
+        } finally {
+            executor.shutdownNow();
+        }
+        log.info("Tabla {}: {} filas en {} ms", table, total, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @FunctionalInterface
+    private interface ChunkWriter {
+        void write(long from, long to, SplittableRandom random);
+    }
+}
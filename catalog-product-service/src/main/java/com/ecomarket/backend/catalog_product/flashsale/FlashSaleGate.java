@@ -0,0 +1,260 @@
+package com.ecomarket.backend.catalog_product.flashsale;
+
+import com.ecomarket.backend.catalog_product.DTO.FlashSaleResponse;
+import com.ecomarket.backend.catalog_product.DTO.InventoryOperationRequest;
+import com.ecomarket.backend.catalog_product.exception.BusinessLogicException;
+import com.ecomarket.backend.catalog_product.exception.ResourceNotFoundException;
+import com.ecomarket.backend.catalog_product.model.Inventory;
+import com.ecomarket.backend.catalog_product.repository.InventoryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Control de admisión por producto durante una venta flash.
+ * <p>
+ * Con el modo activo, cada producto tiene un presupuesto en memoria igual a su stock disponible.
+ * Un RESERVE toma sus unidades del presupuesto con CAS; si no alcanzan se rechaza al instante con
+ * 409, sin tocar la base de datos. Los admitidos esperan turno en un semáforo justo (FIFO) que
+ * deja pasar a lo sumo {@code db-concurrency} reservas a la vez, de modo que la fila de inventario
+ * sólo recibe tantas reservas como unidades hay y sin pelearse por el bloqueo.
+ * <p>
+ * La base de datos sigue siendo la que decide: el presupuesto es una cota. Se reajusta con cada
+ * operación sobre el producto y periódicamente ({@code resync-interval-ms}) para recoger leases,
+ * ajustes masivos o recepciones en bodega. Al reajustar se descuentan las unidades en curso. Una
+ * lectura del stock que se cruza con una reserva que termina entre la lectura y el reajuste vería
+ * unidades ya vendidas como libres; para no devolverlas al presupuesto, cada operación terminada
+ * avanza la generación del producto y un reajuste con una generación anterior a la actual se
+ * descarta (el siguiente lo corrige). Así el error va hacia el lado seguro: durante un instante se
+ * admite de menos, nunca de más.
+ * <p>
+ * El presupuesto vive en memoria de cada nodo. Con varias réplicas del servicio cada una admite
+ * hasta el stock completo, de modo que a la base de datos pueden llegar hasta N veces más reservas
+ * que unidades: no se vende de más (la fila de inventario sigue decidiendo), pero se descarga menos
+ * la base de datos. Para el efecto completo la venta flash debe atenderse desde un solo nodo.
+ */
+@Slf4j
+@Component
+public class FlashSaleGate {
+
+    private static final String RESERVE = "RESERVE";
+
+    private static final class Budget {
+        private final AtomicInteger tokens;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final Semaphore lane;
+        private final LongAdder admitted = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+
+        private Budget(int tokens, int concurrency) {
+            this.tokens = new AtomicInteger(tokens);
+            this.lane = new Semaphore(concurrency, true);
+        }
+
+        private long generation; // operaciones terminadas; protegido por el monitor del Budget
+
+        private boolean tryTake(int quantity) {
+            // Primero se cuenta como en curso: un reajuste entre medio descuenta de más, nunca de menos
+            inFlight.addAndGet(quantity);
+            while (true) {
+                int current = tokens.get();
+                if (current < quantity) {
+                    inFlight.addAndGet(-quantity);
+                    return false;
+                }
+                if (tokens.compareAndSet(current, current - quantity)) {
+                    return true;
+                }
+            }
+        }
+
+        private synchronized long generation() {
+            return generation;
+        }
+
+        /**
+         * Reajusta al stock leído si desde {@code observed} no terminó ninguna operación; si no,
+         * la lectura puede no incluir una reserva ya descontada de {@code inFlight} y se descarta.
+         */
+        private synchronized boolean sync(int available, long observed) {
+            if (generation != observed) {
+                return false;
+            }
+            tokens.set(Math.max(0, available - inFlight.get()));
+            return true;
+        }
+
+        /** Marca como terminada una operación que tenía {@code quantity} unidades en curso. */
+        private synchronized void finish(int quantity) {
+            inFlight.addAndGet(-quantity);
+            generation++;
+        }
+    }
+
+    private final InventoryRepository inventoryRepo;
+    private final int dbConcurrency;
+    private final int maxQueue;
+    private final Duration maxWait;
+    private final Map<Long, Budget> budgets = new ConcurrentHashMap<>();
+
+    public FlashSaleGate(InventoryRepository inventoryRepo,
+                         @Value("${catalog.flash-sale.db-concurrency:2}") int dbConcurrency,
+                         @Value("${catalog.flash-sale.max-queue:1000}") int maxQueue,
+                         @Value("${catalog.flash-sale.max-wait:2s}") Duration maxWait) {
+        this.inventoryRepo = inventoryRepo;
+        this.dbConcurrency = dbConcurrency;
+        this.maxQueue = maxQueue;
+        this.maxWait = maxWait;
+    }
+
+    /**
+     * Activa el modo flash para el producto con un presupuesto igual a su stock disponible.
+     * Si ya estaba activo sólo reajusta el presupuesto.
+     */
+    public FlashSaleResponse start(Long productId) {
+        boolean active = budgets.containsKey(productId);
+        Budget budget = budgets.computeIfAbsent(productId, id -> new Budget(0, dbConcurrency));
+        long observed = budget.generation();
+        Inventory inventory;
+        try {
+            inventory = inventoryRepo.findByProduct_Id(productId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Inventory not found"));
+        } catch (RuntimeException ex) {
+            if (!active) {
+                budgets.remove(productId, budget);
+            }
+            throw ex;
+        }
+        if (!budget.sync(inventory.getAvailableQuantity(), observed)) {
+            // Otra operación terminó durante la lectura: se vuelve a leer; si se cruza otra vez,
+            // lo corrige el reajuste periódico
+            resync(List.of(productId));
+        }
+        log.info("Venta flash activada para el producto {} con {} unidades", productId, budget.tokens.get());
+        return toResponse(productId, budget);
+    }
+
+    public void stop(Long productId) {
+        Budget budget = budgets.remove(productId);
+        if (budget == null) {
+            throw new ResourceNotFoundException("Flash sale not active");
+        }
+        log.info("Venta flash terminada para el producto {}: {} reservas admitidas, {} rechazadas",
+                productId, budget.admitted.sum(), budget.rejected.sum());
+    }
+
+    public Optional<FlashSaleResponse> status(Long productId) {
+        return Optional.ofNullable(budgets.get(productId)).map(budget -> toResponse(productId, budget));
+    }
+
+    /**
+     * Ejecuta una operación de inventario pasando por la compuerta si el producto está en venta flash.
+     */
+    public Inventory execute(Long productId, InventoryOperationRequest request, Supplier<Inventory> operation) {
+        Budget budget = budgets.get(productId);
+        if (budget == null) {
+            return operation.get();
+        }
+        int quantity = request.getQuantity();
+        if (!RESERVE.equalsIgnoreCase(request.getOperationType()) || quantity <= 0) {
+            long observed = budget.generation();
+            Inventory updated = operation.get();
+            // El resultado ya incluye esta operación; sólo vale si ninguna otra terminó mientras tanto
+            budget.sync(updated.getAvailableQuantity(), observed);
+            budget.finish(0);
+            return updated;
+        }
+
+        if (!budget.tryTake(quantity)) {
+            budget.rejected.increment();
+            throw new BusinessLogicException("Product " + productId + " is sold out");
+        }
+        boolean attempted = false;
+        boolean reserved = false;
+        try {
+            if (budget.lane.getQueueLength() >= maxQueue) {
+                budget.rejected.increment();
+                throw new BusinessLogicException("Flash sale queue is full, retry later");
+            }
+            if (!budget.lane.tryAcquire(maxWait.toNanos(), TimeUnit.NANOSECONDS)) {
+                budget.rejected.increment();
+                throw new BusinessLogicException("Flash sale queue timed out, retry later");
+            }
+            try {
+                attempted = true;
+                Inventory updated = operation.get();
+                reserved = true;
+                budget.admitted.increment();
+                return updated;
+            } finally {
+                budget.lane.release();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new BusinessLogicException("Flash sale reservation interrupted");
+        } finally {
+            if (!reserved) {
+                budget.tokens.addAndGet(quantity);
+            }
+            budget.finish(quantity);
+            // Si la base de datos la rechazó, el presupuesto puede estar por encima del stock real
+            if (attempted && !reserved) {
+                resync(List.of(productId));
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${catalog.flash-sale.resync-interval-ms:5000}")
+    public void resync() {
+        if (budgets.isEmpty()) {
+            return;
+        }
+        resync(List.copyOf(budgets.keySet()));
+    }
+
+    private void resync(Collection<Long> productIds) {
+        // La generación se toma antes de leer: si cambia, la lectura pudo quedar atrás de una reserva
+        Map<Long, Long> observed = new HashMap<>();
+        for (Long productId : productIds) {
+            Budget budget = budgets.get(productId);
+            if (budget != null) {
+                observed.put(productId, budget.generation());
+            }
+        }
+        if (observed.isEmpty()) {
+            return;
+        }
+        for (Object[] row : inventoryRepo.findAvailableByProductIds(observed.keySet())) {
+            Long productId = (Long) row[0];
+            Budget budget = budgets.get(productId);
+            if (budget != null && !budget.sync((Integer) row[1], observed.get(productId))) {
+                log.debug("Reajuste del producto {} descartado: terminó una operación durante la lectura", productId);
+            }
+        }
+    }
+
+    private static FlashSaleResponse toResponse(Long productId, Budget budget) {
+        return FlashSaleResponse.builder()
+                .productId(productId)
+                .remainingTokens(budget.tokens.get())
+                .inFlightUnits(budget.inFlight.get())
+                .queuedRequests(budget.lane.getQueueLength())
+                .admittedRequests(budget.admitted.sum())
+                .rejectedRequests(budget.rejected.sum())
+                .build();
+    }
+}
@@ -0,0 +1,56 @@
+package com.ecomarket.backend.catalog_product.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Entrada del registro de cambios del catálogo. Se escribe en la misma transacción que el cambio
+ * y nunca se modifica: los lectores (otros nodos de catálogo y servicios externos) avanzan por id
+ * creciente y reanudan desde el último id visto.
+ */
+@Entity
+@Table(name = "catalog_changes", indexes = @Index(name = "idx_catalog_changes_created", columnList = "createdAt"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CatalogChange {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private Type type;
+
+    @Column(nullable = false)
+    private Long productId;
+
+    // Versión del producto tras el cambio; nula en cambios de inventario
+    private Long productVersion;
+
+    private BigDecimal price;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16)
+    private Product.ProductStatus status;
+
+    private Integer availableQuantity;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    public enum Type {
+        PRODUCT_CREATED, PRODUCT_UPDATED, PRODUCT_DELETED, INVENTORY_UPDATED;
+
+        public boolean affectsProduct() {
+            return this != INVENTORY_UPDATED;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.ecomarket.backend.catalog_product.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Coordenadas de referencia de una comuna de destino, para medir la distancia a cada bodega.
+ */
+@Entity
+@Table(name = "communes")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class Commune {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, unique = true)
+    private String name;
+
+    @Column(nullable = false)
+    private Double latitude;
+
+    @Column(nullable = false)
+    private Double longitude;
+}
@@ -25,6 +25,11 @@ public class Inventory {
 
     private Integer availableQuantity;
 
+    // Unidades entregadas en leases activos; ya se descontaron de availableQuantity
+    @Column(columnDefinition = "integer default 0")
+    private Integer leasedQuantity;
+
+    // Obsoleto: las unidades por bodega están en warehouse_stock; sólo se conserva para filas antiguas
     private String location;
 
     private LocalDateTime lastUpdate;
@@ -0,0 +1,37 @@
+package com.ecomarket.backend.catalog_product.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Operación de inventario ya aplicada con una clave de idempotencia. Se guarda en la misma transacción
+ * que el cambio de stock, así que un reintento con la misma clave la encuentra o la aplica, nunca ambas.
+ */
+@Entity
+@Table(name = "inventory_operation_keys", indexes = @Index(name = "idx_inventory_operation_keys_applied", columnList = "appliedAt"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InventoryOperationKey {
+    @Id
+    @Column(name = "idempotency_key")
+    private String key;
+
+    @Column(nullable = false)
+    private Long productId;
+
+    @Column(nullable = false)
+    private String operationType;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    @Column(nullable = false)
+    private LocalDateTime appliedAt;
+}
@@ -5,6 +5,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -49,13 +50,25 @@ public class Product {
     @Enumerated(EnumType.STRING)
     private ProductStatus status;
 
+    // Aviso de stock bajo al llegar a este umbral; null usa el umbral por defecto
+    private Integer lowStockThreshold;
+
     private LocalDateTime creationDate;
     private LocalDateTime lastUpdate;
 
+    // Sube con cada cambio; clave de coherencia de la caché de productos
+    @Version
+    @Column(columnDefinition = "bigint default 0")
+    private Long version;
+
     @OneToMany(mappedBy = "product", cascade = CascadeType.ALL)
+    @BatchSize(size = 100)
     @Builder.Default
     private List<ProductImage> images = new ArrayList<>();
 
+    @OneToOne(mappedBy = "product")
+    private ProductRatingSummary ratingSummary;
+
     public enum ProductStatus {
         ACTIVE, INACTIVE, SOLD_OUT
     }
@@ -0,0 +1,70 @@
+package com.ecomarket.backend.catalog_product.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+/**
+ * Agregado de valoraciones de un producto: número, suma y un histograma de 1 a 5 estrellas.
+ * Se actualiza con un UPDATE atómico en la misma transacción que crea la reseña.
+ */
+@Entity
+@Table(name = "product_rating_summaries")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductRatingSummary {
+    @Id
+    private Long productId;
+
+    @OneToOne(fetch = FetchType.LAZY)
+    @MapsId
+    @JoinColumn(name = "product_id")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Product product;
+
+    @Column(nullable = false)
+    private Long ratingCount;
+
+    @Column(nullable = false)
+    private Long ratingSum;
+
+    @Column(nullable = false)
+    private Long stars1;
+
+    @Column(nullable = false)
+    private Long stars2;
+
+    @Column(nullable = false)
+    private Long stars3;
+
+    @Column(nullable = false)
+    private Long stars4;
+
+    @Column(nullable = false)
+    private Long stars5;
+
+    private LocalDateTime lastUpdate;
+
+    public static ProductRatingSummary empty(Product product) {
+        return ProductRatingSummary.builder()
+                .product(product)
+                .ratingCount(0L)
+                .ratingSum(0L)
+                .stars1(0L)
+                .stars2(0L)
+                .stars3(0L)
+                .stars4(0L)
+                .stars5(0L)
+                .lastUpdate(LocalDateTime.now())
+                .build();
+    }
+}
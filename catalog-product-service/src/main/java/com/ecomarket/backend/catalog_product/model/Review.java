@@ -9,7 +9,7 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "reviews")
+@Table(name = "reviews", indexes = @Index(name = "idx_reviews_product_id", columnList = "product_id, id"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
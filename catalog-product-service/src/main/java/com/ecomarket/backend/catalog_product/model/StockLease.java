@@ -0,0 +1,51 @@
+package com.ecomarket.backend.catalog_product.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Bloque de stock cedido a un nodo de cart-order, que lo reparte localmente entre pedidos.
+ * Al otorgarse, las unidades pasan de availableQuantity a leasedQuantity en el inventario.
+ */
+@Entity
+@Table(name = "stock_leases", indexes = @Index(name = "idx_stock_leases_status_expires", columnList = "status, expiresAt"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockLease {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne
+    @JoinColumn(name = "product_id")
+    private Product product;
+
+    @Column(nullable = false)
+    private String holder; // Nodo de cart-order que tiene el lease
+
+    @Column(nullable = false)
+    private Integer grantedQuantity;
+
+    private Integer returnedQuantity;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private LeaseStatus status;
+
+    private LocalDateTime grantedAt;
+
+    private LocalDateTime expiresAt;
+
+    private LocalDateTime closedAt;
+
+    public enum LeaseStatus {
+        ACTIVE, RETURNED, EXPIRED
+    }
+}
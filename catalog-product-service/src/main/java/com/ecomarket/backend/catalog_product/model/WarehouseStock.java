@@ -0,0 +1,41 @@
+package com.ecomarket.backend.catalog_product.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Unidades físicas de un producto en una bodega, aún no asignadas a un pedido. Las recepciones
+ * suben a la vez esta fila y el stock vendible del inventario; la asignación de un pedido ya
+ * vendido sólo descuenta de aquí.
+ */
+@Entity
+@Table(name = "warehouse_stock",
+        uniqueConstraints = @UniqueConstraint(name = "uk_warehouse_stock_warehouse_product", columnNames = {"warehouse_id", "product_id"}),
+        indexes = @Index(name = "idx_warehouse_stock_product", columnList = "product_id"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class WarehouseStock {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "warehouse_id", nullable = false)
+    private Warehouse warehouse;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "product_id", nullable = false)
+    private Product product;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    private LocalDateTime lastUpdate;
+}
@@ -0,0 +1,180 @@
+package com.ecomarket.backend.catalog_product.recommendation;
+
+import com.ecomarket.backend.catalog_product.DTO.AlsoBoughtResponse;
+import com.ecomarket.backend.catalog_product.availability.AvailabilityBitmap;
+import com.ecomarket.backend.catalog_product.sales.OrderLine;
+import com.ecomarket.backend.catalog_product.sales.OrderLineFeed;
+import com.ecomarket.backend.catalog_product.sales.OrderLineListener;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongComparator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * "Comprados juntos" a partir de las líneas de pedido que entrega {@link OrderLineFeed}.
+ * <p>
+ * Por producto guarda cuántos pedidos lo llevan y un mapa disperso de vecinos con el número de
+ * pedidos compartidos, acotado a {@code max-candidates}: al llenarse se descarta la mitad más
+ * débil, así que la cola larga de parejas raras es aproximada. Tras cada lote se recalcula la
+ * lista top-k de los productos tocados; las lecturas sólo consultan esas listas.
+ * <p>
+ * Cada nodo construye su propio modelo, desde el histórico completo al arrancar.
+ */
+@Component
+public class CoPurchaseIndex implements OrderLineListener {
+
+    private record Neighbours(long[] productIds, int[] counts) {
+    }
+
+    private final AvailabilityBitmap availabilityBitmap;
+    private final int topK;
+    private final int maxCandidates;
+    private final int maxBasketSize;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Protegidos por lock
+    private final Long2IntOpenHashMap orderCounts = new Long2IntOpenHashMap();
+    private final Long2ObjectOpenHashMap<Long2IntOpenHashMap> pairCounts = new Long2ObjectOpenHashMap<>();
+    private final Long2ObjectOpenHashMap<Neighbours> topNeighbours = new Long2ObjectOpenHashMap<>();
+
+    public CoPurchaseIndex(AvailabilityBitmap availabilityBitmap,
+                           @Value("${catalog.also-bought.top-k:20}") int topK,
+                           @Value("${catalog.also-bought.max-candidates:200}") int maxCandidates,
+                           @Value("${catalog.also-bought.max-basket-size:50}") int maxBasketSize) {
+        this.availabilityBitmap = availabilityBitmap;
+        this.topK = topK;
+        this.maxCandidates = Math.max(maxCandidates, topK);
+        this.maxBasketSize = maxBasketSize;
+    }
+
+    @Override
+    public void onOrderLines(List<OrderLine> lines) {
+        List<long[]> baskets = new ArrayList<>();
+        LongOpenHashSet basket = new LongOpenHashSet();
+        long currentOrder = -1;
+        for (OrderLine line : lines) {
+            if (line.orderId() != currentOrder && !basket.isEmpty()) {
+                baskets.add(basket.toLongArray());
+                basket.clear();
+            }
+            currentOrder = line.orderId();
+            basket.add(line.productId());
+        }
+        if (!basket.isEmpty()) {
+            baskets.add(basket.toLongArray());
+        }
+        ingest(baskets);
+    }
+
+    /**
+     * Productos comprados junto al indicado, de más a menos pedidos compartidos. Si el bitmap de
+     * disponibilidad está listo, se omiten los que no se pueden vender.
+     */
+    public List<AlsoBoughtResponse> alsoBought(long productId, int limit) {
+        int max = Math.max(1, Math.min(limit, topK));
+        Neighbours neighbours;
+        int orders;
+        lock.readLock().lock();
+        try {
+            neighbours = topNeighbours.get(productId);
+            orders = orderCounts.get(productId);
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (neighbours == null) {
+            return List.of();
+        }
+        boolean filter = availabilityBitmap.isReady();
+        List<AlsoBoughtResponse> result = new ArrayList<>(max);
+        for (int i = 0; i < neighbours.productIds().length && result.size() < max; i++) {
+            long neighbourId = neighbours.productIds()[i];
+            if (filter && !availabilityBitmap.isSellable(neighbourId)) {
+                continue;
+            }
+            result.add(AlsoBoughtResponse.builder()
+                    .productId(neighbourId)
+                    .coPurchases(neighbours.counts()[i])
+                    .confidence(orders == 0 ? 0.0 : (double) neighbours.counts()[i] / orders)
+                    .build());
+        }
+        return result;
+    }
+
+    private void ingest(List<long[]> baskets) {
+        lock.writeLock().lock();
+        try {
+            LongOpenHashSet touched = new LongOpenHashSet();
+            for (long[] products : baskets) {
+                for (long productId : products) {
+                    orderCounts.addTo(productId, 1);
+                    touched.add(productId);
+                }
+                // Pedidos enormes (compras de empresa, cargas masivas) no dicen nada de afinidad
+                if (products.length < 2 || products.length > maxBasketSize) {
+                    continue;
+                }
+                for (int i = 0; i < products.length; i++) {
+                    for (int j = i + 1; j < products.length; j++) {
+                        addPair(products[i], products[j]);
+                        addPair(products[j], products[i]);
+                    }
+                }
+            }
+            touched.forEach(this::refreshTopNeighbours);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void addPair(long productId, long neighbourId) {
+        Long2IntOpenHashMap neighbours = pairCounts.get(productId);
+        if (neighbours == null) {
+            neighbours = new Long2IntOpenHashMap(4);
+            pairCounts.put(productId, neighbours);
+        }
+        neighbours.addTo(neighbourId, 1);
+        if (neighbours.size() > maxCandidates) {
+            prune(neighbours);
+        }
+    }
+
+    // Deja la mitad con más pedidos compartidos; en caso de empate conserva los de id menor
+    private void prune(Long2IntOpenHashMap neighbours) {
+        Neighbours ranked = rank(neighbours, maxCandidates / 2);
+        neighbours.clear();
+        for (int i = 0; i < ranked.productIds().length; i++) {
+            neighbours.put(ranked.productIds()[i], ranked.counts()[i]);
+        }
+        neighbours.trim();
+    }
+
+    private void refreshTopNeighbours(long productId) {
+        Long2IntOpenHashMap neighbours = pairCounts.get(productId);
+        if (neighbours != null && !neighbours.isEmpty()) {
+            topNeighbours.put(productId, rank(neighbours, topK));
+        }
+    }
+
+    private static Neighbours rank(Long2IntOpenHashMap neighbours, int size) {
+        LongArrayList ids = new LongArrayList(neighbours.keySet());
+        ids.sort((LongComparator) (a, b) -> {
+            int byCount = Integer.compare(neighbours.get(b), neighbours.get(a));
+            return byCount != 0 ? byCount : Long.compare(a, b);
+        });
+        int n = Math.min(size, ids.size());
+        long[] productIds = new long[n];
+        int[] counts = new int[n];
+        for (int i = 0; i < n; i++) {
+            productIds[i] = ids.getLong(i);
+            counts[i] = neighbours.get(productIds[i]);
+        }
+        return new Neighbours(productIds, counts);
+    }
+}
@@ -0,0 +1,29 @@
+package com.ecomarket.backend.catalog_product.repository;
+
+import com.ecomarket.backend.catalog_product.model.CatalogChange;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface CatalogChangeRepository extends JpaRepository<CatalogChange, Long> {
+
+    List<CatalogChange> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    Optional<CatalogChange> findTopByCreatedAtBeforeOrderByIdDesc(LocalDateTime before);
+
+    Optional<CatalogChange> findTopByOrderByIdAsc();
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM CatalogChange c WHERE c.createdAt < :before")
+    int deleteCreatedBefore(@Param("before") LocalDateTime before);
+}
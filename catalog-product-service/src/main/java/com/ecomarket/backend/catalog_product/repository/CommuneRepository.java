@@ -0,0 +1,12 @@
+package com.ecomarket.backend.catalog_product.repository;
+
+import com.ecomarket.backend.catalog_product.model.Commune;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface CommuneRepository extends JpaRepository<Commune, Long> {
+    Optional<Commune> findByNameIgnoreCase(String name);
+}
@@ -0,0 +1,18 @@
+package com.ecomarket.backend.catalog_product.repository;
+
+import com.ecomarket.backend.catalog_product.model.InventoryOperationKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface InventoryOperationKeyRepository extends JpaRepository<InventoryOperationKey, String> {
+
+    @Modifying
+    @Query("DELETE FROM InventoryOperationKey k WHERE k.appliedAt < :appliedBefore")
+    int deleteAppliedBefore(@Param("appliedBefore") LocalDateTime appliedBefore);
+}
@@ -1,12 +1,33 @@
 package com.ecomarket.backend.catalog_product.repository;
 
 import com.ecomarket.backend.catalog_product.model.Inventory;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface InventoryRepository extends JpaRepository<Inventory, Long> {
     Optional<Inventory> findByProduct_Id(Long productId);
+
+    @EntityGraph(attributePaths = "product")
+    List<Inventory> findByProduct_IdIn(Collection<Long> productIds);
+
+    @EntityGraph(attributePaths = "product")
+    List<Inventory> findByProduct_SkuIn(Collection<String> skus);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Inventory i WHERE i.product.id = :productId")
+    Optional<Inventory> findByProductIdForUpdate(@Param("productId") Long productId);
+
+    // Pares [productId, availableQuantity] sin cargar las entidades
+    @Query("SELECT i.product.id, i.availableQuantity FROM Inventory i WHERE i.product.id IN :productIds")
+    List<Object[]> findAvailableByProductIds(@Param("productIds") Collection<Long> productIds);
 }
\ No newline at end of file
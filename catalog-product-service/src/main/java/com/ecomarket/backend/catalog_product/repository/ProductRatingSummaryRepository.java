@@ -0,0 +1,46 @@
+package com.ecomarket.backend.catalog_product.repository;
+
+import com.ecomarket.backend.catalog_product.model.ProductRatingSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ProductRatingSummaryRepository extends JpaRepository<ProductRatingSummary, Long> {
+
+    // Incremento atómico en la base: sin leer-modificar-guardar, dos reseñas simultáneas no se pisan
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE ProductRatingSummary s SET " +
+            "s.ratingCount = s.ratingCount + 1, " +
+            "s.ratingSum = s.ratingSum + :rating, " +
+            "s.stars1 = s.stars1 + CASE WHEN :rating = 1 THEN 1 ELSE 0 END, " +
+            "s.stars2 = s.stars2 + CASE WHEN :rating = 2 THEN 1 ELSE 0 END, " +
+            "s.stars3 = s.stars3 + CASE WHEN :rating = 3 THEN 1 ELSE 0 END, " +
+            "s.stars4 = s.stars4 + CASE WHEN :rating = 4 THEN 1 ELSE 0 END, " +
+            "s.stars5 = s.stars5 + CASE WHEN :rating = 5 THEN 1 ELSE 0 END, " +
+            "s.lastUpdate = :now " +
+            "WHERE s.productId = :productId")
+    int addRating(@Param("productId") Long productId, @Param("rating") int rating, @Param("now") LocalDateTime now);
+
+    @Query("SELECT DISTINCT r.product.id FROM Review r " +
+            "WHERE NOT EXISTS (SELECT 1 FROM ProductRatingSummary s WHERE s.productId = r.product.id)")
+    List<Long> findProductIdsWithoutSummary();
+
+    // Reparación: recalcula todos los agregados a partir de la tabla reviews
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE ProductRatingSummary s SET " +
+            "s.ratingCount = (SELECT COUNT(r) FROM Review r WHERE r.product.id = s.productId), " +
+            "s.ratingSum = (SELECT COALESCE(SUM(r.rating), 0) FROM Review r WHERE r.product.id = s.productId), " +
+            "s.stars1 = (SELECT COUNT(r) FROM Review r WHERE r.product.id = s.productId AND r.rating = 1), " +
+            "s.stars2 = (SELECT COUNT(r) FROM Review r WHERE r.product.id = s.productId AND r.rating = 2), " +
+            "s.stars3 = (SELECT COUNT(r) FROM Review r WHERE r.product.id = s.productId AND r.rating = 3), " +
+            "s.stars4 = (SELECT COUNT(r) FROM Review r WHERE r.product.id = s.productId AND r.rating = 4), " +
+            "s.stars5 = (SELECT COUNT(r) FROM Review r WHERE r.product.id = s.productId AND r.rating = 5), " +
+            "s.lastUpdate = :now")
+    int recomputeAll(@Param("now") LocalDateTime now);
+}
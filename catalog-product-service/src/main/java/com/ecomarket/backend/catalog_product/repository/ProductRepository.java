@@ -1,22 +1,81 @@
 package com.ecomarket.backend.catalog_product.repository;
 
+import com.ecomarket.backend.catalog_product.DTO.ProductSummaryResponse;
 import com.ecomarket.backend.catalog_product.model.Product;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+/**
+ * Los listados traen categoría, marca y valoraciones en la misma consulta; las imágenes se cargan
+ * por lotes (@BatchSize en Product.images), así una página cuesta un número fijo de consultas.
+ */
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product> {
+    @EntityGraph(attributePaths = {"category", "brand", "ratingSummary"})
     Optional<Product> findBySku(String sku);
 
+    @EntityGraph(attributePaths = {"category", "brand", "ratingSummary"})
+    List<Product> findBySkuIn(Collection<String> skus);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Product p WHERE p.id = :id")
+    Optional<Product> findByIdForUpdate(@Param("id") Long id);
+
+    @EntityGraph(attributePaths = {"category", "brand", "ratingSummary"})
     @Query("SELECT p FROM Product p WHERE p.name LIKE %:name%")
     List<Product> findByNameContaining(@Param("name") String name);
 
+    @EntityGraph(attributePaths = {"category", "brand", "ratingSummary"})
     List<Product> findByCategory_Id(Long categoryId);
 
+    @EntityGraph(attributePaths = {"category", "brand", "ratingSummary"})
     List<Product> findByBrand_Id(Long brandId);
+
+    @Override
+    @EntityGraph(attributePaths = {"category", "brand", "ratingSummary"})
+    List<Product> findAll();
+
+    @Override
+    @EntityGraph(attributePaths = {"category", "brand", "ratingSummary"})
+    Page<Product> findAll(Pageable pageable);
+
+    @Override
+    @EntityGraph(attributePaths = {"category", "brand", "ratingSummary"})
+    List<Product> findAllById(Iterable<Long> ids);
+
+    @Override
+    @EntityGraph(attributePaths = {"category", "brand", "ratingSummary"})
+    Page<Product> findAll(Specification<Product> spec, Pageable pageable);
+
+    // Proyección para listados: sin descripción ni entidades y con la primera imagen en la misma consulta;
+    // la disponibilidad sale del bitmap en memoria, sin unir con inventories
+    @Query(value = "SELECT new com.ecomarket.backend.catalog_product.DTO.ProductSummaryResponse(" +
+            "p.id, p.name, p.price, p.sku, p.status, " +
+            "(SELECT img.url FROM ProductImage img WHERE img.id = " +
+            "(SELECT MIN(first.id) FROM ProductImage first WHERE first.product = p))) " +
+            "FROM Product p " +
+            "WHERE (:categoryId IS NULL OR p.category.id = :categoryId) " +
+            "AND (:brandId IS NULL OR p.brand.id = :brandId) " +
+            "AND p.status IN :statuses",
+            countQuery = "SELECT COUNT(p) FROM Product p " +
+                    "WHERE (:categoryId IS NULL OR p.category.id = :categoryId) " +
+                    "AND (:brandId IS NULL OR p.brand.id = :brandId) " +
+                    "AND p.status IN :statuses")
+    Page<ProductSummaryResponse> findSummaries(@Param("categoryId") Long categoryId,
+                                               @Param("brandId") Long brandId,
+                                               @Param("statuses") Collection<Product.ProductStatus> statuses,
+                                               Pageable pageable);
 }
@@ -0,0 +1,48 @@
+package com.ecomarket.backend.catalog_product.repository;
+
+import com.ecomarket.backend.catalog_product.DTO.ProductSearchRequest;
+import com.ecomarket.backend.catalog_product.model.Product;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Filtros de búsqueda en SQL. Sólo se usan mientras el índice en memoria no está listo.
+ */
+public final class ProductSpecifications {
+
+    private ProductSpecifications() {
+    }
+
+    public static Specification<Product> matching(ProductSearchRequest request) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (request.getQ() != null && !request.getQ().isBlank()) {
+                predicates.add(cb.like(cb.lower(root.get("name")), "%" + request.getQ().toLowerCase() + "%"));
+            }
+            if (request.getSku() != null && !request.getSku().isBlank()) {
+                predicates.add(cb.equal(root.get("sku"), request.getSku().trim()));
+            }
+            if (request.getCategoryId() != null) {
+                predicates.add(cb.equal(root.get("category").get("id"), request.getCategoryId()));
+            }
+            if (request.getBrandId() != null) {
+                predicates.add(cb.equal(root.get("brand").get("id"), request.getBrandId()));
+            }
+            if (request.getMinPrice() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("price"), request.getMinPrice()));
+            }
+            if (request.getMaxPrice() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("price"), request.getMaxPrice()));
+            }
+            if (request.getStatus() != null) {
+                predicates.add(cb.equal(root.get("status"), Product.ProductStatus.valueOf(request.getStatus().toUpperCase())));
+            } else {
+                predicates.add(cb.notEqual(root.get("status"), Product.ProductStatus.INACTIVE));
+            }
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+}
@@ -1,6 +1,7 @@
 package com.ecomarket.backend.catalog_product.repository;
 
 import com.ecomarket.backend.catalog_product.model.Review;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -8,5 +9,8 @@ import java.util.List;
 
 @Repository
 public interface ReviewRepository extends JpaRepository<Review, Long> {
-    List<Review> findByProduct_Id(Long productId);
+    // Paginación por clave: de la más reciente a la más antigua, sin OFFSET
+    List<Review> findByProduct_IdOrderByIdDesc(Long productId, Limit limit);
+
+    List<Review> findByProduct_IdAndIdLessThanOrderByIdDesc(Long productId, Long beforeId, Limit limit);
 }
\ No newline at end of file
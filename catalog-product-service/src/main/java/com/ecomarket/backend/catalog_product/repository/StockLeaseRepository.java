@@ -0,0 +1,13 @@
+package com.ecomarket.backend.catalog_product.repository;
+
+import com.ecomarket.backend.catalog_product.model.StockLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface StockLeaseRepository extends JpaRepository<StockLease, Long> {
+    List<StockLease> findByStatusAndExpiresAtBefore(StockLease.LeaseStatus status, LocalDateTime expiresAt);
+}
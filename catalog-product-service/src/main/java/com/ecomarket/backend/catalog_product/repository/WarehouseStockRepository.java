@@ -0,0 +1,19 @@
+package com.ecomarket.backend.catalog_product.repository;
+
+import com.ecomarket.backend.catalog_product.model.WarehouseStock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface WarehouseStockRepository extends JpaRepository<WarehouseStock, Long> {
+
+    Optional<WarehouseStock> findByWarehouse_IdAndProduct_Id(Long warehouseId, Long productId);
+
+    @Query("SELECT s FROM WarehouseStock s JOIN FETCH s.warehouse WHERE s.product.id = :productId ORDER BY s.warehouse.id")
+    List<WarehouseStock> findByProductId(@Param("productId") Long productId);
+}
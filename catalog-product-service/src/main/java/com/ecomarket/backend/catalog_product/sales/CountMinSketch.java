@@ -0,0 +1,61 @@
+package com.ecomarket.backend.catalog_product.sales;
+
+import java.util.Arrays;
+
+/**
+ * Count-min de tamaño fijo sobre ids de producto, con actualización conservadora: cada suma sólo
+ * sube los contadores que quedarían por debajo del nuevo mínimo. Nunca subestima; la
+ * sobreestimación depende del ancho y del total sumado, no del número de productos.
+ */
+final class CountMinSketch {
+
+    private final int[][] counters;
+    private final int mask;
+
+    CountMinSketch(int depth, int width) {
+        int size = Integer.highestOneBit(Math.max(width, 2) - 1) << 1; // Potencia de dos para indexar con máscara
+        this.counters = new int[depth][size];
+        this.mask = size - 1;
+    }
+
+    /**
+     * Suma {@code count} a la clave y devuelve su nueva estimación.
+     */
+    int add(long key, int count) {
+        int[] slots = new int[counters.length];
+        int min = Integer.MAX_VALUE;
+        for (int row = 0; row < counters.length; row++) {
+            slots[row] = slot(key, row);
+            min = Math.min(min, counters[row][slots[row]]);
+        }
+        int target = min + count;
+        for (int row = 0; row < counters.length; row++) {
+            if (counters[row][slots[row]] < target) {
+                counters[row][slots[row]] = target;
+            }
+        }
+        return target;
+    }
+
+    int estimate(long key) {
+        int min = Integer.MAX_VALUE;
+        for (int row = 0; row < counters.length; row++) {
+            min = Math.min(min, counters[row][slot(key, row)]);
+        }
+        return min;
+    }
+
+    void clear() {
+        for (int[] row : counters) {
+            Arrays.fill(row, 0);
+        }
+    }
+
+    // splitmix64 con una semilla distinta por fila
+    private int slot(long key, int row) {
+        long z = key + (row + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return (int) (z ^ (z >>> 31)) & mask;
+    }
+}
@@ -0,0 +1,10 @@
+package com.ecomarket.backend.catalog_product.sales;
+
+import java.time.LocalDateTime;
+
+/**
+ * Línea de un pedido de cart-order tal como la lee {@link OrderLineFeed}; {@code categoryId} es
+ * nulo si el producto no tiene categoría o ya no existe en el catálogo.
+ */
+public record OrderLine(long orderId, long productId, Long categoryId, int quantity, LocalDateTime createdAt) {
+}
@@ -0,0 +1,105 @@
+package com.ecomarket.backend.catalog_product.sales;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Lee las líneas de pedido de cart-order ({@code orders} y {@code order_items}, en la misma base
+ * de datos) y las reparte a los {@link OrderLineListener}.
+ * <p>
+ * Al arrancar recorre todo el histórico por lotes de pedidos y después sigue por id con los
+ * pedidos nuevos. Sólo lee pedidos con más de {@code visibility-delay} de antigüedad: crear un
+ * pedido incluye llamadas remotas antes de confirmar, y un id menor puede confirmar después que
+ * uno mayor. Los pedidos cancelados antes de leerse no se entregan; los que se cancelan después
+ * quedan contados.
+ */
+@Slf4j
+@Component
+public class OrderLineFeed {
+
+    static final String SELECT_LAST_ORDER_ID = "SELECT MAX(id) FROM (SELECT id FROM orders " +
+            "WHERE id > ? AND created_at <= ? ORDER BY id LIMIT ?) batch";
+    static final String SELECT_ORDER_LINES = "SELECT oi.order_id, oi.product_id, p.category_id, oi.quantity, o.created_at " +
+            "FROM order_items oi JOIN orders o ON o.id = oi.order_id LEFT JOIN products p ON p.id = oi.product_id " +
+            "WHERE oi.order_id > ? AND oi.order_id <= ? AND o.order_status <> 'CANCELLED' ORDER BY oi.order_id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final List<OrderLineListener> listeners;
+    private final boolean enabled;
+    private final int batchSize;
+    private final Duration visibilityDelay;
+
+    private long lastOrderId; // Sólo lo toca catchUp, que es synchronized
+    private volatile boolean ready;
+
+    public OrderLineFeed(JdbcTemplate jdbcTemplate,
+                         List<OrderLineListener> listeners,
+                         @Value("${catalog.order-feed.enabled:true}") boolean enabled,
+                         @Value("${catalog.order-feed.batch-size:1000}") int batchSize,
+                         @Value("${catalog.order-feed.visibility-delay:30s}") Duration visibilityDelay) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.listeners = listeners;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.visibilityDelay = visibilityDelay;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        long start = System.nanoTime();
+        int orders = catchUp();
+        if (ready) {
+            log.info("Líneas de pedido: {} pedidos cargados en {} ms", orders, (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    /**
+     * Entrega por lotes los pedidos posteriores al último leído que ya superan el retraso de
+     * visibilidad; devuelve cuántos pedidos con líneas ha entregado.
+     */
+    @Scheduled(initialDelayString = "${catalog.order-feed.poll-interval-ms:30000}",
+            fixedDelayString = "${catalog.order-feed.poll-interval-ms:30000}")
+    public synchronized int catchUp() {
+        if (!enabled) {
+            return 0;
+        }
+        int orders = 0;
+        try {
+            Timestamp visibleBefore = Timestamp.valueOf(LocalDateTime.now().minus(visibilityDelay));
+            Long upTo;
+            while ((upTo = jdbcTemplate.queryForObject(SELECT_LAST_ORDER_ID, Long.class,
+                    lastOrderId, visibleBefore, batchSize)) != null) {
+                List<OrderLine> lines = jdbcTemplate.query(SELECT_ORDER_LINES, (rs, rowNum) -> new OrderLine(
+                        rs.getLong(1),
+                        rs.getLong(2),
+                        rs.getObject(3, Long.class),
+                        rs.getInt(4),
+                        rs.getTimestamp(5).toLocalDateTime()), lastOrderId, upTo);
+                if (!lines.isEmpty()) {
+                    listeners.forEach(listener -> listener.onOrderLines(lines));
+                    orders += (int) lines.stream().mapToLong(OrderLine::orderId).distinct().count();
+                }
+                lastOrderId = upTo;
+            }
+            ready = true;
+        } catch (DataAccessException ex) {
+            log.warn("No se pudieron leer las líneas de pedido (último pedido {}): {}", lastOrderId, ex.getMessage());
+        }
+        return orders;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+}
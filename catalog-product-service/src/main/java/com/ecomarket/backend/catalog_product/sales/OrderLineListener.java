@@ -0,0 +1,12 @@
+package com.ecomarket.backend.catalog_product.sales;
+
+import java.util.List;
+
+/**
+ * Consumidor de {@link OrderLineFeed}. Recibe lotes de pedidos completos, ordenados por id de
+ * pedido, siempre desde el mismo hilo.
+ */
+public interface OrderLineListener {
+
+    void onOrderLines(List<OrderLine> lines);
+}
@@ -0,0 +1,115 @@
+package com.ecomarket.backend.catalog_product.sales;
+
+import com.ecomarket.backend.catalog_product.DTO.TopSellerResponse;
+import com.ecomarket.backend.catalog_product.model.Product;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.ZoneId;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Más vendidos (unidades en pedidos, desde {@link OrderLineFeed}) y tendencias (unidades
+ * reservadas en el inventario, al confirmar cada RESERVE o la devolución de un lease de stock con
+ * las unidades que usó) de la última hora y del último día, por categoría, servidos desde memoria
+ * con {@link WindowedHeavyHitters}.
+ * <p>
+ * Las cifras son estimaciones por exceso; el orden es fiable para los productos con más unidades,
+ * que es lo que se consulta. Cada nodo cuenta sus propias reservas: en varios nodos, las
+ * tendencias de cada uno reflejan el tráfico que recibe.
+ */
+@Component
+public class SalesTrends implements OrderLineListener {
+
+    public enum Signal {
+        ORDERS, RESERVATIONS
+    }
+
+    public enum Window {
+        HOUR(Duration.ofMinutes(5), 12),
+        DAY(Duration.ofHours(1), 24);
+
+        private final Duration bucket;
+        private final int buckets;
+
+        Window(Duration bucket, int buckets) {
+            this.bucket = bucket;
+            this.buckets = buckets;
+        }
+    }
+
+    private final Map<Signal, Map<Window, WindowedHeavyHitters>> sketches = new EnumMap<>(Signal.class);
+    private final Clock clock;
+
+    @Autowired
+    public SalesTrends(@Value("${catalog.trending.sketch-depth:4}") int sketchDepth,
+                       @Value("${catalog.trending.sketch-width:2048}") int sketchWidth,
+                       @Value("${catalog.trending.candidates-per-category:50}") int candidatesPerCategory) {
+        this(sketchDepth, sketchWidth, candidatesPerCategory, Clock.systemDefaultZone());
+    }
+
+    SalesTrends(int sketchDepth, int sketchWidth, int candidatesPerCategory, Clock clock) {
+        this.clock = clock;
+        for (Signal signal : Signal.values()) {
+            Map<Window, WindowedHeavyHitters> windows = new EnumMap<>(Window.class);
+            for (Window window : Window.values()) {
+                windows.put(window, new WindowedHeavyHitters(window.bucket.toMillis(), window.buckets,
+                        sketchDepth, sketchWidth, candidatesPerCategory));
+            }
+            sketches.put(signal, windows);
+        }
+    }
+
+    @Override
+    public void onOrderLines(List<OrderLine> lines) {
+        long now = clock.millis();
+        for (OrderLine line : lines) {
+            long createdAt = line.createdAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            record(Signal.ORDERS, line.productId(), line.categoryId(), line.quantity(), createdAt, now);
+        }
+    }
+
+    /**
+     * Anota una reserva; dentro de una transacción, sólo si confirma.
+     */
+    public void recordReservation(Product product, int quantity) {
+        long productId = product.getId();
+        Long categoryId = product.getCategory() == null ? null : product.getCategory().getId();
+        Runnable action = () -> {
+            long now = clock.millis();
+            record(Signal.RESERVATIONS, productId, categoryId, quantity, now, now);
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    public List<TopSellerResponse> top(Signal signal, Window window, Long categoryId, int limit) {
+        return sketches.get(signal).get(window).top(categoryId, limit, clock.millis()).stream()
+                .map(ranked -> TopSellerResponse.builder()
+                        .productId(ranked.productId())
+                        .units(ranked.units())
+                        .build())
+                .toList();
+    }
+
+    private void record(Signal signal, long productId, Long categoryId, int quantity, long eventMillis, long now) {
+        for (WindowedHeavyHitters sketch : sketches.get(signal).values()) {
+            sketch.record(productId, categoryId, quantity, eventMillis, now);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.ecomarket.backend.catalog_product.sales;
+
+import it.unimi.dsi.fastutil.longs.Long2IntMap;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Productos más frecuentes en una ventana deslizante, por categoría y en total.
+ * <p>
+ * La ventana es un anillo de cubos de tiempo; cada cubo tiene un {@link CountMinSketch} común a
+ * todas las categorías y, por categoría, un conjunto acotado de candidatos con su estimación en
+ * el cubo (al llenarse, uno nuevo sólo entra si supera al más bajo). Una consulta une los
+ * candidatos de los cubos vivos y los ordena por la suma de sus estimaciones en esos cubos. El
+ * cubo más antiguo cuenta entero, así que la ventana se desplaza con la granularidad de un cubo.
+ * <p>
+ * La memoria depende del número de cubos, del tamaño del sketch y del número de categorías, no
+ * del de productos.
+ */
+final class WindowedHeavyHitters {
+
+    record Ranked(long productId, long units) {
+    }
+
+    private static final long ALL = Long.MIN_VALUE; // Candidatos de todas las categorías
+
+    private final long bucketMillis;
+    private final int candidatesPerCategory;
+    private final Bucket[] buckets;
+
+    private static final class Bucket {
+        private long index = Long.MIN_VALUE;
+        private final CountMinSketch sketch;
+        private final Long2ObjectOpenHashMap<Long2IntOpenHashMap> candidates = new Long2ObjectOpenHashMap<>();
+
+        private Bucket(CountMinSketch sketch) {
+            this.sketch = sketch;
+        }
+    }
+
+    WindowedHeavyHitters(long bucketMillis, int bucketCount, int sketchDepth, int sketchWidth, int candidatesPerCategory) {
+        this.bucketMillis = bucketMillis;
+        this.candidatesPerCategory = candidatesPerCategory;
+        this.buckets = new Bucket[bucketCount];
+        for (int i = 0; i < bucketCount; i++) {
+            buckets[i] = new Bucket(new CountMinSketch(sketchDepth, sketchWidth));
+        }
+    }
+
+    /**
+     * Anota {@code quantity} unidades en el cubo de {@code eventMillis}; lo que ya cayó fuera de la
+     * ventana se ignora y lo que llega con fecha futura cuenta en el cubo actual.
+     */
+    synchronized void record(long productId, Long categoryId, int quantity, long eventMillis, long nowMillis) {
+        long current = nowMillis / bucketMillis;
+        long index = Math.min(eventMillis / bucketMillis, current);
+        if (quantity <= 0 || index <= current - buckets.length) {
+            return;
+        }
+        Bucket bucket = buckets[(int) Math.floorMod(index, (long) buckets.length)];
+        if (bucket.index != index) {
+            bucket.index = index;
+            bucket.sketch.clear();
+            bucket.candidates.clear();
+        }
+        int estimate = bucket.sketch.add(productId, quantity);
+        offer(bucket, ALL, productId, estimate);
+        if (categoryId != null) {
+            offer(bucket, categoryId, productId, estimate);
+        }
+    }
+
+    /**
+     * Los {@code limit} productos con más unidades estimadas en la ventana; sin categoría, de todo
+     * el catálogo.
+     */
+    synchronized List<Ranked> top(Long categoryId, int limit, long nowMillis) {
+        long current = nowMillis / bucketMillis;
+        List<Bucket> live = new ArrayList<>(buckets.length);
+        LongOpenHashSet productIds = new LongOpenHashSet();
+        for (Bucket bucket : buckets) {
+            if (bucket.index > current - buckets.length && bucket.index <= current) {
+                live.add(bucket);
+                Long2IntOpenHashMap candidates = bucket.candidates.get(categoryId == null ? ALL : categoryId);
+                if (candidates != null) {
+                    productIds.addAll(candidates.keySet());
+                }
+            }
+        }
+        List<Ranked> ranked = new ArrayList<>(productIds.size());
+        productIds.forEach(productId -> {
+            long units = 0;
+            for (Bucket bucket : live) {
+                units += bucket.sketch.estimate(productId);
+            }
+            ranked.add(new Ranked(productId, units));
+        });
+        ranked.sort(Comparator.comparingLong(Ranked::units).reversed().thenComparingLong(Ranked::productId));
+        return ranked.size() > limit ? List.copyOf(ranked.subList(0, limit)) : ranked;
+    }
+
+    private void offer(Bucket bucket, long key, long productId, int estimate) {
+        Long2IntOpenHashMap candidates = bucket.candidates.get(key);
+        if (candidates == null) {
+            candidates = new Long2IntOpenHashMap(candidatesPerCategory);
+            bucket.candidates.put(key, candidates);
+        }
+        if (candidates.containsKey(productId) || candidates.size() < candidatesPerCategory) {
+            candidates.put(productId, estimate);
+            return;
+        }
+        long weakest = -1;
+        int weakestEstimate = Integer.MAX_VALUE;
+        for (Long2IntMap.Entry entry : candidates.long2IntEntrySet()) {
+            if (entry.getIntValue() < weakestEstimate) {
+                weakest = entry.getLongKey();
+                weakestEstimate = entry.getIntValue();
+            }
+        }
+        if (estimate > weakestEstimate) {
+            candidates.remove(weakest);
+            candidates.put(productId, estimate);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.ecomarket.backend.catalog_product.search;
+
+import com.ecomarket.backend.catalog_product.changefeed.CatalogChangeLog;
+import com.ecomarket.backend.catalog_product.model.CatalogChange;
+import com.ecomarket.backend.catalog_product.model.Product;
+import com.ecomarket.backend.catalog_product.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Mantiene los índices de búsqueda y autocompletado al día con los cambios hechos en otros nodos.
+ * <p>
+ * El nodo que modifica un producto actualiza sus índices al confirmar; el resto lee las entradas
+ * PRODUCT_* de {@link CatalogChangeLog} y vuelve a indexar el producto tal como está en la base
+ * (reaplicar un cambio propio no altera nada). Si el nodo se quedó atrás más que la retención del
+ * registro, reconstruye ambos índices.
+ */
+@Slf4j
+@Component
+public class ProductIndexFeed {
+
+    private final CatalogChangeLog changeLog;
+    private final ProductRepository productRepo;
+    private final ProductSearchIndex searchIndex;
+    private final ProductSuggestIndex suggestIndex;
+    private final int batchSize;
+
+    private final LongAdder applied = new LongAdder();
+    private volatile Long lastSeenId;
+
+    public ProductIndexFeed(CatalogChangeLog changeLog,
+                            ProductRepository productRepo,
+                            ProductSearchIndex searchIndex,
+                            ProductSuggestIndex suggestIndex,
+                            @Value("${catalog.search.sync.batch-size:500}") int batchSize) {
+        this.changeLog = changeLog;
+        this.productRepo = productRepo;
+        this.searchIndex = searchIndex;
+        this.suggestIndex = suggestIndex;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Se sitúa en la cabeza del registro antes de que los índices se construyan al arrancar:
+     * lo que se confirme durante la construcción se vuelve a aplicar en el primer sondeo.
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        lastSeenId = changeLog.head();
+    }
+
+    @Scheduled(fixedDelayString = "${catalog.search.sync.poll-interval-ms:1000}")
+    public void poll() {
+        if (lastSeenId == null) {
+            return;
+        }
+        if (changeLog.resyncRequired(lastSeenId)) {
+            long head = changeLog.head();
+            log.warn("Índices de búsqueda atrasados más que la retención del registro de cambios; reconstruyendo");
+            suggestIndex.rebuild();
+            searchIndex.rebuild();
+            lastSeenId = head;
+            return;
+        }
+        List<CatalogChange> batch;
+        do {
+            batch = changeLog.readAfter(lastSeenId, batchSize);
+            Set<Long> productIds = new LinkedHashSet<>();
+            for (CatalogChange change : batch) {
+                if (change.getType().affectsProduct()) {
+                    productIds.add(change.getProductId());
+                }
+            }
+            if (!productIds.isEmpty()) {
+                apply(productIds);
+            }
+            if (!batch.isEmpty()) {
+                lastSeenId = batch.get(batch.size() - 1).getId();
+            }
+        } while (batch.size() == batchSize);
+    }
+
+    private void apply(Set<Long> productIds) {
+        Map<Long, Product> products = productRepo.findAllById(productIds).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        for (Long productId : productIds) {
+            Product product = products.get(productId);
+            if (product != null) {
+                searchIndex.index(product);
+                suggestIndex.index(product);
+            } else {
+                searchIndex.remove(productId);
+                suggestIndex.remove(productId);
+            }
+            applied.increment();
+        }
+    }
+
+    public long appliedCount() {
+        return applied.sum();
+    }
+
+    public Long lastSeenId() {
+        return lastSeenId;
+    }
+}
@@ -0,0 +1,40 @@
+package com.ecomarket.backend.catalog_product.search;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cuenta las visitas a la ficha de cada producto y las vuelca periódicamente al
+ * autocompletado, para no tocar el trie en cada petición.
+ */
+@Component
+public class ProductPopularityTracker {
+
+    private final ProductSuggestIndex suggestIndex;
+    private final ConcurrentHashMap<Long, LongAdder> pendingHits = new ConcurrentHashMap<>();
+
+    public ProductPopularityTracker(ProductSuggestIndex suggestIndex) {
+        this.suggestIndex = suggestIndex;
+    }
+
+    public void recordView(Long productId) {
+        pendingHits.computeIfAbsent(productId, id -> new LongAdder()).increment();
+    }
+
+    @Scheduled(fixedDelayString = "${catalog.suggest.popularity-refresh-interval-ms:60000}")
+    public void flush() {
+        Map<Long, Long> hits = new HashMap<>();
+        for (Long productId : pendingHits.keySet()) {
+            LongAdder adder = pendingHits.remove(productId);
+            if (adder != null) {
+                hits.put(productId, adder.sum());
+            }
+        }
+        suggestIndex.addPopularity(hits);
+    }
+}
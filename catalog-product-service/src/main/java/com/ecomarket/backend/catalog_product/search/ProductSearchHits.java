@@ -0,0 +1,20 @@
+package com.ecomarket.backend.catalog_product.search;
+
+import com.ecomarket.backend.catalog_product.DTO.FacetCountResponse;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Resultado de {@link ProductSearchIndex#search(com.ecomarket.backend.catalog_product.DTO.ProductSearchRequest)}:
+ * los IDs de la página pedida, en orden, y los conteos por faceta.
+ */
+@Data
+@Builder
+public class ProductSearchHits {
+    private List<Long> productIds;
+    private long total;
+    private Map<String, List<FacetCountResponse>> facets;
+}
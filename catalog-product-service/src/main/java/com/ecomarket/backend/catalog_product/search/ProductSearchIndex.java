@@ -0,0 +1,533 @@
+package com.ecomarket.backend.catalog_product.search;
+
+import com.ecomarket.backend.catalog_product.DTO.FacetCountResponse;
+import com.ecomarket.backend.catalog_product.DTO.ProductSearchRequest;
+import com.ecomarket.backend.catalog_product.DTO.SearchIndexStatsResponse;
+import com.ecomarket.backend.catalog_product.model.Product;
+import com.ecomarket.backend.catalog_product.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * Índice invertido en memoria sobre nombre, descripción, SKU, marca y categoría.
+ * Cada término apunta a un {@link RoaringBitmap} con los IDs de producto que lo contienen;
+ * una búsqueda es la intersección de los bitmaps de sus términos, con el último término
+ * tratado como prefijo para búsquedas mientras se escribe.
+ * <p>
+ * Además guarda un bitmap por categoría, marca, estado y precio, de modo que los filtros
+ * combinados y los conteos por faceta son operaciones entre bitmaps, sin consultas SQL.
+ * <p>
+ * Se construye al arrancar y se mantiene desde {@code ProductService}; los cambios hechos en otros
+ * nodos llegan por {@link ProductIndexFeed}. Hasta que la primera construcción termina, las
+ * búsquedas devuelven vacío y el servicio cae a la consulta SQL.
+ * Dentro de una transacción, {@link #index(Product)} y {@link #remove(Long)} toman la foto del
+ * producto en el momento y la publican al confirmar: un rollback no deja rastro en el índice.
+ */
+@Slf4j
+@Component
+public class ProductSearchIndex {
+
+    public static final String CATEGORY_FACET = "category";
+    public static final String BRAND_FACET = "brand";
+    public static final String STATUS_FACET = "status";
+
+    private static final int MIN_PREFIX_LENGTH = 2;
+
+    private final ProductRepository productRepo;
+    private final int rebuildPageSize;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    private IndexData data = new IndexData(); // Protegido por lock
+
+    private volatile boolean ready;
+    private volatile boolean rebuilding;
+    private volatile LocalDateTime lastRebuild;
+    private volatile long lastRebuildMillis;
+    private final Set<Long> changedDuringRebuild = ConcurrentHashMap.newKeySet();
+
+    public ProductSearchIndex(ProductRepository productRepo,
+                              @Value("${catalog.search.rebuild-page-size:1000}") int rebuildPageSize) {
+        this.productRepo = productRepo;
+        this.rebuildPageSize = rebuildPageSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        rebuild();
+    }
+
+    /**
+     * Reconstruye el índice completo leyendo los productos por páginas y lo publica de una vez.
+     * Los cambios que llegan mientras tanto se vuelven a aplicar al terminar.
+     */
+    public SearchIndexStatsResponse rebuild() {
+        rebuildLock.lock();
+        try {
+            return doRebuild();
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private SearchIndexStatsResponse doRebuild() {
+        long start = System.nanoTime();
+        rebuilding = true;
+        changedDuringRebuild.clear();
+        try {
+            IndexData newData = new IndexData();
+            Pageable page = PageRequest.of(0, rebuildPageSize, Sort.by("id"));
+            Slice<Product> slice;
+            do {
+                slice = productRepo.findAll(page);
+                slice.forEach(product -> newData.add(docId(product.getId()), document(product)));
+                page = slice.nextPageable();
+            } while (slice.hasNext());
+
+            lock.writeLock().lock();
+            try {
+                data = newData;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            rebuilding = false;
+        }
+
+        for (Long productId : changedDuringRebuild) {
+            productRepo.findById(productId).ifPresentOrElse(this::index, () -> remove(productId));
+        }
+        changedDuringRebuild.clear();
+
+        ready = true;
+        lastRebuild = LocalDateTime.now();
+        lastRebuildMillis = (System.nanoTime() - start) / 1_000_000;
+        SearchIndexStatsResponse stats = stats();
+        log.info("Índice de búsqueda construido: {} productos, {} términos en {} ms",
+                stats.getDocuments(), stats.getTerms(), lastRebuildMillis);
+        return stats;
+    }
+
+    public void index(Product product) {
+        // Las asociaciones se leen ahora, con la sesión abierta; al confirmar ya podría estar cerrada
+        Long productId = product.getId();
+        IndexedProduct document = document(product);
+        afterCommit(() -> {
+            if (rebuilding) {
+                changedDuringRebuild.add(productId);
+            }
+            lock.writeLock().lock();
+            try {
+                data.remove(docId(productId));
+                data.add(docId(productId), document);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public void remove(Long productId) {
+        afterCommit(() -> {
+            if (rebuilding) {
+                changedDuringRebuild.add(productId);
+            }
+            lock.writeLock().lock();
+            try {
+                data.remove(docId(productId));
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    // --- Búsqueda por texto ---
+
+    /**
+     * IDs de productos no eliminados que contienen todos los términos de la consulta.
+     * Vacío si el índice aún no está listo.
+     */
+    public Optional<RoaringBitmap> match(String query) {
+        if (!ready) {
+            return Optional.empty();
+        }
+        lock.readLock().lock();
+        try {
+            RoaringBitmap result = data.matchText(query);
+            result.andNot(data.statusDocs(Product.ProductStatus.INACTIVE));
+            return Optional.of(result);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Todos los IDs que calzan con la consulta, en orden de ID. Sin tope: el llamador decide cómo cargarlos.
+     */
+    public Optional<List<Long>> search(String query) {
+        return match(query).map(docs -> {
+            List<Long> ids = new ArrayList<>(docs.getCardinality());
+            docs.forEach((int docId) -> ids.add((long) docId));
+            return ids;
+        });
+    }
+
+    // --- Búsqueda con filtros y facetas ---
+
+    /**
+     * Combina todos los filtros, ordena, pagina y cuenta facetas en una sola pasada sobre bitmaps.
+     * Las facetas son disyuntivas: los conteos de categoría ignoran el filtro de categoría
+     * (y lo mismo con marca y estado) para que el cliente pueda ofrecer las alternativas.
+     */
+    public Optional<ProductSearchHits> search(ProductSearchRequest request) {
+        if (!ready) {
+            return Optional.empty();
+        }
+        lock.readLock().lock();
+        try {
+            IndexData d = data;
+
+            RoaringBitmap core = d.allDocs.clone();
+            if (request.getQ() != null && !request.getQ().isBlank()) {
+                core.and(d.matchText(request.getQ()));
+            }
+            if (request.getSku() != null && !request.getSku().isBlank()) {
+                Integer skuDoc = d.skuDocs.get(normalizeSku(request.getSku()));
+                core.and(skuDoc == null ? new RoaringBitmap() : RoaringBitmap.bitmapOf(skuDoc));
+            }
+            if (request.getMinPrice() != null || request.getMaxPrice() != null) {
+                core.and(d.priceRange(request.getMinPrice(), request.getMaxPrice()));
+            }
+
+            RoaringBitmap statusFilter = request.getStatus() != null
+                    ? d.statusDocs(Product.ProductStatus.valueOf(request.getStatus().toUpperCase()))
+                    : RoaringBitmap.andNot(d.allDocs, d.statusDocs(Product.ProductStatus.INACTIVE));
+            RoaringBitmap categoryFilter = request.getCategoryId() == null ? null
+                    : d.categoryDocs.getOrDefault(request.getCategoryId(), new RoaringBitmap());
+            RoaringBitmap brandFilter = request.getBrandId() == null ? null
+                    : d.brandDocs.getOrDefault(request.getBrandId(), new RoaringBitmap());
+
+            RoaringBitmap result = and(core, statusFilter, categoryFilter, brandFilter);
+
+            Map<String, List<FacetCountResponse>> facets = new LinkedHashMap<>();
+            facets.put(CATEGORY_FACET, facetCounts(and(core, statusFilter, brandFilter), d.categoryDocs,
+                    id -> String.valueOf(id), d.categoryNames::get));
+            facets.put(BRAND_FACET, facetCounts(and(core, statusFilter, categoryFilter), d.brandDocs,
+                    id -> String.valueOf(id), d.brandNames::get));
+            facets.put(STATUS_FACET, facetCounts(and(core, categoryFilter, brandFilter), d.statusDocs,
+                    Enum::name, Enum::name));
+
+            return Optional.of(ProductSearchHits.builder()
+                    .productIds(page(d, result, request))
+                    .total(result.getLongCardinality())
+                    .facets(facets)
+                    .build());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public SearchIndexStatsResponse stats() {
+        lock.readLock().lock();
+        try {
+            return SearchIndexStatsResponse.builder()
+                    .ready(ready)
+                    .documents(data.documents.size())
+                    .terms(data.postings.size())
+                    .lastRebuild(lastRebuild)
+                    .lastRebuildMillis(lastRebuildMillis)
+                    .build();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // --- Internos ---
+
+    private static List<Long> page(IndexData d, RoaringBitmap result, ProductSearchRequest request) {
+        int total = result.getCardinality();
+        long offset = (long) request.getPage() * request.getSize();
+        if (offset >= total) {
+            return List.of();
+        }
+        int from = (int) offset;
+        int size = request.getSize();
+        boolean descending = "desc".equalsIgnoreCase(request.getDirection());
+        List<Long> ids = new ArrayList<>(Math.min(size, total - from));
+
+        switch (request.getSort().toLowerCase()) {
+            case "price" -> {
+                // Se recorre el índice de precios en orden y sólo se cruzan los tramos necesarios
+                NavigableMap<BigDecimal, RoaringBitmap> prices = descending ? d.priceDocs.descendingMap() : d.priceDocs;
+                int skipped = 0;
+                for (RoaringBitmap priceDocs : prices.values()) {
+                    int matching = RoaringBitmap.andCardinality(priceDocs, result);
+                    if (skipped + matching <= from) {
+                        skipped += matching;
+                        continue;
+                    }
+                    IntIterator it = RoaringBitmap.and(priceDocs, result).getIntIterator();
+                    while (it.hasNext() && ids.size() < size) {
+                        int docId = it.next();
+                        if (skipped++ >= from) {
+                            ids.add((long) docId);
+                        }
+                    }
+                    if (ids.size() == size) {
+                        break;
+                    }
+                }
+            }
+            case "name" -> {
+                Comparator<Integer> byName = Comparator.comparing((Integer docId) -> d.documents.get(docId).sortName())
+                        .thenComparing(Function.identity());
+                Integer[] docIds = Arrays.stream(result.toArray()).boxed().toArray(Integer[]::new);
+                Arrays.sort(docIds, descending ? byName.reversed() : byName);
+                for (int i = from; i < docIds.length && ids.size() < size; i++) {
+                    ids.add((long) docIds[i]);
+                }
+            }
+            default -> {
+                if (descending) {
+                    IntIterator it = result.getReverseIntIterator();
+                    for (int skipped = 0; it.hasNext() && ids.size() < size; skipped++) {
+                        int docId = it.next();
+                        if (skipped >= from) {
+                            ids.add((long) docId);
+                        }
+                    }
+                } else {
+                    PeekableIntIterator it = result.getIntIterator();
+                    it.advanceIfNeeded(result.select(from));
+                    while (it.hasNext() && ids.size() < size) {
+                        ids.add((long) it.next());
+                    }
+                }
+            }
+        }
+        return ids;
+    }
+
+    private static <K> List<FacetCountResponse> facetCounts(RoaringBitmap docs, Map<K, RoaringBitmap> facetDocs,
+                                                            Function<K, String> value, Function<K, String> label) {
+        List<FacetCountResponse> counts = new ArrayList<>();
+        for (Map.Entry<K, RoaringBitmap> entry : facetDocs.entrySet()) {
+            int count = RoaringBitmap.andCardinality(docs, entry.getValue());
+            if (count > 0) {
+                counts.add(FacetCountResponse.builder()
+                        .value(value.apply(entry.getKey()))
+                        .label(label.apply(entry.getKey()))
+                        .count(count)
+                        .build());
+            }
+        }
+        counts.sort(Comparator.comparingInt(FacetCountResponse::getCount).reversed()
+                .thenComparing(FacetCountResponse::getLabel, Comparator.nullsLast(Comparator.naturalOrder())));
+        return counts;
+    }
+
+    private static RoaringBitmap and(RoaringBitmap base, RoaringBitmap... filters) {
+        RoaringBitmap result = base.clone();
+        for (RoaringBitmap filter : filters) {
+            if (filter != null) {
+                result.and(filter);
+            }
+        }
+        return result;
+    }
+
+    private static String normalizeSku(String sku) {
+        return sku.trim().toLowerCase();
+    }
+
+    static int docId(Long productId) {
+        return Math.toIntExact(productId);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static IndexedProduct document(Product product) {
+        Long categoryId = product.getCategory() != null ? product.getCategory().getId() : null;
+        String categoryName = product.getCategory() != null ? product.getCategory().getName() : null;
+        Long brandId = product.getBrand() != null ? product.getBrand().getId() : null;
+        String brandName = product.getBrand() != null ? product.getBrand().getName() : null;
+        String sku = product.getSku() != null ? normalizeSku(product.getSku()) : null;
+        return new IndexedProduct(terms(product), categoryId, categoryName, brandId, brandName, product.getStatus(),
+                product.getPrice(), sku, SpanishAnalyzer.normalize(product.getName() == null ? "" : product.getName()));
+    }
+
+    private static String[] terms(Product product) {
+        Set<String> terms = new LinkedHashSet<>();
+        terms.addAll(SpanishAnalyzer.analyze(product.getName()));
+        terms.addAll(SpanishAnalyzer.analyze(product.getDescription()));
+        terms.addAll(SpanishAnalyzer.analyze(product.getSku()));
+        if (product.getBrand() != null) {
+            terms.addAll(SpanishAnalyzer.analyze(product.getBrand().getName()));
+        }
+        if (product.getCategory() != null) {
+            terms.addAll(SpanishAnalyzer.analyze(product.getCategory().getName()));
+        }
+        return terms.toArray(String[]::new);
+    }
+
+    private record IndexedProduct(String[] terms, Long categoryId, String categoryName, Long brandId, String brandName,
+                                  Product.ProductStatus status, BigDecimal price, String sku, String sortName) {
+    }
+
+    /**
+     * Estructuras del índice. Una reconstrucción arma una instancia nueva y la publica de una vez.
+     */
+    private static final class IndexData {
+        private final TreeMap<String, RoaringBitmap> postings = new TreeMap<>();
+        private final Map<Integer, IndexedProduct> documents = new HashMap<>();
+        private final RoaringBitmap allDocs = new RoaringBitmap();
+        private final Map<Long, RoaringBitmap> categoryDocs = new HashMap<>();
+        private final Map<Long, RoaringBitmap> brandDocs = new HashMap<>();
+        private final Map<Product.ProductStatus, RoaringBitmap> statusDocs = new EnumMap<>(Product.ProductStatus.class);
+        private final TreeMap<BigDecimal, RoaringBitmap> priceDocs = new TreeMap<>();
+        private final Map<String, Integer> skuDocs = new HashMap<>();
+        private final Map<Long, String> categoryNames = new HashMap<>();
+        private final Map<Long, String> brandNames = new HashMap<>();
+
+        private void add(int docId, IndexedProduct document) {
+            for (String term : document.terms()) {
+                postings.computeIfAbsent(term, t -> new RoaringBitmap()).add(docId);
+            }
+            allDocs.add(docId);
+            if (document.categoryId() != null) {
+                categoryDocs.computeIfAbsent(document.categoryId(), id -> new RoaringBitmap()).add(docId);
+                categoryNames.put(document.categoryId(), document.categoryName());
+            }
+            if (document.brandId() != null) {
+                brandDocs.computeIfAbsent(document.brandId(), id -> new RoaringBitmap()).add(docId);
+                brandNames.put(document.brandId(), document.brandName());
+            }
+            if (document.status() != null) {
+                statusDocs.computeIfAbsent(document.status(), s -> new RoaringBitmap()).add(docId);
+            }
+            if (document.price() != null) {
+                priceDocs.computeIfAbsent(document.price(), p -> new RoaringBitmap()).add(docId);
+            }
+            if (document.sku() != null) {
+                skuDocs.put(document.sku(), docId);
+            }
+            documents.put(docId, document);
+        }
+
+        private void remove(int docId) {
+            IndexedProduct document = documents.remove(docId);
+            if (document == null) {
+                return;
+            }
+            for (String term : document.terms()) {
+                removeDoc(postings, term, docId);
+            }
+            allDocs.remove(docId);
+            removeDoc(categoryDocs, document.categoryId(), docId);
+            removeDoc(brandDocs, document.brandId(), docId);
+            removeDoc(statusDocs, document.status(), docId);
+            removeDoc(priceDocs, document.price(), docId);
+            if (document.sku() != null) {
+                skuDocs.remove(document.sku(), docId);
+            }
+        }
+
+        private RoaringBitmap statusDocs(Product.ProductStatus status) {
+            return statusDocs.getOrDefault(status, new RoaringBitmap());
+        }
+
+        private RoaringBitmap matchText(String query) {
+            List<String> terms = new ArrayList<>(new LinkedHashSet<>(SpanishAnalyzer.analyze(query)));
+            if (terms.isEmpty()) {
+                return new RoaringBitmap();
+            }
+            RoaringBitmap result = null;
+            for (int i = 0; i < terms.size(); i++) {
+                String term = terms.get(i);
+                RoaringBitmap termDocs = i == terms.size() - 1 ? prefixDocs(term) : postings.get(term);
+                if (termDocs == null || termDocs.isEmpty()) {
+                    return new RoaringBitmap();
+                }
+                result = result == null ? termDocs.clone() : RoaringBitmap.and(result, termDocs);
+            }
+            return result;
+        }
+
+        private RoaringBitmap prefixDocs(String prefix) {
+            if (prefix.length() < MIN_PREFIX_LENGTH) {
+                return postings.get(prefix);
+            }
+            NavigableMap<String, RoaringBitmap> matching = postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+            if (matching.size() == 1) {
+                return matching.firstEntry().getValue();
+            }
+            return matching.isEmpty() ? null : FastAggregation.or(matching.values().iterator());
+        }
+
+        private RoaringBitmap priceRange(BigDecimal min, BigDecimal max) {
+            if (priceDocs.isEmpty() || (min != null && max != null && min.compareTo(max) > 0)) {
+                return new RoaringBitmap();
+            }
+            NavigableMap<BigDecimal, RoaringBitmap> range = priceDocs.subMap(
+                    min != null ? min : priceDocs.firstKey(), true,
+                    max != null ? max : priceDocs.lastKey(), true);
+            return range.isEmpty() ? new RoaringBitmap() : FastAggregation.or(range.values().iterator());
+        }
+
+        private static <K> void removeDoc(Map<K, RoaringBitmap> index, K key, int docId) {
+            if (key == null) {
+                return;
+            }
+            RoaringBitmap docs = index.get(key);
+            if (docs != null) {
+                docs.remove(docId);
+                if (docs.isEmpty()) {
+                    index.remove(key);
+                }
+            }
+        }
+    }
+}
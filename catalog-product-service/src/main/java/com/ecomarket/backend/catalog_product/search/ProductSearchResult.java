@@ -0,0 +1,17 @@
+package com.ecomarket.backend.catalog_product.search;
+
+import com.ecomarket.backend.catalog_product.DTO.FacetCountResponse;
+import com.ecomarket.backend.catalog_product.model.Product;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+public class ProductSearchResult {
+    private List<Product> products;
+    private long total;
+    private Map<String, List<FacetCountResponse>> facets;
+}
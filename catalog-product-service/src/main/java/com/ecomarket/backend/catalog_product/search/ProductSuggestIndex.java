@@ -0,0 +1,528 @@
+package com.ecomarket.backend.catalog_product.search;
+
+import com.ecomarket.backend.catalog_product.DTO.ProductSuggestionResponse;
+import com.ecomarket.backend.catalog_product.model.Product;
+import com.ecomarket.backend.catalog_product.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Autocompletado por prefijo sobre nombres y SKU de productos activos.
+ * <p>
+ * Es un radix trie (aristas comprimidas) donde cada nodo guarda los k mejores productos de
+ * su subárbol, ordenados por popularidad. Responder un prefijo es recorrer a lo sumo su
+ * longitud y copiar una lista ya ordenada: el costo no depende del tamaño del catálogo.
+ * Además del nombre completo se indexa cada sufijo desde el inicio de una palabra, para que
+ * "organico" sugiera "Jabón orgánico".
+ * <p>
+ * La popularidad sólo crece (visitas acumuladas), así que subirla basta con reubicar el producto
+ * en las listas de su camino. Al quitar un producto las listas del camino se recalculan de abajo
+ * hacia arriba a partir de los hijos.
+ */
+@Slf4j
+@Component
+public class ProductSuggestIndex {
+
+    private static final long[] NO_IDS = new long[0];
+    private static final int MAX_KEY_LENGTH = 64;
+    private static final int MAX_WORD_SUFFIXES = 3;
+
+    // Más visitas primero; a igual popularidad, el nombre más corto
+    private static final Comparator<Suggestion> RANK = Comparator.comparingLong((Suggestion s) -> -s.score)
+            .thenComparingInt(s -> s.name.length())
+            .thenComparingLong(s -> s.id);
+
+    private final ProductRepository productRepo;
+    private final int topK;
+    private final int rebuildPageSize;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    // Sobrevive a las reconstrucciones del trie
+    private final Map<Long, Long> popularity = new ConcurrentHashMap<>();
+
+    // Protegidos por lock
+    private Node root = new Node(new char[0]);
+    private Map<Long, Suggestion> suggestions = new HashMap<>();
+
+    public ProductSuggestIndex(ProductRepository productRepo,
+                               @Value("${catalog.suggest.top-k:10}") int topK,
+                               @Value("${catalog.search.rebuild-page-size:1000}") int rebuildPageSize) {
+        this.productRepo = productRepo;
+        this.topK = topK;
+        this.rebuildPageSize = rebuildPageSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        rebuild();
+    }
+
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            long start = System.nanoTime();
+            Node newRoot = new Node(new char[0]);
+            Map<Long, Suggestion> newSuggestions = new HashMap<>();
+
+            Pageable page = PageRequest.of(0, rebuildPageSize, Sort.by("id"));
+            Slice<Product> slice;
+            do {
+                slice = productRepo.findAll(page);
+                for (Product product : slice) {
+                    Suggestion suggestion = toSuggestion(product);
+                    if (suggestion != null) {
+                        newSuggestions.put(suggestion.id, suggestion);
+                        for (String key : suggestion.keys) {
+                            insert(newRoot, key, suggestion.id, newSuggestions, false);
+                        }
+                    }
+                }
+                page = slice.nextPageable();
+            } while (slice.hasNext());
+            // En la carga masiva las listas top-k se calculan una sola vez, de las hojas a la raíz
+            fillTop(newRoot, newSuggestions);
+
+            lock.writeLock().lock();
+            try {
+                root = newRoot;
+                suggestions = newSuggestions;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.info("Índice de autocompletado construido: {} productos en {} ms",
+                    newSuggestions.size(), (System.nanoTime() - start) / 1_000_000);
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    /**
+     * Dentro de una transacción el cambio se aplica al confirmar, con los datos leídos ahora.
+     */
+    public void index(Product product) {
+        Long productId = product.getId();
+        Suggestion suggestion = toSuggestion(product);
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                removeInternal(productId);
+                if (suggestion != null) {
+                    // Las visitas sumadas hasta la confirmación también cuentan
+                    suggestion.score = popularity.getOrDefault(productId, 0L);
+                    suggestions.put(suggestion.id, suggestion);
+                    for (String key : suggestion.keys) {
+                        insert(root, key, suggestion.id, suggestions, true);
+                    }
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public void remove(Long productId) {
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                removeInternal(productId);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Suma visitas a la popularidad y reubica los productos afectados en las listas top-k.
+     */
+    public void addPopularity(Map<Long, Long> hits) {
+        if (hits.isEmpty()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            for (Map.Entry<Long, Long> hit : hits.entrySet()) {
+                long score = popularity.merge(hit.getKey(), hit.getValue(), Long::sum);
+                Suggestion suggestion = suggestions.get(hit.getKey());
+                if (suggestion != null) {
+                    suggestion.score = score;
+                    for (String key : suggestion.keys) {
+                        promoteAlong(root, key, suggestion.id);
+                    }
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<ProductSuggestionResponse> suggest(String prefix, int limit) {
+        String key = normalizeKey(prefix, false);
+        if (key.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            Node node = find(root, key);
+            if (node == null) {
+                return List.of();
+            }
+            List<ProductSuggestionResponse> result = new ArrayList<>(Math.min(limit, node.top.length));
+            for (int i = 0; i < node.top.length && result.size() < limit; i++) {
+                Suggestion suggestion = suggestions.get(node.top[i]);
+                result.add(ProductSuggestionResponse.builder()
+                        .id(suggestion.id)
+                        .name(suggestion.name)
+                        .sku(suggestion.sku)
+                        .build());
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // --- Trie ---
+
+    private void insert(Node root, String key, long id, Map<Long, Suggestion> suggestions, boolean maintainTop) {
+        List<Node> path = maintainTop ? new ArrayList<>(MAX_KEY_LENGTH) : null;
+        Node node = root;
+        int i = 0;
+        while (i < key.length()) {
+            if (path != null) {
+                path.add(node);
+            }
+            Node child = node.child(key.charAt(i));
+            if (child == null) {
+                Node leaf = new Node(key.substring(i).toCharArray());
+                node.addChild(leaf);
+                node = leaf;
+                break;
+            }
+            int common = child.commonPrefix(key, i);
+            if (common < child.label.length) {
+                // La clave diverge a mitad de la arista: se parte en un nodo intermedio
+                Node middle = new Node(Arrays.copyOf(child.label, common));
+                child.label = Arrays.copyOfRange(child.label, common, child.label.length);
+                middle.children = new Node[]{child};
+                middle.top = child.top.clone();
+                node.replaceChild(child, middle);
+                child = middle;
+            }
+            node = child;
+            i += common;
+        }
+        node.terminals = append(node.terminals, id);
+        if (path != null) {
+            path.add(node);
+            for (Node onPath : path) {
+                onPath.top = promote(onPath.top, id, suggestions);
+            }
+        }
+    }
+
+    private void fillTop(Node node, Map<Long, Suggestion> suggestions) {
+        for (Node child : node.children) {
+            fillTop(child, suggestions);
+        }
+        node.top = recompute(node, suggestions);
+    }
+
+    private void promoteAlong(Node root, String key, long id) {
+        Node node = root;
+        node.top = promote(node.top, id, suggestions);
+        int i = 0;
+        while (i < key.length()) {
+            node = node.child(key.charAt(i));
+            if (node == null) {
+                return;
+            }
+            node.top = promote(node.top, id, suggestions);
+            i += node.label.length;
+        }
+    }
+
+    private void removeInternal(Long productId) {
+        Suggestion previous = suggestions.remove(productId);
+        if (previous == null) {
+            return;
+        }
+        for (String key : previous.keys) {
+            removeKey(key, productId);
+        }
+    }
+
+    private void removeKey(String key, long id) {
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        path.add(node);
+        int i = 0;
+        while (i < key.length()) {
+            node = node.child(key.charAt(i));
+            if (node == null) {
+                return;
+            }
+            path.add(node);
+            i += node.label.length;
+        }
+        node.terminals = without(node.terminals, id);
+
+        // De la hoja a la raíz: se podan nodos vacíos y se recalcula el top-k con los hijos
+        for (int depth = path.size() - 1; depth >= 0; depth--) {
+            Node current = path.get(depth);
+            if (depth > 0 && current.terminals.length == 0 && current.children.length == 0) {
+                path.get(depth - 1).removeChild(current);
+                continue;
+            }
+            current.top = recompute(current, suggestions);
+        }
+    }
+
+    private long[] recompute(Node node, Map<Long, Suggestion> suggestions) {
+        if (node.children.length == 0 && node.terminals.length <= 1) {
+            return node.terminals; // Hoja con un solo producto: los arreglos nunca se modifican en sitio
+        }
+        Map<Long, Suggestion> candidates = new HashMap<>();
+        for (long id : node.terminals) {
+            candidates.put(id, suggestions.get(id));
+        }
+        for (Node child : node.children) {
+            for (long id : child.top) {
+                candidates.putIfAbsent(id, suggestions.get(id));
+            }
+        }
+        return candidates.values().stream()
+                .filter(suggestion -> suggestion != null)
+                .sorted(RANK)
+                .limit(topK)
+                .mapToLong(suggestion -> suggestion.id)
+                .toArray();
+    }
+
+    private long[] promote(long[] top, long id, Map<Long, Suggestion> suggestions) {
+        long[] without = without(top, id);
+        Comparator<Long> order = rankOrder(suggestions);
+        int position = 0;
+        while (position < without.length && order.compare(without[position], id) < 0) {
+            position++;
+        }
+        if (position >= topK) {
+            return without.length == top.length ? top : without;
+        }
+        int length = Math.min(topK, without.length + 1);
+        long[] result = new long[length];
+        System.arraycopy(without, 0, result, 0, position);
+        result[position] = id;
+        System.arraycopy(without, position, result, position + 1, length - position - 1);
+        return result;
+    }
+
+    private static Node find(Node root, String prefix) {
+        Node node = root;
+        int i = 0;
+        while (i < prefix.length()) {
+            Node child = node.child(prefix.charAt(i));
+            if (child == null) {
+                return null;
+            }
+            for (int j = 0; j < child.label.length && i < prefix.length(); j++, i++) {
+                if (child.label[j] != prefix.charAt(i)) {
+                    return null;
+                }
+            }
+            node = child;
+        }
+        return node;
+    }
+
+    private static Comparator<Long> rankOrder(Map<Long, Suggestion> suggestions) {
+        return Comparator.comparing(suggestions::get, RANK);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    // --- Claves ---
+
+    private Suggestion toSuggestion(Product product) {
+        if (product.getStatus() != Product.ProductStatus.ACTIVE || product.getName() == null) {
+            return null;
+        }
+        Set<String> keys = new LinkedHashSet<>();
+        String name = normalizeKey(product.getName(), true);
+        if (!name.isEmpty()) {
+            keys.add(name);
+            // Sufijos desde cada palabra significativa: se omiten stopwords y números sueltos
+            int suffixes = 0;
+            for (int i = name.indexOf(' '); i >= 0 && suffixes < MAX_WORD_SUFFIXES; i = name.indexOf(' ', i + 1)) {
+                String suffix = name.substring(i + 1);
+                int end = suffix.indexOf(' ');
+                String word = end < 0 ? suffix : suffix.substring(0, end);
+                if (!SpanishAnalyzer.isStopword(word) && !Character.isDigit(word.charAt(0))) {
+                    keys.add(suffix);
+                    suffixes++;
+                }
+            }
+        }
+        if (product.getSku() != null) {
+            String sku = normalizeKey(product.getSku(), true);
+            if (!sku.isEmpty()) {
+                keys.add(sku);
+            }
+        }
+        Suggestion suggestion = new Suggestion(product.getId(), product.getName(), product.getSku(), keys.toArray(String[]::new));
+        suggestion.score = popularity.getOrDefault(product.getId(), 0L);
+        return suggestion;
+    }
+
+    /**
+     * Minúsculas, sin tildes y con espacios simples. En la consulta se respeta un espacio final,
+     * que indica que la última palabra está completa.
+     */
+    private static String normalizeKey(String text, boolean indexing) {
+        if (text == null) {
+            return "";
+        }
+        String normalized = SpanishAnalyzer.normalize(text).replaceAll("[^a-z0-9ñ]+", " ");
+        String key = indexing ? normalized.strip() : normalized.stripLeading();
+        return key.length() > MAX_KEY_LENGTH ? key.substring(0, MAX_KEY_LENGTH) : key;
+    }
+
+    private static long[] append(long[] ids, long id) {
+        for (long existing : ids) {
+            if (existing == id) {
+                return ids;
+            }
+        }
+        long[] result = Arrays.copyOf(ids, ids.length + 1);
+        result[ids.length] = id;
+        return result;
+    }
+
+    private static long[] without(long[] ids, long id) {
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i] == id) {
+                long[] result = new long[ids.length - 1];
+                System.arraycopy(ids, 0, result, 0, i);
+                System.arraycopy(ids, i + 1, result, i, ids.length - i - 1);
+                return result;
+            }
+        }
+        return ids;
+    }
+
+    private static final class Suggestion {
+        private final long id;
+        private final String name;
+        private final String sku;
+        private final String[] keys;
+        private long score;
+
+        private Suggestion(long id, String name, String sku, String[] keys) {
+            this.id = id;
+            this.name = name;
+            this.sku = sku;
+            this.keys = keys;
+        }
+    }
+
+    private static final class Node {
+        private char[] label;
+        private Node[] children = new Node[0]; // Ordenados por el primer carácter de la arista
+        private long[] terminals = NO_IDS;
+        private long[] top = NO_IDS;
+
+        private Node(char[] label) {
+            this.label = label;
+        }
+
+        private Node child(char first) {
+            int low = 0;
+            int high = children.length - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                char c = children[mid].label[0];
+                if (c < first) {
+                    low = mid + 1;
+                } else if (c > first) {
+                    high = mid - 1;
+                } else {
+                    return children[mid];
+                }
+            }
+            return null;
+        }
+
+        private int commonPrefix(String key, int offset) {
+            int i = 0;
+            while (i < label.length && offset + i < key.length() && label[i] == key.charAt(offset + i)) {
+                i++;
+            }
+            return i;
+        }
+
+        private void addChild(Node child) {
+            int position = 0;
+            while (position < children.length && children[position].label[0] < child.label[0]) {
+                position++;
+            }
+            Node[] result = new Node[children.length + 1];
+            System.arraycopy(children, 0, result, 0, position);
+            result[position] = child;
+            System.arraycopy(children, position, result, position + 1, children.length - position);
+            children = result;
+        }
+
+        private void replaceChild(Node previous, Node replacement) {
+            for (int i = 0; i < children.length; i++) {
+                if (children[i] == previous) {
+                    children[i] = replacement;
+                    return;
+                }
+            }
+        }
+
+        private void removeChild(Node child) {
+            for (int i = 0; i < children.length; i++) {
+                if (children[i] == child) {
+                    Node[] result = new Node[children.length - 1];
+                    System.arraycopy(children, 0, result, 0, i);
+                    System.arraycopy(children, i + 1, result, i, children.length - i - 1);
+                    children = result;
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.ecomarket.backend.catalog_product.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Tokenizador para textos de catálogo en español: minúsculas, sin tildes, sin stopwords
+ * y con un stemming liviano que unifica plural y género ("orgánicas" y "orgánico" → "organic").
+ * Se aplica igual al indexar y al consultar.
+ */
+public final class SpanishAnalyzer {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^a-z0-9ñ]+");
+
+    private static final Set<String> STOPWORDS = Set.of(
+            "a", "al", "ante", "con", "contra", "de", "del", "desde", "e", "el", "en", "entre", "es",
+            "hacia", "hasta", "la", "las", "lo", "los", "o", "para", "por", "que", "se", "sin", "sobre",
+            "su", "sus", "u", "un", "una", "unas", "unos", "y");
+
+    private SpanishAnalyzer() {
+    }
+
+    public static List<String> analyze(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return tokens;
+        }
+        for (String token : NON_ALPHANUMERIC.split(normalize(text))) {
+            if (!token.isEmpty() && !STOPWORDS.contains(token)) {
+                tokens.add(stem(token));
+            }
+        }
+        return tokens;
+    }
+
+    static boolean isStopword(String normalizedWord) {
+        return STOPWORDS.contains(normalizedWord);
+    }
+
+    static String normalize(String text) {
+        // La ñ se protege antes de NFD para no confundir "año" con "ano"
+        String lower = text.toLowerCase(Locale.ROOT).replace('ñ', '\u0001');
+        String stripped = DIACRITICS.matcher(Normalizer.normalize(lower, Normalizer.Form.NFD)).replaceAll("");
+        return stripped.replace('\u0001', 'ñ');
+    }
+
+    static String stem(String token) {
+        if (token.chars().anyMatch(Character::isDigit)) {
+            return token; // SKU, medidas, códigos: se indexan tal cual
+        }
+        String stem = token;
+        if (stem.length() > 4 && stem.endsWith("ces")) {
+            stem = stem.substring(0, stem.length() - 3) + "z"; // luces → luz
+        } else if (stem.length() > 3 && stem.endsWith("s")) {
+            stem = stem.substring(0, stem.length() - 1);
+        }
+        if (stem.length() > 4 && (stem.endsWith("a") || stem.endsWith("o") || stem.endsWith("e"))) {
+            stem = stem.substring(0, stem.length() - 1);
+        }
+        return stem;
+    }
+}
@@ -0,0 +1,221 @@
+package com.ecomarket.backend.catalog_product.service;
+
+import com.ecomarket.backend.catalog_product.DTO.InventoryAdjustmentRequest;
+import com.ecomarket.backend.catalog_product.DTO.InventoryAdjustmentResult;
+import com.ecomarket.backend.catalog_product.DTO.InventoryBulkRequest;
+import com.ecomarket.backend.catalog_product.DTO.InventoryBulkResponse;
+import com.ecomarket.backend.catalog_product.availability.StockStatusEvaluator;
+import com.ecomarket.backend.catalog_product.changefeed.CatalogChangeLog;
+import com.ecomarket.backend.catalog_product.repository.InventoryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Ajuste masivo de inventario para la sincronización con bodega.
+ * <p>
+ * Las operaciones se aplican por bloques, cada uno en una transacción con un único batch JDBC de
+ * UPDATE por SKU. Se usa una sola sentencia para SET y DELTA, así se respeta el orden de las
+ * operaciones aunque un SKU aparezca varias veces.
+ * <ul>
+ *   <li>SET: la bodega informa el stock físico. Las unidades en leases activos ya salieron de
+ *   availableQuantity, así que se descuentan: disponible = max(físico - leased, 0).</li>
+ *   <li>DELTA: suma o resta sobre el disponible; se rechaza si lo dejaría negativo.</li>
+ * </ul>
+ * Cada resultado informa la cantidad disponible justo después de su operación (o, si se rechazó,
+ * la que había en ese momento). Dentro de la misma transacción se reevalúa el estado de venta
+ * sólo de los productos tocados por el bloque.
+ */
+@Slf4j
+@Service
+public class InventoryBulkService {
+
+    private static final String ADJUST = "UPDATE inventories SET " +
+            "available_quantity = CASE WHEN ? THEN GREATEST(? - COALESCE(leased_quantity, 0), 0) " +
+            "ELSE available_quantity + ? END, " +
+            "last_update = ? " +
+            "WHERE product_id = (SELECT p.id FROM products p WHERE p.sku = ?) " +
+            "AND (? OR available_quantity + ? >= 0)";
+
+    private static final String LOCK_STOCK = "SELECT (SELECT p.sku FROM products p WHERE p.id = i.product_id), " +
+            "i.available_quantity, COALESCE(i.leased_quantity, 0) FROM inventories i " +
+            "WHERE i.product_id IN (SELECT p.id FROM products p WHERE p.sku IN (%s)) " +
+            "ORDER BY i.product_id FOR UPDATE";
+
+    private static final class Stock {
+        private int available;
+        private final int leased;
+
+        private Stock(int available, int leased) {
+            this.available = available;
+            this.leased = leased;
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CatalogChangeLog changeLog;
+    private final InventoryRepository inventoryRepo;
+    private final StockStatusEvaluator stockStatusEvaluator;
+    private final int chunkSize;
+
+    public InventoryBulkService(JdbcTemplate jdbcTemplate,
+                                TransactionTemplate transactionTemplate,
+                                CatalogChangeLog changeLog,
+                                InventoryRepository inventoryRepo,
+                                StockStatusEvaluator stockStatusEvaluator,
+                                @Value("${inventory.bulk.chunk-size:1000}") int chunkSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.changeLog = changeLog;
+        this.inventoryRepo = inventoryRepo;
+        this.stockStatusEvaluator = stockStatusEvaluator;
+        this.chunkSize = chunkSize;
+    }
+
+    public InventoryBulkResponse adjust(InventoryBulkRequest request) {
+        long start = System.nanoTime();
+        List<InventoryAdjustmentRequest> operations = request.getOperations();
+        InventoryAdjustmentResult[] results = new InventoryAdjustmentResult[operations.size()];
+
+        for (int from = 0; from < operations.size(); from += chunkSize) {
+            int to = Math.min(from + chunkSize, operations.size());
+            applyChunk(operations, from, to, results);
+        }
+
+        int applied = 0;
+        int notFound = 0;
+        int rejected = 0;
+        for (InventoryAdjustmentResult result : results) {
+            switch (result.getStatus()) {
+                case APPLIED -> applied++;
+                case NOT_FOUND -> notFound++;
+                case REJECTED -> rejected++;
+            }
+        }
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        log.info("Ajuste masivo de inventario: {} operaciones ({} aplicadas, {} sin SKU, {} rechazadas) en {} ms",
+                operations.size(), applied, notFound, rejected, elapsedMillis);
+        return InventoryBulkResponse.builder()
+                .applied(applied)
+                .notFound(notFound)
+                .rejected(rejected)
+                .results(List.of(results))
+                .elapsedMillis(elapsedMillis)
+                .build();
+    }
+
+    private void applyChunk(List<InventoryAdjustmentRequest> operations, int from, int to,
+                            InventoryAdjustmentResult[] results) {
+        List<Integer> batch = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            InventoryAdjustmentRequest operation = operations.get(i);
+            if (isSet(operation) && operation.getQuantity() < 0) {
+                results[i] = result(operation, InventoryAdjustmentResult.Status.REJECTED, null,
+                        "Quantity for SET must not be negative");
+            } else {
+                batch.add(i);
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Map<String, Stock> stock = lockStock(batch.stream()
+                        .map(index -> operations.get(index).getSku())
+                        .toList());
+                int[][] counts = jdbcTemplate.batchUpdate(ADJUST, batch, batch.size(), (ps, index) -> {
+                    InventoryAdjustmentRequest operation = operations.get(index);
+                    boolean set = isSet(operation);
+                    ps.setBoolean(1, set);
+                    ps.setInt(2, operation.getQuantity());
+                    ps.setInt(3, operation.getQuantity());
+                    ps.setTimestamp(4, now);
+                    ps.setString(5, operation.getSku());
+                    ps.setBoolean(6, set);
+                    ps.setInt(7, operation.getQuantity());
+                });
+                Set<String> changed = new LinkedHashSet<>();
+
+                // Las filas están bloqueadas desde antes del batch: repetir cada UPDATE sobre la lectura
+                // inicial da la cantidad que dejó cada operación, aunque el SKU se repita en el bloque
+                for (int i = 0; i < batch.size(); i++) {
+                    int index = batch.get(i);
+                    InventoryAdjustmentRequest operation = operations.get(index);
+                    Stock current = stock.get(operation.getSku());
+                    if (counts[0][i] != 0) {
+                        // Sin lectura previa sólo si el inventario se creó entre el bloqueo y el batch
+                        Integer quantity = null;
+                        if (current != null) {
+                            current.available = isSet(operation)
+                                    ? Math.max(operation.getQuantity() - current.leased, 0)
+                                    : current.available + operation.getQuantity();
+                            quantity = current.available;
+                        }
+                        changed.add(operation.getSku());
+                        results[index] = result(operation, InventoryAdjustmentResult.Status.APPLIED, quantity, null);
+                    } else if (current == null) {
+                        results[index] = result(operation, InventoryAdjustmentResult.Status.NOT_FOUND, null,
+                                "Inventory not found");
+                    } else {
+                        results[index] = result(operation, InventoryAdjustmentResult.Status.REJECTED, current.available,
+                                "Not enough stock");
+                    }
+                }
+                changeLog.recordInventoryBySku(changed);
+                if (!changed.isEmpty()) {
+                    // El batch escribe por SQL: se releen las filas tocadas para corregir las que crucen cero
+                    inventoryRepo.findByProduct_SkuIn(changed).forEach(stockStatusEvaluator::evaluate);
+                }
+            });
+        } catch (DataAccessException ex) {
+            String message = "Chunk rolled back: " + ex.getMostSpecificCause().getMessage();
+            for (int index : batch) {
+                results[index] = result(operations.get(index), InventoryAdjustmentResult.Status.REJECTED, null, message);
+            }
+        }
+    }
+
+    /**
+     * Lee y bloquea el inventario de los SKU del bloque, en orden de producto para que dos ajustes
+     * concurrentes no se crucen. Sólo se bloquean las filas de inventories.
+     */
+    private Map<String, Stock> lockStock(List<String> skus) {
+        Set<String> distinct = new LinkedHashSet<>(skus);
+        String placeholders = String.join(",", Collections.nCopies(distinct.size(), "?"));
+        Map<String, Stock> stock = new HashMap<>();
+        jdbcTemplate.query(LOCK_STOCK.formatted(placeholders),
+                rs -> {
+                    stock.put(rs.getString(1), new Stock(rs.getInt(2), rs.getInt(3)));
+                },
+                distinct.toArray());
+        return stock;
+    }
+
+    private static boolean isSet(InventoryAdjustmentRequest operation) {
+        return "SET".equalsIgnoreCase(operation.getType());
+    }
+
+    private static InventoryAdjustmentResult result(InventoryAdjustmentRequest operation,
+                                                    InventoryAdjustmentResult.Status status,
+                                                    Integer availableQuantity, String message) {
+        return new InventoryAdjustmentResult(operation.getSku(), operation.getType().toUpperCase(), status,
+                availableQuantity, message);
+    }
+}
@@ -1,26 +1,61 @@
 package com.ecomarket.backend.catalog_product.service;
 
 import com.ecomarket.backend.catalog_product.DTO.InventoryOperationRequest;
+import com.ecomarket.backend.catalog_product.availability.StockStatusEvaluator;
+import com.ecomarket.backend.catalog_product.changefeed.CatalogChangeLog;
 import com.ecomarket.backend.catalog_product.exception.ResourceNotFoundException;
 import com.ecomarket.backend.catalog_product.model.Inventory;
+import com.ecomarket.backend.catalog_product.model.InventoryOperationKey;
+import com.ecomarket.backend.catalog_product.repository.InventoryOperationKeyRepository;
 import com.ecomarket.backend.catalog_product.repository.InventoryRepository;
 import com.ecomarket.backend.catalog_product.repository.ProductRepository;
-import lombok.RequiredArgsConstructor;
+import com.ecomarket.backend.catalog_product.sales.SalesTrends;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 
 @Service
-@RequiredArgsConstructor
 public class InventoryService {
 
     private final InventoryRepository inventoryRepo;
     private final ProductRepository productRepo;
+    private final InventoryOperationKeyRepository operationKeyRepo;
+    private final CatalogChangeLog changeLog;
+    private final StockStatusEvaluator stockStatusEvaluator;
+    private final SalesTrends salesTrends;
+    private final Duration keyRetention;
 
+    public InventoryService(InventoryRepository inventoryRepo,
+                            ProductRepository productRepo,
+                            InventoryOperationKeyRepository operationKeyRepo,
+                            CatalogChangeLog changeLog,
+                            StockStatusEvaluator stockStatusEvaluator,
+                            SalesTrends salesTrends,
+                            @Value("${inventory.idempotency.retention:7d}") Duration keyRetention) {
+        this.inventoryRepo = inventoryRepo;
+        this.productRepo = productRepo;
+        this.operationKeyRepo = operationKeyRepo;
+        this.changeLog = changeLog;
+        this.stockStatusEvaluator = stockStatusEvaluator;
+        this.salesTrends = salesTrends;
+        this.keyRetention = keyRetention;
+    }
+
+    @Transactional
     public Inventory handleOperation(Long productId, InventoryOperationRequest request) {
         Inventory inventory = inventoryRepo.findByProduct_Id(productId)
                 .orElseThrow(() -> new ResourceNotFoundException("Inventory not found"));
 
+        // Reintento de una operación ya aplicada (p. ej. un pedido que cart-order vuelve a procesar)
+        String key = request.getIdempotencyKey();
+        if (key != null && operationKeyRepo.existsById(key)) {
+            return inventory;
+        }
+
         switch (request.getOperationType().toUpperCase()) {
             case "RESERVE" -> {
                 if (inventory.getAvailableQuantity() < request.getQuantity()) {
@@ -38,7 +73,28 @@ public class InventoryService {
         }
 
         inventory.setLastUpdate(LocalDateTime.now());
-        return inventoryRepo.save(inventory);
+        Inventory savedInventory = inventoryRepo.save(inventory);
+        if (key != null) {
+            operationKeyRepo.save(InventoryOperationKey.builder()
+                    .key(key)
+                    .productId(productId)
+                    .operationType(request.getOperationType().toUpperCase())
+                    .quantity(request.getQuantity())
+                    .appliedAt(savedInventory.getLastUpdate())
+                    .build());
+        }
+        changeLog.recordInventory(savedInventory);
+        stockStatusEvaluator.evaluate(savedInventory);
+        if ("RESERVE".equalsIgnoreCase(request.getOperationType())) {
+            salesTrends.recordReservation(savedInventory.getProduct(), request.getQuantity());
+        }
+        return savedInventory;
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.idempotency.purge-interval-ms:3600000}")
+    @Transactional
+    public void purgeOperationKeys() {
+        operationKeyRepo.deleteAppliedBefore(LocalDateTime.now().minus(keyRetention));
     }
 
     public Inventory getInventory(Long productId) {
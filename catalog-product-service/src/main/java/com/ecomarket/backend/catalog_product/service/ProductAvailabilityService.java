@@ -0,0 +1,56 @@
+package com.ecomarket.backend.catalog_product.service;
+
+import com.ecomarket.backend.catalog_product.DTO.ProductAvailabilityResponse;
+import com.ecomarket.backend.catalog_product.snapshot.CatalogSnapshot;
+import com.ecomarket.backend.catalog_product.snapshot.CatalogSnapshotStore;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+@Service
+@RequiredArgsConstructor
+public class ProductAvailabilityService {
+
+    private final CatalogSnapshotStore snapshotStore;
+
+    /**
+     * Precio, estado y disponibilidad de varios productos, en el orden pedido. Lo que la foto
+     * local no puede servir se lee de base de datos en una sola consulta; los ids inexistentes se omiten.
+     */
+    public List<ProductAvailabilityResponse> getAvailability(List<Long> productIds) {
+        Set<Long> ids = new LinkedHashSet<>(productIds);
+        Map<Long, CatalogSnapshot.Row> rows = new HashMap<>();
+        List<Long> misses = new ArrayList<>();
+        for (Long id : ids) {
+            Optional<CatalogSnapshot.Row> row = snapshotStore.find(id);
+            if (row.isPresent()) {
+                rows.put(id, row.get());
+            } else {
+                misses.add(id);
+            }
+        }
+        snapshotStore.loadRows(misses).forEach(row -> rows.put(row.productId(), row));
+
+        List<ProductAvailabilityResponse> result = new ArrayList<>(rows.size());
+        for (Long id : ids) {
+            CatalogSnapshot.Row row = rows.get(id);
+            if (row != null) {
+                result.add(ProductAvailabilityResponse.builder()
+                        .productId(row.productId())
+                        .version(row.version())
+                        .price(row.price())
+                        .status(row.status() == null ? null : row.status().name())
+                        .inStock(Boolean.TRUE.equals(row.inStock()))
+                        .build());
+            }
+        }
+        return result;
+    }
+}
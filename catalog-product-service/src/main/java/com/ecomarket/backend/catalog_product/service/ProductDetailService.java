@@ -0,0 +1,168 @@
+package com.ecomarket.backend.catalog_product.service;
+
+import com.ecomarket.backend.catalog_product.DTO.ProductDetailResponse;
+import com.ecomarket.backend.catalog_product.DTO.ProductResponse;
+import com.ecomarket.backend.catalog_product.DTO.ReviewResponse;
+import com.ecomarket.backend.catalog_product.DTO.StockSummaryResponse;
+import com.ecomarket.backend.catalog_product.assembler.ReviewAssembler;
+import com.ecomarket.backend.catalog_product.exception.BusinessLogicException;
+import com.ecomarket.backend.catalog_product.exception.ResourceNotFoundException;
+import com.ecomarket.backend.catalog_product.exception.ServiceUnavailableException;
+import com.ecomarket.backend.catalog_product.model.Inventory;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Arma la ficha de la página de producto en una sola petición: producto (con su valoración),
+ * stock y primera página de reseñas se leen en paralelo, cada parte en su propia transacción
+ * de solo lectura.
+ * <p>
+ * El hilo de la petición no toca la base de datos, sólo espera: así no retiene una conexión
+ * (open-in-view) mientras las lecturas en paralelo piden las suyas. El producto es obligatorio:
+ * si no existe responde 404, y si falla o no llega antes de {@code timeout}, 503 o 504. Si stock o
+ * reseñas fallan o no llegan a tiempo, la ficha sale sin esa sección y la marca en {@code unavailable}.
+ */
+@Slf4j
+@Service
+public class ProductDetailService {
+
+    public enum Section {
+        AVAILABILITY, REVIEWS
+    }
+
+    private record ReviewSlice(List<ReviewResponse> reviews, Long nextBeforeId) {
+    }
+
+    private final ProductService productService;
+    private final InventoryService inventoryService;
+    private final ReviewService reviewService;
+    private final ReviewAssembler reviewAssembler;
+    private final TransactionTemplate readOnlyTx;
+    private final ExecutorService executor;
+    private final Duration timeout;
+
+    public ProductDetailService(ProductService productService,
+                                InventoryService inventoryService,
+                                ReviewService reviewService,
+                                ReviewAssembler reviewAssembler,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${catalog.detail.threads:16}") int threads,
+                                @Value("${catalog.detail.timeout:2s}") Duration timeout) {
+        this.productService = productService;
+        this.inventoryService = inventoryService;
+        this.reviewService = reviewService;
+        this.reviewAssembler = reviewAssembler;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.executor = Executors.newFixedThreadPool(threads, new CustomizableThreadFactory("product-detail-"));
+        this.timeout = timeout;
+    }
+
+    public ProductDetailResponse getDetail(Long productId, Set<Section> sections, int reviewsSize) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        CompletableFuture<ProductResponse> product = read(() -> productService.getProductResponse(productId));
+        CompletableFuture<StockSummaryResponse> availability = sections.contains(Section.AVAILABILITY)
+                ? read(() -> stockSummary(productId)) : null;
+        CompletableFuture<ReviewSlice> reviews = sections.contains(Section.REVIEWS)
+                ? read(() -> firstReviews(productId, reviewsSize)) : null;
+
+        ProductDetailResponse.ProductDetailResponseBuilder response;
+        try {
+            response = ProductDetailResponse.builder().product(await(product, deadline));
+        } catch (RuntimeException ex) {
+            cancel(availability);
+            cancel(reviews);
+            throw ex;
+        }
+
+        List<String> unavailable = new ArrayList<>();
+        if (availability != null) {
+            response.availability(awaitOptional(availability, deadline, "availability", productId, unavailable));
+        }
+        if (reviews != null) {
+            ReviewSlice slice = awaitOptional(reviews, deadline, "reviews", productId, unavailable);
+            if (slice != null) {
+                response.reviews(slice.reviews()).nextReviewsBeforeId(slice.nextBeforeId());
+            }
+        }
+        return response.unavailable(unavailable.isEmpty() ? null : unavailable).build();
+    }
+
+    private StockSummaryResponse stockSummary(Long productId) {
+        try {
+            Inventory inventory = inventoryService.getInventory(productId);
+            int available = inventory.getAvailableQuantity() == null ? 0 : inventory.getAvailableQuantity();
+            return StockSummaryResponse.builder().inStock(available > 0).availableQuantity(available).build();
+        } catch (ResourceNotFoundException ex) {
+            // Producto sin fila de inventario: no hay unidades
+            return StockSummaryResponse.builder().inStock(false).availableQuantity(0).build();
+        }
+    }
+
+    private ReviewSlice firstReviews(Long productId, int size) {
+        ReviewPage page = reviewService.getReviews(productId, null, size);
+        return new ReviewSlice(page.getReviews().stream().map(reviewAssembler::toResponse).toList(),
+                page.getNextBeforeId());
+    }
+
+    private <T> CompletableFuture<T> read(Supplier<T> reader) {
+        return CompletableFuture.supplyAsync(() -> readOnlyTx.execute(status -> reader.get()), executor);
+    }
+
+    private <T> T await(CompletableFuture<T> future, long deadline) {
+        try {
+            return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException ex) {
+            // Los errores del cliente se relanzan tal cual para conservar su estado (404 si el producto no existe)
+            if (ex.getCause() instanceof ResourceNotFoundException || ex.getCause() instanceof BusinessLogicException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            throw new ServiceUnavailableException("Product detail read failed", false, ex.getCause());
+        } catch (TimeoutException ex) {
+            future.cancel(false);
+            throw new ServiceUnavailableException("Product detail read timed out", true, ex);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Product detail read interrupted", false, ex);
+        }
+    }
+
+    private <T> T awaitOptional(CompletableFuture<T> future, long deadline, String section, Long productId,
+                                List<String> unavailable) {
+        try {
+            return await(future, deadline);
+        } catch (RuntimeException ex) {
+            log.warn("Ficha del producto {} sin la sección {}: {}", productId, section, ex.getMessage());
+            unavailable.add(section);
+            return null;
+        }
+    }
+
+    private static void cancel(CompletableFuture<?> future) {
+        if (future != null) {
+            future.cancel(false);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        executor.shutdown();
+    }
+}
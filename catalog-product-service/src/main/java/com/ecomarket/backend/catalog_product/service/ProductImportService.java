@@ -0,0 +1,396 @@
+package com.ecomarket.backend.catalog_product.service;
+
+import com.ecomarket.backend.catalog_product.DTO.ProductImportError;
+import com.ecomarket.backend.catalog_product.DTO.ProductImportResponse;
+import com.ecomarket.backend.catalog_product.DTO.ProductImportRow;
+import com.ecomarket.backend.catalog_product.availability.AvailabilityBitmap;
+import com.ecomarket.backend.catalog_product.changefeed.CatalogChangeLog;
+import com.ecomarket.backend.catalog_product.model.Brand;
+import com.ecomarket.backend.catalog_product.model.CatalogChange;
+import com.ecomarket.backend.catalog_product.model.Category;
+import com.ecomarket.backend.catalog_product.model.Product;
+import com.ecomarket.backend.catalog_product.repository.BrandRepository;
+import com.ecomarket.backend.catalog_product.repository.CategoryRepository;
+import com.ecomarket.backend.catalog_product.repository.ProductRepository;
+import com.ecomarket.backend.catalog_product.search.ProductSearchIndex;
+import com.ecomarket.backend.catalog_product.search.ProductSuggestIndex;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Importación masiva de productos desde CSV o NDJSON.
+ * <p>
+ * El cuerpo se lee línea a línea y se escribe por bloques de {@code chunk-size} filas: cada bloque
+ * inserta productos e inventarios con dos batches JDBC en su propia transacción, junto con una
+ * entrada PRODUCT_CREATED por producto en el registro de cambios, así la memoria no depende del
+ * tamaño del fichero y el resto de nodos se entera del alta. Si la base de datos rechaza el bloque, se reintenta fila a fila
+ * para rechazar sólo las filas culpables. Categorías y marcas se resuelven contra mapas cargados
+ * al empezar.
+ */
+@Slf4j
+@Service
+public class ProductImportService {
+
+    public enum Format {
+        CSV, NDJSON
+    }
+
+    private static final String INSERT_PRODUCT = "INSERT INTO products " +
+            "(name, description, price, sku, category_id, brand_id, weight, dimensions, status, creation_date, last_update, version) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)";
+
+    // Sin claves generadas: el inventario localiza su producto por SKU, que es único
+    private static final String INSERT_INVENTORY = "INSERT INTO inventories " +
+            "(product_id, available_quantity, leased_quantity, location, last_update) " +
+            "SELECT p.id, ?, 0, NULL, ? FROM products p WHERE p.sku = ?";
+
+    private record PendingRow(long line, ProductImportRow row, long categoryId, long brandId) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CategoryRepository categoryRepo;
+    private final BrandRepository brandRepo;
+    private final ProductRepository productRepo;
+    private final ProductSearchIndex searchIndex;
+    private final ProductSuggestIndex suggestIndex;
+    private final AvailabilityBitmap availabilityBitmap;
+    private final CatalogChangeLog changeLog;
+    private final ObjectReader rowReader;
+    private final Validator validator;
+    private final int chunkSize;
+    private final int maxReportedErrors;
+
+    public ProductImportService(JdbcTemplate jdbcTemplate,
+                                TransactionTemplate transactionTemplate,
+                                CategoryRepository categoryRepo,
+                                BrandRepository brandRepo,
+                                ProductRepository productRepo,
+                                ProductSearchIndex searchIndex,
+                                ProductSuggestIndex suggestIndex,
+                                AvailabilityBitmap availabilityBitmap,
+                                CatalogChangeLog changeLog,
+                                ObjectMapper objectMapper,
+                                Validator validator,
+                                @Value("${catalog.import.chunk-size:1000}") int chunkSize,
+                                @Value("${catalog.import.max-reported-errors:1000}") int maxReportedErrors) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.categoryRepo = categoryRepo;
+        this.brandRepo = brandRepo;
+        this.productRepo = productRepo;
+        this.searchIndex = searchIndex;
+        this.suggestIndex = suggestIndex;
+        this.availabilityBitmap = availabilityBitmap;
+        this.changeLog = changeLog;
+        this.rowReader = objectMapper.readerFor(ProductImportRow.class);
+        this.validator = validator;
+        this.chunkSize = chunkSize;
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    /**
+     * Estado de una importación en curso.
+     */
+    private final class ImportRun {
+        private final Set<Long> categoryIds = new HashSet<>();
+        private final Map<String, Long> categoryIdsByName = new HashMap<>();
+        private final Set<Long> brandIds = new HashSet<>();
+        private final Map<String, Long> brandIdsByName = new HashMap<>();
+        private final List<ProductImportError> errors = new ArrayList<>();
+        private long processed;
+        private long imported;
+        private long failed;
+
+        private ImportRun() {
+            for (Category category : categoryRepo.findAll()) {
+                categoryIds.add(category.getId());
+                categoryIdsByName.put(category.getName().trim().toLowerCase(), category.getId());
+            }
+            for (Brand brand : brandRepo.findAll()) {
+                brandIds.add(brand.getId());
+                brandIdsByName.put(brand.getName().trim().toLowerCase(), brand.getId());
+            }
+        }
+
+        private void reject(long line, String sku, String message) {
+            failed++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new ProductImportError(line, sku, message));
+            }
+        }
+    }
+
+    public ProductImportResponse importProducts(InputStream body, Format format) {
+        long start = System.nanoTime();
+        ImportRun run = new ImportRun();
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            List<String> header = null;
+            List<PendingRow> chunk = new ArrayList<>(chunkSize);
+            Set<String> chunkSkus = new HashSet<>();
+            long lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (format == Format.CSV && header == null) {
+                    header = parseCsvLine(line).stream()
+                            .map(column -> column.trim().toLowerCase().replace("_", "").replace(" ", ""))
+                            .toList();
+                    continue;
+                }
+
+                run.processed++;
+                ProductImportRow row = null;
+                try {
+                    row = format == Format.CSV ? fromCsv(header, parseCsvLine(line)) : rowReader.readValue(line);
+                    PendingRow pending = resolve(lineNumber, row, run);
+                    if (!chunkSkus.add(pending.row().getSku())) {
+                        throw new IllegalArgumentException("Duplicate SKU in import");
+                    }
+                    chunk.add(pending);
+                } catch (JsonProcessingException ex) {
+                    run.reject(lineNumber, null, "Malformed JSON: " + ex.getOriginalMessage());
+                } catch (IllegalArgumentException ex) {
+                    run.reject(lineNumber, row == null ? null : row.getSku(), ex.getMessage());
+                }
+
+                if (chunk.size() >= chunkSize) {
+                    writeChunk(chunk, run);
+                    chunk.clear();
+                    chunkSkus.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                writeChunk(chunk, run);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to read import body", ex);
+        }
+
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        log.info("Importación de productos: {} filas, {} importadas, {} con error en {} ms",
+                run.processed, run.imported, run.failed, elapsedMillis);
+        return ProductImportResponse.builder()
+                .processed(run.processed)
+                .imported(run.imported)
+                .failed(run.failed)
+                .errors(run.errors)
+                .errorsTruncated(run.failed > run.errors.size())
+                .elapsedMillis(elapsedMillis)
+                .build();
+    }
+
+    private PendingRow resolve(long line, ProductImportRow row, ImportRun run) {
+        Set<ConstraintViolation<ProductImportRow>> violations = validator.validate(row);
+        if (!violations.isEmpty()) {
+            throw new IllegalArgumentException(violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+        }
+        Long categoryId = resolveReference(row.getCategoryId(), row.getCategory(), run.categoryIds, run.categoryIdsByName);
+        if (categoryId == null) {
+            throw new IllegalArgumentException("Category not found");
+        }
+        Long brandId = resolveReference(row.getBrandId(), row.getBrand(), run.brandIds, run.brandIdsByName);
+        if (brandId == null) {
+            throw new IllegalArgumentException("Brand not found");
+        }
+        return new PendingRow(line, row, categoryId, brandId);
+    }
+
+    private Long resolveReference(Long id, String name, Set<Long> ids, Map<String, Long> idsByName) {
+        if (id != null) {
+            return ids.contains(id) ? id : null;
+        }
+        return name == null ? null : idsByName.get(name.trim().toLowerCase());
+    }
+
+    private void writeChunk(List<PendingRow> chunk, ImportRun run) {
+        List<String> skus = chunk.stream().map(pending -> pending.row().getSku()).toList();
+        String placeholders = String.join(",", Collections.nCopies(skus.size(), "?"));
+        Set<String> existing = new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT sku FROM products WHERE sku IN (" + placeholders + ")", String.class, skus.toArray()));
+
+        List<PendingRow> fresh = new ArrayList<>(chunk.size());
+        for (PendingRow pending : chunk) {
+            if (existing.contains(pending.row().getSku())) {
+                run.reject(pending.line(), pending.row().getSku(), "SKU already exists");
+            } else {
+                fresh.add(pending);
+            }
+        }
+        if (fresh.isEmpty()) {
+            return;
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<PendingRow> written = fresh;
+        try {
+            insert(fresh, now);
+        } catch (DataAccessException ex) {
+            // Una fila mala anula todo el batch: se reintenta fila a fila para salvar el resto
+            log.warn("Bloque de importación rechazado ({} filas), se reintenta fila a fila: {}",
+                    fresh.size(), ex.getMostSpecificCause().getMessage());
+            written = new ArrayList<>(fresh.size());
+            for (PendingRow pending : fresh) {
+                try {
+                    insert(List.of(pending), now);
+                    written.add(pending);
+                } catch (DataAccessException rowEx) {
+                    run.reject(pending.line(), pending.row().getSku(), "Rejected by database: "
+                            + rowEx.getMostSpecificCause().getMessage());
+                }
+            }
+            if (written.isEmpty()) {
+                return;
+            }
+        }
+        run.imported += written.size();
+
+        // Los índices en memoria se actualizan con lo ya confirmado
+        for (Product product : productRepo.findBySkuIn(written.stream().map(pending -> pending.row().getSku()).toList())) {
+            searchIndex.index(product);
+            suggestIndex.index(product);
+            availabilityBitmap.set(product.getId(), product.getStatus() == Product.ProductStatus.ACTIVE);
+        }
+    }
+
+    private void insert(List<PendingRow> rows, Timestamp now) {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(INSERT_PRODUCT, rows, rows.size(), (ps, pending) -> {
+                ProductImportRow row = pending.row();
+                ps.setString(1, row.getName());
+                ps.setString(2, row.getDescription());
+                ps.setBigDecimal(3, row.getPrice());
+                ps.setString(4, row.getSku());
+                ps.setLong(5, pending.categoryId());
+                ps.setLong(6, pending.brandId());
+                ps.setObject(7, row.getWeight(), Types.NUMERIC);
+                ps.setString(8, row.getDimensions());
+                ps.setString(9, status(row).name());
+                ps.setTimestamp(10, now);
+                ps.setTimestamp(11, now);
+            });
+            jdbcTemplate.batchUpdate(INSERT_INVENTORY, rows, rows.size(), (ps, pending) -> {
+                ps.setInt(1, pending.row().getStock() == null ? 0 : pending.row().getStock());
+                ps.setTimestamp(2, now);
+                ps.setString(3, pending.row().getSku());
+            });
+            // En la misma transacción: si el bloque se revierte, tampoco quedan sus entradas
+            changeLog.recordProductsBySku(CatalogChange.Type.PRODUCT_CREATED,
+                    rows.stream().map(pending -> pending.row().getSku()).toList());
+        });
+    }
+
+    // Sin stock el producto entra ya agotado
+    private static Product.ProductStatus status(ProductImportRow row) {
+        return row.getStock() != null && row.getStock() > 0 ? Product.ProductStatus.ACTIVE : Product.ProductStatus.SOLD_OUT;
+    }
+
+    private ProductImportRow fromCsv(List<String> header, List<String> values) {
+        ProductImportRow row = new ProductImportRow();
+        for (int i = 0; i < header.size() && i < values.size(); i++) {
+            String value = values.get(i).trim();
+            if (value.isEmpty()) {
+                continue;
+            }
+            switch (header.get(i)) {
+                case "name" -> row.setName(value);
+                case "description" -> row.setDescription(value);
+                case "price" -> row.setPrice(decimal("price", value));
+                case "sku" -> row.setSku(value);
+                case "categoryid" -> row.setCategoryId(integer("categoryId", value));
+                case "category" -> row.setCategory(value);
+                case "brandid" -> row.setBrandId(integer("brandId", value));
+                case "brand" -> row.setBrand(value);
+                case "weight" -> row.setWeight(decimal("weight", value));
+                case "dimensions" -> row.setDimensions(value);
+                case "stock" -> row.setStock((int) Math.min(integer("stock", value), Integer.MAX_VALUE));
+                default -> {
+                    // Columnas desconocidas se ignoran
+                }
+            }
+        }
+        return row;
+    }
+
+    private static BigDecimal decimal(String column, String value) {
+        try {
+            return new BigDecimal(value);
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Invalid number in column " + column + ": " + value);
+        }
+    }
+
+    private static long integer(String column, String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Invalid integer in column " + column + ": " + value);
+        }
+    }
+
+    /**
+     * CSV de una línea por registro: separador coma, campos entre comillas dobles y "" como comilla escapada.
+     */
+    static List<String> parseCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        values.add(current.toString());
+        return values;
+    }
+}
@@ -1,26 +1,100 @@
 package com.ecomarket.backend.catalog_product.service;
 
+import com.ecomarket.backend.catalog_product.DTO.ProductCacheStatsResponse;
 import com.ecomarket.backend.catalog_product.DTO.ProductImageRequest;
 import com.ecomarket.backend.catalog_product.DTO.ProductRequest;
+import com.ecomarket.backend.catalog_product.DTO.ProductResponse;
+import com.ecomarket.backend.catalog_product.DTO.ProductSearchRequest;
+import com.ecomarket.backend.catalog_product.DTO.ProductSuggestionResponse;
+import com.ecomarket.backend.catalog_product.DTO.ProductSummaryPageResponse;
+import com.ecomarket.backend.catalog_product.DTO.ProductSummaryRequest;
+import com.ecomarket.backend.catalog_product.DTO.ProductSummaryResponse;
+import com.ecomarket.backend.catalog_product.DTO.SearchIndexStatsResponse;
+import com.ecomarket.backend.catalog_product.assembler.ProductAssembler;
+import com.ecomarket.backend.catalog_product.availability.AvailabilityBitmap;
+import com.ecomarket.backend.catalog_product.availability.StockStatusEvaluator;
+import com.ecomarket.backend.catalog_product.cache.ProductInvalidationFeed;
+import com.ecomarket.backend.catalog_product.cache.ProductResponseCache;
 import com.ecomarket.backend.catalog_product.exception.ResourceNotFoundException;
 import com.ecomarket.backend.catalog_product.model.*;
 import com.ecomarket.backend.catalog_product.repository.*;
-import lombok.RequiredArgsConstructor;
+import com.ecomarket.backend.catalog_product.search.ProductPopularityTracker;
+import com.ecomarket.backend.catalog_product.search.ProductSearchHits;
+import com.ecomarket.backend.catalog_product.search.ProductSearchIndex;
+import com.ecomarket.backend.catalog_product.search.ProductSearchResult;
+import com.ecomarket.backend.catalog_product.search.ProductSuggestIndex;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
-@RequiredArgsConstructor
 public class ProductService {
 
+    private static final int ID_BATCH_SIZE = 1000;
+
     private final ProductRepository productRepo;
     private final CategoryRepository categoryRepo;
     private final BrandRepository brandRepo;
     private final ProductImageRepository imageRepo;
     private final InventoryRepository inventoryRepo;
+    private final ProductSearchIndex searchIndex;
+    private final ProductSuggestIndex suggestIndex;
+    private final ProductPopularityTracker popularityTracker;
+    private final ProductAssembler productAssembler;
+    private final ProductResponseCache responseCache;
+    private final ProductInvalidationFeed invalidationFeed;
+    private final StockStatusEvaluator stockStatusEvaluator;
+    private final AvailabilityBitmap availabilityBitmap;
+
+    public ProductService(ProductRepository productRepo,
+                          CategoryRepository categoryRepo,
+                          BrandRepository brandRepo,
+                          ProductImageRepository imageRepo,
+                          InventoryRepository inventoryRepo,
+                          ProductSearchIndex searchIndex,
+                          ProductSuggestIndex suggestIndex,
+                          ProductPopularityTracker popularityTracker,
+                          ProductAssembler productAssembler,
+                          ProductResponseCache responseCache,
+                          ProductInvalidationFeed invalidationFeed,
+                          StockStatusEvaluator stockStatusEvaluator,
+                          AvailabilityBitmap availabilityBitmap) {
+        this.productRepo = productRepo;
+        this.categoryRepo = categoryRepo;
+        this.brandRepo = brandRepo;
+        this.imageRepo = imageRepo;
+        this.inventoryRepo = inventoryRepo;
+        this.searchIndex = searchIndex;
+        this.suggestIndex = suggestIndex;
+        this.popularityTracker = popularityTracker;
+        this.productAssembler = productAssembler;
+        this.responseCache = responseCache;
+        this.invalidationFeed = invalidationFeed;
+        this.stockStatusEvaluator = stockStatusEvaluator;
+        this.availabilityBitmap = availabilityBitmap;
+    }
 
+    /**
+     * Crea el producto ACTIVE, como siempre, y su inventario vacío. Con el inventario ya creado,
+     * {@link StockStatusEvaluator} lo pasa a SOLD_OUT en la misma transacción, así que el producto
+     * devuelto (y lo que ven los demás) queda agotado hasta la primera entrada de stock. En el
+     * registro de cambios quedan PRODUCT_CREATED con ACTIVE y luego PRODUCT_UPDATED con SOLD_OUT.
+     */
+    @Transactional
     public Product createProduct(ProductRequest request) {
 
         Category category = categoryRepo.findById(request.getCategoryId())
@@ -38,6 +112,7 @@ public class ProductService {
                 .brand(brand)
                 .weight(request.getWeight())
                 .dimensions(request.getDimensions())
+                .lowStockThreshold(request.getLowStockThreshold())
                 .status(Product.ProductStatus.ACTIVE)
                 .creationDate(LocalDateTime.now())
                 .lastUpdate(LocalDateTime.now())
@@ -48,15 +123,20 @@ public class ProductService {
         Inventory inventory = Inventory.builder()
                 .product(savedProduct)
                 .availableQuantity(0)
-                .location("Default Location")
                 .lastUpdate(LocalDateTime.now())
                 .build();
 
-        inventoryRepo.save(inventory);
+        Inventory savedInventory = inventoryRepo.save(inventory);
+        invalidationFeed.publish(savedProduct, CatalogChange.Type.PRODUCT_CREATED);
+        searchIndex.index(savedProduct);
+        suggestIndex.index(savedProduct);
+        // Sin unidades: el evaluador lo deja en SOLD_OUT y lo saca del autocompletado
+        stockStatusEvaluator.evaluate(savedInventory);
 
         return savedProduct;
     }
 
+    @Transactional
     public Product updateProduct(Long id, ProductRequest request) {
         Product product = productRepo.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found"));
@@ -75,20 +155,32 @@ public class ProductService {
         product.setBrand(brand);
         product.setWeight(request.getWeight());
         product.setDimensions(request.getDimensions());
+        product.setLowStockThreshold(request.getLowStockThreshold());
         product.setLastUpdate(LocalDateTime.now());
 
-        return productRepo.save(product);
+        // El flush sube la versión antes de registrar el cambio
+        Product savedProduct = productRepo.saveAndFlush(product);
+        invalidationFeed.publish(savedProduct, CatalogChange.Type.PRODUCT_UPDATED);
+        searchIndex.index(savedProduct);
+        suggestIndex.index(savedProduct);
+        return savedProduct;
 
     }
 
+    @Transactional
     public void deleteProduct(Long id) {
         Product product = productRepo.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found"));
 
         product.setStatus(Product.ProductStatus.INACTIVE);
-        productRepo.save(product);
+        Product savedProduct = productRepo.saveAndFlush(product);
+        invalidationFeed.publish(savedProduct, CatalogChange.Type.PRODUCT_DELETED);
+        searchIndex.index(savedProduct);
+        suggestIndex.remove(savedProduct.getId());
+        inventoryRepo.findByProduct_Id(id).ifPresent(stockStatusEvaluator::evaluate);
     }
 
+    @Transactional
     public Product addImage(Long productId, ProductImageRequest request) {
         Product product = productRepo.findById(productId)
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found"));
@@ -99,24 +191,61 @@ public class ProductService {
                 .build();
 
         product.getImages().add(image);
+        // Las imágenes no suben la versión por sí solas; lastUpdate la fuerza
+        product.setLastUpdate(LocalDateTime.now());
         imageRepo.save(image);
-        return productRepo.save(product);
+        Product savedProduct = productRepo.saveAndFlush(product);
+        invalidationFeed.publish(savedProduct, CatalogChange.Type.PRODUCT_UPDATED);
+        return savedProduct;
     }
 
+    @Transactional
     public void removeImage(Long imageId) {
         ProductImage image = imageRepo.findById(imageId)
                 .orElseThrow(() -> new ResourceNotFoundException("Image not found"));
+        Product product = image.getProduct();
+        product.getImages().remove(image);
+        product.setLastUpdate(LocalDateTime.now());
         imageRepo.delete(image);
+        invalidationFeed.publish(productRepo.saveAndFlush(product), CatalogChange.Type.PRODUCT_UPDATED);
     }
 
-    public Product getProduct(Long id) {
-        return productRepo.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Product not found"));
+    /**
+     * Ficha ensamblada, servida desde la caché mientras no cambie la versión del producto.
+     */
+    public ProductResponse getProductResponse(Long id) {
+        ProductResponse response = responseCache.get(id).orElseGet(() -> {
+            Product product = productRepo.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Product not found"));
+            ProductResponse assembled = productAssembler.toResponse(product);
+            responseCache.put(id, product.getVersion() == null ? 0 : product.getVersion(), assembled);
+            return assembled;
+        });
+        popularityTracker.recordView(id);
+        return response;
+    }
+
+    public ProductCacheStatsResponse getCacheStats() {
+        CacheStats stats = responseCache.stats();
+        return ProductCacheStatsResponse.builder()
+                .size(responseCache.size())
+                .maximumSize(responseCache.maximumSize())
+                .hitCount(stats.hitCount())
+                .missCount(stats.missCount())
+                .hitRate(stats.hitRate())
+                .evictionCount(stats.evictionCount())
+                .invalidationsPublished(invalidationFeed.publishedCount())
+                .invalidationsApplied(invalidationFeed.appliedCount())
+                .lastInvalidationId(invalidationFeed.lastSeenId())
+                .build();
     }
 
+    @Transactional(readOnly = true)
     public List<Product> searchProducts(String name, String sku, Long categoryId, Long brandId) {
         if (name != null) {
-            return productRepo.findByNameContaining(name);
+            return searchIndex.search(name)
+                    .map(this::findAllInOrder)
+                    .orElseGet(() -> productRepo.findByNameContaining(name));
         }
         if (sku != null) {
             return productRepo.findBySku(sku).map(List::of).orElse(List.of());
@@ -129,4 +258,111 @@ public class ProductService {
         }
         return productRepo.findAll();
     }
+
+    @Transactional(readOnly = true)
+    public ProductSearchResult facetedSearch(ProductSearchRequest request) {
+        return searchIndex.search(request)
+                .map(this::loadHits)
+                .orElseGet(() -> searchProductsInDatabase(request));
+    }
+
+    private ProductSearchResult loadHits(ProductSearchHits hits) {
+        Map<Long, Product> productsById = productRepo.findAllById(hits.getProductIds()).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        List<Product> products = hits.getProductIds().stream()
+                .map(productsById::get)
+                .filter(product -> product != null)
+                .toList();
+        return ProductSearchResult.builder()
+                .products(products)
+                .total(hits.getTotal())
+                .facets(hits.getFacets())
+                .build();
+    }
+
+    // Sin índice no hay facetas: sólo filtros y paginación en SQL
+    private ProductSearchResult searchProductsInDatabase(ProductSearchRequest request) {
+        Sort sort = Sort.by("desc".equalsIgnoreCase(request.getDirection()) ? Sort.Direction.DESC : Sort.Direction.ASC,
+                request.getSort().toLowerCase());
+        Page<Product> page = productRepo.findAll(ProductSpecifications.matching(request),
+                PageRequest.of(request.getPage(), request.getSize(), sort));
+        return ProductSearchResult.builder()
+                .products(page.getContent())
+                .total(page.getTotalElements())
+                .facets(Map.of())
+                .build();
+    }
+
+    @Transactional(readOnly = true)
+    public ProductSummaryPageResponse listSummaries(ProductSummaryRequest request) {
+        // Los agotados están en SOLD_OUT: filtrar por stock no necesita unir con inventories.
+        // status e inStock se combinan; si se contradicen (inStock=true con SOLD_OUT) no hay resultados
+        Set<Product.ProductStatus> statuses = request.getStatus() == null
+                ? EnumSet.of(Product.ProductStatus.ACTIVE, Product.ProductStatus.SOLD_OUT)
+                : EnumSet.of(Product.ProductStatus.valueOf(request.getStatus().toUpperCase()));
+        if (request.getInStock() != null) {
+            statuses.retainAll(request.getInStock()
+                    ? EnumSet.of(Product.ProductStatus.ACTIVE)
+                    : EnumSet.complementOf(EnumSet.of(Product.ProductStatus.ACTIVE)));
+        }
+        if (statuses.isEmpty()) {
+            return ProductSummaryPageResponse.builder()
+                    .products(List.of())
+                    .page(request.getPage())
+                    .size(request.getSize())
+                    .totalElements(0)
+                    .totalPages(0)
+                    .build();
+        }
+        Sort sort = Sort.by("desc".equalsIgnoreCase(request.getDirection()) ? Sort.Direction.DESC : Sort.Direction.ASC,
+                request.getSort().toLowerCase());
+        Page<ProductSummaryResponse> page = productRepo.findSummaries(request.getCategoryId(), request.getBrandId(),
+                statuses, PageRequest.of(request.getPage(), request.getSize(), sort));
+        boolean bitmapReady = availabilityBitmap.isReady();
+        page.forEach(summary -> summary.setInStock(bitmapReady
+                ? availabilityBitmap.isSellable(summary.getId())
+                : Product.ProductStatus.ACTIVE.name().equals(summary.getStatus())));
+
+        if (request.getFields() != null) {
+            Set<String> fields = Arrays.stream(request.getFields().split(","))
+                    .map(String::toLowerCase)
+                    .collect(Collectors.toSet());
+            page.forEach(summary -> retainFields(summary, fields));
+        }
+        return ProductSummaryPageResponse.builder()
+                .products(page.getContent())
+                .page(request.getPage())
+                .size(request.getSize())
+                .totalElements(page.getTotalElements())
+                .totalPages(page.getTotalPages())
+                .build();
+    }
+
+    private void retainFields(ProductSummaryResponse summary, Set<String> fields) {
+        if (!fields.contains("name")) summary.setName(null);
+        if (!fields.contains("price")) summary.setPrice(null);
+        if (!fields.contains("sku")) summary.setSku(null);
+        if (!fields.contains("status")) summary.setStatus(null);
+        if (!fields.contains("imageurl")) summary.setImageUrl(null);
+        if (!fields.contains("instock")) summary.setInStock(null);
+    }
+
+    public List<ProductSuggestionResponse> suggestProducts(String prefix, int limit) {
+        return suggestIndex.suggest(prefix, limit);
+    }
+
+    public SearchIndexStatsResponse rebuildSearchIndex() {
+        suggestIndex.rebuild();
+        return searchIndex.rebuild();
+    }
+
+    private List<Product> findAllInOrder(List<Long> ids) {
+        // Por tandas, para no armar un IN con todos los aciertos de una búsqueda amplia
+        List<Product> products = new ArrayList<>(ids.size());
+        for (int from = 0; from < ids.size(); from += ID_BATCH_SIZE) {
+            products.addAll(productRepo.findAllById(ids.subList(from, Math.min(from + ID_BATCH_SIZE, ids.size()))));
+        }
+        products.sort(Comparator.comparing(Product::getId));
+        return products;
+    }
 }
@@ -0,0 +1,18 @@
+package com.ecomarket.backend.catalog_product.service;
+
+import com.ecomarket.backend.catalog_product.model.Review;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Página de reseñas por clave: {@code nextBeforeId} es el cursor de la siguiente página, o null si no hay más.
+ */
+@Data
+@Builder
+public class ReviewPage {
+    private List<Review> reviews;
+    private int size;
+    private Long nextBeforeId;
+}
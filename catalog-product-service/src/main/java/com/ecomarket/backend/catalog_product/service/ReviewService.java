@@ -1,24 +1,41 @@
 package com.ecomarket.backend.catalog_product.service;
 
+import com.ecomarket.backend.catalog_product.DTO.RatingRepairResponse;
 import com.ecomarket.backend.catalog_product.DTO.ReviewRequest;
+import com.ecomarket.backend.catalog_product.cache.ProductInvalidationFeed;
+import com.ecomarket.backend.catalog_product.cache.ProductResponseCache;
 import com.ecomarket.backend.catalog_product.exception.ResourceNotFoundException;
+import com.ecomarket.backend.catalog_product.model.CatalogChange;
 import com.ecomarket.backend.catalog_product.model.Product;
+import com.ecomarket.backend.catalog_product.model.ProductRatingSummary;
 import com.ecomarket.backend.catalog_product.model.Review;
+import com.ecomarket.backend.catalog_product.repository.ProductRatingSummaryRepository;
 import com.ecomarket.backend.catalog_product.repository.ProductRepository;
 import com.ecomarket.backend.catalog_product.repository.ReviewRepository;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class ReviewService {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final ReviewRepository reviewRepo;
     private final ProductRepository productRepo;
+    private final ProductRatingSummaryRepository ratingRepo;
+    private final ProductInvalidationFeed invalidationFeed;
+    private final ProductResponseCache responseCache;
 
+    @Transactional
     public Review createReview(ReviewRequest request) {
         Product product = productRepo.findById(request.getProductId())
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found"));
@@ -31,10 +48,74 @@ public class ReviewService {
                 .reviewDate(LocalDateTime.now())
                 .build();
 
-        return reviewRepo.save(review);
+        Review savedReview = reviewRepo.save(review);
+        addRating(product.getId(), request.getRating());
+        invalidationFeed.publish(product, CatalogChange.Type.PRODUCT_UPDATED);
+        return savedReview;
+    }
+
+    private void addRating(Long productId, int rating) {
+        if (ratingRepo.addRating(productId, rating, LocalDateTime.now()) > 0) {
+            return;
+        }
+        // Primera reseña del producto: la fila se crea bajo el bloqueo del producto para
+        // que dos primeras reseñas simultáneas no intenten insertarla las dos
+        productRepo.findByIdForUpdate(productId)
+                .orElseThrow(() -> new ResourceNotFoundException("Product not found"));
+        if (ratingRepo.addRating(productId, rating, LocalDateTime.now()) == 0) {
+            // addRating limpia el contexto de persistencia: se vuelve a tomar la referencia
+            ratingRepo.saveAndFlush(ProductRatingSummary.empty(productRepo.getReferenceById(productId)));
+            ratingRepo.addRating(productId, rating, LocalDateTime.now());
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public ReviewPage getReviews(Long productId, Long beforeId, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        // Se pide una de más para saber si hay página siguiente sin contar
+        Limit limit = Limit.of(pageSize + 1);
+        List<Review> reviews = beforeId == null
+                ? reviewRepo.findByProduct_IdOrderByIdDesc(productId, limit)
+                : reviewRepo.findByProduct_IdAndIdLessThanOrderByIdDesc(productId, beforeId, limit);
+
+        boolean hasNext = reviews.size() > pageSize;
+        List<Review> page = hasNext ? reviews.subList(0, pageSize) : reviews;
+        return ReviewPage.builder()
+                .reviews(page)
+                .size(pageSize)
+                .nextBeforeId(hasNext ? page.get(page.size() - 1).getId() : null)
+                .build();
+    }
+
+    @Transactional(readOnly = true)
+    public ProductRatingSummary getRatingSummary(Long productId) {
+        if (!productRepo.existsById(productId)) {
+            throw new ResourceNotFoundException("Product not found");
+        }
+        return ratingRepo.findById(productId).orElseGet(() -> ProductRatingSummary.empty(null));
     }
 
-    public List<Review> getReviews(Long productId) {
-        return reviewRepo.findByProduct_Id(productId);
+    /**
+     * Recalcula todos los agregados desde la tabla reviews. Sólo limpia la caché de fichas de
+     * este nodo; en el resto los agregados corregidos aparecen al expirar sus entradas.
+     */
+    @Transactional
+    @Scheduled(cron = "${catalog.ratings.repair-cron:-}")
+    public RatingRepairResponse repairRatingSummaries() {
+        long start = System.nanoTime();
+        List<Long> missing = ratingRepo.findProductIdsWithoutSummary();
+        ratingRepo.saveAllAndFlush(missing.stream()
+                .map(productId -> ProductRatingSummary.empty(productRepo.getReferenceById(productId)))
+                .toList());
+        int recomputed = ratingRepo.recomputeAll(LocalDateTime.now());
+        responseCache.invalidateAll();
+
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        log.info("Valoraciones recalculadas: {} productos ({} nuevos) en {} ms", recomputed, missing.size(), elapsedMillis);
+        return RatingRepairResponse.builder()
+                .created(missing.size())
+                .recomputed(recomputed)
+                .elapsedMillis(elapsedMillis)
+                .build();
     }
 }
@@ -0,0 +1,145 @@
+package com.ecomarket.backend.catalog_product.service;
+
+import com.ecomarket.backend.catalog_product.availability.StockStatusEvaluator;
+import com.ecomarket.backend.catalog_product.changefeed.CatalogChangeLog;
+import com.ecomarket.backend.catalog_product.exception.BusinessLogicException;
+import com.ecomarket.backend.catalog_product.exception.ResourceNotFoundException;
+import com.ecomarket.backend.catalog_product.model.Inventory;
+import com.ecomarket.backend.catalog_product.model.StockLease;
+import com.ecomarket.backend.catalog_product.repository.InventoryRepository;
+import com.ecomarket.backend.catalog_product.repository.StockLeaseRepository;
+import com.ecomarket.backend.catalog_product.sales.SalesTrends;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Libro de leases de stock. Toda operación bloquea la fila de inventario, de modo que
+ * las unidades cedidas siempre salen de availableQuantity y nunca pueden superarla.
+ * <ul>
+ *   <li>Otorgar: available -= n, leased += n.</li>
+ *   <li>Devolver: available += no usadas, leased -= otorgadas (las usadas quedan consumidas).</li>
+ *   <li>Expirar: un lease no devuelto a tiempo se da por consumido por completo; se prefiere
+ *   perder venta a vender de más.</li>
+ * </ul>
+ * Las reservas que cart-order atiende desde un lease no pasan por aquí una a una: las unidades
+ * usadas de un lease devuelto cuentan para las tendencias al devolverlo, con un retraso de a lo
+ * sumo el TTL. Los expirados no cuentan: no se sabe cuántas unidades llegaron a usarse.
+ */
+@Slf4j
+@Service
+public class StockLeaseService {
+
+    private final InventoryRepository inventoryRepo;
+    private final StockLeaseRepository leaseRepo;
+    private final CatalogChangeLog changeLog;
+    private final StockStatusEvaluator stockStatusEvaluator;
+    private final SalesTrends salesTrends;
+    private final int maxBlockSize;
+    private final Duration ttl;
+    private final Duration grace;
+
+    public StockLeaseService(InventoryRepository inventoryRepo,
+                             StockLeaseRepository leaseRepo,
+                             CatalogChangeLog changeLog,
+                             StockStatusEvaluator stockStatusEvaluator,
+                             SalesTrends salesTrends,
+                             @Value("${inventory.lease.max-block-size:500}") int maxBlockSize,
+                             @Value("${inventory.lease.ttl:5m}") Duration ttl,
+                             @Value("${inventory.lease.grace:1m}") Duration grace) {
+        this.inventoryRepo = inventoryRepo;
+        this.leaseRepo = leaseRepo;
+        this.changeLog = changeLog;
+        this.stockStatusEvaluator = stockStatusEvaluator;
+        this.salesTrends = salesTrends;
+        this.maxBlockSize = maxBlockSize;
+        this.ttl = ttl;
+        this.grace = grace;
+    }
+
+    @Transactional
+    public StockLease grant(Long productId, int requestedQuantity, String holder) {
+        Inventory inventory = inventoryRepo.findByProductIdForUpdate(productId)
+                .orElseThrow(() -> new ResourceNotFoundException("Inventory not found"));
+
+        // Concesión parcial si no alcanza: el nodo reparte lo que haya
+        int granted = Math.min(Math.min(requestedQuantity, maxBlockSize), inventory.getAvailableQuantity());
+        if (granted <= 0) {
+            throw new BusinessLogicException("No stock available to lease for product " + productId);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        inventory.setAvailableQuantity(inventory.getAvailableQuantity() - granted);
+        inventory.setLeasedQuantity(leasedQuantity(inventory) + granted);
+        inventory.setLastUpdate(now);
+        changeLog.recordInventory(inventory);
+        stockStatusEvaluator.evaluate(inventory);
+
+        StockLease lease = StockLease.builder()
+                .product(inventory.getProduct())
+                .holder(holder)
+                .grantedQuantity(granted)
+                .status(StockLease.LeaseStatus.ACTIVE)
+                .grantedAt(now)
+                .expiresAt(now.plus(ttl))
+                .build();
+        return leaseRepo.save(lease);
+    }
+
+    @Transactional
+    public StockLease returnLease(Long leaseId, int unusedQuantity) {
+        StockLease lease = leaseRepo.findById(leaseId)
+                .orElseThrow(() -> new ResourceNotFoundException("Stock lease not found"));
+        if (lease.getStatus() != StockLease.LeaseStatus.ACTIVE) {
+            throw new BusinessLogicException("Stock lease " + leaseId + " is already " + lease.getStatus());
+        }
+        if (unusedQuantity > lease.getGrantedQuantity()) {
+            throw new BusinessLogicException("Unused quantity exceeds the granted quantity of lease " + leaseId);
+        }
+
+        close(lease, unusedQuantity, StockLease.LeaseStatus.RETURNED);
+        int used = lease.getGrantedQuantity() - unusedQuantity;
+        if (used > 0) {
+            salesTrends.recordReservation(lease.getProduct(), used);
+        }
+        return lease;
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.lease.expiry-check-interval-ms:30000}")
+    @Transactional
+    public void expireLeases() {
+        List<StockLease> expired = leaseRepo.findByStatusAndExpiresAtBefore(
+                StockLease.LeaseStatus.ACTIVE, LocalDateTime.now().minus(grace));
+        for (StockLease lease : expired) {
+            log.warn("Stock lease {} held by {} expired without being returned; {} units treated as consumed",
+                    lease.getId(), lease.getHolder(), lease.getGrantedQuantity());
+            close(lease, 0, StockLease.LeaseStatus.EXPIRED);
+        }
+    }
+
+    private void close(StockLease lease, int unusedQuantity, StockLease.LeaseStatus status) {
+        Inventory inventory = inventoryRepo.findByProductIdForUpdate(lease.getProduct().getId())
+                .orElseThrow(() -> new ResourceNotFoundException("Inventory not found"));
+
+        LocalDateTime now = LocalDateTime.now();
+        inventory.setAvailableQuantity(inventory.getAvailableQuantity() + unusedQuantity);
+        inventory.setLeasedQuantity(Math.max(0, leasedQuantity(inventory) - lease.getGrantedQuantity()));
+        inventory.setLastUpdate(now);
+        changeLog.recordInventory(inventory);
+        stockStatusEvaluator.evaluate(inventory);
+
+        lease.setReturnedQuantity(unusedQuantity);
+        lease.setStatus(status);
+        lease.setClosedAt(now);
+    }
+
+    private static int leasedQuantity(Inventory inventory) {
+        return inventory.getLeasedQuantity() == null ? 0 : inventory.getLeasedQuantity();
+    }
+}
@@ -0,0 +1,255 @@
+package com.ecomarket.backend.catalog_product.service;
+
+import com.ecomarket.backend.catalog_product.DTO.AllocationLineRequest;
+import com.ecomarket.backend.catalog_product.DTO.AllocationLineResponse;
+import com.ecomarket.backend.catalog_product.DTO.AllocationRequest;
+import com.ecomarket.backend.catalog_product.DTO.AllocationResponse;
+import com.ecomarket.backend.catalog_product.DTO.AllocationShipmentResponse;
+import com.ecomarket.backend.catalog_product.DTO.CommuneRequest;
+import com.ecomarket.backend.catalog_product.DTO.WarehouseRequest;
+import com.ecomarket.backend.catalog_product.DTO.WarehouseStockRequest;
+import com.ecomarket.backend.catalog_product.allocation.AllocationEngine;
+import com.ecomarket.backend.catalog_product.allocation.StockIndex;
+import com.ecomarket.backend.catalog_product.availability.StockStatusEvaluator;
+import com.ecomarket.backend.catalog_product.changefeed.CatalogChangeLog;
+import com.ecomarket.backend.catalog_product.exception.BusinessLogicException;
+import com.ecomarket.backend.catalog_product.exception.ResourceNotFoundException;
+import com.ecomarket.backend.catalog_product.model.Commune;
+import com.ecomarket.backend.catalog_product.model.Inventory;
+import com.ecomarket.backend.catalog_product.model.Warehouse;
+import com.ecomarket.backend.catalog_product.model.WarehouseStock;
+import com.ecomarket.backend.catalog_product.repository.CommuneRepository;
+import com.ecomarket.backend.catalog_product.repository.InventoryRepository;
+import com.ecomarket.backend.catalog_product.repository.WarehouseRepository;
+import com.ecomarket.backend.catalog_product.repository.WarehouseStockRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Slf4j
+@Service
+public class WarehouseService {
+
+    private static final String CONSUME_STOCK = "UPDATE warehouse_stock SET quantity = quantity - ?, last_update = ? " +
+            "WHERE warehouse_id = ? AND product_id = ? AND quantity >= ?";
+
+    // La asignación leyó un índice atrasado y alguna bodega ya no tenía las unidades
+    private static final class StaleStockException extends RuntimeException {
+    }
+
+    private final WarehouseRepository warehouseRepo;
+    private final WarehouseStockRepository stockRepo;
+    private final CommuneRepository communeRepo;
+    private final InventoryRepository inventoryRepo;
+    private final CatalogChangeLog changeLog;
+    private final StockStatusEvaluator stockStatusEvaluator;
+    private final StockIndex stockIndex;
+    private final AllocationEngine allocationEngine;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxAttempts;
+
+    public WarehouseService(WarehouseRepository warehouseRepo,
+                            WarehouseStockRepository stockRepo,
+                            CommuneRepository communeRepo,
+                            InventoryRepository inventoryRepo,
+                            CatalogChangeLog changeLog,
+                            StockStatusEvaluator stockStatusEvaluator,
+                            StockIndex stockIndex,
+                            AllocationEngine allocationEngine,
+                            JdbcTemplate jdbcTemplate,
+                            TransactionTemplate transactionTemplate,
+                            @Value("${catalog.allocation.max-attempts:3}") int maxAttempts) {
+        this.warehouseRepo = warehouseRepo;
+        this.stockRepo = stockRepo;
+        this.communeRepo = communeRepo;
+        this.inventoryRepo = inventoryRepo;
+        this.changeLog = changeLog;
+        this.stockStatusEvaluator = stockStatusEvaluator;
+        this.stockIndex = stockIndex;
+        this.allocationEngine = allocationEngine;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.maxAttempts = maxAttempts;
+    }
+
+    public Warehouse createWarehouse(WarehouseRequest request) {
+        if (warehouseRepo.existsByCode(request.getCode())) {
+            throw new BusinessLogicException("Warehouse code already exists");
+        }
+        Warehouse saved = warehouseRepo.save(Warehouse.builder()
+                .code(request.getCode())
+                .name(request.getName())
+                .commune(request.getCommune())
+                .latitude(request.getLatitude())
+                .longitude(request.getLongitude())
+                .build());
+        // Cambian los índices de bodega: se reconstruye el índice entero
+        stockIndex.reload();
+        return saved;
+    }
+
+    public List<Warehouse> getActiveWarehouses() {
+        return warehouseRepo.findByActiveTrueOrderByIdAsc();
+    }
+
+    @Transactional
+    public Commune saveCommune(String name, CommuneRequest request) {
+        Commune commune = communeRepo.findByNameIgnoreCase(name)
+                .orElseGet(() -> Commune.builder().name(name).build());
+        commune.setLatitude(request.getLatitude());
+        commune.setLongitude(request.getLongitude());
+        return communeRepo.save(commune);
+    }
+
+    /**
+     * Recepción o ajuste en una bodega. Mueve en la misma transacción las unidades de la bodega
+     * y el stock vendible del inventario, que es la suma de lo que aún no se ha asignado.
+     */
+    @Transactional
+    public WarehouseStock adjustStock(String warehouseCode, WarehouseStockRequest request) {
+        Warehouse warehouse = warehouseRepo.findByCode(warehouseCode)
+                .orElseThrow(() -> new ResourceNotFoundException("Warehouse not found"));
+        Inventory inventory = inventoryRepo.findByProductIdForUpdate(request.getProductId())
+                .orElseThrow(() -> new ResourceNotFoundException("Inventory not found"));
+
+        WarehouseStock stock = stockRepo.findByWarehouse_IdAndProduct_Id(warehouse.getId(), request.getProductId())
+                .orElseGet(() -> WarehouseStock.builder()
+                        .warehouse(warehouse)
+                        .product(inventory.getProduct())
+                        .quantity(0)
+                        .build());
+        int quantity = stock.getQuantity() + request.getQuantity();
+        int available = inventory.getAvailableQuantity() + request.getQuantity();
+        if (quantity < 0 || available < 0) {
+            throw new BusinessLogicException("Not enough stock");
+        }
+        LocalDateTime now = LocalDateTime.now();
+        stock.setQuantity(quantity);
+        stock.setLastUpdate(now);
+        inventory.setAvailableQuantity(available);
+        inventory.setLastUpdate(now);
+        WarehouseStock saved = stockRepo.save(stock);
+        Inventory savedInventory = inventoryRepo.save(inventory);
+        changeLog.recordInventory(savedInventory);
+        stockStatusEvaluator.evaluate(savedInventory);
+
+        Long productId = request.getProductId();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                stockIndex.refresh(Set.of(productId));
+            }
+        });
+        return saved;
+    }
+
+    public List<WarehouseStock> getProductStock(Long productId) {
+        return stockRepo.findByProductId(productId);
+    }
+
+    /**
+     * Reparte el pedido entre bodegas con el índice en memoria. Con {@code commit} descuenta las
+     * unidades con actualizaciones condicionadas; si el índice estaba atrasado y alguna falla, se
+     * refrescan los productos del pedido y se vuelve a repartir.
+     */
+    public AllocationResponse allocate(AllocationRequest request) {
+        List<AllocationEngine.Line> lines = mergeLines(request.getLines());
+        List<Long> productIds = lines.stream().map(AllocationEngine.Line::productId).toList();
+
+        for (int attempt = 1; ; attempt++) {
+            StockIndex.View view = stockIndex.view();
+            double[] distances = distancesTo(view, request);
+            AllocationEngine.Plan plan = allocationEngine.plan(view, distances, lines);
+
+            if (!request.isCommit()) {
+                return toResponse(view, distances, plan, false);
+            }
+            if (!plan.unallocated().isEmpty() && !request.isAllowPartial()) {
+                throw new BusinessLogicException("Not enough warehouse stock");
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> consume(view, plan));
+                stockIndex.refresh(productIds);
+                return toResponse(view, distances, plan, true);
+            } catch (StaleStockException ex) {
+                stockIndex.refresh(productIds);
+                if (attempt == maxAttempts) {
+                    throw new BusinessLogicException("Warehouse stock changed concurrently, retry the allocation");
+                }
+                log.debug("Asignación con índice atrasado, reintento {} de {}", attempt + 1, maxAttempts);
+            }
+        }
+    }
+
+    private void consume(StockIndex.View view, AllocationEngine.Plan plan) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> updates = new ArrayList<>();
+        for (AllocationEngine.Shipment shipment : plan.shipments()) {
+            long warehouseId = view.warehouses().ids()[shipment.warehouse()];
+            for (AllocationEngine.Line line : shipment.lines()) {
+                updates.add(new Object[]{line.quantity(), now, warehouseId, line.productId(), line.quantity()});
+            }
+        }
+        for (int updated : jdbcTemplate.batchUpdate(CONSUME_STOCK, updates)) {
+            if (updated == 0) {
+                throw new StaleStockException();
+            }
+        }
+    }
+
+    private double[] distancesTo(StockIndex.View view, AllocationRequest request) {
+        if (request.getLatitude() != null && request.getLongitude() != null) {
+            return view.distancesFrom(request.getLatitude(), request.getLongitude());
+        }
+        Commune commune = communeRepo.findByNameIgnoreCase(request.getCommune())
+                .orElseThrow(() -> new ResourceNotFoundException("Commune not found"));
+        return view.distancesFrom(commune.getName(), commune.getLatitude(), commune.getLongitude());
+    }
+
+    // Varias líneas del mismo producto se asignan como una sola
+    private static List<AllocationEngine.Line> mergeLines(List<AllocationLineRequest> requested) {
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        for (AllocationLineRequest line : requested) {
+            quantities.merge(line.getProductId(), line.getQuantity(), Integer::sum);
+        }
+        return quantities.entrySet().stream()
+                .map(entry -> new AllocationEngine.Line(entry.getKey(), entry.getValue()))
+                .toList();
+    }
+
+    private static AllocationResponse toResponse(StockIndex.View view, double[] distances,
+                                                 AllocationEngine.Plan plan, boolean committed) {
+        List<AllocationShipmentResponse> shipments = plan.shipments().stream()
+                .map(shipment -> AllocationShipmentResponse.builder()
+                        .warehouseCode(view.warehouses().codes()[shipment.warehouse()])
+                        .warehouseCommune(view.warehouses().communes()[shipment.warehouse()])
+                        .distanceKm(Math.round(distances[shipment.warehouse()] * 10) / 10.0)
+                        .lines(shipment.lines().stream()
+                                .map(line -> new AllocationLineResponse(line.productId(), line.quantity()))
+                                .toList())
+                        .build())
+                .toList();
+        return AllocationResponse.builder()
+                .committed(committed)
+                .shipmentCount(shipments.size())
+                .shipments(shipments)
+                .unallocated(plan.unallocated().stream()
+                        .map(line -> new AllocationLineResponse(line.productId(), line.quantity()))
+                        .toList())
+                .build();
+    }
+}
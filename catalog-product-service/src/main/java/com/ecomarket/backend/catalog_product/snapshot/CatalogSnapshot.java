@@ -0,0 +1,218 @@
+package com.ecomarket.backend.catalog_product.snapshot;
+
+import com.ecomarket.backend.catalog_product.model.Product;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Foto binaria de precio, estado y disponibilidad de los productos, leída con mmap.
+ * <p>
+ * Formato: cabecera fija (magic, versión de formato, id del registro de cambios hasta el que
+ * llega la foto, instante de creación y número de filas) seguida de filas de ancho fijo ordenadas
+ * por id de producto. Como las filas tienen ancho fijo, una búsqueda es una búsqueda binaria sobre
+ * el buffer mapeado, sin deserializar nada ni cargar el fichero en el heap: el sistema operativo
+ * pagina lo que se lea.
+ */
+public final class CatalogSnapshot {
+
+    private static final int MAGIC = 0x45435331; // "ECS1"
+    private static final int FORMAT_VERSION = 1;
+    static final int HEADER_BYTES = 4 + 4 + 8 + 8 + 4;
+    // id, versión, precio sin escala, escala, estado, en stock
+    static final int ROW_BYTES = 8 + 8 + 8 + 1 + 1 + 1;
+
+    private static final Product.ProductStatus[] STATUSES = Product.ProductStatus.values();
+
+    /**
+     * Fila de la foto. En las entradas reconstruidas desde el registro de cambios algún campo puede
+     * ser desconocido (null) hasta que llegue el cambio que lo aporta.
+     */
+    public record Row(long productId, Long version, BigDecimal price, Product.ProductStatus status, Boolean inStock) {
+
+        public boolean complete() {
+            return version != null && price != null && status != null && inStock != null;
+        }
+
+        // Los precios con más de 63 bits sin escala no caben en la fila y se leen de base de datos
+        boolean fits() {
+            return complete() && price.unscaledValue().bitLength() < 64 && price.scale() >= 0 && price.scale() <= Byte.MAX_VALUE;
+        }
+    }
+
+    private final MappedByteBuffer rows;
+    private final long changeId;
+    private final Instant createdAt;
+    private final int size;
+
+    private CatalogSnapshot(MappedByteBuffer rows, long changeId, Instant createdAt, int size) {
+        this.rows = rows;
+        this.changeId = changeId;
+        this.createdAt = createdAt;
+        this.size = size;
+    }
+
+    /**
+     * Mapea una foto escrita con {@link Writer}. Falla si el fichero no tiene el formato esperado o está truncado.
+     */
+    public static CatalogSnapshot open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize < HEADER_BYTES) {
+                throw new IOException("Snapshot file is truncated: " + path);
+            }
+            // El mapeo sigue siendo válido después de cerrar el canal
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize);
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != FORMAT_VERSION) {
+                throw new IOException("Unsupported snapshot format: " + path);
+            }
+            long changeId = buffer.getLong(8);
+            Instant createdAt = Instant.ofEpochMilli(buffer.getLong(16));
+            int size = buffer.getInt(24);
+            if (fileSize != HEADER_BYTES + (long) size * ROW_BYTES) {
+                throw new IOException("Snapshot file size does not match its header: " + path);
+            }
+            return new CatalogSnapshot(buffer, changeId, createdAt, size);
+        }
+    }
+
+    public Optional<Row> find(long productId) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long id = rows.getLong(offset(mid));
+            if (id < productId) {
+                low = mid + 1;
+            } else if (id > productId) {
+                high = mid - 1;
+            } else {
+                return Optional.of(row(offset(mid)));
+            }
+        }
+        return Optional.empty();
+    }
+
+    private Row row(int offset) {
+        long unscaled = rows.getLong(offset + 16);
+        int scale = rows.get(offset + 24);
+        return new Row(rows.getLong(offset),
+                rows.getLong(offset + 8),
+                BigDecimal.valueOf(unscaled, scale),
+                STATUSES[rows.get(offset + 25)],
+                rows.get(offset + 26) != 0);
+    }
+
+    private static int offset(int index) {
+        return HEADER_BYTES + index * ROW_BYTES;
+    }
+
+    public long changeId() {
+        return changeId;
+    }
+
+    public Instant createdAt() {
+        return createdAt;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Escribe una foto nueva en un fichero temporal y la mueve a su sitio al cerrar; quien tenga
+     * mapeada la anterior la sigue leyendo sin problemas. Las filas deben llegar ordenadas por id.
+     */
+    public static final class Writer implements AutoCloseable {
+
+        private final Path target;
+        private final Path temp;
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocate(ROW_BYTES * 4096);
+        private final long changeId;
+        private long lastProductId = Long.MIN_VALUE;
+        private int size;
+        private boolean committed;
+
+        public Writer(Path target, long changeId) throws IOException {
+            Path dir = target.toAbsolutePath().getParent();
+            Files.createDirectories(dir);
+            this.target = target;
+            this.temp = Files.createTempFile(dir, target.getFileName().toString(), ".tmp");
+            this.channel = FileChannel.open(temp, StandardOpenOption.WRITE);
+            this.channel.position(HEADER_BYTES);
+            this.changeId = changeId;
+        }
+
+        /**
+         * Añade la fila; devuelve false si no cabe en el formato y se ha omitido.
+         */
+        public boolean append(Row row) throws IOException {
+            if (row.productId() <= lastProductId) {
+                throw new IllegalArgumentException("Snapshot rows must be sorted by product id");
+            }
+            if (!row.fits()) {
+                return false;
+            }
+            if (buffer.remaining() < ROW_BYTES) {
+                flush();
+            }
+            buffer.putLong(row.productId())
+                    .putLong(row.version())
+                    .putLong(row.price().unscaledValue().longValueExact())
+                    .put((byte) row.price().scale())
+                    .put((byte) row.status().ordinal())
+                    .put((byte) (row.inStock() ? 1 : 0));
+            lastProductId = row.productId();
+            size++;
+            return true;
+        }
+
+        public void commit() throws IOException {
+            flush();
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES)
+                    .putInt(MAGIC)
+                    .putInt(FORMAT_VERSION)
+                    .putLong(changeId)
+                    .putLong(System.currentTimeMillis())
+                    .putInt(size)
+                    .flip();
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+            channel.force(true);
+            channel.close();
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            committed = true;
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!committed) {
+                channel.close();
+                Files.deleteIfExists(temp);
+            }
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package com.ecomarket.backend.catalog_product.snapshot;
+
+import com.ecomarket.backend.catalog_product.changefeed.CatalogChangeLog;
+import com.ecomarket.backend.catalog_product.model.CatalogChange;
+import com.ecomarket.backend.catalog_product.model.Product;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sirve precio, estado y disponibilidad desde la última foto local más los cambios posteriores.
+ * <p>
+ * Al arrancar se mapea la foto que dejó el proceso anterior (si no es más antigua que
+ * {@code max-age}, que debe quedar por debajo de la retención del registro de cambios) y se
+ * reproducen las entradas del registro posteriores a ella. Las entradas reproducidas se guardan
+ * en una capa en memoria que manda sobre la foto; cada vez que se escribe una foto nueva se
+ * mapea y se descarta la parte de la capa que ya recoge. Mientras no se haya alcanzado el final
+ * del registro, {@link #find} no responde y las lecturas van a base de datos.
+ */
+@Slf4j
+@Component
+public class CatalogSnapshotStore {
+
+    static final String SELECT_ROWS = "SELECT p.id, p.version, p.price, p.status, " +
+            "COALESCE(i.available_quantity, 0) > 0 AS in_stock " +
+            "FROM products p LEFT JOIN inventories i ON i.product_id = p.id ";
+
+    static final RowMapper<CatalogSnapshot.Row> ROW_MAPPER = (rs, rowNum) -> new CatalogSnapshot.Row(
+            rs.getLong("id"),
+            rs.getLong("version"),
+            rs.getBigDecimal("price"),
+            rs.getString("status") == null ? null : Product.ProductStatus.valueOf(rs.getString("status")),
+            rs.getBoolean("in_stock"));
+
+    private record Overlay(long changeId, CatalogSnapshot.Row row) {
+    }
+
+    private final CatalogChangeLog changeLog;
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final Path path;
+    private final Duration maxAge;
+    private final int batchSize;
+
+    private final Map<Long, Overlay> overlay = new ConcurrentHashMap<>();
+    private volatile CatalogSnapshot snapshot;
+    private volatile boolean caughtUp;
+    private long cursor;
+
+    public CatalogSnapshotStore(CatalogChangeLog changeLog,
+                                JdbcTemplate jdbcTemplate,
+                                @Value("${catalog.snapshot.enabled:true}") boolean enabled,
+                                @Value("${catalog.snapshot.path:data/catalog-snapshot.bin}") Path path,
+                                @Value("${catalog.snapshot.max-age:1d}") Duration maxAge,
+                                @Value("${catalog.snapshot.replay-batch-size:1000}") int batchSize) {
+        this.changeLog = changeLog;
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.path = path;
+        this.maxAge = maxAge;
+        this.batchSize = batchSize;
+    }
+
+    @PostConstruct
+    public void load() {
+        if (!enabled || !Files.exists(path)) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            CatalogSnapshot loaded = CatalogSnapshot.open(path);
+            if (loaded.createdAt().isBefore(Instant.now().minus(maxAge))) {
+                log.info("Foto del catálogo descartada por antigua ({})", loaded.createdAt());
+                return;
+            }
+            install(loaded);
+            log.info("Foto del catálogo mapeada: {} productos hasta el cambio {} en {} ms",
+                    loaded.size(), loaded.changeId(), (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException ex) {
+            log.warn("No se pudo leer la foto del catálogo {}: {}", path, ex.getMessage());
+        }
+    }
+
+    /**
+     * Estado del producto si la foto está al día; vacío si hay que leerlo de base de datos.
+     */
+    public Optional<CatalogSnapshot.Row> find(long productId) {
+        CatalogSnapshot current = snapshot;
+        if (!caughtUp || current == null) {
+            return Optional.empty();
+        }
+        Overlay changed = overlay.get(productId);
+        if (changed != null) {
+            return changed.row().complete() ? Optional.of(changed.row()) : Optional.empty();
+        }
+        return current.find(productId);
+    }
+
+    /**
+     * Aplica los cambios posteriores a la foto. Hasta llegar al final del registro la foto no se usa.
+     */
+    @Scheduled(fixedDelayString = "${catalog.snapshot.replay-interval-ms:1000}")
+    public synchronized void replay() {
+        if (snapshot == null) {
+            return;
+        }
+        List<CatalogChange> batch;
+        do {
+            batch = changeLog.readAfter(cursor, batchSize);
+            for (CatalogChange change : batch) {
+                apply(change);
+                cursor = change.getId();
+            }
+        } while (batch.size() == batchSize);
+        if (!caughtUp) {
+            caughtUp = true;
+            log.info("Foto del catálogo al día en el cambio {} ({} productos modificados desde la foto)",
+                    cursor, overlay.size());
+        }
+    }
+
+    private void apply(CatalogChange change) {
+        long productId = change.getProductId();
+        CatalogSnapshot.Row current = current(productId);
+        CatalogSnapshot.Row next;
+        if (change.getType() == CatalogChange.Type.INVENTORY_UPDATED) {
+            next = new CatalogSnapshot.Row(productId,
+                    current == null ? null : current.version(),
+                    current == null ? null : current.price(),
+                    current == null ? null : current.status(),
+                    change.getAvailableQuantity() != null && change.getAvailableQuantity() > 0);
+        } else {
+            // Incluye PRODUCT_DELETED, que deja el producto INACTIVE
+            if (current != null && current.version() != null && current.version() > change.getProductVersion()) {
+                return;
+            }
+            next = new CatalogSnapshot.Row(productId,
+                    change.getProductVersion(),
+                    change.getPrice(),
+                    change.getStatus(),
+                    current == null ? null : current.inStock());
+        }
+        overlay.put(productId, new Overlay(change.getId(), next));
+    }
+
+    private CatalogSnapshot.Row current(long productId) {
+        Overlay changed = overlay.get(productId);
+        if (changed != null) {
+            return changed.row();
+        }
+        return snapshot.find(productId).orElse(null);
+    }
+
+    /**
+     * Vuelca precio, estado y disponibilidad de los productos activos o agotados a una foto nueva y la adopta.
+     */
+    @Scheduled(initialDelayString = "${catalog.snapshot.initial-delay-ms:30000}",
+            fixedDelayString = "${catalog.snapshot.write-interval-ms:900000}")
+    public void write() {
+        if (!enabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        // La foto recoge como mínimo todo lo anterior a head; lo posterior se reproduce encima
+        long changeId = changeLog.head();
+        try (CatalogSnapshot.Writer writer = new CatalogSnapshot.Writer(path, changeId)) {
+            jdbcTemplate.query(SELECT_ROWS + "WHERE p.status IN ('ACTIVE', 'SOLD_OUT') ORDER BY p.id", rs -> {
+                try {
+                    writer.append(ROW_MAPPER.mapRow(rs, 0));
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+            writer.commit();
+            install(CatalogSnapshot.open(path));
+            log.info("Foto del catálogo escrita: {} productos hasta el cambio {} en {} ms",
+                    writer.size(), changeId, (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException | UncheckedIOException ex) {
+            log.warn("No se pudo escribir la foto del catálogo {}: {}", path, ex.getMessage());
+        }
+    }
+
+    private synchronized void install(CatalogSnapshot next) {
+        // Primero la foto y después la poda: un lector que ya no encuentre la capa verá la foto nueva
+        snapshot = next;
+        overlay.values().removeIf(changed -> changed.changeId() <= next.changeId());
+        if (cursor < next.changeId()) {
+            cursor = next.changeId();
+        }
+    }
+
+    /**
+     * Lee de base de datos las filas que la foto no puede servir.
+     */
+    public List<CatalogSnapshot.Row> loadRows(Collection<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return List.of();
+        }
+        String placeholders = String.join(",", Collections.nCopies(productIds.size(), "?"));
+        return jdbcTemplate.query(SELECT_ROWS + "WHERE p.id IN (" + placeholders + ")", ROW_MAPPER, productIds.toArray());
+    }
+
+    public CatalogSnapshot snapshot() {
+        return snapshot;
+    }
+
+    public boolean isCaughtUp() {
+        return caughtUp;
+    }
+}
@@ -0,0 +1,206 @@
+package com.ecomarket.backend.catalog_product.availability;
+
+import com.ecomarket.backend.catalog_product.DTO.InventoryOperationRequest;
+import com.ecomarket.backend.catalog_product.DTO.ProductRequest;
+import com.ecomarket.backend.catalog_product.DTO.ProductSuggestionResponse;
+import com.ecomarket.backend.catalog_product.DTO.ProductSummaryRequest;
+import com.ecomarket.backend.catalog_product.DTO.ProductSummaryResponse;
+import com.ecomarket.backend.catalog_product.DTO.StockAlertResponse;
+import com.ecomarket.backend.catalog_product.assembler.ProductAssembler;
+import com.ecomarket.backend.catalog_product.cache.ProductInvalidationFeed;
+import com.ecomarket.backend.catalog_product.cache.ProductResponseCache;
+import com.ecomarket.backend.catalog_product.changefeed.CatalogChangeLog;
+import com.ecomarket.backend.catalog_product.model.Brand;
+import com.ecomarket.backend.catalog_product.model.Category;
+import com.ecomarket.backend.catalog_product.model.Inventory;
+import com.ecomarket.backend.catalog_product.model.Product;
+import com.ecomarket.backend.catalog_product.sales.SalesTrends;
+import com.ecomarket.backend.catalog_product.search.ProductPopularityTracker;
+import com.ecomarket.backend.catalog_product.search.ProductSearchIndex;
+import com.ecomarket.backend.catalog_product.search.ProductSuggestIndex;
+import com.ecomarket.backend.catalog_product.service.InventoryService;
+import com.ecomarket.backend.catalog_product.service.ProductService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.transaction.TestTransaction;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@DataJpaTest
+@Import({InventoryService.class, StockStatusEvaluator.class, AvailabilityBitmap.class, CatalogChangeLog.class,
+        ProductInvalidationFeed.class, ProductResponseCache.class, ProductSearchIndex.class, SalesTrends.class,
+        ProductService.class, ProductAssembler.class, ProductSuggestIndex.class, ProductPopularityTracker.class})
+@ImportAutoConfiguration(JdbcTemplateAutoConfiguration.class)
+class StockStatusEvaluatorTest {
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private StockStatusEvaluator evaluator;
+
+    @Autowired
+    private AvailabilityBitmap availabilityBitmap;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductSuggestIndex suggestIndex;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void crossingZeroFlipsStatusAndAlertsAfterCommit() {
+        Long productId = product("SKU-FLIP", Product.ProductStatus.ACTIVE, 3, 2);
+        entityManager.flush();
+
+        inventoryService.handleOperation(productId, operation("RESERVE", 1));
+        inventoryService.handleOperation(productId, operation("RESERVE", 2));
+        assertThat(status(productId)).isEqualTo("SOLD_OUT");
+        inventoryService.handleOperation(productId, operation("INCREMENT", 5));
+        assertThat(status(productId)).isEqualTo("ACTIVE");
+
+        // Bitmap y avisos sólo cambian al confirmar
+        assertThat(evaluator.recentAlerts()).noneMatch(alert -> alert.getProductId().equals(productId));
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+
+        // Los avisos son del contexto compartido: sólo cuentan los de este producto
+        assertThat(evaluator.recentAlerts())
+                .filteredOn(alert -> alert.getProductId().equals(productId))
+                .extracting(StockAlertResponse::getType, StockAlertResponse::getAvailableQuantity)
+                .containsExactly(tuple("SOLD_OUT", 0), tuple("LOW_STOCK", 2));
+        assertThat(availabilityBitmap.isSellable(productId)).isTrue();
+    }
+
+    @Test
+    void reconcileFixesStockWrittenBySql() {
+        Long soldOut = product("SKU-EMPTY", Product.ProductStatus.ACTIVE, 0, null);
+        Long restocked = product("SKU-BACK", Product.ProductStatus.SOLD_OUT, 4, null);
+        Long deleted = product("SKU-GONE", Product.ProductStatus.INACTIVE, 0, null);
+        entityManager.flush();
+
+        evaluator.reconcile();
+
+        assertThat(status(soldOut)).isEqualTo("SOLD_OUT");
+        assertThat(status(restocked)).isEqualTo("ACTIVE");
+        assertThat(status(deleted)).isEqualTo("INACTIVE");
+        assertThat(availabilityBitmap.isReady()).isTrue();
+        assertThat(availabilityBitmap.isSellable(restocked)).isTrue();
+        assertThat(availabilityBitmap.isSellable(soldOut)).isFalse();
+    }
+
+    @Test
+    void suggestionsFollowTheStockStatus() {
+        // Se crea sin stock: el evaluador lo deja agotado y no se sugiere
+        Long productId = productService.createProduct(productRequest("Jabón de lavanda", "SKU-SUGGEST")).getId();
+        commit();
+        assertThat(suggestions("lavan")).isEmpty();
+
+        inventoryService.handleOperation(productId, operation("INCREMENT", 2));
+        commit();
+        assertThat(suggestions("lavan")).containsExactly(productId);
+
+        inventoryService.handleOperation(productId, operation("RESERVE", 2));
+        commit();
+        assertThat(suggestions("lavan")).isEmpty();
+    }
+
+    @Test
+    void productsAreCreatedActiveAndTheEvaluatorMarksThemSoldOut() {
+        Product product = productService.createProduct(productRequest("Aceite de oliva", "SKU-NEW"));
+        commit();
+
+        assertThat(product.getStatus()).isEqualTo(Product.ProductStatus.SOLD_OUT);
+        assertThat(jdbcTemplate.queryForList("SELECT type, status FROM catalog_changes WHERE product_id = ? ORDER BY id",
+                product.getId()))
+                .extracting(row -> row.get("TYPE"), row -> row.get("STATUS"))
+                .containsExactly(tuple("PRODUCT_CREATED", "ACTIVE"), tuple("PRODUCT_UPDATED", "SOLD_OUT"));
+        assertThat(availabilityBitmap.isSellable(product.getId())).isFalse();
+    }
+
+    @Test
+    void stockFilterCombinesWithStatus() {
+        Long active = product("SKU-ON", Product.ProductStatus.ACTIVE, 5, null);
+        Long soldOut = product("SKU-OFF", Product.ProductStatus.SOLD_OUT, 0, null);
+        Long deleted = product("SKU-DEL", Product.ProductStatus.INACTIVE, 0, null);
+        List<Long> ours = List.of(active, soldOut, deleted); // Otros tests confirman productos propios
+
+        assertThat(summaries(null, true)).filteredOn(ours::contains).containsExactly(active);
+        assertThat(summaries(null, false)).filteredOn(ours::contains).containsExactly(soldOut); // Los eliminados siguen fuera
+        assertThat(summaries("INACTIVE", false)).filteredOn(ours::contains).containsExactly(deleted);
+        assertThat(summaries("ACTIVE", true)).filteredOn(ours::contains).containsExactly(active);
+        assertThat(summaries("SOLD_OUT", true)).isEmpty();
+        assertThat(summaries("ACTIVE", false)).isEmpty();
+    }
+
+    private Long product(String sku, Product.ProductStatus status, int available, Integer threshold) {
+        Product product = entityManager.persist(Product.builder()
+                .name(sku)
+                .price(BigDecimal.ONE)
+                .sku(sku)
+                .status(status)
+                .lowStockThreshold(threshold)
+                .build());
+        entityManager.persist(Inventory.builder().product(product).availableQuantity(available).leasedQuantity(0).build());
+        return product.getId();
+    }
+
+    private List<Long> summaries(String status, Boolean inStock) {
+        ProductSummaryRequest request = new ProductSummaryRequest();
+        request.setStatus(status);
+        request.setInStock(inStock);
+        return productService.listSummaries(request).getProducts().stream()
+                .map(ProductSummaryResponse::getId)
+                .toList();
+    }
+
+    private ProductRequest productRequest(String name, String sku) {
+        Category category = entityManager.persist(Category.builder().name("Cuidado personal " + sku).build());
+        Brand brand = entityManager.persist(Brand.builder().name("Verde " + sku).build());
+        ProductRequest request = new ProductRequest();
+        request.setName(name);
+        request.setDescription("Artesanal");
+        request.setPrice(BigDecimal.TEN);
+        request.setSku(sku);
+        request.setCategoryId(category.getId());
+        request.setBrandId(brand.getId());
+        return request;
+    }
+
+    private String status(Long productId) {
+        return jdbcTemplate.queryForObject("SELECT status FROM products WHERE id = ?", String.class, productId);
+    }
+
+    private List<Long> suggestions(String prefix) {
+        return suggestIndex.suggest(prefix, 10).stream().map(ProductSuggestionResponse::getId).toList();
+    }
+
+    private static void commit() {
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+        TestTransaction.start();
+    }
+
+    private static InventoryOperationRequest operation(String type, int quantity) {
+        InventoryOperationRequest request = new InventoryOperationRequest();
+        request.setOperationType(type);
+        request.setQuantity(quantity);
+        return request;
+    }
+}
@@ -0,0 +1,69 @@
+package com.ecomarket.backend.catalog_product.cache;
+
+import com.ecomarket.backend.catalog_product.DTO.ProductResponse;
+import com.ecomarket.backend.catalog_product.changefeed.CatalogChangeLog;
+import com.ecomarket.backend.catalog_product.model.CatalogChange;
+import com.ecomarket.backend.catalog_product.model.Product;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * El registro de cambios se simula: interesa qué hace el feed con lo que lee.
+ */
+class ProductInvalidationFeedTest {
+
+    private final CatalogChangeLog changeLog = mock(CatalogChangeLog.class);
+    private final ProductResponseCache cache = new ProductResponseCache(100, Duration.ofMinutes(10));
+    private final ProductInvalidationFeed feed = new ProductInvalidationFeed(changeLog, cache, 2);
+
+    @Test
+    void publishInvalidatesLocallyAndRecordsTheChange() {
+        cache.put(1L, 1, ProductResponse.builder().name("v1").build());
+        Product product = Product.builder().id(1L).version(2L).build();
+
+        feed.publish(product, CatalogChange.Type.PRODUCT_UPDATED);
+
+        assertThat(cache.get(1L)).isEmpty();
+        verify(changeLog).recordProduct(CatalogChange.Type.PRODUCT_UPDATED, product);
+        assertThat(feed.publishedCount()).isEqualTo(1);
+    }
+
+    @Test
+    void pollAppliesRemoteInvalidationsInBatches() {
+        when(changeLog.head()).thenReturn(10L);
+        when(changeLog.readAfter(10L, 2)).thenReturn(List.of(
+                change(11L, CatalogChange.Type.PRODUCT_UPDATED, 1L, 2L),
+                change(12L, CatalogChange.Type.INVENTORY_UPDATED, 2L, null)));
+        when(changeLog.readAfter(12L, 2)).thenReturn(List.of(
+                change(13L, CatalogChange.Type.PRODUCT_DELETED, 3L, 5L)));
+
+        feed.poll(); // El primer sondeo sólo se sitúa en la cabeza del registro
+        assertThat(feed.lastSeenId()).isEqualTo(10L);
+
+        cache.put(1L, 1, ProductResponse.builder().name("p1").build());
+        cache.put(2L, 1, ProductResponse.builder().name("p2").build());
+        cache.put(3L, 7, ProductResponse.builder().name("p3").build());
+        feed.poll();
+
+        assertThat(cache.get(1L)).isEmpty();
+        assertThat(cache.get(2L)).isPresent(); // Los cambios de stock no tocan la ficha
+        assertThat(cache.get(3L)).isPresent(); // Ya tenía una versión posterior
+        assertThat(feed.appliedCount()).isEqualTo(2);
+        assertThat(feed.lastSeenId()).isEqualTo(13L);
+
+        // Una ficha antigua que llega tarde no vuelve a la caché
+        cache.put(1L, 1, ProductResponse.builder().name("p1").build());
+        assertThat(cache.get(1L)).isEmpty();
+    }
+
+    private static CatalogChange change(Long id, CatalogChange.Type type, Long productId, Long version) {
+        return CatalogChange.builder().id(id).type(type).productId(productId).productVersion(version).build();
+    }
+}
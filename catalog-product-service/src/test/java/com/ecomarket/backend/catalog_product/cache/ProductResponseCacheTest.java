@@ -0,0 +1,46 @@
+package com.ecomarket.backend.catalog_product.cache;
+
+import com.ecomarket.backend.catalog_product.DTO.ProductResponse;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductResponseCacheTest {
+
+    private final ProductResponseCache cache = new ProductResponseCache(100, Duration.ofMinutes(10));
+
+    @Test
+    void stalePutAfterInvalidationIsRejected() {
+        cache.put(1L, 1, response("v1"));
+        cache.invalidate(1L, 2);
+        assertThat(cache.get(1L)).isEmpty();
+
+        // Lectura lenta que cargó la versión 1 antes del cambio
+        cache.put(1L, 1, response("v1"));
+        assertThat(cache.get(1L)).isEmpty();
+
+        cache.put(1L, 2, response("v2"));
+        assertThat(cache.get(1L)).map(ProductResponse::getName).contains("v2");
+    }
+
+    @Test
+    void tombstoneWithoutPreviousEntryAlsoRejectsOlderVersions() {
+        cache.invalidate(5L, 4);
+        cache.put(5L, 3, response("v3"));
+        assertThat(cache.get(5L)).isEmpty();
+    }
+
+    @Test
+    void olderInvalidationKeepsNewerEntry() {
+        cache.put(1L, 3, response("v3"));
+        cache.invalidate(1L, 2);
+        cache.put(1L, 2, response("v2"));
+        assertThat(cache.get(1L)).map(ProductResponse::getName).contains("v3");
+    }
+
+    private static ProductResponse response(String name) {
+        return ProductResponse.builder().name(name).build();
+    }
+}
@@ -0,0 +1,79 @@
+package com.ecomarket.backend.catalog_product.changefeed;
+
+import com.ecomarket.backend.catalog_product.model.CatalogChange;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {"catalog.changes.visibility-delay=2s", "catalog.changes.gap-timeout=1m"})
+@Import(CatalogChangeLog.class)
+@ImportAutoConfiguration(JdbcTemplateAutoConfiguration.class)
+class CatalogChangeLogTest {
+
+    @Autowired
+    private CatalogChangeLog changeLog;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void readStopsAtFirstEntryThatMayStillHaveGaps() {
+        LocalDateTime settled = LocalDateTime.now().minusSeconds(10);
+        Long first = persist(1L, settled);
+        Long second = persist(2L, settled);
+        persist(3L, LocalDateTime.now());
+        persist(4L, settled);
+
+        // Se lee desde justo antes de la primera: los ids no vuelven a empezar entre pruebas
+        List<CatalogChange> changes = changeLog.readAfter(first - 1, 10);
+        assertThat(changes).extracting(CatalogChange::getId).containsExactly(first, second);
+        assertThat(changeLog.readAfter(second, 10)).isEmpty();
+        assertThat(changeLog.readAfter(first - 1, 1)).extracting(CatalogChange::getId).containsExactly(first);
+    }
+
+    @Test
+    void missingIdHoldsReadersUntilGapTimeout() {
+        Long first = persist(1L, LocalDateTime.now().minusSeconds(10));
+        Long missing = persist(2L, LocalDateTime.now().minusSeconds(10));
+        Long third = persist(3L, LocalDateTime.now().minusSeconds(10));
+        Long fourth = persist(4L, LocalDateTime.now().minusMinutes(5));
+        // Simula una transacción que aún no confirma su entrada
+        entityManager.remove(entityManager.find(CatalogChange.class, missing));
+        entityManager.flush();
+
+        assertThat(changeLog.readAfter(first - 1, 10)).extracting(CatalogChange::getId).containsExactly(first);
+
+        // Pasado gap-timeout el id se da por revertido
+        entityManager.find(CatalogChange.class, third).setCreatedAt(LocalDateTime.now().minusMinutes(2));
+        entityManager.flush();
+        assertThat(changeLog.readAfter(first - 1, 10)).extracting(CatalogChange::getId)
+                .containsExactly(first, third, fourth);
+    }
+
+    @Test
+    void readerBehindRetainedLogMustResync() {
+        Long first = persist(1L, LocalDateTime.now().minusSeconds(10));
+
+        assertThat(changeLog.resyncRequired(first - 1)).isFalse();
+        assertThat(changeLog.resyncRequired(first + 5)).isFalse();
+        assertThat(changeLog.resyncRequired(first - 2)).isTrue(); // first - 1 ya no está
+    }
+
+    private Long persist(Long productId, LocalDateTime createdAt) {
+        return entityManager.persistAndFlush(CatalogChange.builder()
+                .type(CatalogChange.Type.PRODUCT_UPDATED)
+                .productId(productId)
+                .productVersion(0L)
+                .createdAt(createdAt)
+                .build()).getId();
+    }
+}
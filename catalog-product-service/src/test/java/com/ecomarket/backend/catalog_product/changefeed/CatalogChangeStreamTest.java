@@ -0,0 +1,121 @@
+package com.ecomarket.backend.catalog_product.changefeed;
+
+import com.ecomarket.backend.catalog_product.assembler.CatalogChangeAssembler;
+import com.ecomarket.backend.catalog_product.model.CatalogChange;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CatalogChangeStreamTest {
+
+    private final CatalogChangeLog changeLog = mock(CatalogChangeLog.class);
+    private final CatalogChangeStream stream = new CatalogChangeStream(changeLog, new CatalogChangeAssembler(),
+            10, 2, 10, 20, Duration.ofMinutes(1), Duration.ofMinutes(1), Duration.ofMillis(200), 2);
+    private final CountDownLatch unblock = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        unblock.countDown();
+        stream.close();
+    }
+
+    @Test
+    void slowSubscriberDoesNotDelayOthersAndIsDropped() throws Exception {
+        when(changeLog.readAfter(anyLong(), anyInt())).thenReturn(List.of());
+        when(changeLog.readAfter(0L, 10)).thenReturn(List.of(change(1L), change(2L)));
+        RecordingEmitter fast = new RecordingEmitter(null);
+        RecordingEmitter slow = new RecordingEmitter(unblock);
+        stream.subscribe(0L, slow);
+        stream.subscribe(0L, fast);
+
+        stream.push();
+
+        waitFor(() -> fast.ids.size() == 2);
+        assertThat(fast.ids).containsExactly("1", "2");
+        assertThat(slow.ids).isEmpty();
+
+        Thread.sleep(300); // El envío al lento lleva bloqueado más que stall-timeout
+        stream.push();
+        assertThat(stream.subscriberCount()).isEqualTo(1);
+    }
+
+    @Test
+    void subscriberBehindRetentionIsToldToResync() throws Exception {
+        when(changeLog.resyncRequired(5L)).thenReturn(true);
+        when(changeLog.head()).thenReturn(40L);
+        RecordingEmitter emitter = new RecordingEmitter(null);
+
+        stream.subscribe(5L, emitter);
+
+        waitFor(() -> emitter.ids.size() == 1);
+        assertThat(emitter.ids).containsExactly("40");
+        assertThat(emitter.names).containsExactly("resync-required");
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(2).toNanos();
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+
+    private static CatalogChange change(Long id) {
+        return CatalogChange.builder()
+                .id(id)
+                .type(CatalogChange.Type.PRODUCT_UPDATED)
+                .productId(id)
+                .productVersion(1L)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    /**
+     * Guarda el id y el nombre de cada evento; con {@code gate} se bloquea en el primer envío,
+     * como un cliente que no lee.
+     */
+    private static final class RecordingEmitter extends SseEmitter {
+        private final CountDownLatch gate;
+        private final List<String> ids = new CopyOnWriteArrayList<>();
+        private final List<String> names = new CopyOnWriteArrayList<>();
+
+        private RecordingEmitter(CountDownLatch gate) {
+            this.gate = gate;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            if (gate != null) {
+                try {
+                    gate.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                return;
+            }
+            String event = builder.build().stream()
+                    .map(part -> String.valueOf(part.getData()))
+                    .reduce("", String::concat);
+            for (String line : event.split("\n")) {
+                if (line.startsWith("id:")) {
+                    ids.add(line.substring(3));
+                } else if (line.startsWith("event:")) {
+                    names.add(line.substring(6));
+                }
+            }
+        }
+    }
+}
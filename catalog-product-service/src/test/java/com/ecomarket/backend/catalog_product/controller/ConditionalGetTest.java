@@ -0,0 +1,111 @@
+package com.ecomarket.backend.catalog_product.controller;
+
+import com.ecomarket.backend.catalog_product.assembler.InventoryAssembler;
+import com.ecomarket.backend.catalog_product.assembler.ProductAssembler;
+import com.ecomarket.backend.catalog_product.assembler.StockLeaseAssembler;
+import com.ecomarket.backend.catalog_product.availability.StockStatusEvaluator;
+import com.ecomarket.backend.catalog_product.flashsale.FlashSaleGate;
+import com.ecomarket.backend.catalog_product.model.Brand;
+import com.ecomarket.backend.catalog_product.model.Category;
+import com.ecomarket.backend.catalog_product.model.Inventory;
+import com.ecomarket.backend.catalog_product.model.Product;
+import com.ecomarket.backend.catalog_product.recommendation.CoPurchaseIndex;
+import com.ecomarket.backend.catalog_product.sales.SalesTrends;
+import com.ecomarket.backend.catalog_product.service.InventoryBulkService;
+import com.ecomarket.backend.catalog_product.service.InventoryService;
+import com.ecomarket.backend.catalog_product.service.ProductAvailabilityService;
+import com.ecomarket.backend.catalog_product.service.ProductDetailService;
+import com.ecomarket.backend.catalog_product.service.ProductImportService;
+import com.ecomarket.backend.catalog_product.service.ProductService;
+import com.ecomarket.backend.catalog_product.service.StockLeaseService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * GET condicional de fichas e inventario: 304 con el mismo ETag, 200 cuando cambia algo visible.
+ */
+class ConditionalGetTest {
+
+    private final ProductService productService = mock(ProductService.class);
+    private final InventoryService inventoryService = mock(InventoryService.class);
+    private final ProductAssembler productAssembler = new ProductAssembler();
+
+    private final Category category = Category.builder().id(1L).name("Jabones").build();
+    private final Product product = Product.builder()
+            .id(7L)
+            .name("Jabón de avena")
+            .sku("SKU-7")
+            .price(BigDecimal.TEN)
+            .status(Product.ProductStatus.ACTIVE)
+            .version(3L)
+            .category(category)
+            .brand(Brand.builder().id(1L).name("Nativa").build())
+            .build();
+    private final Inventory inventory = Inventory.builder()
+            .product(product)
+            .availableQuantity(4)
+            .leasedQuantity(0)
+            .location("Bodega A")
+            .lastUpdate(LocalDateTime.of(2026, 1, 1, 12, 0))
+            .build();
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        ProductController productController = new ProductController(productService, productAssembler,
+                mock(ProductImportService.class), mock(ProductAvailabilityService.class), mock(ProductDetailService.class),
+                mock(CoPurchaseIndex.class), mock(SalesTrends.class));
+        InventoryController inventoryController = new InventoryController(inventoryService, new InventoryAssembler(),
+                mock(StockLeaseService.class), mock(StockLeaseAssembler.class), mock(InventoryBulkService.class),
+                mock(FlashSaleGate.class), mock(StockStatusEvaluator.class));
+        mockMvc = MockMvcBuilders.standaloneSetup(productController, inventoryController).build();
+
+        when(productService.getProductResponse(7L)).thenAnswer(invocation -> productAssembler.toResponse(product));
+        when(inventoryService.getInventory(7L)).thenReturn(inventory);
+    }
+
+    @Test
+    void productAnswers304UntilCategoryIsRenamed() throws Exception {
+        String etag = etag("/api/v1/products/7");
+
+        mockMvc.perform(get("/api/v1/products/7").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        // Renombrar la categoría no sube la versión del producto, pero cambia la ficha
+        category.setName("Jabones artesanales");
+        mockMvc.perform(get("/api/v1/products/7").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+        assertThat(etag("/api/v1/products/7")).isNotEqualTo(etag);
+    }
+
+    @Test
+    void inventoryAnswers304UntilLocationChanges() throws Exception {
+        String etag = etag("/api/v1/inventory/7");
+
+        mockMvc.perform(get("/api/v1/inventory/7").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        inventory.setLocation("Bodega B");
+        mockMvc.perform(get("/api/v1/inventory/7").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+    }
+
+    private String etag(String path) throws Exception {
+        return mockMvc.perform(get(path))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+}
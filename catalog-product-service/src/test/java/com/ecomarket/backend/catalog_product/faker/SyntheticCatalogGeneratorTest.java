@@ -0,0 +1,73 @@
+package com.ecomarket.backend.catalog_product.faker;
+
+import com.ecomarket.backend.common.faker.ZipfSampler;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+        "synthetic.data.enabled=true",
+        "synthetic.data.chunk-size=100",
+        "synthetic.data.categories=5",
+        "synthetic.data.brands=10",
+        "synthetic.data.products=500",
+        "synthetic.data.reviews=3000",
+        "synthetic.data.users=200"})
+@Import(SyntheticCatalogGenerator.class)
+@ImportAutoConfiguration(JdbcTemplateAutoConfiguration.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SyntheticCatalogGeneratorTest {
+
+    @Autowired
+    private SyntheticCatalogGenerator generator;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void generatesSkewedCatalogOnce() {
+        generator.run();
+        generator.run();
+
+        assertThat(count("SELECT COUNT(*) FROM products")).isEqualTo(500);
+        assertThat(count("SELECT COUNT(*) FROM inventories")).isEqualTo(500);
+        assertThat(count("SELECT COUNT(*) FROM reviews")).isEqualTo(3000);
+        assertThat(count("SELECT SUM(rating_count) FROM product_rating_summaries")).isEqualTo(3000);
+        // Con exponente 1.1 el producto más popular acumula bastante más que el promedio (6)
+        assertThat(count("SELECT MAX(c) FROM (SELECT COUNT(*) c FROM reviews GROUP BY product_id) t")).isGreaterThan(100);
+
+        // La identidad continúa después de los ids asignados
+        jdbcTemplate.update("INSERT INTO categories (name) VALUES ('Manual')");
+        assertThat(count("SELECT id FROM categories WHERE name = 'Manual'")).isEqualTo(6);
+    }
+
+    @Test
+    void samplerIsDeterministicAndSkewed() {
+        ZipfSampler sampler = new ZipfSampler(1000, 1.0, 7);
+        SplittableRandom first = new SplittableRandom(1);
+        SplittableRandom second = new SplittableRandom(1);
+        int[] hits = new int[1000];
+        for (int i = 0; i < 100_000; i++) {
+            int position = sampler.sample(first);
+            assertThat(sampler.sample(second)).isEqualTo(position);
+            hits[position]++;
+        }
+        // P(rango 1) = 1 / H(1000) ~ 0.134
+        assertThat(hits[sampler.position(1)]).isBetween(12_500, 14_300);
+        assertThat(hits[sampler.position(1)]).isGreaterThan(hits[sampler.position(2)]);
+    }
+
+    private long count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+}
@@ -0,0 +1,147 @@
+package com.ecomarket.backend.catalog_product.flashsale;
+
+import com.ecomarket.backend.catalog_product.DTO.InventoryOperationRequest;
+import com.ecomarket.backend.catalog_product.exception.BusinessLogicException;
+import com.ecomarket.backend.catalog_product.model.Inventory;
+import com.ecomarket.backend.catalog_product.repository.InventoryRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Simula la fila de inventario en memoria: con 10 unidades y 64 compradores a la vez, la
+ * "base de datos" sólo debe ver 10 reservas y nunca más de db-concurrency simultáneas.
+ */
+class FlashSaleGateTest {
+
+    private static final long PRODUCT_ID = 7L;
+
+    private final InventoryRepository inventoryRepo = mock(InventoryRepository.class);
+    private final AtomicInteger available = new AtomicInteger(10);
+    private final AtomicInteger dbCalls = new AtomicInteger();
+    private final AtomicInteger concurrent = new AtomicInteger();
+    private final AtomicInteger maxConcurrent = new AtomicInteger();
+
+    @Test
+    void onlyAsManyReservationsAsUnitsReachTheDatabase() throws Exception {
+        when(inventoryRepo.findByProduct_Id(PRODUCT_ID)).thenReturn(Optional.of(inventory()));
+        FlashSaleGate gate = new FlashSaleGate(inventoryRepo, 2, 1000, Duration.ofSeconds(5));
+        gate.start(PRODUCT_ID);
+
+        int buyers = 64;
+        ExecutorService pool = Executors.newFixedThreadPool(buyers);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < buyers; i++) {
+            results.add(pool.submit(() -> {
+                start.await();
+                try {
+                    gate.execute(PRODUCT_ID, reserve(1), this::reserveInDatabase);
+                    return true;
+                } catch (BusinessLogicException ex) {
+                    return false;
+                }
+            }));
+        }
+        start.countDown();
+        int admitted = 0;
+        for (Future<Boolean> result : results) {
+            if (result.get(10, TimeUnit.SECONDS)) {
+                admitted++;
+            }
+        }
+        pool.shutdown();
+
+        assertThat(admitted).isEqualTo(10);
+        assertThat(dbCalls.get()).isEqualTo(10);
+        assertThat(available.get()).isZero();
+        assertThat(maxConcurrent.get()).isLessThanOrEqualTo(2);
+        assertThat(gate.status(PRODUCT_ID)).hasValueSatisfying(status -> {
+            assertThat(status.getRemainingTokens()).isZero();
+            assertThat(status.getRejectedRequests()).isEqualTo(54);
+        });
+    }
+
+    @Test
+    void restockRefillsTheBudget() {
+        available.set(1);
+        when(inventoryRepo.findByProduct_Id(PRODUCT_ID)).thenReturn(Optional.of(inventory()));
+        FlashSaleGate gate = new FlashSaleGate(inventoryRepo, 2, 1000, Duration.ofSeconds(5));
+        gate.start(PRODUCT_ID);
+
+        gate.execute(PRODUCT_ID, reserve(1), this::reserveInDatabase);
+        assertThat(gate.status(PRODUCT_ID).orElseThrow().getRemainingTokens()).isZero();
+
+        InventoryOperationRequest increment = new InventoryOperationRequest();
+        increment.setOperationType("INCREMENT");
+        increment.setQuantity(3);
+        gate.execute(PRODUCT_ID, increment, () -> {
+            available.addAndGet(3);
+            return inventory();
+        });
+        assertThat(gate.status(PRODUCT_ID).orElseThrow().getRemainingTokens()).isEqualTo(3);
+    }
+
+    @Test
+    void resyncReadOvertakenByAReservationDoesNotRecreditSoldUnits() {
+        available.set(2);
+        when(inventoryRepo.findByProduct_Id(PRODUCT_ID)).thenReturn(Optional.of(inventory()));
+        FlashSaleGate gate = new FlashSaleGate(inventoryRepo, 2, 1000, Duration.ofSeconds(5));
+        gate.start(PRODUCT_ID);
+
+        // El reajuste lee 2 unidades y, antes de aplicarlas, una reserva confirma y sale de "en curso"
+        when(inventoryRepo.findAvailableByProductIds(anyCollection())).thenAnswer(invocation -> {
+            List<Object[]> stale = List.<Object[]>of(new Object[]{PRODUCT_ID, available.get()});
+            gate.execute(PRODUCT_ID, reserve(1), this::reserveInDatabase);
+            return stale;
+        });
+        gate.resync();
+
+        assertThat(available.get()).isEqualTo(1);
+        assertThat(gate.status(PRODUCT_ID).orElseThrow().getRemainingTokens()).isEqualTo(1);
+    }
+
+    private Inventory reserveInDatabase() {
+        dbCalls.incrementAndGet();
+        int now = concurrent.incrementAndGet();
+        maxConcurrent.accumulateAndGet(now, Math::max);
+        try {
+            Thread.sleep(5);
+            if (available.decrementAndGet() < 0) {
+                available.incrementAndGet();
+                throw new IllegalArgumentException("Not enough stock");
+            }
+            return inventory();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        } finally {
+            concurrent.decrementAndGet();
+        }
+    }
+
+    private Inventory inventory() {
+        return Inventory.builder().availableQuantity(available.get()).build();
+    }
+
+    private static InventoryOperationRequest reserve(int quantity) {
+        InventoryOperationRequest request = new InventoryOperationRequest();
+        request.setOperationType("RESERVE");
+        request.setQuantity(quantity);
+        return request;
+    }
+}
@@ -0,0 +1,84 @@
+package com.ecomarket.backend.catalog_product.recommendation;
+
+import com.ecomarket.backend.catalog_product.DTO.AlsoBoughtResponse;
+import com.ecomarket.backend.catalog_product.availability.AvailabilityBitmap;
+import com.ecomarket.backend.catalog_product.sales.OrderLineFeed;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Las tablas de cart-order se crean a mano en una H2 en memoria y se leen con {@link OrderLineFeed}.
+ */
+class CoPurchaseIndexTest {
+
+    private final AvailabilityBitmap availabilityBitmap = mock(AvailabilityBitmap.class);
+    private JdbcTemplate jdbcTemplate;
+    private CoPurchaseIndex index;
+    private OrderLineFeed feed;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+                "jdbc:h2:mem:orders-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1"));
+        jdbcTemplate.execute("CREATE TABLE orders (id BIGINT PRIMARY KEY, created_at TIMESTAMP, order_status VARCHAR(20))");
+        jdbcTemplate.execute("CREATE TABLE order_items (id BIGINT AUTO_INCREMENT PRIMARY KEY, order_id BIGINT, " +
+                "product_id BIGINT, quantity INT)");
+        jdbcTemplate.execute("CREATE TABLE products (id BIGINT PRIMARY KEY, category_id BIGINT)");
+        index = new CoPurchaseIndex(availabilityBitmap, 20, 200, 50);
+        feed = new OrderLineFeed(jdbcTemplate, List.of(index), true, 2, Duration.ofSeconds(30));
+    }
+
+    @Test
+    void backfillThenPicksUpNewOrders() {
+        order(1, "DELIVERED", 60, 1, 2, 3);
+        order(2, "CONFIRMED", 60, 1, 2, 2);
+        order(3, "SHIPPED", 60, 1, 4);
+        order(4, "CANCELLED", 60, 1, 3);
+        order(5, "CONFIRMED", 0, 1, 3); // Aún dentro del retraso de visibilidad
+
+        assertThat(feed.catchUp()).isEqualTo(3);
+        assertThat(index.alsoBought(1, 10))
+                .extracting(AlsoBoughtResponse::getProductId, AlsoBoughtResponse::getCoPurchases,
+                        AlsoBoughtResponse::getConfidence)
+                .containsExactly(tuple(2L, 2, 2.0 / 3), tuple(3L, 1, 1.0 / 3), tuple(4L, 1, 1.0 / 3));
+
+        jdbcTemplate.update("UPDATE orders SET created_at = ? WHERE id = 5",
+                Timestamp.valueOf(LocalDateTime.now().minusMinutes(1)));
+        assertThat(feed.catchUp()).isEqualTo(1);
+        assertThat(index.alsoBought(1, 2))
+                .extracting(AlsoBoughtResponse::getProductId, AlsoBoughtResponse::getCoPurchases)
+                .containsExactly(tuple(2L, 2), tuple(3L, 2));
+        assertThat(index.alsoBought(4, 10)).extracting(AlsoBoughtResponse::getProductId).containsExactly(1L);
+    }
+
+    @Test
+    void skipsProductsThatCannotBeSold() {
+        order(1, "DELIVERED", 60, 1, 2, 3);
+        when(availabilityBitmap.isReady()).thenReturn(true);
+        when(availabilityBitmap.isSellable(3L)).thenReturn(true);
+
+        feed.catchUp();
+
+        assertThat(index.alsoBought(1, 10)).extracting(AlsoBoughtResponse::getProductId).containsExactly(3L);
+    }
+
+    private void order(long orderId, String status, int minutesAgo, long... productIds) {
+        jdbcTemplate.update("INSERT INTO orders (id, created_at, order_status) VALUES (?, ?, ?)",
+                orderId, Timestamp.valueOf(LocalDateTime.now().minusMinutes(minutesAgo)), status);
+        for (long productId : productIds) {
+            jdbcTemplate.update("INSERT INTO order_items (order_id, product_id, quantity) VALUES (?, ?, 1)", orderId, productId);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.ecomarket.backend.catalog_product.repository;
+
+import com.ecomarket.backend.catalog_product.DTO.ProductSearchRequest;
+import com.ecomarket.backend.catalog_product.DTO.ProductSummaryResponse;
+import com.ecomarket.backend.catalog_product.model.Brand;
+import com.ecomarket.backend.catalog_product.model.Category;
+import com.ecomarket.backend.catalog_product.model.Inventory;
+import com.ecomarket.backend.catalog_product.model.Product;
+import com.ecomarket.backend.catalog_product.model.ProductImage;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Cuenta las sentencias que ejecuta Hibernate al listar productos y recorrer lo que usa
+ * ProductAssembler (categoría, marca e imágenes): debe ser constante, no una por producto.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class ProductRepositoryQueryCountTest {
+
+    private static final int PRODUCTS = 30;
+
+    @Autowired
+    private ProductRepository productRepo;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Long categoryId;
+
+    @BeforeEach
+    void seed() {
+        Category[] categories = new Category[3];
+        Brand[] brands = new Brand[3];
+        for (int i = 0; i < 3; i++) {
+            categories[i] = entityManager.persist(Category.builder().name("Category " + i).build());
+            brands[i] = entityManager.persist(Brand.builder().name("Brand " + i).build());
+        }
+        for (int i = 0; i < PRODUCTS; i++) {
+            Product product = entityManager.persist(Product.builder()
+                    .name("Product " + i)
+                    .price(BigDecimal.valueOf(1000 + i))
+                    .sku("SKU-" + i)
+                    .category(categories[0])
+                    .brand(brands[i % 3])
+                    .status(Product.ProductStatus.ACTIVE)
+                    .creationDate(LocalDateTime.now())
+                    .lastUpdate(LocalDateTime.now())
+                    .build());
+            entityManager.persist(ProductImage.builder().product(product).url("https://img/" + i + "/a.png").build());
+            entityManager.persist(ProductImage.builder().product(product).url("https://img/" + i + "/b.png").build());
+            entityManager.persist(Inventory.builder().product(product).availableQuantity(i % 2).build());
+        }
+        categoryId = categories[0].getId();
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void categoryListingUsesConstantQueries() {
+        List<Product> products = productRepo.findByCategory_Id(categoryId);
+
+        assertThat(products).hasSize(PRODUCTS);
+        assertThat(touchAssembledFields(products)).isEqualTo(PRODUCTS * 2);
+        // Productos con categoría y marca + un lote de imágenes
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void findAllByIdUsesConstantQueries() {
+        List<Long> ids = productRepo.findAll().stream().map(Product::getId).toList();
+        entityManager.clear();
+        statistics.clear();
+
+        List<Product> products = productRepo.findAllById(ids);
+
+        assertThat(touchAssembledFields(products)).isEqualTo(PRODUCTS * 2);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void specificationPageUsesConstantQueries() {
+        ProductSearchRequest request = new ProductSearchRequest();
+        request.setCategoryId(categoryId);
+        List<Product> products = productRepo.findAll(ProductSpecifications.matching(request),
+                PageRequest.of(0, 20, Sort.by("id"))).getContent();
+
+        assertThat(touchAssembledFields(products)).isEqualTo(20 * 2);
+        // Página + count + un lote de imágenes
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+    }
+
+    @Test
+    void summaryPageIsProjectedInOneQueryPlusCount() {
+        Page<ProductSummaryResponse> page = productRepo.findSummaries(categoryId, null,
+                EnumSet.of(Product.ProductStatus.ACTIVE), PageRequest.of(0, 10, Sort.by("price")));
+
+        assertThat(page.getTotalElements()).isEqualTo(PRODUCTS);
+        assertThat(page.getContent()).hasSize(10);
+        ProductSummaryResponse first = page.getContent().get(0);
+        assertThat(first.getName()).isEqualTo("Product 0");
+        assertThat(first.getImageUrl()).isEqualTo("https://img/0/a.png");
+        // Sin unir con inventories: la disponibilidad la completa el servicio desde AvailabilityBitmap
+        assertThat(first.getInStock()).isNull();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    private int touchAssembledFields(List<Product> products) {
+        int images = 0;
+        for (Product product : products) {
+            assertThat(product.getCategory().getName()).isNotNull();
+            assertThat(product.getBrand().getName()).isNotNull();
+            images += product.getImages().size();
+        }
+        return images;
+    }
+}
@@ -0,0 +1,71 @@
+package com.ecomarket.backend.catalog_product.sales;
+
+import com.ecomarket.backend.catalog_product.DTO.TopSellerResponse;
+import com.ecomarket.backend.catalog_product.model.Category;
+import com.ecomarket.backend.catalog_product.model.Product;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class SalesTrendsTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 3, 10, 12, 0);
+
+    private final SalesTrends trends = new SalesTrends(4, 2048, 50,
+            Clock.fixed(NOW.atZone(ZoneId.systemDefault()).toInstant(), ZoneId.systemDefault()));
+
+    @Test
+    void ranksByWindowAndCategory() {
+        trends.onOrderLines(List.of(
+                line(1, 10L, 5, Duration.ofMinutes(10)),
+                line(2, 10L, 3, Duration.ofMinutes(2)),
+                line(3, 20L, 7, Duration.ofMinutes(2)),
+                line(4, 10L, 50, Duration.ofHours(3)),
+                line(5, 10L, 100, Duration.ofDays(2)))); // Fuera de las dos ventanas
+        trends.recordReservation(product(6, 20L), 4);
+
+        assertThat(trends.top(SalesTrends.Signal.ORDERS, SalesTrends.Window.HOUR, 10L, 10))
+                .extracting(TopSellerResponse::getProductId, TopSellerResponse::getUnits)
+                .containsExactly(tuple(1L, 5L), tuple(2L, 3L));
+        assertThat(trends.top(SalesTrends.Signal.ORDERS, SalesTrends.Window.DAY, 10L, 10))
+                .extracting(TopSellerResponse::getProductId)
+                .containsExactly(4L, 1L, 2L);
+        assertThat(trends.top(SalesTrends.Signal.ORDERS, SalesTrends.Window.HOUR, null, 2))
+                .extracting(TopSellerResponse::getProductId)
+                .containsExactly(3L, 1L);
+        assertThat(trends.top(SalesTrends.Signal.RESERVATIONS, SalesTrends.Window.HOUR, 20L, 10))
+                .extracting(TopSellerResponse::getProductId, TopSellerResponse::getUnits)
+                .containsExactly(tuple(6L, 4L));
+    }
+
+    @Test
+    void heavyHittersSurviveManyProducts() {
+        List<OrderLine> lines = new ArrayList<>();
+        for (long productId = 1_000; productId < 101_000; productId++) {
+            lines.add(line(productId, 10L, 1, Duration.ofMinutes(productId % 50)));
+        }
+        lines.add(line(7, 10L, 500, Duration.ofMinutes(30)));
+        lines.add(line(8, 10L, 300, Duration.ofMinutes(5)));
+        trends.onOrderLines(lines);
+
+        List<TopSellerResponse> top = trends.top(SalesTrends.Signal.ORDERS, SalesTrends.Window.HOUR, 10L, 2);
+        assertThat(top).extracting(TopSellerResponse::getProductId).containsExactly(7L, 8L);
+        assertThat(top.get(0).getUnits()).isGreaterThanOrEqualTo(500);
+    }
+
+    private static OrderLine line(long productId, Long categoryId, int quantity, Duration ago) {
+        return new OrderLine(productId, productId, categoryId, quantity, NOW.minus(ago));
+    }
+
+    private static Product product(long productId, Long categoryId) {
+        return Product.builder().id(productId).category(Category.builder().id(categoryId).build()).build();
+    }
+}
@@ -0,0 +1,112 @@
+package com.ecomarket.backend.catalog_product.search;
+
+import com.ecomarket.backend.catalog_product.DTO.ProductSuggestionResponse;
+import com.ecomarket.backend.catalog_product.changefeed.CatalogChangeLog;
+import com.ecomarket.backend.catalog_product.model.CatalogChange;
+import com.ecomarket.backend.catalog_product.model.Product;
+import com.ecomarket.backend.catalog_product.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Simula otro nodo: la base cambia sin pasar por estos índices y el feed los pone al día
+ * leyendo el registro de cambios simulado.
+ */
+class ProductIndexFeedTest {
+
+    private final CatalogChangeLog changeLog = mock(CatalogChangeLog.class);
+    private final ProductRepository productRepo = mock(ProductRepository.class);
+    private ProductSearchIndex searchIndex;
+    private ProductSuggestIndex suggestIndex;
+    private ProductIndexFeed feed;
+
+    @BeforeEach
+    void setUp() {
+        when(productRepo.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(List.of(
+                product(1L, "Jabón de lavanda", Product.ProductStatus.ACTIVE),
+                product(2L, "Aceite de oliva", Product.ProductStatus.ACTIVE))));
+        searchIndex = new ProductSearchIndex(productRepo, 100);
+        suggestIndex = new ProductSuggestIndex(productRepo, 10, 100);
+        searchIndex.rebuild();
+        suggestIndex.rebuild();
+        feed = new ProductIndexFeed(changeLog, productRepo, searchIndex, suggestIndex, 2);
+    }
+
+    @Test
+    void appliesRemoteProductChangesToBothIndexes() {
+        when(changeLog.head()).thenReturn(10L);
+        when(changeLog.readAfter(10L, 2)).thenReturn(List.of(
+                change(11L, CatalogChange.Type.PRODUCT_UPDATED, 1L),
+                change(12L, CatalogChange.Type.INVENTORY_UPDATED, 2L)));
+        when(changeLog.readAfter(12L, 2)).thenReturn(List.of(
+                change(13L, CatalogChange.Type.PRODUCT_CREATED, 3L),
+                change(14L, CatalogChange.Type.PRODUCT_DELETED, 2L)));
+        when(changeLog.readAfter(14L, 2)).thenReturn(List.of());
+        when(productRepo.findAllById(Set.of(1L))).thenReturn(List.of(
+                product(1L, "Jabón de romero", Product.ProductStatus.ACTIVE)));
+        when(productRepo.findAllById(Set.of(3L, 2L))).thenReturn(List.of(
+                product(3L, "Champú de avena", Product.ProductStatus.ACTIVE),
+                product(2L, "Aceite de oliva", Product.ProductStatus.INACTIVE)));
+
+        feed.poll(); // Antes de arrancar no hay posición en el registro
+        assertThat(feed.lastSeenId()).isNull();
+
+        feed.start();
+        feed.poll();
+
+        assertThat(searchIndex.search("romero").orElseThrow()).containsExactly(1L);
+        assertThat(searchIndex.search("lavanda").orElseThrow()).isEmpty();
+        assertThat(searchIndex.search("avena").orElseThrow()).containsExactly(3L);
+        assertThat(searchIndex.search("aceite").orElseThrow()).isEmpty();
+        assertThat(suggestions("jabon")).containsExactly(1L);
+        assertThat(suggestions("champu")).containsExactly(3L);
+        assertThat(suggestions("aceite")).isEmpty();
+        assertThat(feed.appliedCount()).isEqualTo(3);
+        assertThat(feed.lastSeenId()).isEqualTo(14L);
+    }
+
+    @Test
+    void rebuildsWhenTheLogWasPurgedPastTheReader() {
+        when(changeLog.head()).thenReturn(10L, 50L);
+        feed.start();
+        when(changeLog.resyncRequired(10L)).thenReturn(true);
+        when(productRepo.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(List.of(
+                product(1L, "Jabón de romero", Product.ProductStatus.ACTIVE))));
+
+        feed.poll();
+
+        assertThat(searchIndex.search("romero").orElseThrow()).containsExactly(1L);
+        assertThat(searchIndex.search("aceite").orElseThrow()).isEmpty();
+        assertThat(suggestions("aceite")).isEmpty();
+        assertThat(feed.lastSeenId()).isEqualTo(50L);
+    }
+
+    private List<Long> suggestions(String prefix) {
+        return suggestIndex.suggest(prefix, 10).stream().map(ProductSuggestionResponse::getId).toList();
+    }
+
+    private static CatalogChange change(Long id, CatalogChange.Type type, Long productId) {
+        return CatalogChange.builder().id(id).type(type).productId(productId).build();
+    }
+
+    private static Product product(Long id, String name, Product.ProductStatus status) {
+        return Product.builder()
+                .id(id)
+                .name(name)
+                .sku("SKU-" + id)
+                .price(new BigDecimal("5.00"))
+                .status(status)
+                .build();
+    }
+}
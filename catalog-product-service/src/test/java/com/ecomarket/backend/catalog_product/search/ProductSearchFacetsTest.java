@@ -0,0 +1,153 @@
+package com.ecomarket.backend.catalog_product.search;
+
+import com.ecomarket.backend.catalog_product.DTO.ProductSearchRequest;
+import com.ecomarket.backend.catalog_product.model.Brand;
+import com.ecomarket.backend.catalog_product.model.Category;
+import com.ecomarket.backend.catalog_product.model.Product;
+import com.ecomarket.backend.catalog_product.repository.ProductRepository;
+import org.assertj.core.groups.Tuple;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Conteos por faceta y combinaciones de filtros sobre un catálogo fijo de cinco productos:
+ * <pre>
+ * id  categoría  marca  estado    precio
+ * 1   Jabones    Nativa ACTIVE     5.00
+ * 2   Jabones    Raíz   ACTIVE     8.00
+ * 3   Aceites    Nativa SOLD_OUT  12.00
+ * 4   Aceites    Raíz   ACTIVE    20.00
+ * 5   Jabones    Nativa INACTIVE   3.00
+ * </pre>
+ */
+class ProductSearchFacetsTest {
+
+    private static final Category SOAPS = Category.builder().id(1L).name("Jabones").build();
+    private static final Category OILS = Category.builder().id(2L).name("Aceites").build();
+    private static final Brand NATIVA = Brand.builder().id(1L).name("Nativa").build();
+    private static final Brand RAIZ = Brand.builder().id(2L).name("Raíz").build();
+
+    private ProductSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        ProductRepository productRepo = mock(ProductRepository.class);
+        when(productRepo.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(List.of(
+                product(1L, "Jabón de avena", SOAPS, NATIVA, Product.ProductStatus.ACTIVE, "5.00"),
+                product(2L, "Jabón de lavanda", SOAPS, RAIZ, Product.ProductStatus.ACTIVE, "8.00"),
+                product(3L, "Aceite de oliva", OILS, NATIVA, Product.ProductStatus.SOLD_OUT, "12.00"),
+                product(4L, "Aceite de coco", OILS, RAIZ, Product.ProductStatus.ACTIVE, "20.00"),
+                product(5L, "Jabón de rosa", SOAPS, NATIVA, Product.ProductStatus.INACTIVE, "3.00"))));
+        index = new ProductSearchIndex(productRepo, 100);
+        index.rebuild();
+    }
+
+    @Test
+    void countsEveryFacetWithoutFilters() {
+        ProductSearchHits hits = search(new ProductSearchRequest());
+
+        assertThat(hits.getProductIds()).containsExactly(1L, 2L, 3L, 4L);
+        assertThat(hits.getTotal()).isEqualTo(4);
+        assertThat(facet(hits, ProductSearchIndex.CATEGORY_FACET))
+                .containsExactly(tuple("2", "Aceites", 2), tuple("1", "Jabones", 2));
+        assertThat(facet(hits, ProductSearchIndex.BRAND_FACET))
+                .containsExactly(tuple("1", "Nativa", 2), tuple("2", "Raíz", 2));
+        // La faceta de estado ignora su propio filtro: muestra también los eliminados
+        assertThat(facet(hits, ProductSearchIndex.STATUS_FACET))
+                .containsExactly(tuple("ACTIVE", "ACTIVE", 3), tuple("INACTIVE", "INACTIVE", 1),
+                        tuple("SOLD_OUT", "SOLD_OUT", 1));
+    }
+
+    @Test
+    void facetsIgnoreTheirOwnFilter() {
+        ProductSearchRequest request = new ProductSearchRequest();
+        request.setCategoryId(SOAPS.getId());
+        request.setBrandId(NATIVA.getId());
+        ProductSearchHits hits = search(request);
+
+        assertThat(hits.getProductIds()).containsExactly(1L);
+        assertThat(facet(hits, ProductSearchIndex.CATEGORY_FACET))
+                .containsExactly(tuple("2", "Aceites", 1), tuple("1", "Jabones", 1));
+        assertThat(facet(hits, ProductSearchIndex.BRAND_FACET))
+                .containsExactly(tuple("1", "Nativa", 1), tuple("2", "Raíz", 1));
+        assertThat(facet(hits, ProductSearchIndex.STATUS_FACET))
+                .containsExactly(tuple("ACTIVE", "ACTIVE", 1), tuple("INACTIVE", "INACTIVE", 1));
+    }
+
+    @Test
+    void combinesTextPriceAndStatusFilters() {
+        ProductSearchRequest cheapSoaps = new ProductSearchRequest();
+        cheapSoaps.setQ("jabones");
+        cheapSoaps.setMaxPrice(new BigDecimal("6"));
+        assertThat(search(cheapSoaps).getProductIds()).containsExactly(1L);
+
+        cheapSoaps.setStatus("inactive");
+        assertThat(search(cheapSoaps).getProductIds()).containsExactly(5L);
+
+        ProductSearchRequest soldOutOils = new ProductSearchRequest();
+        soldOutOils.setQ("aceite");
+        soldOutOils.setStatus("SOLD_OUT");
+        assertThat(search(soldOutOils).getProductIds()).containsExactly(3L);
+
+        ProductSearchRequest bySku = new ProductSearchRequest();
+        bySku.setSku(" sku-4 ");
+        bySku.setMinPrice(new BigDecimal("10"));
+        assertThat(search(bySku).getProductIds()).containsExactly(4L);
+
+        ProductSearchRequest emptyRange = new ProductSearchRequest();
+        emptyRange.setMinPrice(new BigDecimal("10"));
+        emptyRange.setMaxPrice(new BigDecimal("5"));
+        ProductSearchHits none = search(emptyRange);
+        assertThat(none.getTotal()).isZero();
+        assertThat(facet(none, ProductSearchIndex.CATEGORY_FACET)).isEmpty();
+    }
+
+    @Test
+    void pagesOverTheFilteredResult() {
+        ProductSearchRequest request = new ProductSearchRequest();
+        request.setSort("price");
+        request.setSize(2);
+        request.setPage(1);
+        ProductSearchHits hits = search(request);
+
+        assertThat(hits.getProductIds()).containsExactly(3L, 4L);
+        assertThat(hits.getTotal()).isEqualTo(4);
+
+        request.setPage(2);
+        assertThat(search(request).getProductIds()).isEmpty();
+    }
+
+    private ProductSearchHits search(ProductSearchRequest request) {
+        return index.search(request).orElseThrow();
+    }
+
+    private static List<Tuple> facet(ProductSearchHits hits, String name) {
+        return hits.getFacets().get(name).stream()
+                .map(count -> tuple(count.getValue(), count.getLabel(), count.getCount()))
+                .toList();
+    }
+
+    private static Product product(Long id, String name, Category category, Brand brand,
+                                   Product.ProductStatus status, String price) {
+        return Product.builder()
+                .id(id)
+                .name(name)
+                .sku("SKU-" + id)
+                .price(new BigDecimal(price))
+                .category(category)
+                .brand(brand)
+                .status(status)
+                .build();
+    }
+}
@@ -0,0 +1,128 @@
+package com.ecomarket.backend.catalog_product.search;
+
+import com.ecomarket.backend.catalog_product.DTO.ProductSearchRequest;
+import com.ecomarket.backend.catalog_product.model.Brand;
+import com.ecomarket.backend.catalog_product.model.Category;
+import com.ecomarket.backend.catalog_product.model.Product;
+import com.ecomarket.backend.catalog_product.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * El índice se arma sobre un repositorio simulado; las transacciones se simulan con
+ * {@link TransactionSynchronizationManager}.
+ */
+class ProductSearchIndexTest {
+
+    private static final Category SOAPS = Category.builder().id(1L).name("Jabones").build();
+    private static final Brand VERDE = Brand.builder().id(1L).name("Verde Vivo").build();
+
+    private final ProductRepository productRepo = mock(ProductRepository.class);
+    private ProductSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        when(productRepo.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(List.of(
+                product(1L, "Jabón orgánico de lavanda", "8.50"),
+                product(2L, "Champú sólido de avena", "6.00"),
+                product(3L, "Aceite de oliva", "12.00"))));
+        index = new ProductSearchIndex(productRepo, 100);
+        index.rebuild();
+    }
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void matchesWithoutAccentsPluralsOrFullWords() {
+        assertThat(ids("jabones organicos")).containsExactly(1L);
+        assertThat(ids("CHAMPU")).containsExactly(2L);
+        assertThat(ids("lava")).containsExactly(1L);
+        assertThat(ids("verde")).containsExactly(1L, 2L, 3L); // Marca
+        assertThat(ids("lavanda aceite")).isEmpty();
+    }
+
+    @Test
+    void returnsEveryMatchWithoutCap() {
+        when(productRepo.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(LongStream.rangeClosed(1, 500)
+                .mapToObj(id -> product(id, "Jabón " + id, "1.00"))
+                .toList()));
+        index.rebuild();
+
+        assertThat(ids("jabon")).hasSize(500).startsWith(1L).endsWith(500L);
+    }
+
+    @Test
+    void sortsByPriceAndName() {
+        assertThat(page("price", "asc")).containsExactly(2L, 1L, 3L);
+        assertThat(page("price", "desc")).containsExactly(3L, 1L, 2L);
+        assertThat(page("name", "asc")).containsExactly(3L, 2L, 1L);
+        assertThat(page("id", "desc")).containsExactly(3L, 2L, 1L);
+    }
+
+    @Test
+    void changesInsideTransactionAreVisibleOnlyAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        index.index(product(4L, "Jabón de avena", "5.00"));
+        index.remove(3L);
+
+        assertThat(ids("avena")).containsExactly(2L);
+        assertThat(ids("aceite")).containsExactly(3L);
+
+        TransactionSynchronizationUtils.triggerAfterCommit();
+        assertThat(ids("avena")).containsExactly(2L, 4L);
+        assertThat(ids("aceite")).isEmpty();
+    }
+
+    @Test
+    void rolledBackChangesNeverReachTheIndex() {
+        TransactionSynchronizationManager.initSynchronization();
+        index.index(product(4L, "Jabón de avena", "5.00"));
+
+        TransactionSynchronizationUtils.invokeAfterCompletion(
+                TransactionSynchronizationManager.getSynchronizations(), TransactionSynchronization.STATUS_ROLLED_BACK);
+        assertThat(ids("avena")).containsExactly(2L);
+    }
+
+    private List<Long> ids(String query) {
+        return index.search(query).orElseThrow();
+    }
+
+    private List<Long> page(String sort, String direction) {
+        ProductSearchRequest request = new ProductSearchRequest();
+        request.setSort(sort);
+        request.setDirection(direction);
+        return index.search(request).orElseThrow().getProductIds();
+    }
+
+    private static Product product(Long id, String name, String price) {
+        return Product.builder()
+                .id(id)
+                .name(name)
+                .sku("SKU-" + id)
+                .price(new BigDecimal(price))
+                .category(SOAPS)
+                .brand(VERDE)
+                .status(Product.ProductStatus.ACTIVE)
+                .build();
+    }
+}
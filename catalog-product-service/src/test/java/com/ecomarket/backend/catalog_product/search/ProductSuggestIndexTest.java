@@ -0,0 +1,103 @@
+package com.ecomarket.backend.catalog_product.search;
+
+import com.ecomarket.backend.catalog_product.DTO.ProductSuggestionResponse;
+import com.ecomarket.backend.catalog_product.model.Product;
+import com.ecomarket.backend.catalog_product.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ProductSuggestIndexTest {
+
+    private ProductSuggestIndex index;
+
+    @BeforeEach
+    void setUp() {
+        ProductRepository productRepo = mock(ProductRepository.class);
+        when(productRepo.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(List.of(
+                product(1L, "Jabón orgánico de lavanda", Product.ProductStatus.ACTIVE),
+                product(2L, "Jabón neutro", Product.ProductStatus.ACTIVE),
+                product(3L, "Aceite orgánico", Product.ProductStatus.ACTIVE),
+                product(4L, "Jabón de rosa", Product.ProductStatus.SOLD_OUT))));
+        index = new ProductSuggestIndex(productRepo, 10, 100);
+        index.rebuild();
+    }
+
+    @Test
+    void matchesPrefixesOfNamesWordsAndSkus() {
+        assertThat(ids("jab")).containsExactly(2L, 1L); // Sin visitas gana el nombre más corto; 4 no está a la venta
+        assertThat(ids("jabon n")).containsExactly(2L);
+        assertThat(ids("lavan")).containsExactly(1L);
+        assertThat(ids("sku-3")).containsExactly(3L);
+        assertThat(ids("de lavanda")).isEmpty(); // Las stopwords no abren sufijo
+        assertThat(ids("xyz")).isEmpty();
+    }
+
+    @Test
+    void ignoresAccentsAndCase() {
+        assertThat(ids("ORGÁNICO")).containsExactly(3L, 1L);
+        assertThat(ids("  Jabón   neu")).containsExactly(2L);
+    }
+
+    @Test
+    void ranksByPopularityThenShorterName() {
+        index.addPopularity(Map.of(1L, 5L));
+        assertThat(ids("jab")).containsExactly(1L, 2L);
+        assertThat(ids("organ")).containsExactly(1L, 3L);
+
+        index.addPopularity(Map.of(2L, 9L));
+        assertThat(ids("jab")).containsExactly(2L, 1L);
+        assertThat(index.suggest("jab", 1)).extracting(ProductSuggestionResponse::getName).containsExactly("Jabón neutro");
+    }
+
+    @Test
+    void removeAndReindexUpdateEveryPath() {
+        index.addPopularity(Map.of(1L, 5L));
+
+        index.remove(2L);
+        assertThat(ids("jab")).containsExactly(1L);
+        assertThat(ids("neutro")).isEmpty();
+
+        index.index(product(2L, "Gel neutro", Product.ProductStatus.ACTIVE));
+        index.index(product(4L, "Jabón de rosa", Product.ProductStatus.ACTIVE));
+        index.index(product(1L, "Jabón orgánico de lavanda", Product.ProductStatus.ACTIVE));
+        assertThat(ids("jab")).containsExactly(1L, 4L); // La popularidad sobrevive a la reindexación
+        assertThat(ids("neu")).containsExactly(2L);
+
+        index.index(product(3L, "Aceite orgánico", Product.ProductStatus.SOLD_OUT));
+        assertThat(ids("aceite")).isEmpty();
+        assertThat(ids("organ")).containsExactly(1L);
+    }
+
+    @Test
+    void emptyPrefixOrLimitReturnsNothing() {
+        assertThat(index.suggest("   ", 10)).isEmpty();
+        assertThat(index.suggest(null, 10)).isEmpty();
+        assertThat(index.suggest("jab", 0)).isEmpty();
+        assertThat(index.suggest("jab", -1)).isEmpty();
+    }
+
+    private List<Long> ids(String prefix) {
+        return index.suggest(prefix, 10).stream().map(ProductSuggestionResponse::getId).toList();
+    }
+
+    private static Product product(Long id, String name, Product.ProductStatus status) {
+        return Product.builder()
+                .id(id)
+                .name(name)
+                .sku("SKU-" + id)
+                .price(BigDecimal.ONE)
+                .status(status)
+                .build();
+    }
+}
@@ -0,0 +1,29 @@
+package com.ecomarket.backend.catalog_product.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SpanishAnalyzerTest {
+
+    @Test
+    void unifiesPluralAndGender() {
+        assertThat(SpanishAnalyzer.analyze("orgánicas")).containsExactly("organic");
+        assertThat(SpanishAnalyzer.analyze("Orgánico")).containsExactly("organic");
+        assertThat(SpanishAnalyzer.analyze("jabones")).isEqualTo(SpanishAnalyzer.analyze("jabón"));
+        assertThat(SpanishAnalyzer.analyze("luces")).containsExactly("luz");
+    }
+
+    @Test
+    void foldsAccentsButKeepsEnye() {
+        assertThat(SpanishAnalyzer.normalize("CAFÉ Ñandú")).isEqualTo("cafe ñandu");
+        assertThat(SpanishAnalyzer.analyze("año")).isNotEqualTo(SpanishAnalyzer.analyze("ano"));
+    }
+
+    @Test
+    void dropsStopwordsAndKeepsCodes() {
+        assertThat(SpanishAnalyzer.analyze("Aceite de oliva para la cocina ECO-500ml"))
+                .containsExactly("aceit", "oliv", "cocin", "eco", "500ml");
+        assertThat(SpanishAnalyzer.analyze("   ")).isEmpty();
+    }
+}
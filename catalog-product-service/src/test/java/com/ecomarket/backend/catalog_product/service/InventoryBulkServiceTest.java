@@ -0,0 +1,146 @@
+package com.ecomarket.backend.catalog_product.service;
+
+import com.ecomarket.backend.catalog_product.DTO.InventoryAdjustmentRequest;
+import com.ecomarket.backend.catalog_product.DTO.InventoryAdjustmentResult;
+import com.ecomarket.backend.catalog_product.DTO.InventoryBulkRequest;
+import com.ecomarket.backend.catalog_product.DTO.InventoryBulkResponse;
+import com.ecomarket.backend.catalog_product.availability.AvailabilityBitmap;
+import com.ecomarket.backend.catalog_product.availability.StockStatusEvaluator;
+import com.ecomarket.backend.catalog_product.cache.ProductInvalidationFeed;
+import com.ecomarket.backend.catalog_product.cache.ProductResponseCache;
+import com.ecomarket.backend.catalog_product.changefeed.CatalogChangeLog;
+import com.ecomarket.backend.catalog_product.model.Inventory;
+import com.ecomarket.backend.catalog_product.model.Product;
+import com.ecomarket.backend.catalog_product.search.ProductSearchIndex;
+import com.ecomarket.backend.catalog_product.search.ProductSuggestIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@DataJpaTest(properties = "inventory.bulk.chunk-size=2")
+@Import({InventoryBulkService.class, CatalogChangeLog.class, StockStatusEvaluator.class, AvailabilityBitmap.class,
+        ProductInvalidationFeed.class, ProductResponseCache.class, ProductSearchIndex.class, ProductSuggestIndex.class})
+@ImportAutoConfiguration(JdbcTemplateAutoConfiguration.class)
+class InventoryBulkServiceTest {
+
+    @Autowired
+    private InventoryBulkService bulkService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seed() {
+        persist("SKU-A", 10, 3);
+        persist("SKU-B", 5, 0);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void appliesOperationsInOrderAndReportsPerSku() {
+        InventoryBulkRequest request = new InventoryBulkRequest();
+        request.setOperations(List.of(
+                new InventoryAdjustmentRequest("SKU-A", "SET", 20),
+                new InventoryAdjustmentRequest("SKU-A", "delta", -2),
+                new InventoryAdjustmentRequest("SKU-B", "DELTA", -6),
+                new InventoryAdjustmentRequest("SKU-X", "DELTA", 1),
+                new InventoryAdjustmentRequest("SKU-B", "SET", -1)));
+
+        InventoryBulkResponse response = bulkService.adjust(request);
+
+        assertThat(response.getApplied()).isEqualTo(2);
+        assertThat(response.getNotFound()).isEqualTo(1);
+        assertThat(response.getRejected()).isEqualTo(2);
+        assertThat(response.getResults()).extracting(InventoryAdjustmentResult::getStatus).containsExactly(
+                InventoryAdjustmentResult.Status.APPLIED,
+                InventoryAdjustmentResult.Status.APPLIED,
+                InventoryAdjustmentResult.Status.REJECTED,
+                InventoryAdjustmentResult.Status.NOT_FOUND,
+                InventoryAdjustmentResult.Status.REJECTED);
+        // SET 20 con 3 unidades en lease deja 17 disponibles; luego DELTA -2
+        assertThat(response.getResults().get(1).getAvailableQuantity()).isEqualTo(15);
+        assertThat(available("SKU-A")).isEqualTo(15);
+        assertThat(available("SKU-B")).isEqualTo(5);
+        // Sólo SKU-A cambió: una entrada en el registro de cambios con el estado final
+        assertThat(jdbcTemplate.queryForList("SELECT available_quantity FROM catalog_changes", Integer.class))
+                .containsExactly(15);
+    }
+
+    @Test
+    void reportsTheQuantityLeftByEachOperationOfARepeatedSku() {
+        InventoryBulkRequest request = new InventoryBulkRequest();
+        request.setOperations(List.of(
+                new InventoryAdjustmentRequest("SKU-B", "DELTA", 3),
+                new InventoryAdjustmentRequest("SKU-B", "DELTA", -2),
+                new InventoryAdjustmentRequest("SKU-B", "DELTA", -10),
+                new InventoryAdjustmentRequest("SKU-B", "DELTA", 1),
+                new InventoryAdjustmentRequest("SKU-A", "SET", 4),
+                new InventoryAdjustmentRequest("SKU-A", "DELTA", -5)));
+
+        InventoryBulkResponse response = bulkService.adjust(request);
+
+        // Bloques de 2: cada par repite SKU y cada resultado lleva la cantidad tras su propia operación
+        assertThat(response.getResults())
+                .extracting(InventoryAdjustmentResult::getStatus, InventoryAdjustmentResult::getAvailableQuantity)
+                .containsExactly(
+                        tuple(InventoryAdjustmentResult.Status.APPLIED, 8),
+                        tuple(InventoryAdjustmentResult.Status.APPLIED, 6),
+                        tuple(InventoryAdjustmentResult.Status.REJECTED, 6), // No la del DELTA siguiente
+                        tuple(InventoryAdjustmentResult.Status.APPLIED, 7),
+                        tuple(InventoryAdjustmentResult.Status.APPLIED, 1), // SET 4 con 3 en lease
+                        tuple(InventoryAdjustmentResult.Status.REJECTED, 1));
+        assertThat(available("SKU-A")).isEqualTo(1);
+        assertThat(available("SKU-B")).isEqualTo(7);
+    }
+
+    @Test
+    void reevaluatesOnlyTheProductsTouchedByTheBatch() {
+        // Desajustado a propósito y fuera del lote: lo corrige la reconciliación periódica, no el ajuste
+        persist("SKU-C", 0, 0);
+        entityManager.flush();
+        entityManager.clear();
+
+        InventoryBulkRequest request = new InventoryBulkRequest();
+        request.setOperations(List.of(new InventoryAdjustmentRequest("SKU-B", "DELTA", -5)));
+        bulkService.adjust(request);
+
+        assertThat(status("SKU-B")).isEqualTo("SOLD_OUT");
+        assertThat(status("SKU-A")).isEqualTo("ACTIVE");
+        assertThat(status("SKU-C")).isEqualTo("ACTIVE");
+    }
+
+    private void persist(String sku, int available, int leased) {
+        Product product = entityManager.persist(Product.builder()
+                .name(sku)
+                .price(BigDecimal.ONE)
+                .sku(sku)
+                .status(Product.ProductStatus.ACTIVE)
+                .build());
+        entityManager.persist(Inventory.builder().product(product).availableQuantity(available).leasedQuantity(leased).build());
+    }
+
+    private int available(String sku) {
+        return jdbcTemplate.queryForObject("SELECT i.available_quantity FROM inventories i " +
+                "JOIN products p ON p.id = i.product_id WHERE p.sku = ?", Integer.class, sku);
+    }
+
+    private String status(String sku) {
+        return jdbcTemplate.queryForObject("SELECT status FROM products WHERE sku = ?", String.class, sku);
+    }
+}
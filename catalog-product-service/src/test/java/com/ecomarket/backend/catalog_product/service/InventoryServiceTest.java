@@ -0,0 +1,68 @@
+package com.ecomarket.backend.catalog_product.service;
+
+import com.ecomarket.backend.catalog_product.DTO.InventoryOperationRequest;
+import com.ecomarket.backend.catalog_product.availability.AvailabilityBitmap;
+import com.ecomarket.backend.catalog_product.availability.StockStatusEvaluator;
+import com.ecomarket.backend.catalog_product.cache.ProductInvalidationFeed;
+import com.ecomarket.backend.catalog_product.cache.ProductResponseCache;
+import com.ecomarket.backend.catalog_product.changefeed.CatalogChangeLog;
+import com.ecomarket.backend.catalog_product.model.Inventory;
+import com.ecomarket.backend.catalog_product.model.Product;
+import com.ecomarket.backend.catalog_product.sales.SalesTrends;
+import com.ecomarket.backend.catalog_product.search.ProductSearchIndex;
+import com.ecomarket.backend.catalog_product.search.ProductSuggestIndex;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Un RESERVE repetido con la misma clave (pedido reprocesado en cart-order) se aplica una sola vez.
+ */
+@DataJpaTest
+@Import({InventoryService.class, StockStatusEvaluator.class, AvailabilityBitmap.class, CatalogChangeLog.class,
+        ProductInvalidationFeed.class, ProductResponseCache.class, ProductSearchIndex.class, ProductSuggestIndex.class,
+        SalesTrends.class})
+@ImportAutoConfiguration(JdbcTemplateAutoConfiguration.class)
+class InventoryServiceTest {
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void repeatedKeyIsAppliedOnce() {
+        Product product = entityManager.persist(Product.builder()
+                .name("Cafe")
+                .price(BigDecimal.ONE)
+                .sku("SKU-IDEMPOTENT")
+                .status(Product.ProductStatus.ACTIVE)
+                .build());
+        entityManager.persist(Inventory.builder().product(product).availableQuantity(10).leasedQuantity(0).build());
+        entityManager.flush();
+
+        assertThat(inventoryService.handleOperation(product.getId(), reserve(3, "intake-1:reserve:0")).getAvailableQuantity())
+                .isEqualTo(7);
+        assertThat(inventoryService.handleOperation(product.getId(), reserve(3, "intake-1:reserve:0")).getAvailableQuantity())
+                .isEqualTo(7);
+        assertThat(inventoryService.handleOperation(product.getId(), reserve(3, null)).getAvailableQuantity())
+                .isEqualTo(4);
+    }
+
+    private static InventoryOperationRequest reserve(int quantity, String idempotencyKey) {
+        InventoryOperationRequest request = new InventoryOperationRequest();
+        request.setOperationType("RESERVE");
+        request.setQuantity(quantity);
+        request.setIdempotencyKey(idempotencyKey);
+        return request;
+    }
+}
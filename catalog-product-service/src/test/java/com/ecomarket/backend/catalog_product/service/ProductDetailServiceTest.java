@@ -0,0 +1,102 @@
+package com.ecomarket.backend.catalog_product.service;
+
+import com.ecomarket.backend.catalog_product.DTO.ProductDetailResponse;
+import com.ecomarket.backend.catalog_product.DTO.ProductResponse;
+import com.ecomarket.backend.catalog_product.assembler.ReviewAssembler;
+import com.ecomarket.backend.catalog_product.exception.ResourceNotFoundException;
+import com.ecomarket.backend.catalog_product.exception.ServiceUnavailableException;
+import com.ecomarket.backend.catalog_product.model.Inventory;
+import com.ecomarket.backend.catalog_product.model.Product;
+import com.ecomarket.backend.catalog_product.model.Review;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Cada lectura tarda 300 ms: en paralelo la ficha completa sale en bastante menos que la suma.
+ */
+class ProductDetailServiceTest {
+
+    private static final long SLOW_READ_MILLIS = 300;
+
+    private final ProductService productService = mock(ProductService.class);
+    private final InventoryService inventoryService = mock(InventoryService.class);
+    private final ReviewService reviewService = mock(ReviewService.class);
+    private final ProductDetailService detailService = new ProductDetailService(productService, inventoryService,
+            reviewService, new ReviewAssembler(), mock(PlatformTransactionManager.class), 8, Duration.ofSeconds(2));
+
+    @AfterEach
+    void shutdown() {
+        detailService.close();
+    }
+
+    @Test
+    void readsSectionsInParallel() {
+        when(productService.getProductResponse(1L)).thenAnswer(inv -> slow(ProductResponse.builder().id(1L).build()));
+        when(inventoryService.getInventory(1L)).thenAnswer(inv -> slow(Inventory.builder().availableQuantity(4).build()));
+        Review review = Review.builder().id(9L).product(Product.builder().id(1L).build()).rating(5).build();
+        when(reviewService.getReviews(eq(1L), any(), anyInt())).thenAnswer(inv -> slow(
+                ReviewPage.builder().reviews(List.of(review)).size(5).nextBeforeId(9L).build()));
+
+        long start = System.nanoTime();
+        ProductDetailResponse detail = detailService.getDetail(1L, EnumSet.allOf(ProductDetailService.Section.class), 5);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertThat(elapsedMillis).isLessThan(2 * SLOW_READ_MILLIS);
+        assertThat(detail.getProduct().getId()).isEqualTo(1L);
+        assertThat(detail.getAvailability().isInStock()).isTrue();
+        assertThat(detail.getAvailability().getAvailableQuantity()).isEqualTo(4);
+        assertThat(detail.getReviews()).extracting("id").containsExactly(9L);
+        assertThat(detail.getNextReviewsBeforeId()).isEqualTo(9L);
+        assertThat(detail.getUnavailable()).isNull();
+    }
+
+    @Test
+    void failedOptionalSectionIsReportedAndMissingProductIsNotFound() {
+        when(productService.getProductResponse(1L)).thenReturn(ProductResponse.builder().id(1L).build());
+        when(reviewService.getReviews(eq(1L), any(), anyInt())).thenThrow(new IllegalStateException("boom"));
+
+        ProductDetailResponse detail = detailService.getDetail(1L, EnumSet.of(ProductDetailService.Section.REVIEWS), 5);
+        assertThat(detail.getAvailability()).isNull();
+        assertThat(detail.getReviews()).isNull();
+        assertThat(detail.getUnavailable()).containsExactly("reviews");
+
+        when(productService.getProductResponse(2L)).thenThrow(new ResourceNotFoundException("Product not found"));
+        assertThatThrownBy(() -> detailService.getDetail(2L, EnumSet.allOf(ProductDetailService.Section.class), 5))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    void productFailureOrTimeoutIsUnavailableNotInternalError() {
+        when(productService.getProductResponse(3L)).thenThrow(new IllegalStateException("connection refused"));
+        assertThatThrownBy(() -> detailService.getDetail(3L, EnumSet.noneOf(ProductDetailService.Section.class), 5))
+                .isInstanceOfSatisfying(ServiceUnavailableException.class, ex -> assertThat(ex.isTimedOut()).isFalse());
+
+        ProductDetailService impatient = new ProductDetailService(productService, inventoryService, reviewService,
+                new ReviewAssembler(), mock(PlatformTransactionManager.class), 2, Duration.ofMillis(50));
+        try {
+            when(productService.getProductResponse(4L)).thenAnswer(inv -> slow(ProductResponse.builder().id(4L).build()));
+            assertThatThrownBy(() -> impatient.getDetail(4L, EnumSet.noneOf(ProductDetailService.Section.class), 5))
+                    .isInstanceOfSatisfying(ServiceUnavailableException.class, ex -> assertThat(ex.isTimedOut()).isTrue());
+        } finally {
+            impatient.close();
+        }
+    }
+
+    private static <T> T slow(T value) throws InterruptedException {
+        Thread.sleep(SLOW_READ_MILLIS);
+        return value;
+    }
+}
@@ -0,0 +1,107 @@
+package com.ecomarket.backend.catalog_product.service;
+
+import com.ecomarket.backend.catalog_product.DTO.ProductImportError;
+import com.ecomarket.backend.catalog_product.DTO.ProductImportResponse;
+import com.ecomarket.backend.catalog_product.availability.AvailabilityBitmap;
+import com.ecomarket.backend.catalog_product.changefeed.CatalogChangeLog;
+import com.ecomarket.backend.catalog_product.model.Brand;
+import com.ecomarket.backend.catalog_product.model.Category;
+import com.ecomarket.backend.catalog_product.model.Product;
+import com.ecomarket.backend.catalog_product.repository.BrandRepository;
+import com.ecomarket.backend.catalog_product.repository.CategoryRepository;
+import com.ecomarket.backend.catalog_product.search.ProductSearchIndex;
+import com.ecomarket.backend.catalog_product.search.ProductSuggestIndex;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Sin la transacción de prueba: cada bloque tiene que confirmar o revertir de verdad.
+ */
+@DataJpaTest(properties = "catalog.import.chunk-size=10")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ProductImportService.class, AvailabilityBitmap.class, CatalogChangeLog.class})
+@ImportAutoConfiguration({JacksonAutoConfiguration.class, ValidationAutoConfiguration.class, JdbcTemplateAutoConfiguration.class})
+class ProductImportRetryTest {
+
+    @Autowired
+    private ProductImportService importService;
+
+    @Autowired
+    private CategoryRepository categoryRepo;
+
+    @Autowired
+    private BrandRepository brandRepo;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockitoBean
+    private ProductSearchIndex searchIndex;
+
+    @MockitoBean
+    private ProductSuggestIndex suggestIndex;
+
+    @BeforeEach
+    void seed() {
+        categoryRepo.save(Category.builder().name("Hogar").build());
+        brandRepo.save(Brand.builder().name("EcoBrand").build());
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM catalog_changes");
+        jdbcTemplate.update("DELETE FROM inventories");
+        jdbcTemplate.update("DELETE FROM products");
+        brandRepo.deleteAll();
+        categoryRepo.deleteAll();
+    }
+
+    @Test
+    void rowRejectedByDatabaseDoesNotSinkItsChunk() {
+        String tooLong = "x".repeat(300); // Pasa la validación pero no cabe en la columna
+        String ndjson = """
+                {"name":"Taza","description":"Cerámica","price":3990,"sku":"SKU-20","category":"hogar","brand":"EcoBrand"}
+                {"name":"%s","description":"Cerámica","price":3990,"sku":"SKU-21","category":"hogar","brand":"EcoBrand"}
+                {"name":"Plato","description":"Cerámica","price":2990,"sku":"SKU-22","category":"hogar","brand":"EcoBrand","stock":2}
+                """.formatted(tooLong);
+
+        ProductImportResponse response = importService.importProducts(stream(ndjson), ProductImportService.Format.NDJSON);
+
+        assertThat(response.getImported()).isEqualTo(2);
+        assertThat(response.getFailed()).isEqualTo(1);
+        assertThat(response.getErrors()).extracting(ProductImportError::getLine).containsExactly(2L);
+        assertThat(response.getErrors().get(0).getMessage()).startsWith("Rejected by database");
+        assertThat(jdbcTemplate.queryForList(
+                "SELECT p.sku FROM products p JOIN inventories i ON i.product_id = p.id ORDER BY p.sku", String.class))
+                .containsExactly("SKU-20", "SKU-22");
+        // El intento de bloque revertido no deja entradas: sólo las filas que quedaron escritas
+        assertThat(jdbcTemplate.queryForList("SELECT p.sku FROM catalog_changes c JOIN products p ON p.id = c.product_id " +
+                "WHERE c.type = 'PRODUCT_CREATED' ORDER BY p.sku", String.class))
+                .containsExactly("SKU-20", "SKU-22");
+        verify(searchIndex, times(2)).index(any(Product.class));
+    }
+
+    private static ByteArrayInputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
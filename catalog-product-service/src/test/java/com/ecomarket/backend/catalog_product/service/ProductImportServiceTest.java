@@ -0,0 +1,119 @@
+package com.ecomarket.backend.catalog_product.service;
+
+import com.ecomarket.backend.catalog_product.DTO.ProductImportError;
+import com.ecomarket.backend.catalog_product.DTO.ProductImportResponse;
+import com.ecomarket.backend.catalog_product.availability.AvailabilityBitmap;
+import com.ecomarket.backend.catalog_product.changefeed.CatalogChangeLog;
+import com.ecomarket.backend.catalog_product.model.Brand;
+import com.ecomarket.backend.catalog_product.model.Category;
+import com.ecomarket.backend.catalog_product.model.Product;
+import com.ecomarket.backend.catalog_product.search.ProductSearchIndex;
+import com.ecomarket.backend.catalog_product.search.ProductSuggestIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@DataJpaTest(properties = "catalog.import.chunk-size=2")
+@Import({ProductImportService.class, AvailabilityBitmap.class, CatalogChangeLog.class})
+@ImportAutoConfiguration({JacksonAutoConfiguration.class, ValidationAutoConfiguration.class, JdbcTemplateAutoConfiguration.class})
+class ProductImportServiceTest {
+
+    @Autowired
+    private ProductImportService importService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockitoBean
+    private ProductSearchIndex searchIndex;
+
+    @MockitoBean
+    private ProductSuggestIndex suggestIndex;
+
+    private Long categoryId;
+    private Long brandId;
+
+    @BeforeEach
+    void seed() {
+        categoryId = entityManager.persist(Category.builder().name("Hogar").build()).getId();
+        brandId = entityManager.persist(Brand.builder().name("EcoBrand").build()).getId();
+        entityManager.persist(Product.builder()
+                .name("Existing")
+                .price(BigDecimal.ONE)
+                .sku("SKU-EXISTING")
+                .status(Product.ProductStatus.ACTIVE)
+                .build());
+        entityManager.flush();
+    }
+
+    @Test
+    void csvImportWritesChunksAndReportsRowErrors() {
+        String csv = """
+                name,description,price,sku,category_id,brand,stock
+                Bolsa reutilizable,"Bolsa de algodón, 40x40",2990,SKU-1,%1$d,EcoBrand,15
+                Botella,Acero inoxidable,8990,SKU-2,%1$d,ecobrand,
+                Cepillo,Bambú,abc,SKU-3,%1$d,EcoBrand,1
+                Jabón,Natural,1990,SKU-4,%1$d,Unknown,1
+                Repetido,Ya existe,1000,SKU-EXISTING,%1$d,EcoBrand,1
+                Vela,Soya,4990,SKU-5,%1$d,EcoBrand,3
+                """.formatted(categoryId);
+
+        ProductImportResponse response = importService.importProducts(stream(csv), ProductImportService.Format.CSV);
+
+        assertThat(response.getProcessed()).isEqualTo(6);
+        assertThat(response.getImported()).isEqualTo(3);
+        assertThat(response.getFailed()).isEqualTo(3);
+        assertThat(response.getErrors()).extracting(ProductImportError::getLine).containsExactlyInAnyOrder(4L, 5L, 6L);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT i.available_quantity FROM inventories i JOIN products p ON p.id = i.product_id WHERE p.sku = 'SKU-1'",
+                Integer.class)).isEqualTo(15);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT description FROM products WHERE sku = 'SKU-1'", String.class)).isEqualTo("Bolsa de algodón, 40x40");
+        assertThat(jdbcTemplate.queryForList("SELECT p.sku, c.status FROM catalog_changes c " +
+                "JOIN products p ON p.id = c.product_id WHERE c.type = 'PRODUCT_CREATED' ORDER BY p.sku"))
+                .extracting(row -> row.get("SKU"), row -> row.get("STATUS"))
+                .containsExactly(tuple("SKU-1", "ACTIVE"), tuple("SKU-2", "SOLD_OUT"), tuple("SKU-5", "ACTIVE"));
+        verify(searchIndex, times(3)).index(any(Product.class));
+    }
+
+    @Test
+    void ndjsonImportRejectsMalformedLines() {
+        String ndjson = """
+                {"name":"Taza","description":"Cerámica","price":3990,"sku":"SKU-10","category":"hogar","brandId":%d,"stock":4}
+                {"name":"Rota",
+                {"name":"Plato","description":"Cerámica","price":0,"sku":"SKU-11","category":"hogar","brand":"EcoBrand"}
+                """.formatted(brandId);
+
+        ProductImportResponse response = importService.importProducts(stream(ndjson), ProductImportService.Format.NDJSON);
+
+        assertThat(response.getImported()).isEqualTo(1);
+        assertThat(response.getErrors()).extracting(ProductImportError::getLine).containsExactly(2L, 3L);
+        assertThat(response.getErrors().get(1).getMessage()).isEqualTo("Price must be greater than zero");
+    }
+
+    private static ByteArrayInputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
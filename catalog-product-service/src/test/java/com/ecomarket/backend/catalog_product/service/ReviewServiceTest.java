@@ -0,0 +1,116 @@
+package com.ecomarket.backend.catalog_product.service;
+
+import com.ecomarket.backend.catalog_product.DTO.RatingRepairResponse;
+import com.ecomarket.backend.catalog_product.DTO.ReviewRequest;
+import com.ecomarket.backend.catalog_product.cache.ProductInvalidationFeed;
+import com.ecomarket.backend.catalog_product.cache.ProductResponseCache;
+import com.ecomarket.backend.catalog_product.changefeed.CatalogChangeLog;
+import com.ecomarket.backend.catalog_product.model.Brand;
+import com.ecomarket.backend.catalog_product.model.Category;
+import com.ecomarket.backend.catalog_product.model.Product;
+import com.ecomarket.backend.catalog_product.model.ProductRatingSummary;
+import com.ecomarket.backend.catalog_product.model.Review;
+import com.ecomarket.backend.catalog_product.repository.ProductRatingSummaryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import({ReviewService.class, ProductInvalidationFeed.class, ProductResponseCache.class, CatalogChangeLog.class})
+class ReviewServiceTest {
+
+    @Autowired
+    private ReviewService reviewService;
+
+    @Autowired
+    private ProductRatingSummaryRepository ratingRepo;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Long productId;
+
+    @BeforeEach
+    void seed() {
+        Category category = entityManager.persist(Category.builder().name("Category").build());
+        Brand brand = entityManager.persist(Brand.builder().name("Brand").build());
+        productId = entityManager.persist(Product.builder()
+                .name("Product")
+                .price(BigDecimal.TEN)
+                .sku("SKU-1")
+                .category(category)
+                .brand(brand)
+                .status(Product.ProductStatus.ACTIVE)
+                .build()).getId();
+        entityManager.flush();
+    }
+
+    @Test
+    void createReviewMaintainsAggregate() {
+        reviewService.createReview(review(5));
+        reviewService.createReview(review(4));
+        reviewService.createReview(review(5));
+
+        ProductRatingSummary summary = reviewService.getRatingSummary(productId);
+        assertThat(summary.getRatingCount()).isEqualTo(3);
+        assertThat(summary.getRatingSum()).isEqualTo(14);
+        assertThat(summary.getStars4()).isEqualTo(1);
+        assertThat(summary.getStars5()).isEqualTo(2);
+    }
+
+    @Test
+    void repairRecomputesFromReviews() {
+        reviewService.createReview(review(1));
+        reviewService.createReview(review(3));
+        // Simula un agregado perdido y otro desajustado
+        ratingRepo.deleteAll();
+        ratingRepo.flush();
+
+        RatingRepairResponse repair = reviewService.repairRatingSummaries();
+
+        assertThat(repair.getCreated()).isEqualTo(1);
+        ProductRatingSummary summary = reviewService.getRatingSummary(productId);
+        assertThat(summary.getRatingCount()).isEqualTo(2);
+        assertThat(summary.getRatingSum()).isEqualTo(4);
+        assertThat(summary.getStars1()).isEqualTo(1);
+        assertThat(summary.getStars3()).isEqualTo(1);
+    }
+
+    @Test
+    void reviewsArePagedByKeyset() {
+        for (int i = 0; i < 5; i++) {
+            entityManager.persist(Review.builder()
+                    .product(entityManager.find(Product.class, productId))
+                    .userId((long) i)
+                    .rating(3)
+                    .reviewDate(LocalDateTime.now())
+                    .build());
+        }
+        entityManager.flush();
+
+        ReviewPage first = reviewService.getReviews(productId, null, 2);
+        ReviewPage second = reviewService.getReviews(productId, first.getNextBeforeId(), 2);
+        ReviewPage last = reviewService.getReviews(productId, second.getNextBeforeId(), 2);
+
+        assertThat(first.getReviews()).extracting(Review::getUserId).containsExactly(4L, 3L);
+        assertThat(second.getReviews()).extracting(Review::getUserId).containsExactly(2L, 1L);
+        assertThat(last.getReviews()).extracting(Review::getUserId).containsExactly(0L);
+        assertThat(last.getNextBeforeId()).isNull();
+    }
+
+    private ReviewRequest review(int rating) {
+        ReviewRequest request = new ReviewRequest();
+        request.setProductId(productId);
+        request.setUserId(1L);
+        request.setRating(rating);
+        return request;
+    }
+}
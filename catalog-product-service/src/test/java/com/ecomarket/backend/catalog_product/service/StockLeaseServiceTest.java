@@ -0,0 +1,78 @@
+package com.ecomarket.backend.catalog_product.service;
+
+import com.ecomarket.backend.catalog_product.DTO.TopSellerResponse;
+import com.ecomarket.backend.catalog_product.availability.AvailabilityBitmap;
+import com.ecomarket.backend.catalog_product.availability.StockStatusEvaluator;
+import com.ecomarket.backend.catalog_product.cache.ProductInvalidationFeed;
+import com.ecomarket.backend.catalog_product.cache.ProductResponseCache;
+import com.ecomarket.backend.catalog_product.changefeed.CatalogChangeLog;
+import com.ecomarket.backend.catalog_product.model.Category;
+import com.ecomarket.backend.catalog_product.model.Inventory;
+import com.ecomarket.backend.catalog_product.model.Product;
+import com.ecomarket.backend.catalog_product.model.StockLease;
+import com.ecomarket.backend.catalog_product.sales.SalesTrends;
+import com.ecomarket.backend.catalog_product.search.ProductSearchIndex;
+import com.ecomarket.backend.catalog_product.search.ProductSuggestIndex;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.transaction.TestTransaction;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Las reservas atendidas desde un lease en cart-order cuentan para las tendencias al devolverlo.
+ */
+@DataJpaTest
+@Import({StockLeaseService.class, StockStatusEvaluator.class, AvailabilityBitmap.class, CatalogChangeLog.class,
+        ProductInvalidationFeed.class, ProductResponseCache.class, ProductSearchIndex.class, ProductSuggestIndex.class,
+        SalesTrends.class})
+@ImportAutoConfiguration(JdbcTemplateAutoConfiguration.class)
+class StockLeaseServiceTest {
+
+    @Autowired
+    private StockLeaseService leaseService;
+
+    @Autowired
+    private SalesTrends salesTrends;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void usedLeaseUnitsCountAsReservationsOnceReturned() {
+        Category category = entityManager.persist(Category.builder().name("Despensa").build());
+        Product product = entityManager.persist(Product.builder()
+                .name("Cafe")
+                .price(BigDecimal.ONE)
+                .sku("SKU-LEASE")
+                .category(category)
+                .status(Product.ProductStatus.ACTIVE)
+                .build());
+        entityManager.persist(Inventory.builder().product(product).availableQuantity(20).leasedQuantity(0).build());
+        entityManager.flush();
+
+        StockLease lease = leaseService.grant(product.getId(), 10, "cart-order-1");
+        leaseService.returnLease(lease.getId(), 4);
+        assertThat(trending(category.getId())).isEmpty();
+
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+
+        assertThat(trending(category.getId()))
+                .extracting(TopSellerResponse::getProductId, TopSellerResponse::getUnits)
+                .containsExactly(tuple(product.getId(), 6L));
+    }
+
+    private List<TopSellerResponse> trending(Long categoryId) {
+        return salesTrends.top(SalesTrends.Signal.RESERVATIONS, SalesTrends.Window.HOUR, categoryId, 10);
+    }
+}
@@ -0,0 +1,151 @@
+package com.ecomarket.backend.catalog_product.service;
+
+import com.ecomarket.backend.catalog_product.DTO.AllocationLineRequest;
+import com.ecomarket.backend.catalog_product.DTO.AllocationLineResponse;
+import com.ecomarket.backend.catalog_product.DTO.AllocationRequest;
+import com.ecomarket.backend.catalog_product.DTO.AllocationResponse;
+import com.ecomarket.backend.catalog_product.DTO.AllocationShipmentResponse;
+import com.ecomarket.backend.catalog_product.DTO.CommuneRequest;
+import com.ecomarket.backend.catalog_product.DTO.WarehouseRequest;
+import com.ecomarket.backend.catalog_product.DTO.WarehouseStockRequest;
+import com.ecomarket.backend.catalog_product.allocation.AllocationEngine;
+import com.ecomarket.backend.catalog_product.allocation.StockIndex;
+import com.ecomarket.backend.catalog_product.availability.AvailabilityBitmap;
+import com.ecomarket.backend.catalog_product.availability.StockStatusEvaluator;
+import com.ecomarket.backend.catalog_product.cache.ProductInvalidationFeed;
+import com.ecomarket.backend.catalog_product.cache.ProductResponseCache;
+import com.ecomarket.backend.catalog_product.changefeed.CatalogChangeLog;
+import com.ecomarket.backend.catalog_product.model.Inventory;
+import com.ecomarket.backend.catalog_product.model.Product;
+import com.ecomarket.backend.catalog_product.search.ProductSearchIndex;
+import com.ecomarket.backend.catalog_product.search.ProductSuggestIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import({WarehouseService.class, StockIndex.class, AllocationEngine.class, CatalogChangeLog.class,
+        StockStatusEvaluator.class, AvailabilityBitmap.class, ProductInvalidationFeed.class, ProductResponseCache.class,
+        ProductSearchIndex.class, ProductSuggestIndex.class})
+@ImportAutoConfiguration(JdbcTemplateAutoConfiguration.class)
+class WarehouseServiceTest {
+
+    @Autowired
+    private WarehouseService warehouseService;
+
+    @Autowired
+    private StockIndex stockIndex;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long shirt;
+    private Long mug;
+
+    @BeforeEach
+    void seed() {
+        warehouse("STGO", "Santiago", -33.45, -70.66);
+        warehouse("VALPO", "Valparaíso", -33.05, -71.62);
+        warehouse("CONCE", "Concepción", -36.82, -73.05);
+        CommuneRequest providencia = new CommuneRequest();
+        providencia.setLatitude(-33.43);
+        providencia.setLongitude(-70.61);
+        warehouseService.saveCommune("Providencia", providencia);
+
+        shirt = product("SKU-SHIRT");
+        mug = product("SKU-MUG");
+        warehouseService.adjustStock("STGO", new WarehouseStockRequest(shirt, 5));
+        warehouseService.adjustStock("VALPO", new WarehouseStockRequest(shirt, 5));
+        warehouseService.adjustStock("VALPO", new WarehouseStockRequest(mug, 5));
+        warehouseService.adjustStock("CONCE", new WarehouseStockRequest(mug, 1));
+        entityManager.flush();
+        stockIndex.reload();
+    }
+
+    @Test
+    void prefersSingleShipmentThenNearestWarehouses() {
+        // Santiago está más cerca, pero sólo Valparaíso tiene el pedido completo
+        AllocationResponse single = warehouseService.allocate(request(false, line(shirt, 2), line(mug, 2)));
+        assertThat(single.getShipments()).extracting(AllocationShipmentResponse::getWarehouseCode).containsExactly("VALPO");
+
+        AllocationResponse split = warehouseService.allocate(request(true, line(shirt, 8)));
+        assertThat(split.isCommitted()).isTrue();
+        assertThat(split.getShipments()).extracting(AllocationShipmentResponse::getWarehouseCode).containsExactly("STGO", "VALPO");
+        assertThat(split.getShipments().get(1).getLines()).extracting(AllocationLineResponse::getQuantity).containsExactly(3);
+        assertThat(warehouseQuantity("STGO", shirt)).isZero();
+        assertThat(warehouseQuantity("VALPO", shirt)).isEqualTo(2);
+        // El stock vendible no cambia: lo descontó la venta, la asignación sólo elige bodega
+        assertThat(available(shirt)).isEqualTo(10);
+
+        AllocationResponse shortage = warehouseService.allocate(request(false, line(shirt, 3)));
+        assertThat(shortage.getUnallocated()).extracting(AllocationLineResponse::getQuantity).containsExactly(1);
+    }
+
+    @Test
+    void staleIndexIsRefreshedAndAllocationRetried() {
+        // Otro nodo vació Valparaíso sin que este índice se enterara
+        jdbcTemplate.update("UPDATE warehouse_stock SET quantity = 0 WHERE product_id = ? " +
+                "AND warehouse_id = (SELECT id FROM warehouses WHERE code = 'VALPO')", mug);
+
+        AllocationResponse response = warehouseService.allocate(request(true, line(mug, 1)));
+
+        assertThat(response.getShipments()).extracting(AllocationShipmentResponse::getWarehouseCode).containsExactly("CONCE");
+        assertThat(warehouseQuantity("CONCE", mug)).isZero();
+    }
+
+    private void warehouse(String code, String commune, double latitude, double longitude) {
+        WarehouseRequest request = new WarehouseRequest();
+        request.setCode(code);
+        request.setName(code);
+        request.setCommune(commune);
+        request.setLatitude(latitude);
+        request.setLongitude(longitude);
+        warehouseService.createWarehouse(request);
+    }
+
+    private Long product(String sku) {
+        Product product = entityManager.persist(Product.builder()
+                .name(sku)
+                .price(BigDecimal.ONE)
+                .sku(sku)
+                .status(Product.ProductStatus.ACTIVE)
+                .build());
+        entityManager.persist(Inventory.builder().product(product).availableQuantity(0).leasedQuantity(0).build());
+        return product.getId();
+    }
+
+    private static AllocationLineRequest line(Long productId, int quantity) {
+        return new AllocationLineRequest(productId, quantity);
+    }
+
+    private static AllocationRequest request(boolean commit, AllocationLineRequest... lines) {
+        AllocationRequest request = new AllocationRequest();
+        request.setCommune("Providencia");
+        request.setLines(List.of(lines));
+        request.setCommit(commit);
+        return request;
+    }
+
+    private int warehouseQuantity(String code, Long productId) {
+        return jdbcTemplate.queryForObject("SELECT s.quantity FROM warehouse_stock s JOIN warehouses w ON w.id = s.warehouse_id " +
+                "WHERE w.code = ? AND s.product_id = ?", Integer.class, code, productId);
+    }
+
+    private int available(Long productId) {
+        return jdbcTemplate.queryForObject("SELECT available_quantity FROM inventories WHERE product_id = ?", Integer.class, productId);
+    }
+}
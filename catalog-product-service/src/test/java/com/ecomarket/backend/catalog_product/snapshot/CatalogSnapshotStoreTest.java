@@ -0,0 +1,112 @@
+package com.ecomarket.backend.catalog_product.snapshot;
+
+import com.ecomarket.backend.catalog_product.DTO.ProductAvailabilityResponse;
+import com.ecomarket.backend.catalog_product.changefeed.CatalogChangeLog;
+import com.ecomarket.backend.catalog_product.model.CatalogChange;
+import com.ecomarket.backend.catalog_product.model.Inventory;
+import com.ecomarket.backend.catalog_product.model.Product;
+import com.ecomarket.backend.catalog_product.service.ProductAvailabilityService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "catalog.changes.visibility-delay=0s")
+@Import(CatalogChangeLog.class)
+@ImportAutoConfiguration(JdbcTemplateAutoConfiguration.class)
+class CatalogSnapshotStoreTest {
+
+    @Autowired
+    private CatalogChangeLog changeLog;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @TempDir
+    private Path dir;
+
+    @Test
+    void warmStartServesSnapshotPlusReplayedChanges() {
+        Product shirt = persist("SKU-A", "10.50", 5, Product.ProductStatus.ACTIVE);
+        Inventory mugStock = persistInventory(persist("SKU-B", "20.00", 0, Product.ProductStatus.ACTIVE));
+        Product hidden = persist("SKU-C", "7.00", 1, Product.ProductStatus.INACTIVE);
+        entityManager.flush();
+
+        newStore().write();
+
+        // Cambios posteriores a la foto, registrados como lo hacen los servicios
+        shirt.setPrice(new BigDecimal("12.00"));
+        changeLog.recordProduct(CatalogChange.Type.PRODUCT_UPDATED, entityManager.persistFlushFind(shirt));
+        mugStock.setAvailableQuantity(3);
+        changeLog.recordInventory(entityManager.persistFlushFind(mugStock));
+
+        // Nodo nuevo: mapea la foto y no la usa hasta reproducir el registro
+        CatalogSnapshotStore restarted = newStore();
+        restarted.load();
+        assertThat(restarted.snapshot().size()).isEqualTo(2);
+        assertThat(restarted.find(shirt.getId())).isEmpty();
+
+        restarted.replay();
+        assertThat(restarted.find(shirt.getId())).get()
+                .satisfies(row -> assertThat(row.price()).isEqualByComparingTo("12.00"));
+        assertThat(restarted.find(mugStock.getProduct().getId())).get()
+                .satisfies(row -> assertThat(row.inStock()).isTrue());
+        assertThat(restarted.find(hidden.getId())).isEmpty();
+
+        List<ProductAvailabilityResponse> availability = new ProductAvailabilityService(restarted)
+                .getAvailability(List.of(hidden.getId(), shirt.getId(), -1L));
+        assertThat(availability).extracting(ProductAvailabilityResponse::getProductId)
+                .containsExactly(hidden.getId(), shirt.getId());
+        assertThat(availability.get(0).getStatus()).isEqualTo("INACTIVE");
+        assertThat(availability.get(1).isInStock()).isTrue();
+    }
+
+    @Test
+    void truncatedSnapshotIsIgnored() throws IOException {
+        Files.write(dir.resolve("catalog-snapshot.bin"), new byte[]{1, 2, 3});
+
+        CatalogSnapshotStore store = newStore();
+        store.load();
+
+        assertThat(store.snapshot()).isNull();
+    }
+
+    private CatalogSnapshotStore newStore() {
+        return new CatalogSnapshotStore(changeLog, jdbcTemplate, true, dir.resolve("catalog-snapshot.bin"),
+                Duration.ofDays(1), 2);
+    }
+
+    private Product persist(String sku, String price, int available, Product.ProductStatus status) {
+        Product product = entityManager.persist(Product.builder()
+                .name(sku)
+                .price(new BigDecimal(price))
+                .sku(sku)
+                .status(status)
+                .build());
+        if (available > 0) {
+            persistInventory(product).setAvailableQuantity(available);
+        }
+        return product;
+    }
+
+    private Inventory persistInventory(Product product) {
+        return entityManager.persist(Inventory.builder().product(product).availableQuantity(0).leasedQuantity(0).build());
+    }
+}
@@ -0,0 +1,105 @@
+package com.ecomarket.backend.common.config;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Modo opcional de hilos virtuales ({@code spring.threads.virtual.enabled=true}).
+ * Spring Boot se encarga de Tomcat, {@code @Async} y {@code @Scheduled}; este componente vigila
+ * el pinning: escucha los eventos JFR {@code jdk.VirtualThreadPinned} y, al arrancar, ejecuta
+ * una consulta JDBC en un hilo virtual para reportar los frames del driver que lo fijan al carrier.
+ * Lo registra {@link VirtualThreadsAutoConfiguration} en cada servicio que depende de {@code common}.
+ */
+@Slf4j
+public class VirtualThreadPinningMonitor implements DisposableBean {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    private final ObjectProvider<DataSource> dataSource;
+    private final Duration threshold;
+    private final int maxFrames;
+    private final AtomicInteger pinnedEvents = new AtomicInteger();
+    private RecordingStream recordingStream;
+
+    public VirtualThreadPinningMonitor(ObjectProvider<DataSource> dataSource, Duration threshold, int maxFrames) {
+        this.dataSource = dataSource;
+        this.threshold = threshold;
+        this.maxFrames = maxFrames;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startMonitoring() {
+        recordingStream = new RecordingStream();
+        recordingStream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        recordingStream.onEvent(PINNED_EVENT, this::reportPinnedThread);
+        recordingStream.startAsync();
+        log.info("Hilos virtuales activos; reportando pinning sobre {} ms", threshold.toMillis());
+
+        probeJdbcPinning();
+    }
+
+    private void probeJdbcPinning() {
+        DataSource ds = dataSource.getIfAvailable();
+        if (ds == null) {
+            return;
+        }
+        int before = pinnedEvents.get();
+        try {
+            CompletableFuture.runAsync(() -> {
+                try (Connection connection = ds.getConnection()) {
+                    connection.isValid(2);
+                } catch (Exception e) {
+                    log.warn("No se pudo ejecutar la sonda JDBC de pinning: {}", e.getMessage());
+                }
+            }, new VirtualThreadTaskExecutor("pinning-probe-")).get(10, TimeUnit.SECONDS);
+            // Los eventos JFR se publican en bloques; se da margen para recibirlos
+            Thread.sleep(1500);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.warn("La sonda JDBC de pinning no terminó: {}", e.getMessage());
+        }
+        int pinnedDuringProbe = pinnedEvents.get() - before;
+        if (pinnedDuringProbe == 0) {
+            log.info("Sonda JDBC en hilo virtual: sin pinning detectado");
+        } else {
+            log.warn("Sonda JDBC en hilo virtual: {} eventos de pinning (ver frames arriba)", pinnedDuringProbe);
+        }
+    }
+
+    private void reportPinnedThread(RecordedEvent event) {
+        pinnedEvents.incrementAndGet();
+        String frames = event.getStackTrace() == null ? "  (sin stack trace)" : event.getStackTrace().getFrames().stream()
+                .limit(maxFrames)
+                .map(VirtualThreadPinningMonitor::describe)
+                .collect(Collectors.joining("\n"));
+        log.warn("Hilo virtual fijado a su carrier durante {} ms:\n{}", event.getDuration().toMillis(), frames);
+    }
+
+    private static String describe(RecordedFrame frame) {
+        return "  at " + frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                + "(line " + frame.getLineNumber() + ")";
+    }
+
+    @Override
+    public void destroy() {
+        if (recordingStream != null) {
+            recordingStream.close();
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.ecomarket.backend.common.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Vigilancia del pinning con {@code spring.threads.virtual.enabled=true}, igual en los cinco servicios.
+ */
+@AutoConfiguration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadsAutoConfiguration {
+
+    @Bean
+    public VirtualThreadPinningMonitor virtualThreadPinningMonitor(
+            ObjectProvider<DataSource> dataSource,
+            @Value("${virtual-threads.pinning.threshold:20ms}") Duration threshold,
+            @Value("${virtual-threads.pinning.max-frames:12}") int maxFrames) {
+        return new VirtualThreadPinningMonitor(dataSource, threshold, maxFrames);
+    }
+}
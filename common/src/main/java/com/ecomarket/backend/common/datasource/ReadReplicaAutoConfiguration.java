@@ -0,0 +1,71 @@
+package com.ecomarket.backend.common.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import java.time.Duration;
+
+/**
+ * Réplica de lectura opcional: sólo se activa con {@code spring.datasource.replica.url}. Sin ella
+ * queda el {@code DataSource} autoconfigurado de siempre.
+ * <p>
+ * La réplica se configura como el principal bajo {@code spring.datasource.replica.*} (incluido
+ * {@code .hikari.*}); se enlaza a mano para no registrar un segundo {@link DataSourceProperties}.
+ * Va antes de {@link DataSourceAutoConfiguration} para que éste no cree su propio pool.
+ * <p>
+ * Con JPA, la sesión suelta la conexión tras cada transacción y
+ * {@link ReadReplicaEnvironmentPostProcessor} desactiva open-in-view: ver {@link ReadReplicaDataSource}.
+ */
+@Slf4j
+@AutoConfiguration(before = DataSourceAutoConfiguration.class)
+@ConditionalOnClass({HikariDataSource.class, LazyConnectionDataSourceProxy.class})
+@ConditionalOnProperty(prefix = "spring.datasource.replica", name = "url")
+public class ReadReplicaAutoConfiguration {
+
+    @Bean
+    @Primary
+    public ReadReplicaDataSource dataSource(DataSourceProperties properties, Environment environment) {
+        Binder binder = Binder.get(environment);
+        DataSourceProperties replicaProperties = binder.bind("spring.datasource.replica", DataSourceProperties.class)
+                .orElseThrow(() -> new IllegalStateException("Missing spring.datasource.replica properties"));
+        HikariDataSource primary = pool(properties, binder, "spring.datasource.hikari", "primary");
+        HikariDataSource replica = pool(replicaProperties, binder, "spring.datasource.replica.hikari", "replica");
+        log.info("Lecturas readOnly enrutadas a la réplica {}", replicaProperties.getUrl());
+        return new ReadReplicaDataSource(primary, replica);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer readReplicaHibernateProperties() {
+        return properties -> properties.putAll(ReadReplicaDataSource.HIBERNATE_PROPERTIES);
+    }
+
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    public ReadYourWritesFilter readYourWritesFilter(
+            @Value("${datasource.replica.read-your-writes-window:5s}") Duration window) {
+        return new ReadYourWritesFilter(window);
+    }
+
+    private static HikariDataSource pool(DataSourceProperties properties, Binder binder, String hikariPrefix, String name) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        binder.bind(hikariPrefix, Bindable.ofInstance(dataSource));
+        if (dataSource.getPoolName() == null) {
+            dataSource.setPoolName(name);
+        }
+        return dataSource;
+    }
+}
@@ -0,0 +1,75 @@
+package com.ecomarket.backend.common.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.util.Map;
+
+/**
+ * Pool principal más réplica de lectura detrás de un único {@link DataSource}: las transacciones
+ * {@code readOnly} van a la réplica y el resto (escrituras y accesos sin transacción) al principal.
+ * <p>
+ * La conexión física se pide en la primera sentencia y no al abrir la transacción, porque el
+ * indicador {@code readOnly} se publica después de que el gestor de transacciones pida la
+ * conexión. Si la petición ya escribió, o llega dentro de la ventana de {@link ReadYourWrites},
+ * las lecturas siguen yendo al principal.
+ * <p>
+ * La decisión se toma por conexión física. Hibernate retiene por defecto la conexión toda la vida
+ * de la sesión, y con open-in-view la sesión dura la petición entera: la primera transacción
+ * decidiría por todas las demás (una escritura tras una lectura iría a la réplica). Por eso con
+ * réplica la sesión suelta la conexión al terminar cada transacción ({@link #HIBERNATE_PROPERTIES})
+ * y open-in-view queda desactivado.
+ */
+public class ReadReplicaDataSource extends LazyConnectionDataSourceProxy implements Closeable {
+
+    /** Propiedades de Hibernate para volver a enrutar en cada transacción aunque la sesión siga abierta. */
+    public static final Map<String, Object> HIBERNATE_PROPERTIES = Map.of(
+            "hibernate.connection.handling_mode", "DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION");
+
+    enum Target {
+        PRIMARY, REPLICA
+    }
+
+    private final HikariDataSource primary;
+    private final HikariDataSource replica;
+
+    public ReadReplicaDataSource(HikariDataSource primary, HikariDataSource replica) {
+        this.primary = primary;
+        this.replica = replica;
+        Routing routing = new Routing();
+        routing.setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        routing.setDefaultTargetDataSource(primary);
+        routing.afterPropertiesSet();
+        setTargetDataSource(routing);
+        afterPropertiesSet();
+    }
+
+    static Target currentTarget() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return Target.PRIMARY;
+        }
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            ReadYourWrites.recordWrite();
+            return Target.PRIMARY;
+        }
+        return ReadYourWrites.pinnedToPrimary() ? Target.PRIMARY : Target.REPLICA;
+    }
+
+    @Override
+    public void close() {
+        replica.close();
+        primary.close();
+    }
+
+    private static final class Routing extends AbstractRoutingDataSource {
+
+        @Override
+        protected Object determineCurrentLookupKey() {
+            return currentTarget();
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.ecomarket.backend.common.datasource;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MapPropertySource;
+
+import java.util.Map;
+
+/**
+ * Con {@code spring.datasource.replica.url} desactiva open-in-view: un EntityManager que abarca
+ * toda la petición retiene la conexión de la primera transacción y el enrutado dejaría de ser por
+ * transacción. Si el servicio lo activa explícitamente, el arranque falla en vez de enviar
+ * escrituras a la réplica.
+ */
+public class ReadReplicaEnvironmentPostProcessor implements EnvironmentPostProcessor {
+
+    static final String REPLICA_URL = "spring.datasource.replica.url";
+    static final String OPEN_IN_VIEW = "spring.jpa.open-in-view";
+
+    @Override
+    public void postProcessEnvironment(ConfigurableEnvironment environment, SpringApplication application) {
+        if (!environment.containsProperty(REPLICA_URL)) {
+            return;
+        }
+        if (environment.getProperty(OPEN_IN_VIEW, Boolean.class, false)) {
+            throw new IllegalStateException(OPEN_IN_VIEW + "=true is not supported together with " + REPLICA_URL);
+        }
+        environment.getPropertySources().addLast(new MapPropertySource("readReplica", Map.of(OPEN_IN_VIEW, "false")));
+    }
+}
@@ -0,0 +1,68 @@
+package com.ecomarket.backend.common.datasource;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.time.Duration;
+
+/**
+ * Estado "leer lo propio" de la petición en curso, ligado al hilo por {@link ReadYourWritesFilter}.
+ * <p>
+ * La primera transacción de escritura fija la petición al principal y, con ventana positiva, deja
+ * la cookie {@value #COOKIE} con el instante hasta el que las peticiones siguientes del mismo cliente
+ * leen también del principal, mientras la réplica recupera el retraso. Fuera de una petición (tareas
+ * programadas, hilos propios) no hay estado y las lecturas van a la réplica.
+ */
+public final class ReadYourWrites {
+
+    public static final String COOKIE = "RYW_UNTIL";
+
+    private static final ThreadLocal<Request> CURRENT = new ThreadLocal<>();
+
+    private ReadYourWrites() {
+    }
+
+    private static final class Request {
+        private final HttpServletResponse response;
+        private final Duration window;
+        private boolean pinned;
+        private boolean wrote;
+
+        private Request(HttpServletResponse response, Duration window, boolean pinned) {
+            this.response = response;
+            this.window = window;
+            this.pinned = pinned;
+        }
+    }
+
+    static void begin(HttpServletResponse response, Duration window, boolean pinned) {
+        CURRENT.set(new Request(response, window, pinned));
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    public static boolean pinnedToPrimary() {
+        Request request = CURRENT.get();
+        return request != null && request.pinned;
+    }
+
+    static void recordWrite() {
+        Request request = CURRENT.get();
+        if (request == null || request.wrote) {
+            return;
+        }
+        request.wrote = true;
+        request.pinned = true;
+        // La cookie sólo puede añadirse antes de empezar a escribir la respuesta
+        if (request.window.isZero() || request.response == null || request.response.isCommitted()) {
+            return;
+        }
+        Cookie cookie = new Cookie(COOKIE, Long.toString(System.currentTimeMillis() + request.window.toMillis()));
+        cookie.setPath("/");
+        cookie.setHttpOnly(true);
+        cookie.setMaxAge((int) Math.max(1, request.window.toSeconds()));
+        request.response.addCookie(cookie);
+    }
+}
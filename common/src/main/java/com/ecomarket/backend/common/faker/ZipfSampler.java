@@ -0,0 +1,109 @@
+package com.ecomarket.backend.common.faker;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Muestreo Zipf sobre {@code n} elementos por rechazo-inversión (Hörmann y Derflinger): O(1) en
+ * memoria y tiempo por muestra, también con millones de elementos.
+ * <p>
+ * {@link #sample} no devuelve el rango sino una posición 0..n-1: el rango se dispersa con una
+ * permutación fija derivada de la semilla, para que los elementos populares no sean siempre los
+ * primeros ids. Con la misma semilla, {@code n} y exponente, cada servicio obtiene la misma
+ * posición para el mismo rango.
+ */
+public final class ZipfSampler {
+
+    private final int n;
+    private final double exponent;
+    private final double hIntegralX1;
+    private final double hIntegralN;
+    private final double s;
+    private final long stride;
+    private final long offset;
+
+    public ZipfSampler(int n, double exponent, long seed) {
+        if (n < 1) {
+            throw new IllegalArgumentException("Zipf population must be positive: " + n);
+        }
+        if (exponent <= 0) {
+            throw new IllegalArgumentException("Zipf exponent must be positive: " + exponent);
+        }
+        this.n = n;
+        this.exponent = exponent;
+        this.hIntegralX1 = hIntegral(1.5) - 1.0;
+        this.hIntegralN = hIntegral(n + 0.5);
+        this.s = 2.0 - hIntegralInverse(hIntegral(2.5) - h(2.0));
+
+        long candidate = Math.floorMod(seed * 0x9E3779B97F4A7C15L, n) | 1L;
+        while (gcd(candidate, n) != 1) {
+            candidate += 2;
+        }
+        this.stride = candidate % n;
+        this.offset = Math.floorMod(seed, n);
+    }
+
+    /**
+     * Rango Zipf 1..n (1 es el más frecuente).
+     */
+    public int sampleRank(RandomGenerator random) {
+        while (true) {
+            double u = hIntegralN + random.nextDouble() * (hIntegralX1 - hIntegralN);
+            double x = hIntegralInverse(u);
+            int k = (int) (x + 0.5);
+            if (k < 1) {
+                k = 1;
+            } else if (k > n) {
+                k = n;
+            }
+            if (k - x <= s || u >= hIntegral(k + 0.5) - h(k)) {
+                return k;
+            }
+        }
+    }
+
+    /**
+     * Posición 0..n-1 del elemento elegido, con la popularidad dispersa por la permutación.
+     */
+    public int sample(RandomGenerator random) {
+        return position(sampleRank(random));
+    }
+
+    public int position(int rank) {
+        return (int) ((offset + (rank - 1) * stride) % n);
+    }
+
+    public int size() {
+        return n;
+    }
+
+    private double hIntegral(double x) {
+        double logX = Math.log(x);
+        return expm1OverX((1.0 - exponent) * logX) * logX;
+    }
+
+    private double h(double x) {
+        return Math.exp(-exponent * Math.log(x));
+    }
+
+    private double hIntegralInverse(double x) {
+        double t = Math.max(x * (1.0 - exponent), -1.0);
+        return Math.exp(log1pOverX(t) * x);
+    }
+
+    private static double log1pOverX(double x) {
+        return Math.abs(x) > 1e-8 ? Math.log1p(x) / x : 1.0 - x * (0.5 - x * (1.0 / 3.0 - 0.25 * x));
+    }
+
+    private static double expm1OverX(double x) {
+        return Math.abs(x) > 1e-8 ? Math.expm1(x) / x : 1.0 + x * 0.5 * (1.0 + x / 3.0 * (1.0 + 0.25 * x));
+    }
+
+    private static long gcd(long a, long b) {
+        while (b != 0) {
+            long t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+}
@@ -0,0 +1,27 @@
+package com.ecomarket.backend.common.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * El monitor de pinning sólo existe con los hilos virtuales activados.
+ */
+class VirtualThreadsAutoConfigurationTest {
+
+    // Como SpringApplication, para convertir "20ms" a Duration
+    private final ApplicationContextRunner runner = new ApplicationContextRunner()
+            .withInitializer(context -> context.getBeanFactory()
+                    .setConversionService(ApplicationConversionService.getSharedInstance()))
+            .withConfiguration(AutoConfigurations.of(VirtualThreadsAutoConfiguration.class));
+
+    @Test
+    void monitorIsRegisteredOnlyWithVirtualThreadsEnabled() {
+        runner.run(context -> assertThat(context).doesNotHaveBean(VirtualThreadPinningMonitor.class));
+        runner.withPropertyValues("spring.threads.virtual.enabled=true")
+                .run(context -> assertThat(context).hasSingleBean(VirtualThreadPinningMonitor.class));
+    }
+}
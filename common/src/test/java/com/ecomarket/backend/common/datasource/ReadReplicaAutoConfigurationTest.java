@@ -0,0 +1,65 @@
+package com.ecomarket.backend.common.datasource;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+/**
+ * Con {@code spring.datasource.replica.url} el {@code DataSource} del servicio pasa a ser el enrutador;
+ * sin ella queda el pool autoconfigurado de siempre. Con réplica, open-in-view queda desactivado.
+ */
+class ReadReplicaAutoConfigurationTest {
+
+    private final ApplicationContextRunner runner = new ApplicationContextRunner()
+            .withInitializer(context -> context.getBeanFactory()
+                    .setConversionService(ApplicationConversionService.getSharedInstance()))
+            .withConfiguration(AutoConfigurations.of(DataSourceAutoConfiguration.class, ReadReplicaAutoConfiguration.class))
+            .withPropertyValues("spring.datasource.url=jdbc:h2:mem:primary-autoconfig");
+
+    @Test
+    void replicaUrlReplacesTheAutoconfiguredDataSource() {
+        runner.withPropertyValues("spring.datasource.replica.url=jdbc:h2:mem:replica-autoconfig")
+                .run(context -> {
+                    assertThat(context).getBean(DataSource.class).isInstanceOf(ReadReplicaDataSource.class);
+                    assertThat(context).hasSingleBean(HibernatePropertiesCustomizer.class);
+                });
+        runner.run(context -> assertThat(context).getBean(DataSource.class).isNotInstanceOf(ReadReplicaDataSource.class));
+    }
+
+    @Test
+    void replicaTurnsOffOpenInView() {
+        StandardEnvironment environment = environment(Map.of(ReadReplicaEnvironmentPostProcessor.REPLICA_URL, "jdbc:h2:mem:r"));
+        new ReadReplicaEnvironmentPostProcessor().postProcessEnvironment(environment, null);
+        assertThat(environment.getProperty(ReadReplicaEnvironmentPostProcessor.OPEN_IN_VIEW)).isEqualTo("false");
+
+        StandardEnvironment withoutReplica = environment(Map.of());
+        new ReadReplicaEnvironmentPostProcessor().postProcessEnvironment(withoutReplica, null);
+        assertThat(withoutReplica.getProperty(ReadReplicaEnvironmentPostProcessor.OPEN_IN_VIEW)).isNull();
+    }
+
+    @Test
+    void explicitOpenInViewWithReplicaFailsFast() {
+        StandardEnvironment environment = environment(Map.of(
+                ReadReplicaEnvironmentPostProcessor.REPLICA_URL, "jdbc:h2:mem:r",
+                ReadReplicaEnvironmentPostProcessor.OPEN_IN_VIEW, "true"));
+        assertThatIllegalStateException()
+                .isThrownBy(() -> new ReadReplicaEnvironmentPostProcessor().postProcessEnvironment(environment, null));
+    }
+
+    private static StandardEnvironment environment(Map<String, Object> properties) {
+        StandardEnvironment environment = new StandardEnvironment();
+        environment.getPropertySources().addFirst(new MapPropertySource("test", properties));
+        return environment;
+    }
+}
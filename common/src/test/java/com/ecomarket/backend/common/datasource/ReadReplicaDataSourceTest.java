@@ -0,0 +1,90 @@
+package com.ecomarket.backend.common.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.servlet.http.Cookie;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Dos bases H2 en memoria hacen de principal y réplica; cada una responde con su nombre.
+ */
+class ReadReplicaDataSourceTest {
+
+    private ReadReplicaDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate writeTx;
+    private TransactionTemplate readTx;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new ReadReplicaDataSource(h2("primary"), h2("replica"));
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        writeTx = new TransactionTemplate(transactionManager);
+        readTx = new TransactionTemplate(transactionManager);
+        readTx.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSource.close();
+    }
+
+    @Test
+    void readOnlyTransactionsGoToTheReplica() {
+        assertThat(readTx.<String>execute(status -> node())).isEqualTo("replica");
+        assertThat(writeTx.<String>execute(status -> node())).isEqualTo("primary");
+        assertThat(node()).isEqualTo("primary");
+    }
+
+    @Test
+    void writeKeepsTheRequestAndTheWindowOnThePrimary() throws Exception {
+        ReadYourWritesFilter filter = new ReadYourWritesFilter(Duration.ofSeconds(5));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AtomicReference<String> readAfterWrite = new AtomicReference<>();
+        filter.doFilter(new MockHttpServletRequest(), response, (req, res) -> {
+            writeTx.executeWithoutResult(status -> node());
+            readAfterWrite.set(readTx.execute(status -> node()));
+        });
+        assertThat(readAfterWrite.get()).isEqualTo("primary");
+        Cookie cookie = response.getCookie(ReadYourWrites.COOKIE);
+        assertThat(cookie).isNotNull();
+
+        // La siguiente petición del mismo cliente, dentro de la ventana, sigue en el principal
+        MockHttpServletRequest next = new MockHttpServletRequest();
+        next.setCookies(cookie);
+        AtomicReference<String> nextRead = new AtomicReference<>();
+        filter.doFilter(next, new MockHttpServletResponse(), (req, res) -> nextRead.set(readTx.execute(status -> node())));
+        assertThat(nextRead.get()).isEqualTo("primary");
+
+        AtomicReference<String> otherClient = new AtomicReference<>();
+        filter.doFilter(new MockHttpServletRequest(), new MockHttpServletResponse(),
+                (req, res) -> otherClient.set(readTx.execute(status -> node())));
+        assertThat(otherClient.get()).isEqualTo("replica");
+    }
+
+    private String node() {
+        return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+    }
+
+    private static HikariDataSource h2(String name) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setJdbcUrl("jdbc:h2:mem:" + name + "-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1");
+        pool.setMaximumPoolSize(2);
+        JdbcTemplate jdbc = new JdbcTemplate(pool);
+        jdbc.execute("CREATE TABLE node (name VARCHAR(20))");
+        jdbc.update("INSERT INTO node VALUES (?)", name);
+        return pool;
+    }
+}
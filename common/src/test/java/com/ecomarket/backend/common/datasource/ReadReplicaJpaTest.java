@@ -0,0 +1,139 @@
+package com.ecomarket.backend.common.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.persistenceunit.PersistenceManagedTypes;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * El mismo enrutado con {@link JpaTransactionManager} e Hibernate, como en los servicios: el dialecto
+ * de Hibernate prepara la conexión al abrir la transacción readOnly, antes de que se publique el
+ * indicador, y aun así la consulta debe ir a la réplica.
+ */
+class ReadReplicaJpaTest {
+
+    private HikariDataSource primary;
+    private HikariDataSource replica;
+    private ReadReplicaDataSource dataSource;
+    private LocalContainerEntityManagerFactoryBean factoryBean;
+    private EntityManager entityManager;
+    private TransactionTemplate writeTx;
+    private TransactionTemplate readTx;
+
+    @Entity
+    @Table(name = "node")
+    static class Node {
+        @Id
+        String name;
+
+        Node() {
+        }
+
+        Node(String name) {
+            this.name = name;
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        primary = h2("primary");
+        replica = h2("replica");
+        dataSource = new ReadReplicaDataSource(primary, replica);
+
+        factoryBean = new LocalContainerEntityManagerFactoryBean();
+        factoryBean.setDataSource(dataSource);
+        factoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factoryBean.setManagedTypes(PersistenceManagedTypes.of(Node.class.getName()));
+        Map<String, Object> jpaProperties = new HashMap<>(ReadReplicaDataSource.HIBERNATE_PROPERTIES);
+        jpaProperties.put("hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        factoryBean.setJpaPropertyMap(jpaProperties);
+        factoryBean.afterPropertiesSet();
+        EntityManagerFactory emf = factoryBean.getObject();
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(emf);
+
+        JpaTransactionManager transactionManager = new JpaTransactionManager(emf);
+        writeTx = new TransactionTemplate(transactionManager);
+        readTx = new TransactionTemplate(transactionManager);
+        readTx.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        factoryBean.destroy();
+        dataSource.close();
+    }
+
+    @Test
+    void readOnlyJpaTransactionsGoToTheReplica() {
+        assertThat(readTx.<String>execute(status -> node())).isEqualTo("replica");
+        assertThat(writeTx.<String>execute(status -> node())).isEqualTo("primary");
+    }
+
+    @Test
+    void jpaWritesLandOnThePrimary() {
+        writeTx.executeWithoutResult(status -> entityManager.persist(new Node("written")));
+
+        assertThat(count(primary, "written")).isEqualTo(1);
+        assertThat(count(replica, "written")).isZero();
+        assertThat(readTx.<Long>execute(status -> entityManager
+                .createQuery("SELECT COUNT(n) FROM ReadReplicaJpaTest$Node n WHERE n.name = 'written'", Long.class)
+                .getSingleResult())).isZero();
+    }
+
+    @Test
+    void requestScopedEntityManagerRoutesEachTransaction() {
+        // Como open-in-view: un EntityManager para toda la petición, con una lectura antes de escribir
+        EntityManagerFactory emf = factoryBean.getObject();
+        TransactionSynchronizationManager.bindResource(emf, new EntityManagerHolder(emf.createEntityManager()));
+        try {
+            assertThat(readTx.<String>execute(status -> node())).isEqualTo("replica");
+            writeTx.executeWithoutResult(status -> entityManager.persist(new Node("after-read")));
+            assertThat(readTx.<String>execute(status -> entityManager
+                    .createQuery("SELECT n.name FROM ReadReplicaJpaTest$Node n WHERE n.name <> 'after-read'", String.class)
+                    .getSingleResult())).isEqualTo("replica");
+        } finally {
+            EntityManagerHolder holder = (EntityManagerHolder) TransactionSynchronizationManager.unbindResource(emf);
+            holder.getEntityManager().close();
+        }
+
+        assertThat(count(primary, "after-read")).isEqualTo(1);
+        assertThat(count(replica, "after-read")).isZero();
+    }
+
+    private String node() {
+        return entityManager.createQuery("SELECT n.name FROM ReadReplicaJpaTest$Node n", String.class).getSingleResult();
+    }
+
+    private static int count(HikariDataSource pool, String name) {
+        return new JdbcTemplate(pool).queryForObject("SELECT COUNT(*) FROM node WHERE name = ?", Integer.class, name);
+    }
+
+    private static HikariDataSource h2(String name) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setJdbcUrl("jdbc:h2:mem:" + name + "-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1");
+        pool.setMaximumPoolSize(2);
+        JdbcTemplate jdbc = new JdbcTemplate(pool);
+        jdbc.execute("CREATE TABLE node (name VARCHAR(20) PRIMARY KEY)");
+        jdbc.update("INSERT INTO node VALUES (?)", name);
+        return pool;
+    }
+}
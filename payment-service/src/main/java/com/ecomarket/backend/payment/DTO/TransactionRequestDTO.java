@@ -14,4 +14,5 @@ public class TransactionRequestDTO {
     private BigDecimal amount;
     private String currency;
     private String paymentMethod;
+    private String idempotencyKey; // Opcional: un reintento con la misma clave devuelve el mismo cobro
 }
@@ -0,0 +1,164 @@
+package com.ecomarket.backend.payment.faker;
+
+import com.ecomarket.backend.common.faker.ZipfSampler;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Generador de transacciones de pago sintéticas: una por cada orden que genera cart-order.
+ * <p>
+ * La transacción i tiene id y orderId i y el mismo usuario que la orden, porque ese usuario sale
+ * del generador propio de la orden (semilla, número de orden), igual que en cart-order. Los montos
+ * no se concilian con los ítems de la orden.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "synthetic.data.enabled", havingValue = "true")
+public class SyntheticTransactionGenerator implements CommandLineRunner {
+
+    private static final String INSERT_TRANSACTION = "INSERT INTO transaction " +
+            "(transaction_id, order_id, user_id, transaction_date, amount, currency, payment_method, transaction_status) " +
+            "VALUES (?, ?, ?, ?, ?, 'CLP', ?, ?)";
+
+    private static final String[] PAYMENT_METHODS = {"Credit Card", "Credit Card", "Debit Card", "Bank Transfer"};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final long seed;
+    private final int threads;
+    private final int chunkSize;
+    private final double exponent;
+    private final long orders;
+    private final int users;
+
+    public SyntheticTransactionGenerator(JdbcTemplate jdbcTemplate,
+                                         TransactionTemplate transactionTemplate,
+                                         @Value("${synthetic.data.seed:42}") long seed,
+                                         @Value("${synthetic.data.threads:4}") int threads,
+                                         @Value("${synthetic.data.chunk-size:5000}") int chunkSize,
+                                         @Value("${synthetic.data.zipf-exponent:1.1}") double exponent,
+                                         @Value("${synthetic.data.orders:2000000}") long orders,
+                                         @Value("${synthetic.data.users:200000}") int users) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.seed = seed;
+        this.threads = threads;
+        this.chunkSize = chunkSize;
+        this.exponent = exponent;
+        this.orders = orders;
+        this.users = users;
+    }
+
+    @Override
+    public void run(String... args) {
+        Integer existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM transaction", Integer.class);
+        if (existing != null && existing > 0) {
+            log.info("La tabla transaction ya tiene datos, se omite la generación sintética");
+            return;
+        }
+        generate();
+    }
+
+    public void generate() {
+        long start = System.nanoTime();
+        log.info("Generando {} transacciones sintéticas (semilla {}, {} hilos)", orders, seed, threads);
+
+        ZipfSampler customers = new ZipfSampler(users, exponent, seed);
+        LocalDateTime now = LocalDateTime.now();
+        writeChunks("transaction", orders, (from, to, random) -> {
+            List<Object[]> rows = new ArrayList<>();
+            for (long i = from; i < to; i++) {
+                long userId = 1L + customers.sample(orderRandom(seed, i));
+                rows.add(new Object[]{i + 1, i + 1, userId,
+                        Timestamp.valueOf(now.minusMinutes(random.nextInt(2 * 365 * 24 * 60))),
+                        BigDecimal.valueOf(990 + random.nextInt(400_000)),
+                        PAYMENT_METHODS[random.nextInt(PAYMENT_METHODS.length)],
+                        status(random)});
+            }
+            jdbcTemplate.batchUpdate(INSERT_TRANSACTION, rows);
+        });
+        restartIdentity("transaction", "transaction_id", orders + 1);
+
+        log.info("Transacciones sintéticas generadas en {} ms", (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Misma derivación que SyntheticOrderGenerator en cart-order.
+     */
+    static SplittableRandom orderRandom(long seed, long index) {
+        return new SplittableRandom(seed ^ (index * 0xD1B54A32D192ED03L));
+    }
+
+    private static String status(SplittableRandom random) {
+        int roll = random.nextInt(100);
+        if (roll < 85) {
+            return "APPROVED";
+        } else if (roll < 92) {
+            return "REJECTED";
+        } else if (roll < 97) {
+            return "PENDING";
+        }
+        return "REFUNDED";
+    }
+
+    // Columnas IDENTITY (Hibernate 6) admiten RESTART; las creadas como serial usan su secuencia
+    private void restartIdentity(String table, String column, long next) {
+        try {
+            jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN " + column + " RESTART WITH " + next);
+        } catch (DataAccessException ex) {
+            jdbcTemplate.queryForObject("SELECT setval(pg_get_serial_sequence(?, ?), ?)", Long.class, table, column, next - 1);
+        }
+    }
+
+    /**
+     * Reparte [0, total) en bloques de {@code chunkSize} y escribe cada uno en su propia transacción,
+     * con hasta {@code threads} bloques en paralelo.
+     */
+    private void writeChunks(String table, long total, ChunkWriter writer) {
+        long start = System.nanoTime();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> pending = new ArrayList<>();
+            for (long from = 0, chunk = 0; from < total; from += chunkSize, chunk++) {
+                long chunkFrom = from;
+                long chunkTo = Math.min(from + chunkSize, total);
+                SplittableRandom random = new SplittableRandom(seed ^ (table.hashCode() * 0x9E3779B97F4A7C15L) ^ (chunk * 0xC2B2AE3D27D4EB4FL));
+                pending.add(executor.submit(() -> transactionTemplate.executeWithoutResult(
+                        status -> writer.write(chunkFrom, chunkTo, random))));
+            }
+            for (Future<?> future : pending) {
+                future.get();
+            }
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("Synthetic data generation failed for " + table, ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Synthetic data generation interrupted for " + table, ex);
+        } finally {
+            executor.shutdownNow();
+        }
+        log.info("Tabla {}: {} filas en {} ms", table, total, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @FunctionalInterface
+    private interface ChunkWriter {
+        void write(long from, long to, SplittableRandom random);
+    }
+}
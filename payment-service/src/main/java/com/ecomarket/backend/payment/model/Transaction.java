@@ -30,6 +30,9 @@ public class Transaction {
 
     private String paymentMethod;
 
+    @Column(unique = true)
+    private String idempotencyKey;
+
     @Enumerated(EnumType.STRING)
     private TransactionStatus transactionStatus;
 
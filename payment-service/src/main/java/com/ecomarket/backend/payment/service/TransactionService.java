@@ -9,6 +9,7 @@ import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
@@ -22,6 +23,17 @@ public class TransactionService {
 
     @Transactional
     public TransactionResponseDTO createTransaction(TransactionRequestDTO request) {
+        // Reintento de un pedido ya cobrado: el pedido anterior no llegó a confirmarse en cart-order,
+        // así que el cobro existente pasa al pedido que lo reintenta
+        if (request.getIdempotencyKey() != null) {
+            Optional<Transaction> existing = transactionRepository.findByIdempotencyKey(request.getIdempotencyKey());
+            if (existing.isPresent()) {
+                Transaction transaction = existing.get();
+                transaction.setOrderId(request.getOrderId());
+                return convertToDTO(transactionRepository.save(transaction));
+            }
+        }
+
         Transaction transaction = Transaction.builder()
                 .orderId(request.getOrderId())
                 .userId(request.getUserId())
@@ -29,6 +41,7 @@ public class TransactionService {
                 .amount(request.getAmount())
                 .currency(request.getCurrency())
                 .paymentMethod(request.getPaymentMethod())
+                .idempotencyKey(request.getIdempotencyKey())
                 .transactionStatus(Transaction.TransactionStatus.PENDING)
                 .build();
 